@@ -0,0 +1,78 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.WorkloadProfile;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PartnerAggregationService 의 기존 집계 메서드를 그대로 호출 (쿼리 + queryForList 매핑 + 저장 포함)
+// 데이터셋: rows x partners 조합마다 별도 H2 파일 DB, 기간은 uniform 프로파일 전체(30 일)
+// 1 op = 메서드 1 회 호출, -prof gc 의 gc.alloc.rate.norm 이 op 당 할당 바이트
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AggregationServiceBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"5", "500"})
+    private int partners;
+
+    private ConfigurableApplicationContext context;
+    private PartnerAggregationService partnerAggregationService;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String partnerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("aggregation-" + rows + "-" + partners);
+        WorkloadProfile profile = BenchmarkContext.profile()
+                .partnerCount(partners)
+                .build();
+        BenchmarkContext.seed(context, rows, profile);
+        partnerAggregationService = context.getBean(PartnerAggregationService.class);
+        startDate = profile.startTime();
+        endDate = startDate.plusDays(profile.getPeriodDays());
+        partnerId = partnerAggregationService.findPartnerIdsByDateRange(startDate, endDate).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // COUNT(*) FILTER, 전체 기간 partner_id 별 + 기존 행 삭제/저장
+    @Benchmark
+    public List<PartnerAggregation> aggregateByPartnerId() {
+        return partnerAggregationService.aggregateByPartnerId(startDate);
+    }
+
+    // COUNT(CASE WHEN), 파트너 1 개 x 기간
+    @Benchmark
+    public List<PartnerAggregation> aggregateByPartnerIdAndDateRange() {
+        return partnerAggregationService.aggregateByPartnerIdAndDateRange(partnerId, startDate, endDate);
+    }
+
+    // COUNT(CASE WHEN), 기간 내 전체 파트너
+    @Benchmark
+    public List<PartnerAggregation> aggregateByDateRange() {
+        return partnerAggregationService.aggregateByDateRange(startDate, endDate);
+    }
+
+    // 파트너 1 개 x 일 버킷 (__time 버킷 카운터 + 버킷별 COUNT(DISTINCT)) + 저장
+    @Benchmark
+    public void aggregateByPartnerAndPeriod() {
+        partnerAggregationService.aggregateByPartnerAndPeriod(partnerId, startDate, endDate, AggregationType.DAILY);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.service.WorkloadProfile;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 같은 집계(기간 내 partner_id 별)를 조건부 카운트 SQL 형태와 행 매핑 방식만 바꿔 비교
+// sqlForm: FILTER = COUNT(*) FILTER (WHERE ..), CASE_WHEN = COUNT(CASE WHEN .. THEN 1 END), SUM_CASE = SUM(CASE WHEN .. THEN 1 ELSE 0 END)
+// queryForList: 서비스와 같은 queryForList -> Map -> builder, rowMapper: ResultSet -> builder 직접
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AggregationSqlBenchmark {
+
+    // PartnerAggregation 카운트 컬럼 순서 그대로 (action, 컬럼명)
+    private static final String[][] ACTION_COLUMNS = {
+            {"pageView", "total_pv"},
+            {"chat", "total_chat_count"},
+            {"productClick", "total_product_click_count"},
+            {"productOrder", "total_product_order_count"},
+            {"productOrderCancel", "total_product_order_cancel_count"},
+            {"bannerClick", "total_banner_click_count"},
+            {"couponClick", "total_coupon_click_count"},
+            {"joinReward", "total_reward_new_count"},
+            {"rewardComplete", "total_reward_complete_count"},
+            {"purchaseVerifying", "total_purchase_verifying_count"},
+            {"joinQuiz", "total_quiz_new_count"},
+            {"shareClick", "total_share_click_count"}
+    };
+
+    public enum SqlForm {
+        FILTER("COUNT(*) FILTER (WHERE action = '%s')"),
+        CASE_WHEN("COUNT(CASE WHEN action = '%s' THEN 1 END)"),
+        SUM_CASE("SUM(CASE WHEN action = '%s' THEN 1 ELSE 0 END)");
+
+        private final String template;
+
+        SqlForm(String template) {
+            this.template = template;
+        }
+
+        String toSql() {
+            StringBuilder sql = new StringBuilder("SELECT partner_id, COUNT(DISTINCT member_id) AS total_uv, ")
+                    .append("COALESCE(SUM(playtime), 0) AS total_playtime, ")
+                    .append("COALESCE(SUM(like_count), 0) AS total_like_count, ")
+                    .append("COALESCE(SUM(product_order_amount), 0) AS total_product_order_amount, ")
+                    .append("COALESCE(SUM(product_order_quantity), 0) AS total_product_order_quantity");
+            for (String[] actionColumn : ACTION_COLUMNS) {
+                sql.append(", ").append(String.format(template, actionColumn[0])).append(" AS ").append(actionColumn[1]);
+            }
+            return sql.append(" FROM player_userlog WHERE __time >= ? AND __time < ? GROUP BY partner_id").toString();
+        }
+    }
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"5", "500"})
+    private int partners;
+
+    @Param({"FILTER", "CASE_WHEN", "SUM_CASE"})
+    private SqlForm sqlForm;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private String sql;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("aggregation-" + rows + "-" + partners);
+        WorkloadProfile profile = BenchmarkContext.profile()
+                .partnerCount(partners)
+                .build();
+        BenchmarkContext.seed(context, rows, profile);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        sql = sqlForm.toSql();
+        startDate = profile.startTime();
+        endDate = startDate.plusDays(profile.getPeriodDays());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PartnerAggregation> queryForList() {
+        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
+        List<PartnerAggregation> aggregations = new ArrayList<>(results.size());
+        for (Map<String, Object> row : results) {
+            aggregations.add(PartnerAggregation.builder()
+                    .partnerId((String) row.get("partner_id"))
+                    .totalUv(((Number) row.get("total_uv")).longValue())
+                    .totalPv(((Number) row.get("total_pv")).longValue())
+                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
+                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
+                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
+                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
+                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
+                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
+                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
+                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
+                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
+                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
+                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
+                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
+                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
+                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
+                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
+                    .aggregationDate(startDate)
+                    .build());
+        }
+        return aggregations;
+    }
+
+    @Benchmark
+    public List<PartnerAggregation> rowMapper() {
+        RowMapper<PartnerAggregation> rowMapper = (rs, rowNum) -> PartnerAggregation.builder()
+                .partnerId(rs.getString("partner_id"))
+                .totalUv(rs.getLong("total_uv"))
+                .totalPv(rs.getLong("total_pv"))
+                .totalPlaytime(rs.getLong("total_playtime"))
+                .totalChatCount(rs.getLong("total_chat_count"))
+                .totalLikeCount(rs.getLong("total_like_count"))
+                .totalProductClickCount(rs.getLong("total_product_click_count"))
+                .totalProductOrderCount(rs.getLong("total_product_order_count"))
+                .totalProductOrderAmount(rs.getLong("total_product_order_amount"))
+                .totalProductOrderQuantity(rs.getLong("total_product_order_quantity"))
+                .totalProductOrderCancelCount(rs.getLong("total_product_order_cancel_count"))
+                .totalBannerClickCount(rs.getLong("total_banner_click_count"))
+                .totalCouponClickCount(rs.getLong("total_coupon_click_count"))
+                .totalRewardNewCount(rs.getLong("total_reward_new_count"))
+                .totalRewardCompleteCount(rs.getLong("total_reward_complete_count"))
+                .totalPurchaseVerifyingCount(rs.getLong("total_purchase_verifying_count"))
+                .totalQuizNewCount(rs.getLong("total_quiz_new_count"))
+                .totalShareClickCount(rs.getLong("total_share_click_count"))
+                .aggregationDate(startDate)
+                .build();
+        return jdbcTemplate.query(sql, rowMapper, startDate, endDate);
+    }
+}
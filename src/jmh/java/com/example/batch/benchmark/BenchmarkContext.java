@@ -0,0 +1,82 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.BatchApplication;
+import com.example.batch.service.TestDataGeneratorService;
+import com.example.batch.service.WorkloadProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 벤치마크 포크마다 파일 기반 H2 로 애플리케이션 컨텍스트를 띄운다
+// 데이터는 seed, 시작일 고정 워크로드 프로파일로 한 번만 적재하고, 건수와 기간이 같으면 다음 실행에서 재사용한다
+@Slf4j
+public final class BenchmarkContext {
+    public static final long SEED = 42L;
+    // 실행한 날짜와 무관하게 같은 데이터/같은 조회 기간이 되도록 고정
+    public static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        Path databasePath = Path.of(System.getProperty("jmh.db.dir", "build/jmh-db")).toAbsolutePath().resolve(databaseName);
+        // 같은 쿼리 결과 재사용을 끄지 않으면 반복 호출이 캐시된 결과를 돌려준다
+        // application.yml 의 MySQL 설정보다 우선하도록 커맨드라인 인자로 넘긴다
+        return new SpringApplicationBuilder(BatchApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:file:" + databasePath + ";CACHE_SIZE=262144;OPTIMIZE_REUSE_RESULTS=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.batch.jdbc.initialize-schema=never",
+                        "--batch.data-initializer.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    // seed, 시작일을 고정한 uniform 프로파일 (분포를 바꾸려면 이어서 빌더로 지정)
+    public static WorkloadProfile.WorkloadProfileBuilder profile() {
+        return WorkloadProfile.uniform(SEED).toBuilder().startDate(START_DATE);
+    }
+
+    // player_userlog 가 rows 건이 아니거나 프로파일 기간 밖의 행이 있으면 다시 적재
+    public static void seed(ConfigurableApplicationContext context, int rows) {
+        seed(context, rows, profile().build());
+    }
+
+    // 건수와 기간만 비교하므로 분포가 다른 데이터셋은 databaseName 을 달리해 띄운다
+    public static void seed(ConfigurableApplicationContext context, int rows, WorkloadProfile profile) {
+        if (profile.getStartDate() == null) {
+            throw new IllegalArgumentException("벤치마크 데이터는 시작일을 고정해야 합니다 (BenchmarkContext.profile())");
+        }
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (matches(jdbcTemplate, rows, profile)) {
+            return;
+        }
+        log.warn("벤치마크 데이터 적재: {} 건 (seed={}, partners={})", rows, profile.getSeed(), profile.getPartnerCount());
+        context.getBean(TestDataGeneratorService.class).generateProfiledTestData(rows, profile);
+        jdbcTemplate.execute("CHECKPOINT");
+    }
+
+    private static boolean matches(JdbcTemplate jdbcTemplate, int rows, WorkloadProfile profile) {
+        LocalDateTime start = profile.startTime();
+        LocalDateTime end = start.plusDays(profile.getPeriodDays());
+        return Boolean.TRUE.equals(jdbcTemplate.query(
+                "SELECT COUNT(*), MIN(__time), MAX(__time) FROM player_userlog",
+                rs -> {
+                    rs.next();
+                    Timestamp min = rs.getTimestamp(2);
+                    Timestamp max = rs.getTimestamp(3);
+                    return rs.getLong(1) == rows && min != null
+                            && !min.toLocalDateTime().isBefore(start) && max.toLocalDateTime().isBefore(end);
+                }));
+    }
+}
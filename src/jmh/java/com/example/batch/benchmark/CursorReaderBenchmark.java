@@ -0,0 +1,84 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogJdbcItemReader;
+import com.example.batch.reader.PlayerUserLogRow;
+import com.example.batch.service.MemberDictionaryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// PlayerUserLogJdbcItemReader (JDBC cursor) fetchSize 별 비교
+// 1 op = player_userlog 전체(rows 건) 읽기, -prof gc 의 gc.alloc.rate.norm 이 op 당 할당 바이트
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class CursorReaderBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"100", "1000", "10000"})
+    private int fetchSize;
+
+    private ConfigurableApplicationContext context;
+    private PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader;
+
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("reader");
+        BenchmarkContext.seed(context, rows);
+        playerUserLogJdbcItemReader = context.getBean(PlayerUserLogJdbcItemReader.class);
+        // 경량 행 리더는 member_dictionary 를 조인하므로 측정 전에 회원을 등록해 둔다
+        context.getBean(MemberDictionaryService.class).registerMembers(MIN_TIME, MAX_TIME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long entity(Blackhole blackhole) throws Exception {
+        JdbcCursorItemReader<PlayerUserLog> reader = playerUserLogJdbcItemReader.createReader();
+        reader.setFetchSize(fetchSize);
+        return drain(reader, blackhole);
+    }
+
+    // 경량 행(PlayerUserLogRow): 기간 조건만 전체 범위로
+    @Benchmark
+    public long compactRow(Blackhole blackhole) throws Exception {
+        JdbcCursorItemReader<PlayerUserLogRow> reader = playerUserLogJdbcItemReader.createRowReader(
+                MIN_TIME, MAX_TIME, new CodeDictionary(), new CodeDictionary(), null);
+        reader.setFetchSize(fetchSize);
+        return drain(reader, blackhole);
+    }
+
+    private static <T> long drain(JdbcCursorItemReader<T> reader, Blackhole blackhole) throws Exception {
+        reader.afterPropertiesSet();
+        reader.open(new ExecutionContext());
+        long count = 0;
+        try {
+            T item;
+            while ((item = reader.read()) != null) {
+                blackhole.consume(item);
+                count++;
+            }
+        } finally {
+            reader.close();
+        }
+        return count;
+    }
+}
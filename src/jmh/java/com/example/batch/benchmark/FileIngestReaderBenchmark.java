@@ -0,0 +1,114 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.config.PlayerUserLogIngestJobConfig;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.partition.FileRangePartitioner;
+import com.example.batch.reader.MappedPlayerUserLogReader;
+import com.example.batch.reader.PlayerUserLogFileFormat;
+import com.example.batch.service.WorkloadProfile;
+import com.example.batch.service.WorkloadSampler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// 원본 로그 파일 읽기(파싱까지, DB 적재 제외): FlatFileItemReader vs MappedPlayerUserLogReader (1 스레드 / threads 개 바이트 구간)
+// 1 op = 파일 전체 읽기. MB/s = Setup 에서 출력하는 파일 크기 / op 시간, -prof gc 의 gc.alloc.rate.norm / rows 가 행당 할당 바이트
+// DB 적재까지 포함한 처리량은 playerUserLogIngestJob 의 잡 ExecutionContext (ingestMbPerSecond, ingestRowsPerSecond) 로 본다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class FileIngestReaderBenchmark {
+
+    @Param({"csv", "ndjson"})
+    private String format;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"4"})
+    private int threads;
+
+    private Path file;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("player_userlog-", "." + format);
+        PlayerUserLogFileFormat fileFormat = PlayerUserLogFileFormat.of(file);
+        WorkloadSampler sampler = new WorkloadSampler(WorkloadProfile.realistic(42), LocalDateTime.of(2024, 1, 1, 0, 0));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            fileFormat.writeHeader(writer);
+            for (int i = 0; i < rows; i++) {
+                fileFormat.write(writer, sampler.next());
+            }
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        System.out.printf("%n# %s: %d rows, %.1f MB%n", file, rows, Files.size(file) / (1024.0 * 1024.0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long flatFileItemReader() throws Exception {
+        FlatFileItemReader<PlayerUserLog> reader = PlayerUserLogIngestJobConfig.flatFileItemReader(file);
+        reader.open(new ExecutionContext());
+        long count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        reader.close();
+        return count;
+    }
+
+    @Benchmark
+    public long mappedReader() {
+        return readRange(new FileRangePartitioner(file, PlayerUserLogFileFormat.of(file).hasHeader())
+                .partition(1).get("partition0"));
+    }
+
+    @Benchmark
+    public long mappedReaderPartitioned() throws Exception {
+        List<Future<Long>> futures = new ArrayList<>();
+        for (ExecutionContext partition : new FileRangePartitioner(file, PlayerUserLogFileFormat.of(file).hasHeader())
+                .partition(threads).values()) {
+            futures.add(executor.submit(() -> readRange(partition)));
+        }
+        long count = 0;
+        for (Future<Long> future : futures) {
+            count += future.get();
+        }
+        return count;
+    }
+
+    private long readRange(ExecutionContext partition) {
+        MappedPlayerUserLogReader reader = new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.of(file),
+                partition.getLong(FileRangePartitioner.START_OFFSET_KEY), partition.getLong(FileRangePartitioner.END_OFFSET_KEY));
+        reader.open(new ExecutionContext());
+        long count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        reader.close();
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.aggregation.StringIntDictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// member_id 사전: HashMap<String, Integer> vs StringIntDictionary (open addressing + UTF-8 arena)
+// build: 빈 사전에 entries 개 등록 (1 op), -prof gc 의 gc.alloc.rate.norm / entries 가 리사이즈 포함 항목당 할당 바이트
+// lookup: 등록된 member_id 를 모두 조회 (1 op = entries 건)
+// 항목당 유지 메모리는 Setup 에서 GC 후 힙 사용량 차이로 재서 출력한다 (키 String 도 사전이 들고 있는 것으로 센다)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class IdDictionaryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int entries;
+
+    private String[] memberIds;
+    private Map<String, Integer> hashMap;
+    private StringIntDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeapAfterGc();
+        hashMap = buildHashMap(entries);
+        long afterHashMap = usedHeapAfterGc();
+        dictionary = buildDictionary(entries);
+        long afterDictionary = usedHeapAfterGc();
+
+        System.out.printf("%n# entries=%d, 항목당 유지 메모리: HashMap<String,Integer> %.1f bytes, StringIntDictionary %.1f bytes (배열 합계 %.1f bytes)%n",
+                entries,
+                (afterHashMap - before) / (double) entries,
+                (afterDictionary - afterHashMap) / (double) entries,
+                dictionary.memoryBytes() / (double) entries);
+
+        // 조회 키는 JDBC 에서 읽은 값처럼 사전과 다른 String 인스턴스
+        memberIds = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            memberIds[i] = memberId(i);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> buildHashMap() {
+        return buildHashMap(entries);
+    }
+
+    @Benchmark
+    public StringIntDictionary buildDictionary() {
+        return buildDictionary(entries);
+    }
+
+    @Benchmark
+    public long lookupHashMap() {
+        long sum = 0;
+        for (String memberId : memberIds) {
+            sum += hashMap.get(memberId);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long lookupDictionary() {
+        long sum = 0;
+        for (String memberId : memberIds) {
+            sum += dictionary.find(memberId);
+        }
+        return sum;
+    }
+
+    // CodeDictionary 와 같은 방식 (값 -> 등록 순번)
+    private static Map<String, Integer> buildHashMap(int entries) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            map.putIfAbsent(memberId(i), map.size());
+        }
+        return map;
+    }
+
+    private static StringIntDictionary buildDictionary(int entries) {
+        StringIntDictionary dictionary = new StringIntDictionary();
+        for (int i = 0; i < entries; i++) {
+            dictionary.encode(memberId(i));
+        }
+        return dictionary;
+    }
+
+    // TestDataGeneratorService 의 member_%08d 형식
+    private static String memberId(int i) {
+        return String.format("member_%08d", i);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+}
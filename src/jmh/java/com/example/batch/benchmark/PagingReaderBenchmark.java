@@ -0,0 +1,79 @@
+package com.example.batch.benchmark;
+
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogItemReader;
+import com.example.batch.repository.PlayerUserLogRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+// JPA 페이징 리더 pageSize 별 비교: PlayerUserLogItemReader(keyset) vs OFFSET 페이징
+// 1 op = player_userlog 전체(rows 건) 읽기, -prof gc 의 gc.alloc.rate.norm 이 op 당 할당 바이트
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class PagingReaderBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PlayerUserLogItemReader playerUserLogItemReader;
+    private PlayerUserLogRepository playerUserLogRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("reader");
+        BenchmarkContext.seed(context, rows);
+        playerUserLogRepository = context.getBean(PlayerUserLogRepository.class);
+        // 잡이 쓰는 싱글톤 리더 대신 pageSize 별 리더를 따로 만든다
+        playerUserLogItemReader = new PlayerUserLogItemReader(playerUserLogRepository, pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // WHERE id > lastId ORDER BY id LIMIT pageSize
+    @Benchmark
+    public long jpaKeyset(Blackhole blackhole) throws Exception {
+        playerUserLogItemReader.open(new ExecutionContext());
+        long count = 0;
+        PlayerUserLog item;
+        while ((item = playerUserLogItemReader.read()) != null) {
+            blackhole.consume(item);
+            count++;
+        }
+        playerUserLogItemReader.close();
+        return count;
+    }
+
+    // 페이지마다 COUNT(*) 와 OFFSET 만큼 앞 행 건너뛰기
+    @Benchmark
+    public long jpaOffset(Blackhole blackhole) {
+        long count = 0;
+        Page<PlayerUserLog> page;
+        int pageNumber = 0;
+        do {
+            page = playerUserLogRepository.findAll(PageRequest.of(pageNumber++, pageSize, Sort.by("id")));
+            for (PlayerUserLog item : page) {
+                blackhole.consume(item);
+                count++;
+            }
+        } while (page.hasNext());
+        return count;
+    }
+}
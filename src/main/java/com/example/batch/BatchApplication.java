@@ -6,6 +6,7 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @SpringBootApplication
@@ -14,7 +15,9 @@ public class BatchApplication {
         SpringApplication.run(BatchApplication.class, args);
     }
 
+    // 기동 시 기존 로그를 지우고 1만 건을 넣는다 (미리 적재한 DB 로 띄우는 벤치마크는 batch.data-initializer.enabled=false)
     @Component
+    @ConditionalOnProperty(name = "batch.data-initializer.enabled", havingValue = "true", matchIfMissing = true)
     @RequiredArgsConstructor
     public static class Datainitializer implements ApplicationRunner {
         private final TestDataGeneratorService testDataGeneratorService;
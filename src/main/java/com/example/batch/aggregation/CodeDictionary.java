@@ -0,0 +1,38 @@
+package com.example.batch.aggregation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 카디널리티가 작은 문자열 코드(partner_id, 방송 상태/유형 코드) -> 0 부터 연속된 int id
+// 같은 문자열은 사전에 한 번만 보관하므로 행마다 String 을 들고 있지 않아도 되고, id 를 배열 인덱스로 쓸 수 있다
+// 스레드 안전하지 않음: 리더(집계) 하나당 하나씩 만든다
+public class CodeDictionary {
+
+    public static final int NULL_ID = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    public String decode(int id) {
+        return id == NULL_ID ? null : values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.batch.aggregation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongConsumer;
+
+// 그룹(파트너 코드)별 distinct 회원 수를 정해진 힙 예산 안에서 정확히 센다 (한 달치 회원 집합을 힙에 두지 않는다)
+// (그룹 << 32 | 회원 코드) long 을 버퍼에 모으고, 버퍼가 차면 정렬 + 중복 제거 후 그래도 절반 넘게 차 있으면
+// 정렬된 run 으로 임시 파일에 내린다
+// counts() 는 run 들과 남은 버퍼를 k-way 병합하면서 값이 바뀔 때마다 그 그룹의 카운트를 올린다 (같은 값은 병합 순서상 이웃)
+// run 이 maxFanIn 개를 넘으면 앞의 maxFanIn 개씩 먼저 한 run 으로 병합한다 (열린 파일 수와 커서 메모리가 run 수에 비례하지 않도록)
+// run 은 파일 전체를 매핑하지 않고 windowBytes 크기 창으로 읽고 쓴다 (2GB 넘는 run, 32 비트 주소 공간에서도 동작)
+// 힙 사용량 = 버퍼(최대 memoryBudgetBytes, 늘리는 동안 잠깐 1.5 배) + 병합 중 창 (maxFanIn + 1) 개. run 파일은 close() 에서 지운다. 스레드 안전하지 않음
+@Slf4j
+public class ExternalDistinctCounter implements Closeable {
+
+    private static final int INITIAL_BUFFER_LENGTH = 1 << 16;
+    private static final int DEFAULT_MAX_FAN_IN = 64;
+    private static final int MIN_WINDOW_BYTES = 4 * 1024;
+    private static final int MAX_WINDOW_BYTES = 1024 * 1024;
+
+    private final int maxBufferLength;
+    private final Path spillDirectory;
+    private final int maxFanIn;
+    private final int windowBytes;
+    private final List<Path> runs = new ArrayList<>();
+    private long[] buffer;
+    private int length;
+    private long spilledValues;
+    private int mergePasses;
+
+    public ExternalDistinctCounter(long memoryBudgetBytes, Path spillDirectory) {
+        this(memoryBudgetBytes, spillDirectory, DEFAULT_MAX_FAN_IN);
+    }
+
+    ExternalDistinctCounter(long memoryBudgetBytes, Path spillDirectory, int maxFanIn) {
+        if (memoryBudgetBytes < Long.BYTES * 2L) {
+            throw new IllegalArgumentException("memoryBudgetBytes 가 너무 작습니다: " + memoryBudgetBytes);
+        }
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("maxFanIn 은 2 이상이어야 합니다: " + maxFanIn);
+        }
+        this.maxBufferLength = (int) Math.min(Integer.MAX_VALUE - 8, memoryBudgetBytes / Long.BYTES);
+        this.spillDirectory = spillDirectory;
+        this.maxFanIn = maxFanIn;
+        // 창 크기는 long 단위로 맞춘다 (창 경계에서 값이 잘리지 않도록)
+        long window = Math.max(MIN_WINDOW_BYTES, Math.min(MAX_WINDOW_BYTES, memoryBudgetBytes / maxFanIn));
+        this.windowBytes = (int) (window / Long.BYTES * Long.BYTES);
+        this.buffer = new long[Math.min(maxBufferLength, INITIAL_BUFFER_LENGTH)];
+    }
+
+    public void add(int group, int member) {
+        if (member < 0) {
+            throw new IllegalArgumentException("회원 코드는 음수일 수 없습니다: " + member);
+        }
+        if (length == buffer.length) {
+            makeRoom();
+        }
+        buffer[length++] = ((long) group << 32) | member;
+    }
+
+    // 그룹 -> distinct 회원 수 (값이 하나도 없는 그룹은 없음)
+    public Map<Integer, Long> counts() {
+        length = sortUnique(buffer, length);
+        while (runs.size() > maxFanIn) {
+            mergeRuns(new ArrayList<>(runs.subList(0, maxFanIn)));
+        }
+
+        List<Cursor> cursors = new ArrayList<>(runs.size() + 1);
+        cursors.add(new ArrayCursor(buffer, length));
+        Map<Integer, Long> counts = new HashMap<>();
+        try {
+            for (Path run : runs) {
+                cursors.add(new RunReader(run, windowBytes));
+            }
+            GroupCounter counter = new GroupCounter(counts);
+            merge(cursors, counter);
+            counter.finish();
+        } finally {
+            closeAll(cursors);
+        }
+        return counts;
+    }
+
+    public int getSpilledRuns() {
+        return runs.size();
+    }
+
+    public long getSpilledValues() {
+        return spilledValues;
+    }
+
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    @Override
+    public void close() {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                log.warn("distinct run 파일 삭제 실패: {}", run, e);
+            }
+        }
+        runs.clear();
+        buffer = new long[0];
+        length = 0;
+    }
+
+    // 중복을 먼저 걷어내고, 절반 넘게 남으면 예산 안에서 버퍼를 늘리거나 run 으로 내린다
+    private void makeRoom() {
+        length = sortUnique(buffer, length);
+        if (length <= buffer.length / 2) {
+            return;
+        }
+        if (buffer.length < maxBufferLength) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(maxBufferLength, buffer.length * 2L));
+            return;
+        }
+        spill();
+    }
+
+    private void spill() {
+        Path run = newRun();
+        try (RunWriter writer = new RunWriter(run, windowBytes)) {
+            for (int i = 0; i < length; i++) {
+                writer.accept(buffer[i]);
+            }
+        }
+        spilledValues += length;
+        log.debug("distinct run 스필: {} 번째, {} 개", runs.size(), length);
+        length = 0;
+    }
+
+    // batch 의 run 들을 중복 없이 한 run 으로 합치고 원래 run 은 지운다
+    private void mergeRuns(List<Path> batch) {
+        Path merged = newRun();
+        List<Cursor> cursors = new ArrayList<>(batch.size());
+        try (RunWriter writer = new RunWriter(merged, windowBytes)) {
+            for (Path run : batch) {
+                cursors.add(new RunReader(run, windowBytes));
+            }
+            merge(cursors, writer);
+        } finally {
+            closeAll(cursors);
+        }
+        for (Path run : batch) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                log.warn("distinct run 파일 삭제 실패: {}", run, e);
+            }
+        }
+        runs.removeAll(batch);
+        mergePasses++;
+        log.debug("distinct run 병합: {} 개 -> 1 개 (남은 run {} 개)", batch.size(), runs.size());
+    }
+
+    // 정렬된 커서들을 k-way 병합하며 서로 다른 값을 한 번씩 넘긴다
+    private static void merge(List<Cursor> cursors, LongConsumer distinctValues) {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(cursors.size(), (a, b) -> Long.compare(a.current, b.current));
+        for (Cursor cursor : cursors) {
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        boolean first = true;
+        long previous = 0;
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            long value = cursor.current;
+            if (first || value != previous) {
+                distinctValues.accept(value);
+                previous = value;
+                first = false;
+            }
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+    }
+
+    private Path newRun() {
+        try {
+            Files.createDirectories(spillDirectory);
+            Path run = Files.createTempFile(spillDirectory, "distinct-", ".run");
+            runs.add(run); // 쓰다 실패해도 close() 에서 지우도록 먼저 등록
+            return run;
+        } catch (IOException e) {
+            throw new UncheckedIOException("distinct run 을 디스크에 쓸 수 없습니다: " + spillDirectory, e);
+        }
+    }
+
+    private static void closeAll(List<Cursor> cursors) {
+        for (Cursor cursor : cursors) {
+            cursor.close();
+        }
+    }
+
+    static int sortUnique(long[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int unique = 0;
+        for (int i = 0; i < length; i++) {
+            if (unique == 0 || values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    // 정렬된 값 (그룹이 바뀌면 앞 그룹의 카운트를 확정)
+    private static final class GroupCounter implements LongConsumer {
+        private final Map<Integer, Long> counts;
+        private boolean first = true;
+        private int group;
+        private long count;
+
+        private GroupCounter(Map<Integer, Long> counts) {
+            this.counts = counts;
+        }
+
+        @Override
+        public void accept(long value) {
+            int valueGroup = (int) (value >> 32);
+            if (!first && valueGroup != group) {
+                counts.put(group, count);
+                count = 0;
+            }
+            group = valueGroup;
+            count++;
+            first = false;
+        }
+
+        private void finish() {
+            if (!first) {
+                counts.put(group, count);
+            }
+        }
+    }
+
+    private abstract static class Cursor {
+        protected long current;
+
+        protected abstract boolean advance();
+
+        protected void close() {
+        }
+    }
+
+    private static final class ArrayCursor extends Cursor {
+        private final long[] values;
+        private final int length;
+        private int position;
+
+        private ArrayCursor(long[] values, int length) {
+            this.values = values;
+            this.length = length;
+        }
+
+        @Override
+        protected boolean advance() {
+            if (position == length) {
+                return false;
+            }
+            current = values[position++];
+            return true;
+        }
+    }
+
+    // run 파일을 창 크기씩 순서대로 읽는다
+    private static final class RunReader extends Cursor {
+        private final Path run;
+        private final FileChannel channel;
+        private final ByteBuffer window;
+
+        private RunReader(Path run, int windowBytes) {
+            this.run = run;
+            try {
+                this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException("distinct run 을 읽을 수 없습니다: " + run, e);
+            }
+            this.window = ByteBuffer.allocate(windowBytes);
+            this.window.flip();
+        }
+
+        @Override
+        protected boolean advance() {
+            if (!window.hasRemaining()) {
+                window.clear();
+                try {
+                    while (window.hasRemaining() && channel.read(window) >= 0) {
+                        // 창이 차거나 파일 끝까지
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("distinct run 을 읽을 수 없습니다: " + run, e);
+                }
+                window.flip();
+                if (!window.hasRemaining()) {
+                    return false;
+                }
+            }
+            current = window.getLong();
+            return true;
+        }
+
+        @Override
+        protected void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("distinct run 파일 닫기 실패: {}", run, e);
+            }
+        }
+    }
+
+    // run 파일에 창 크기씩 모아서 쓴다
+    private static final class RunWriter implements LongConsumer, Closeable {
+        private final Path run;
+        private final FileChannel channel;
+        private final ByteBuffer window;
+
+        private RunWriter(Path run, int windowBytes) {
+            this.run = run;
+            try {
+                this.channel = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("distinct run 을 디스크에 쓸 수 없습니다: " + run, e);
+            }
+            this.window = ByteBuffer.allocate(windowBytes);
+        }
+
+        @Override
+        public void accept(long value) {
+            if (!window.hasRemaining()) {
+                flush();
+            }
+            window.putLong(value);
+        }
+
+        private void flush() {
+            window.flip();
+            try {
+                while (window.hasRemaining()) {
+                    channel.write(window);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("distinct run 을 디스크에 쓸 수 없습니다: " + run, e);
+            }
+            window.clear();
+        }
+
+        @Override
+        public void close() {
+            try {
+                flush();
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("distinct run 파일 닫기 실패: {}", run, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.batch.aggregation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// HyperLogLog 기반 근사 distinct count
+// - 레지스터 2^precision 개, 표준 오차 ≈ 1.04 / sqrt(2^precision)
+// - merge 는 레지스터별 max 라서 시간 버킷/파트너 간 합집합 UV 를 원본 로그 없이 계산할 수 있다
+// - toBytes()/fromBytes() 로 partner_aggregation.uv_sketch 에 저장
+// - 회원이 적은 버킷(분 단위 등)은 0 이 아닌 레지스터만 정렬 배열로 들고 있다가(sparse) m/4 개를 넘으면 dense 로 전환
+//   new HyperLogLog(p) 는 항상 sparse 로 시작하므로 스케치 하나의 힙은 회원 수에 비례하고 dense 크기(2^p 바이트, p14 = 16KB)를 넘지 않는다
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+    private static final byte DENSE_FORMAT = 1;
+    private static final byte SPARSE_FORMAT = 2;
+
+    private final int precision;
+    private byte[] registers; // dense 모드 (sparse 모드에서는 null)
+    private int[] sparse;     // sparse 모드: (index << 8 | rank) 를 index 순으로 정렬
+    private int sparseSize;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.sparse = new int[8];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    // 허용 상대 오차(표준 오차)를 만족하는 최소 precision
+    public static int precisionFor(double relativeError) {
+        if (relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("relativeError must be in (0, 1): " + relativeError);
+        }
+        double m = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(m) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    public static double standardError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public void add(String value) {
+        if (value != null) {
+            addHash(hash64(value));
+        }
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // 남은 비트에서 첫 1 의 위치 (모두 0 이면 64 - precision + 1)
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        setRegister(index, (byte) (Long.numberOfLeadingZeros(remaining) + 1));
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision mismatch: " + precision + " vs " + other.precision);
+        }
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                setRegister(other.sparse[i] >>> 8, (byte) other.sparse[i]);
+            }
+            return this;
+        }
+        toDense();
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        int m = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+        int next = 0;
+        // sparse/dense 모두 같은 순서로 합산해 같은 레지스터면 같은 추정치가 나오도록 한다
+        for (int i = 0; i < m; i++) {
+            byte register = 0;
+            if (registers != null) {
+                register = registers[i];
+            } else if (next < sparseSize && (sparse[next] >>> 8) == i) {
+                register = (byte) sparse[next++];
+            }
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // 작은 카디널리티는 linear counting 으로 보정
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    // 레지스터 배열의 힙 크기 (sparse 는 항목당 4 바이트, dense 는 2^precision 바이트)
+    public long memoryBytes() {
+        return registers != null ? registers.length : (long) sparse.length * Integer.BYTES;
+    }
+
+    // 0 이 아닌 레지스터가 적으면 sparse 형식 (레지스터 값이 같으면 모드와 무관하게 같은 바이트)
+    public byte[] toBytes() {
+        int m = 1 << precision;
+        int nonZero = registers == null ? sparseSize : countNonZero();
+        if (6 + 4 * nonZero < 2 + m) {
+            ByteBuffer buffer = ByteBuffer.allocate(6 + 4 * nonZero);
+            buffer.put(SPARSE_FORMAT);
+            buffer.put((byte) precision);
+            buffer.putInt(nonZero);
+            if (registers == null) {
+                for (int i = 0; i < sparseSize; i++) {
+                    buffer.putInt(sparse[i]);
+                }
+            } else {
+                for (int i = 0; i < m; i++) {
+                    if (registers[i] != 0) {
+                        buffer.putInt(i << 8 | registers[i]);
+                    }
+                }
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + m);
+        buffer.put(DENSE_FORMAT);
+        buffer.put((byte) precision);
+        if (registers != null) {
+            buffer.put(registers);
+        } else {
+            byte[] dense = new byte[m];
+            for (int i = 0; i < sparseSize; i++) {
+                dense[sparse[i] >>> 8] = (byte) sparse[i];
+            }
+            buffer.put(dense);
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2 || (bytes[0] != DENSE_FORMAT && bytes[0] != SPARSE_FORMAT)) {
+            throw new IllegalArgumentException("invalid HyperLogLog sketch");
+        }
+        int precision = bytes[1];
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("invalid HyperLogLog precision: " + precision);
+        }
+        if (bytes[0] == DENSE_FORMAT) {
+            if (bytes.length != 2 + (1 << precision)) {
+                throw new IllegalArgumentException("invalid HyperLogLog sketch length: " + bytes.length);
+            }
+            return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 2, bytes.length));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        int size = buffer.getInt();
+        if (bytes.length != 6 + 4 * size) {
+            throw new IllegalArgumentException("invalid HyperLogLog sketch length: " + bytes.length);
+        }
+        HyperLogLog hll = new HyperLogLog(precision);
+        hll.sparse = new int[Math.max(8, size)];
+        for (int i = 0; i < size; i++) {
+            hll.sparse[i] = buffer.getInt();
+        }
+        hll.sparseSize = size;
+        if (size > (1 << precision) / 4) {
+            hll.toDense();
+        }
+        return hll;
+    }
+
+    private void setRegister(int index, byte rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = rank;
+            }
+            return;
+        }
+        // rank 는 최대 64 - precision + 1 이라 (index << 8 | 0xff) 와 같은 값은 없다
+        int position = Arrays.binarySearch(sparse, 0, sparseSize, index << 8 | 0xff);
+        int insertAt = -position - 1;
+        if (insertAt > 0 && (sparse[insertAt - 1] >>> 8) == index) {
+            if (rank > (byte) sparse[insertAt - 1]) {
+                sparse[insertAt - 1] = index << 8 | rank;
+            }
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparseSize * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << 8 | rank;
+        sparseSize++;
+        if (sparseSize > (1 << precision) / 4) {
+            toDense();
+        }
+    }
+
+    private void toDense() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[1 << precision];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) sparse[i];
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private int countNonZero() {
+        int count = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // FNV-1a 64 + murmur3 fmix64: String.hashCode(32bit) 는 1억 단위에서 충돌이 많아 사용하지 않는다
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return fmix64(hash);
+    }
+
+    public static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.batch.aggregation;
+
+import com.example.batch.entity.PartnerAggregation;
+
+// 합산 가능한 PartnerAggregation 카운터 (UV 제외) 의 덧셈
+// 증분 병합, 버킷 롤업처럼 부분 결과를 더하는 곳에서 같은 항목 목록을 쓰도록 한 곳에 둔다
+public final class PartnerAggregationCounters {
+
+    private PartnerAggregationCounters() {
+    }
+
+    public static void add(PartnerAggregation target, PartnerAggregation source) {
+        target.setTotalPv(target.getTotalPv() + source.getTotalPv());
+        target.setTotalPlaytime(target.getTotalPlaytime() + source.getTotalPlaytime());
+        target.setTotalChatCount(target.getTotalChatCount() + source.getTotalChatCount());
+        target.setTotalLikeCount(target.getTotalLikeCount() + source.getTotalLikeCount());
+        target.setTotalProductClickCount(target.getTotalProductClickCount() + source.getTotalProductClickCount());
+        target.setTotalProductOrderCount(target.getTotalProductOrderCount() + source.getTotalProductOrderCount());
+        target.setTotalProductOrderAmount(target.getTotalProductOrderAmount() + source.getTotalProductOrderAmount());
+        target.setTotalProductOrderQuantity(target.getTotalProductOrderQuantity() + source.getTotalProductOrderQuantity());
+        target.setTotalProductOrderCancelCount(target.getTotalProductOrderCancelCount() + source.getTotalProductOrderCancelCount());
+        target.setTotalBannerClickCount(target.getTotalBannerClickCount() + source.getTotalBannerClickCount());
+        target.setTotalCouponClickCount(target.getTotalCouponClickCount() + source.getTotalCouponClickCount());
+        target.setTotalRewardNewCount(target.getTotalRewardNewCount() + source.getTotalRewardNewCount());
+        target.setTotalRewardCompleteCount(target.getTotalRewardCompleteCount() + source.getTotalRewardCompleteCount());
+        target.setTotalPurchaseVerifyingCount(target.getTotalPurchaseVerifyingCount() + source.getTotalPurchaseVerifyingCount());
+        target.setTotalQuizNewCount(target.getTotalQuizNewCount() + source.getTotalQuizNewCount());
+        target.setTotalShareClickCount(target.getTotalShareClickCount() + source.getTotalShareClickCount());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.batch.aggregation;
+
+import com.example.batch.entity.PartnerAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDateTime;
+import java.util.function.IntToLongFunction;
+
+// 파트너 하나의 스트리밍 집계 상태
+// 액션별 카운트는 PlayerAction.ordinal() 인덱스, 그 뒤에 합계 슬롯을 둔 long[] 하나로 관리한다
+// UV 는 정확(회원 코드 비트맵), 근사(HyperLogLog), 외부 계산(ExternalDistinctCounter, totalUv 는 호출한 쪽이 채움) 중 하나, 회원은 member_dictionary ordinal 로 받는다
+// 근사 UV 는 SQL 엔진 스케치와 병합할 수 있도록 member_id 문자열 해시(HyperLogLog.hash64)를 memberHashes 로 받아 쓴다
+public class PartnerMetricsAccumulator {
+
+    public static final int PLAYTIME = PlayerAction.count();
+    public static final int LIKE_COUNT = PLAYTIME + 1;
+    public static final int PRODUCT_ORDER_AMOUNT = PLAYTIME + 2;
+    public static final int PRODUCT_ORDER_QUANTITY = PLAYTIME + 3;
+    public static final int SLOT_COUNT = PLAYTIME + 4;
+
+    private final String partnerId;
+    private final long[] slots = new long[SLOT_COUNT];
+    private final RoaringBitmap members;
+    private final HyperLogLog sketch;
+    private final IntToLongFunction memberHashes;
+
+    private PartnerMetricsAccumulator(String partnerId, RoaringBitmap members, HyperLogLog sketch, IntToLongFunction memberHashes) {
+        this.partnerId = partnerId;
+        this.members = members;
+        this.sketch = sketch;
+        this.memberHashes = memberHashes;
+    }
+
+    public static PartnerMetricsAccumulator exact(String partnerId) {
+        return new PartnerMetricsAccumulator(partnerId, new RoaringBitmap(), null, null);
+    }
+
+    // 회원 집합을 힙에 두지 않는다: toPartnerAggregation 의 totalUv 는 null
+    public static PartnerMetricsAccumulator withoutUv(String partnerId) {
+        return new PartnerMetricsAccumulator(partnerId, null, null, null);
+    }
+
+    // memberHashes: 회원 코드 -> HyperLogLog.hash64(member_id)
+    public static PartnerMetricsAccumulator approximate(String partnerId, int precision, IntToLongFunction memberHashes) {
+        return new PartnerMetricsAccumulator(partnerId, null, new HyperLogLog(precision), memberHashes);
+    }
+
+    // actionOrdinal 이 음수면 액션 카운트는 건너뛴다 (알 수 없는 액션), memberCode 가 음수면 회원 없음
+    public void add(int actionOrdinal, int memberCode, long playtime, long likeCount,
+                    long productOrderAmount, long productOrderQuantity) {
+        if (actionOrdinal >= 0) {
+            slots[actionOrdinal]++;
+        }
+        slots[PLAYTIME] += playtime;
+        slots[LIKE_COUNT] += likeCount;
+        slots[PRODUCT_ORDER_AMOUNT] += productOrderAmount;
+        slots[PRODUCT_ORDER_QUANTITY] += productOrderQuantity;
+        if (memberCode >= 0) {
+            addMember(memberCode);
+        }
+    }
+
+    // UV 에만 반영한다 (행은 이미 add 로 접었고 회원 코드만 나중에 정해진 경우)
+    public void addMember(int memberCode) {
+        if (members != null) {
+            members.add(memberCode);
+        } else if (sketch != null) {
+            sketch.addHash(memberHashes.applyAsLong(memberCode));
+        }
+    }
+
+    public long get(int slot) {
+        return slots[slot];
+    }
+
+    public long get(PlayerAction action) {
+        return slots[action.ordinal()];
+    }
+
+    // 정확 UV 누산기의 회원 코드 비트맵 (다른 누산기는 null)
+    public RoaringBitmap getMembers() {
+        return members;
+    }
+
+    public Long uv() {
+        if (members != null) {
+            return members.getLongCardinality();
+        }
+        return sketch != null ? sketch.estimate() : null;
+    }
+
+    public PartnerAggregation toPartnerAggregation(LocalDateTime aggregationDate) {
+        return PartnerAggregation.builder()
+                .partnerId(partnerId)
+                .totalUv(uv())
+                .totalPv(get(PlayerAction.PAGE_VIEW))
+                .totalPlaytime(slots[PLAYTIME])
+                .totalChatCount(get(PlayerAction.CHAT))
+                .totalLikeCount(slots[LIKE_COUNT])
+                .totalProductClickCount(get(PlayerAction.PRODUCT_CLICK))
+                .totalProductOrderCount(get(PlayerAction.PRODUCT_ORDER))
+                .totalProductOrderAmount(slots[PRODUCT_ORDER_AMOUNT])
+                .totalProductOrderQuantity(slots[PRODUCT_ORDER_QUANTITY])
+                .totalProductOrderCancelCount(get(PlayerAction.PRODUCT_ORDER_CANCEL))
+                .totalBannerClickCount(get(PlayerAction.BANNER_CLICK))
+                .totalCouponClickCount(get(PlayerAction.COUPON_CLICK))
+                .totalRewardNewCount(get(PlayerAction.JOIN_REWARD))
+                .totalRewardCompleteCount(get(PlayerAction.REWARD_COMPLETE))
+                .totalPurchaseVerifyingCount(get(PlayerAction.PURCHASE_VERIFYING))
+                .totalQuizNewCount(get(PlayerAction.JOIN_QUIZ))
+                .totalShareClickCount(get(PlayerAction.SHARE_CLICK))
+                .uvSketch(sketch != null ? sketch.toBytes() : null)
+                .aggregationDate(aggregationDate)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.batch.aggregation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// player_userlog.action 코드 -> ordinal
+// 집계 누산기(long[]) 의 인덱스로 사용하므로 순서를 바꾸면 안 된다 (추가는 맨 뒤에)
+public enum PlayerAction {
+    PAGE_VIEW("pageView"),
+    CHAT("chat"),
+    PRODUCT_CLICK("productClick"),
+    PRODUCT_ORDER("productOrder"),
+    PRODUCT_ORDER_CANCEL("productOrderCancel"),
+    BANNER_CLICK("bannerClick"),
+    COUPON_CLICK("couponClick"),
+    JOIN_REWARD("joinReward"),
+    REWARD_COMPLETE("rewardComplete"),
+    PURCHASE_VERIFYING("purchaseVerifying"),
+    JOIN_QUIZ("joinQuiz"),
+    SHARE_CLICK("shareClick");
+
+    private static final PlayerAction[] VALUES = values();
+    private static final Map<String, PlayerAction> BY_CODE = new HashMap<>();
+
+    static {
+        for (PlayerAction action : VALUES) {
+            BY_CODE.put(action.code, action);
+        }
+    }
+
+    private final String code;
+
+    PlayerAction(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    // 알 수 없는 코드는 null (어떤 액션 카운터에도 더하지 않음)
+    public static PlayerAction fromCode(String code) {
+        return code != null ? BY_CODE.get(code) : null;
+    }
+
+    public static PlayerAction fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+}
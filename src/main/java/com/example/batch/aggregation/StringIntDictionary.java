@@ -0,0 +1,144 @@
+package com.example.batch.aggregation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// 카디널리티가 큰 문자열 ID(member_id 등) -> 0 부터 연속된 int 코드
+// HashMap<String, Integer> 대신 open addressing(선형 탐사) int[] 테이블 + UTF-8 바이트 arena 하나에 보관한다
+// 항목마다 String/Integer/Node 객체가 없어서 항목당 메모리 = 바이트 길이 + int 3~4 개 정도 (IdDictionaryBenchmark 참고)
+// 코드는 처음 본 순서대로 부여하고 지우지 않는다. 스레드 안전하지 않음 (MemberDictionaryService 캐시는 동기화해서 쓴다)
+public class StringIntDictionary {
+
+    public static final int NULL_ID = CodeDictionary.NULL_ID;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] table = new int[INITIAL_CAPACITY]; // 코드 + 1 (0 은 빈 슬롯)
+    private int[] hashes = new int[INITIAL_CAPACITY / 2]; // 코드별 해시: 리사이즈 때 문자열을 다시 읽지 않는다
+    private int[] offsets = new int[INITIAL_CAPACITY / 2 + 1]; // 코드별 arena 시작 위치, offsets[size] 는 arena 끝
+    private byte[] arena = new byte[INITIAL_CAPACITY * 8];
+    private int size;
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        int hash = hash(value);
+        int slot = findSlot(value, hash);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+        int code = append(value.getBytes(StandardCharsets.UTF_8), hash);
+        table[slot] = code + 1;
+        // 적재율 3/4 초과 시 테이블 2 배
+        if (size > table.length - (table.length >>> 2)) {
+            rehash(table.length << 1);
+        }
+        return code;
+    }
+
+    // 없는 값이면 NULL_ID
+    public int find(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        return table[findSlot(value, hash(value))] - 1;
+    }
+
+    public String decode(int code) {
+        if (code == NULL_ID) {
+            return null;
+        }
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("사전에 없는 코드입니다: " + code);
+        }
+        return new String(arena, offsets[code], offsets[code + 1] - offsets[code], StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 배열 크기 합계 (객체 헤더 제외), 항목당 메모리 비교용
+    public long memoryBytes() {
+        return 4L * table.length + 4L * hashes.length + 4L * offsets.length + arena.length;
+    }
+
+    // value 가 있는 슬롯 또는 처음 만난 빈 슬롯
+    private int findSlot(String value, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return slot;
+            }
+            int code = entry - 1;
+            if (hashes[code] == hash && equalsAt(code, value)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // ASCII 는 바이트를 바로 비교하고, 그 외 문자가 나오면 UTF-8 로 인코딩해 비교한다
+    private boolean equalsAt(int code, String value) {
+        int position = offsets[code];
+        int end = offsets[code + 1];
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                return Arrays.equals(arena, offsets[code], end, bytes, 0, bytes.length);
+            }
+            if (position == end || arena[position++] != c) {
+                return false;
+            }
+        }
+        return position == end;
+    }
+
+    private int append(byte[] bytes, int hash) {
+        if (size == MAX_CAPACITY - (MAX_CAPACITY >>> 2)) {
+            throw new IllegalStateException("사전 크기 한도를 넘었습니다: " + size);
+        }
+        if (size == hashes.length) {
+            int capacity = hashes.length + (hashes.length >>> 1);
+            hashes = Arrays.copyOf(hashes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+        }
+        int start = offsets[size];
+        long required = (long) start + bytes.length;
+        if (required > arena.length) {
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("사전 바이트 한도를 넘었습니다: " + required);
+            }
+            arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, arena.length + (long) (arena.length >>> 1))));
+        }
+        System.arraycopy(bytes, 0, arena, start, bytes.length);
+        hashes[size] = hash;
+        offsets[size + 1] = start + bytes.length;
+        return size++;
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[Math.min(capacity, MAX_CAPACITY)];
+        int mask = rehashed.length - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = hashes[code] & mask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed[slot] = code + 1;
+        }
+        table = rehashed;
+    }
+
+    // String.hashCode 는 String 에 캐시된다. member_%08d 처럼 끝자리만 다른 값이 이웃 슬롯에 몰리지 않도록 섞는다
+    private static int hash(String value) {
+        int hash = value.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
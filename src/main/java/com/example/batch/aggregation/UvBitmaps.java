@@ -0,0 +1,33 @@
+package com.example.batch.aggregation;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+// 정확 UV 비트맵 (회원 ordinal 의 RoaringBitmap) 의 partner_aggregation.uv_bitmap 직렬화
+// 비트맵 OR 후 cardinality 가 합집합 UV 라서 시간 버킷/파트너 간 UV 를 원본 로그 없이 정확히 계산할 수 있다
+public final class UvBitmaps {
+
+    private UvBitmaps() {
+    }
+
+    // run 컨테이너로 바꿀 수 있는 구간(연속 ordinal)은 바꿔서 저장 크기를 줄인다
+    public static byte[] toBytes(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    public static RoaringBitmap fromBytes(byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("UV 비트맵을 읽을 수 없습니다.", e);
+        }
+        return bitmap;
+    }
+}
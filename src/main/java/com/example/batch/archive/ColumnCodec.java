@@ -0,0 +1,136 @@
+package com.example.batch.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// 세그먼트 컬럼 블록 인코딩: varint(LEB128) / zigzag 로 바이트열을 만들고 블록마다 Deflate 로 압축한다
+// 블록 = [int 원본 길이][int 압축 길이][deflate 바이트]
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    static void writeBlock(DataOutputStream out, Output column) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(column.bytes, 0, column.size);
+            deflater.finish();
+            Output compressed = new Output(Math.max(64, column.size / 4));
+            while (!deflater.finished()) {
+                compressed.ensure(4096);
+                compressed.size += deflater.deflate(compressed.bytes, compressed.size, compressed.bytes.length - compressed.size);
+            }
+            out.writeInt(column.size);
+            out.writeInt(compressed.size);
+            out.write(compressed.bytes, 0, compressed.size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static Input readBlock(DataInputStream in) throws IOException {
+        int rawLength = in.readInt();
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int size = 0;
+            while (size < rawLength) {
+                int inflated = inflater.inflate(raw, size, rawLength - size);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("세그먼트 컬럼 블록이 잘렸습니다.");
+                }
+                size += inflated;
+            }
+            return new Input(raw);
+        } catch (DataFormatException e) {
+            throw new IOException("세그먼트 컬럼 블록을 풀 수 없습니다.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+            }
+        }
+    }
+
+    static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            int length = readVarInt();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
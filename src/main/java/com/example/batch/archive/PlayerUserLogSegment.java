@@ -0,0 +1,344 @@
+package com.example.batch.archive;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.aggregation.PlayerAction;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogRow;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// player_userlog 콜드 스토리지 세그먼트 파일 하나 (PlayerUserLogSegmentWriter 가 쓴다)
+// 헤더: 행 수, id/__time 최소·최대, 보관 기준 시각(cutoff), 파트너 색인(파트너별 행 수와 __time 최소·최대)
+// 본문: 컬럼별 Deflate 블록 (id/__time 은 이전 행과의 차이, 문자열은 세그먼트 사전 + 코드, 숫자는 NULL 비트마스크 + zigzag varint)
+// open 은 헤더만 읽는다. 기간/파트너 색인으로 걸러지지 않은 세그먼트만 forEachRow 에서 컬럼을 푼다
+// __time 은 벽시계 기준 마이크로초 (시간대와 무관), 세그먼트의 모든 행은 __time < cutoff
+@Getter
+public final class PlayerUserLogSegment {
+
+    static final int MAGIC = 0x504C5331; // "PLS1"
+    static final int VERSION = 1;
+
+    static final int ID = 0;
+    static final int TIME = 1;
+    static final int PARTNER = 2;
+    static final int CODE_DICTIONARY = 3;
+    static final int BROADCAST_STATE_CODE = 4;
+    static final int ACTION = 5;
+    static final int BROADCAST_TYPE_CODE = 6;
+    static final int BROADCAST_DICTIONARY = 7;
+    static final int BROADCAST_ID = 8;
+    static final int MEMBER_DICTIONARY = 9;
+    static final int MEMBER_ID = 10;
+    static final int NULL_MASK = 11;
+    static final int PLAYTIME = 12;
+    static final int LIKE_COUNT = 13;
+    static final int PRODUCT_ORDER_AMOUNT = 14;
+    static final int PRODUCT_ORDER_QUANTITY = 15;
+    static final int BLOCK_COUNT = 16;
+
+    private final Path path;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final long minTimeMicros;
+    private final long maxTimeMicros;
+    private final long cutoffMicros;
+    // 파트너 색인: 세그먼트 안 파트너 코드 = 배열 인덱스 (partner_id 가 NULL 인 그룹은 null)
+    private final String[] partnerIds;
+    private final int[] partnerRowCounts;
+    private final long[] partnerMinTimeMicros;
+    private final long[] partnerMaxTimeMicros;
+    private final long fileBytes;
+
+    PlayerUserLogSegment(Path path, int rowCount, long minId, long maxId, long minTimeMicros, long maxTimeMicros,
+                         long cutoffMicros, String[] partnerIds, int[] partnerRowCounts,
+                         long[] partnerMinTimeMicros, long[] partnerMaxTimeMicros, long fileBytes) {
+        this.path = path;
+        this.rowCount = rowCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.minTimeMicros = minTimeMicros;
+        this.maxTimeMicros = maxTimeMicros;
+        this.cutoffMicros = cutoffMicros;
+        this.partnerIds = partnerIds;
+        this.partnerRowCounts = partnerRowCounts;
+        this.partnerMinTimeMicros = partnerMinTimeMicros;
+        this.partnerMaxTimeMicros = partnerMaxTimeMicros;
+        this.fileBytes = fileBytes;
+    }
+
+    // 헤더만 읽는다
+    public static PlayerUserLogSegment open(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return readHeader(in, path, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 파일을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    public LocalDateTime getMinTime() {
+        return toTime(minTimeMicros);
+    }
+
+    public LocalDateTime getMaxTime() {
+        return toTime(maxTimeMicros);
+    }
+
+    public LocalDateTime getCutoff() {
+        return toTime(cutoffMicros);
+    }
+
+    // [start, end) 에 들어가는 행이 있을 수 있는지 (헤더의 __time 최소·최대로 판단)
+    // start/end 가 null 이면 SQL 의 __time >= NULL 처럼 빈 기간으로 본다 (이 클래스의 기간 메서드 모두 같음)
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return false;
+        }
+        return minTimeMicros < micros(end) && maxTimeMicros >= micros(start);
+    }
+
+    // [start, end) 에 행이 있는 partner_id (헤더의 파트너 색인만 본다, NULL 파트너 제외)
+    public List<String> partnerIdsIn(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return List.of();
+        }
+        long startMicros = micros(start);
+        long endMicros = micros(end);
+        List<String> result = new ArrayList<>();
+        for (int p = 0; p < partnerIds.length; p++) {
+            if (partnerIds[p] != null && partnerMinTimeMicros[p] < endMicros && partnerMaxTimeMicros[p] >= startMicros) {
+                result.add(partnerIds[p]);
+            }
+        }
+        return result;
+    }
+
+    // 저장된 id 만 푼다 (보관 후 원본 행 삭제/복구용)
+    public long[] readIds() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            readHeader(in, path, fileBytes);
+            ColumnCodec.Input idColumn = ColumnCodec.readBlock(in);
+            long[] ids = new long[rowCount];
+            long id = 0;
+            for (int i = 0; i < rowCount; i++) {
+                id += idColumn.readZigZag();
+                ids[i] = id;
+            }
+            return ids;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 파일을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    // [start, end) 의 행을 PlayerUserLogJdbcItemReader.createRowReader 와 같은 경량 행으로 넘긴다
+    // 문자열은 세그먼트 사전 항목마다 한 번만 호출자의 사전으로 인코딩한다 (member_id 는 memberOrdinals 로 사전 전체를 한 번에). 반환값은 넘긴 행 수
+    public long forEachRow(LocalDateTime start, LocalDateTime end, CodeDictionary partnerDictionary, CodeDictionary codes,
+                           Function<List<String>, int[]> memberOrdinals, Consumer<PlayerUserLogRow> consumer) {
+        if (start == null || end == null) {
+            return 0;
+        }
+        long startMicros = micros(start);
+        long endMicros = micros(end);
+        // 파트너 색인으로 기간 안에 행이 없는 파트너를 미리 거른다
+        int[] partnerCodes = new int[partnerIds.length];
+        boolean[] partnerInRange = new boolean[partnerIds.length];
+        boolean any = false;
+        for (int p = 0; p < partnerIds.length; p++) {
+            partnerInRange[p] = partnerMinTimeMicros[p] < endMicros && partnerMaxTimeMicros[p] >= startMicros;
+            any |= partnerInRange[p];
+        }
+        if (!any) {
+            return 0;
+        }
+        for (int p = 0; p < partnerIds.length; p++) {
+            if (partnerInRange[p]) {
+                partnerCodes[p] = partnerDictionary.encode(partnerIds[p]);
+            }
+        }
+        boolean checkTime = minTimeMicros < startMicros || maxTimeMicros >= endMicros;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            readHeader(in, path, fileBytes);
+            ColumnCodec.Input[] blocks = new ColumnCodec.Input[BLOCK_COUNT];
+            for (int b = 0; b < BLOCK_COUNT; b++) {
+                blocks[b] = ColumnCodec.readBlock(in);
+            }
+            String[] codeValues = readDictionary(blocks[CODE_DICTIONARY]);
+            int[] codeMap = encode(codeValues, codes::encode);
+            int[] actionMap = encode(codeValues, PlayerUserLogSegment::actionOrdinal);
+            int[] memberMap = memberOrdinals.apply(Arrays.asList(readDictionary(blocks[MEMBER_DICTIONARY])));
+
+            long emitted = 0;
+            long id = 0;
+            long time = 0;
+            for (int i = 0; i < rowCount; i++) {
+                id += blocks[ID].readZigZag();
+                time += blocks[TIME].readZigZag();
+                int partner = blocks[PARTNER].readVarInt();
+                int state = blocks[BROADCAST_STATE_CODE].readVarInt() - 1;
+                int action = blocks[ACTION].readVarInt() - 1;
+                int type = blocks[BROADCAST_TYPE_CODE].readVarInt() - 1;
+                blocks[BROADCAST_ID].readVarInt(); // 경량 행은 broadcast_id 를 싣지 않는다
+                int member = blocks[MEMBER_ID].readVarInt() - 1;
+                int nullMask = blocks[NULL_MASK].readVarInt();
+                int playtime = readNullable(blocks[PLAYTIME], nullMask, PlayerUserLogRow.PLAYTIME_NULL);
+                int likeCount = readNullable(blocks[LIKE_COUNT], nullMask, PlayerUserLogRow.LIKE_COUNT_NULL);
+                int amount = readNullable(blocks[PRODUCT_ORDER_AMOUNT], nullMask, PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL);
+                int quantity = readNullable(blocks[PRODUCT_ORDER_QUANTITY], nullMask, PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL);
+
+                if (!partnerInRange[partner] || (checkTime && (time < startMicros || time >= endMicros))) {
+                    continue;
+                }
+                consumer.accept(new PlayerUserLogRow(
+                        id,
+                        Timestamp.valueOf(toTime(time)).getTime(),
+                        partnerCodes[partner],
+                        state >= 0 ? codeMap[state] : CodeDictionary.NULL_ID,
+                        type >= 0 ? codeMap[type] : CodeDictionary.NULL_ID,
+                        action >= 0 ? actionMap[action] : -1,
+                        member >= 0 ? memberMap[member] : -1,
+                        playtime,
+                        likeCount,
+                        amount,
+                        quantity,
+                        nullMask));
+                emitted++;
+            }
+            return emitted;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 파일을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    // 검증/복원용: 세그먼트 전체를 엔티티로 (id 순서)
+    public List<PlayerUserLog> readAll() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            readHeader(in, path, fileBytes);
+            ColumnCodec.Input[] blocks = new ColumnCodec.Input[BLOCK_COUNT];
+            for (int b = 0; b < BLOCK_COUNT; b++) {
+                blocks[b] = ColumnCodec.readBlock(in);
+            }
+            String[] codeValues = readDictionary(blocks[CODE_DICTIONARY]);
+            String[] broadcastValues = readDictionary(blocks[BROADCAST_DICTIONARY]);
+            String[] memberValues = readDictionary(blocks[MEMBER_DICTIONARY]);
+
+            List<PlayerUserLog> rows = new ArrayList<>(rowCount);
+            long id = 0;
+            long time = 0;
+            for (int i = 0; i < rowCount; i++) {
+                id += blocks[ID].readZigZag();
+                time += blocks[TIME].readZigZag();
+                String partnerId = partnerIds[blocks[PARTNER].readVarInt()];
+                String state = value(codeValues, blocks[BROADCAST_STATE_CODE].readVarInt());
+                String action = value(codeValues, blocks[ACTION].readVarInt());
+                String type = value(codeValues, blocks[BROADCAST_TYPE_CODE].readVarInt());
+                String broadcastId = value(broadcastValues, blocks[BROADCAST_ID].readVarInt());
+                String memberId = value(memberValues, blocks[MEMBER_ID].readVarInt());
+                int nullMask = blocks[NULL_MASK].readVarInt();
+                int playtime = readNullable(blocks[PLAYTIME], nullMask, PlayerUserLogRow.PLAYTIME_NULL);
+                int likeCount = readNullable(blocks[LIKE_COUNT], nullMask, PlayerUserLogRow.LIKE_COUNT_NULL);
+                int amount = readNullable(blocks[PRODUCT_ORDER_AMOUNT], nullMask, PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL);
+                int quantity = readNullable(blocks[PRODUCT_ORDER_QUANTITY], nullMask, PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL);
+                rows.add(PlayerUserLog.builder()
+                        .id(id)
+                        .time(toTime(time))
+                        .partnerId(partnerId)
+                        .broadcastStateCode(state)
+                        .broadcastId(broadcastId)
+                        .memberId(memberId)
+                        .action(action)
+                        .playtime((nullMask & PlayerUserLogRow.PLAYTIME_NULL) != 0 ? null : playtime)
+                        .likeCount((nullMask & PlayerUserLogRow.LIKE_COUNT_NULL) != 0 ? null : likeCount)
+                        .productOrderAmount((nullMask & PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL) != 0 ? null : amount)
+                        .productOrderQuantity((nullMask & PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL) != 0 ? null : quantity)
+                        .broadcastTypeCode(type)
+                        .build());
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 파일을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    private static PlayerUserLogSegment readHeader(DataInputStream in, Path path, long fileBytes) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IllegalStateException("player_userlog 세그먼트 파일이 아닙니다: " + path);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("지원하지 않는 세그먼트 버전입니다: " + version + " (" + path + ")");
+        }
+        int rowCount = in.readInt();
+        long minId = in.readLong();
+        long maxId = in.readLong();
+        long minTime = in.readLong();
+        long maxTime = in.readLong();
+        long cutoff = in.readLong();
+        int partnerCount = in.readInt();
+        String[] partnerIds = new String[partnerCount];
+        int[] partnerRowCounts = new int[partnerCount];
+        long[] partnerMinTimes = new long[partnerCount];
+        long[] partnerMaxTimes = new long[partnerCount];
+        for (int p = 0; p < partnerCount; p++) {
+            partnerIds[p] = in.readBoolean() ? in.readUTF() : null;
+            partnerRowCounts[p] = in.readInt();
+            partnerMinTimes[p] = in.readLong();
+            partnerMaxTimes[p] = in.readLong();
+        }
+        return new PlayerUserLogSegment(path, rowCount, minId, maxId, minTime, maxTime, cutoff,
+                partnerIds, partnerRowCounts, partnerMinTimes, partnerMaxTimes, fileBytes);
+    }
+
+    private static String[] readDictionary(ColumnCodec.Input block) {
+        String[] values = new String[block.readVarInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = block.readString();
+        }
+        return values;
+    }
+
+    private static int[] encode(String[] values, ToIntFunction<String> encoder) {
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            codes[i] = encoder.applyAsInt(values[i]);
+        }
+        return codes;
+    }
+
+    private static int actionOrdinal(String code) {
+        PlayerAction action = PlayerAction.fromCode(code);
+        return action != null ? action.ordinal() : -1;
+    }
+
+    private static String value(String[] dictionary, int codePlusOne) {
+        return codePlusOne == 0 ? null : dictionary[codePlusOne - 1];
+    }
+
+    private static int readNullable(ColumnCodec.Input block, int nullMask, int flag) {
+        return (nullMask & flag) != 0 ? 0 : (int) block.readZigZag();
+    }
+
+    static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime toTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.batch.archive;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogRow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 보관할 행을 id 순서로 모아 PlayerUserLogSegment 형식 파일 하나로 쓴다 (행은 컬럼별 배열로만 들고 있다)
+// 파일은 임시 파일에 쓰고 force 후 이름을 바꾸므로, 중간에 죽어도 반쯤 쓴 세그먼트가 남지 않는다
+// 스레드 안전하지 않음
+public class PlayerUserLogSegmentWriter {
+
+    private final CodeDictionary partnerIds = new CodeDictionary();
+    private final CodeDictionary codes = new CodeDictionary();
+    private final CodeDictionary broadcastIds = new CodeDictionary();
+    private final CodeDictionary memberIds = new CodeDictionary();
+    private final List<PartnerIndex> partners = new ArrayList<>();
+    private PartnerIndex nullPartner;
+
+    private long[] ids = new long[1024];
+    private long[] times = new long[1024];
+    private int[] partnerCodes = new int[1024];
+    private int[] states = new int[1024];
+    private int[] actions = new int[1024];
+    private int[] types = new int[1024];
+    private int[] broadcasts = new int[1024];
+    private int[] members = new int[1024];
+    private int[] nullMasks = new int[1024];
+    private int[] playtimes = new int[1024];
+    private int[] likeCounts = new int[1024];
+    private int[] amounts = new int[1024];
+    private int[] quantities = new int[1024];
+    private int size;
+
+    // id 는 오름차순, __time 은 NULL 이 아니어야 한다
+    public void add(PlayerUserLog log) {
+        if (log.getTime() == null) {
+            throw new IllegalArgumentException("__time 이 없는 행은 보관할 수 없습니다: id=" + log.getId());
+        }
+        if (size > 0 && log.getId() <= ids[size - 1]) {
+            throw new IllegalArgumentException("id 오름차순이 아닙니다: " + ids[size - 1] + " -> " + log.getId());
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        long time = PlayerUserLogSegment.micros(log.getTime());
+        ids[size] = log.getId();
+        times[size] = time;
+        partnerCodes[size] = partnerIndex(log.getPartnerId(), time);
+        states[size] = codes.encode(log.getBroadcastStateCode());
+        actions[size] = codes.encode(log.getAction());
+        types[size] = codes.encode(log.getBroadcastTypeCode());
+        broadcasts[size] = broadcastIds.encode(log.getBroadcastId());
+        members[size] = memberIds.encode(log.getMemberId());
+        int nullMask = 0;
+        nullMask |= setNullable(playtimes, log.getPlaytime(), PlayerUserLogRow.PLAYTIME_NULL);
+        nullMask |= setNullable(likeCounts, log.getLikeCount(), PlayerUserLogRow.LIKE_COUNT_NULL);
+        nullMask |= setNullable(amounts, log.getProductOrderAmount(), PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL);
+        nullMask |= setNullable(quantities, log.getProductOrderQuantity(), PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL);
+        nullMasks[size] = nullMask;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long lastId() {
+        return size > 0 ? ids[size - 1] : 0L;
+    }
+
+    // cutoff: 이 세그먼트를 만든 보관 기준 시각 (모든 행의 __time < cutoff)
+    // 이미 있는 파일은 덮어쓰지 않는다 (보관된 행이 그 파일에만 있을 수 있다)
+    public PlayerUserLogSegment write(Path file, LocalDateTime cutoff) {
+        if (size == 0) {
+            throw new IllegalStateException("보관할 행이 없습니다.");
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (Files.exists(file)) {
+                throw new FileAlreadyExistsException(file.toString());
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                OutputStream stream = Channels.newOutputStream(channel);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+                writeTo(out, PlayerUserLogSegment.micros(cutoff));
+                out.flush();
+                channel.force(true);
+            }
+            // ATOMIC_MOVE 는 OS 에 따라 대상을 바꿔치기하므로 위에서 대상이 없는지 먼저 본다 (보관은 한 번에 하나만 돈다)
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("세그먼트 파일을 쓸 수 없습니다: " + file, e);
+        }
+        return PlayerUserLogSegment.open(file);
+    }
+
+    private void writeTo(DataOutputStream out, long cutoffMicros) throws IOException {
+        List<PartnerIndex> index = new ArrayList<>(partners);
+        if (nullPartner != null) {
+            index.add(nullPartner);
+        }
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minTime = Math.min(minTime, times[i]);
+            maxTime = Math.max(maxTime, times[i]);
+        }
+
+        out.writeInt(PlayerUserLogSegment.MAGIC);
+        out.writeInt(PlayerUserLogSegment.VERSION);
+        out.writeInt(size);
+        out.writeLong(ids[0]);
+        out.writeLong(ids[size - 1]);
+        out.writeLong(minTime);
+        out.writeLong(maxTime);
+        out.writeLong(cutoffMicros);
+        out.writeInt(index.size());
+        for (PartnerIndex partner : index) {
+            out.writeBoolean(partner.partnerId != null);
+            if (partner.partnerId != null) {
+                out.writeUTF(partner.partnerId);
+            }
+            out.writeInt(partner.rows);
+            out.writeLong(partner.minTime);
+            out.writeLong(partner.maxTime);
+        }
+
+        // 블록 순서는 PlayerUserLogSegment 의 블록 번호 순서
+        ColumnCodec.writeBlock(out, deltas(ids));
+        ColumnCodec.writeBlock(out, deltas(times));
+        ColumnCodec.Output partnerColumn = new ColumnCodec.Output(size);
+        for (int i = 0; i < size; i++) {
+            // NULL 파트너는 색인 맨 뒤
+            partnerColumn.writeVarLong(partnerCodes[i] == CodeDictionary.NULL_ID ? partners.size() : partnerCodes[i]);
+        }
+        ColumnCodec.writeBlock(out, partnerColumn);
+        ColumnCodec.writeBlock(out, dictionary(codes));
+        ColumnCodec.writeBlock(out, codes(states));
+        ColumnCodec.writeBlock(out, codes(actions));
+        ColumnCodec.writeBlock(out, codes(types));
+        ColumnCodec.writeBlock(out, dictionary(broadcastIds));
+        ColumnCodec.writeBlock(out, codes(broadcasts));
+        ColumnCodec.writeBlock(out, dictionary(memberIds));
+        ColumnCodec.writeBlock(out, codes(members));
+        ColumnCodec.Output nullMaskColumn = new ColumnCodec.Output(size);
+        for (int i = 0; i < size; i++) {
+            nullMaskColumn.writeVarLong(nullMasks[i]);
+        }
+        ColumnCodec.writeBlock(out, nullMaskColumn);
+        ColumnCodec.writeBlock(out, nullable(playtimes, PlayerUserLogRow.PLAYTIME_NULL));
+        ColumnCodec.writeBlock(out, nullable(likeCounts, PlayerUserLogRow.LIKE_COUNT_NULL));
+        ColumnCodec.writeBlock(out, nullable(amounts, PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL));
+        ColumnCodec.writeBlock(out, nullable(quantities, PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL));
+    }
+
+    private int partnerIndex(String partnerId, long time) {
+        PartnerIndex partner;
+        int code = partnerIds.encode(partnerId);
+        if (code == CodeDictionary.NULL_ID) {
+            if (nullPartner == null) {
+                nullPartner = new PartnerIndex(null);
+            }
+            partner = nullPartner;
+        } else {
+            if (code == partners.size()) {
+                partners.add(new PartnerIndex(partnerId));
+            }
+            partner = partners.get(code);
+        }
+        partner.rows++;
+        partner.minTime = Math.min(partner.minTime, time);
+        partner.maxTime = Math.max(partner.maxTime, time);
+        return code;
+    }
+
+    private int setNullable(int[] column, Integer value, int flag) {
+        if (value == null) {
+            column[size] = 0;
+            return flag;
+        }
+        column[size] = value;
+        return 0;
+    }
+
+    private ColumnCodec.Output deltas(long[] values) {
+        ColumnCodec.Output column = new ColumnCodec.Output(size * 2);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            column.writeZigZag(values[i] - previous);
+            previous = values[i];
+        }
+        return column;
+    }
+
+    // 코드 + 1 (0 = NULL)
+    private ColumnCodec.Output codes(int[] values) {
+        ColumnCodec.Output column = new ColumnCodec.Output(size * 2);
+        for (int i = 0; i < size; i++) {
+            column.writeVarLong(values[i] + 1L);
+        }
+        return column;
+    }
+
+    private ColumnCodec.Output dictionary(CodeDictionary dictionary) {
+        ColumnCodec.Output column = new ColumnCodec.Output(dictionary.size() * 16);
+        column.writeVarLong(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            column.writeString(dictionary.decode(code));
+        }
+        return column;
+    }
+
+    // NULL 이 아닌 값만 쓴다 (NULL 여부는 NULL_MASK 블록)
+    private ColumnCodec.Output nullable(int[] values, int flag) {
+        ColumnCodec.Output column = new ColumnCodec.Output(size);
+        for (int i = 0; i < size; i++) {
+            if ((nullMasks[i] & flag) == 0) {
+                column.writeZigZag(values[i]);
+            }
+        }
+        return column;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        times = Arrays.copyOf(times, capacity);
+        partnerCodes = Arrays.copyOf(partnerCodes, capacity);
+        states = Arrays.copyOf(states, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        types = Arrays.copyOf(types, capacity);
+        broadcasts = Arrays.copyOf(broadcasts, capacity);
+        members = Arrays.copyOf(members, capacity);
+        nullMasks = Arrays.copyOf(nullMasks, capacity);
+        playtimes = Arrays.copyOf(playtimes, capacity);
+        likeCounts = Arrays.copyOf(likeCounts, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+    }
+
+    private static final class PartnerIndex {
+        private final String partnerId;
+        private int rows;
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+
+        private PartnerIndex(String partnerId) {
+            this.partnerId = partnerId;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.batch.config;
+
+import com.example.batch.listener.BatchMetricsListener;
+import org.springframework.batch.core.job.AbstractJob;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchMetricsConfig {
+
+    // 잡/스텝 빌더마다 리스너를 붙이지 않고 생성된 빈에 등록 (@JobScope/@StepScope 스텝은 실행마다 생성될 때 등록된다)
+    // 파티션 매니저 스텝은 종료 시 워커 건수를 합산하므로 스텝/청크 리스너는 실제 처리하는 TaskletStep 에만 등록
+    @Bean
+    public static BeanPostProcessor batchMetricsListenerRegistrar(ObjectProvider<BatchMetricsListener> batchMetricsListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractJob job) {
+                    job.registerJobExecutionListener(batchMetricsListener.getObject());
+                } else if (bean instanceof TaskletStep step) {
+                    step.registerStepExecutionListener(batchMetricsListener.getObject());
+                    step.registerChunkListener(batchMetricsListener.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.batch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class JobLauncherConfig {
+
+    // API 요청으로 실행하는 잡 전용 풀: 동시에 실행할 잡 수를 풀 크기로 제한, 대기열이 가득 차면 잡은 FAILED 로 기록된다
+    @Bean
+    public TaskExecutor jobLauncherTaskExecutor(
+            @Value("${batch.launcher.pool-size:2}") int poolSize,
+            @Value("${batch.launcher.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-launcher-");
+        return executor;
+    }
+}
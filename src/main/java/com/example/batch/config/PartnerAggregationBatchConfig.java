@@ -1,8 +1,16 @@
 package com.example.batch.config;
 
+import com.example.batch.aggregation.HyperLogLog;
 import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.partition.PartnerIdPartitioner;
+import com.example.batch.partition.TimeSlicePartitioner;
+import com.example.batch.service.PartnerAggregationIncrementalService;
+import com.example.batch.service.PartnerAggregationRollupService;
 import com.example.batch.service.PartnerAggregationService;
-import jakarta.persistence.EntityManager;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.PartnerAggregationSliceService;
+import com.example.batch.service.PartnerAggregationStreamingService;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +19,9 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
@@ -21,8 +32,14 @@ import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -34,16 +51,61 @@ public class PartnerAggregationBatchConfig {
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
     private final PartnerAggregationService partnerAggregationService;
+    private final PartnerAggregationSliceService partnerAggregationSliceService;
+    private final PartnerAggregationStreamingService partnerAggregationStreamingService;
+    private final PartnerAggregationIncrementalService partnerAggregationIncrementalService;
+    private final PartnerAggregationRollupService partnerAggregationRollupService;
     private final EntityManagerFactory entityManagerFactory;
-    private static Long count = 0L;
+
+    // jobParameters['aggregationMode'] 로 선택 (기본값 SINGLE)
+    public enum AggregationMode {
+        SINGLE, PARTITIONED, TIME_SLICED, INCREMENTAL, ROLLUP
+    }
+
+    // jobParameters['uvMode'] (기본값 EXACT). APPROXIMATE 는 HyperLogLog 스케치로 UV 를 계산하고 스케치를 함께 저장
+    // BITMAP 은 회원 사전 ordinal 의 RoaringBitmap 으로 정확한 UV 를 계산하고 비트맵을 함께 저장 (버킷/파트너 합집합도 정확)
+    public enum UvMode {
+        EXACT, APPROXIMATE, BITMAP
+    }
+
+    // jobParameters['aggregationEngine'] (기본값 SQL). STREAMING 은 로그를 한 번 읽어 JVM 안에서 집계 (SINGLE 모드 EXACT UV 전용)
+    public enum AggregationEngine {
+        SQL, STREAMING
+    }
 
     @Bean
-    public Job partnerAggregationJob(Step partnerAggregationStep) {
+    public Job partnerAggregationJob(Step partnerAggregationStep,
+                                     Step partnerAggregationPartitionStep,
+                                     Step partnerAggregationSlicePartitionStep,
+                                     Step partnerAggregationSliceMergeStep,
+                                     Step partnerAggregationIncrementalStep,
+                                     Step partnerAggregationRollupStep,
+                                     JobExecutionDecider partnerAggregationModeDecider) {
         return new JobBuilder("partnerAggregationJob", jobRepository)
-                .start(partnerAggregationStep)
+                .start(partnerAggregationModeDecider)
+                .on(AggregationMode.PARTITIONED.name()).to(partnerAggregationPartitionStep)
+                .from(partnerAggregationModeDecider)
+                .on(AggregationMode.TIME_SLICED.name()).to(partnerAggregationSlicePartitionStep)
+                .next(partnerAggregationSliceMergeStep)
+                .from(partnerAggregationModeDecider)
+                .on(AggregationMode.INCREMENTAL.name()).to(partnerAggregationIncrementalStep)
+                .from(partnerAggregationModeDecider)
+                .on(AggregationMode.ROLLUP.name()).to(partnerAggregationRollupStep)
+                .from(partnerAggregationModeDecider)
+                .on("*").to(partnerAggregationStep)
+                .end()
                 .build();
     }
 
+    @Bean
+    public JobExecutionDecider partnerAggregationModeDecider() {
+        return (jobExecution, stepExecution) -> {
+            String mode = jobExecution.getJobParameters().getString("aggregationMode", AggregationMode.SINGLE.name());
+            log.info("Partner 집계 모드: {}", mode);
+            return new FlowExecutionStatus(AggregationMode.valueOf(mode.toUpperCase()).name());
+        };
+    }
+
     @Bean
     public Step partnerAggregationStep(
 //            ItemReader<PartnerAggregation> reader,
@@ -62,6 +124,200 @@ public class PartnerAggregationBatchConfig {
 //                .build();
     }
 
+    // 파티션 매니저 스텝: partner_id 그룹별 워커 스텝을 partnerAggregationTaskExecutor 에서 병렬 실행
+    @Bean
+    @JobScope
+    public Step partnerAggregationPartitionStep(
+            Step partnerAggregationWorkerStep,
+            Partitioner partnerIdPartitioner,
+            TaskExecutor partnerAggregationTaskExecutor,
+            @Value("#{jobParameters['gridSize']}") Long gridSize) {
+        return new StepBuilder("partnerAggregationPartitionStep", jobRepository)
+                .partitioner("partnerAggregationWorkerStep", partnerIdPartitioner)
+                .step(partnerAggregationWorkerStep)
+                .gridSize(gridSize != null ? gridSize.intValue() : Runtime.getRuntime().availableProcessors())
+                .taskExecutor(partnerAggregationTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step partnerAggregationWorkerStep(Tasklet partnerAggregationWorkerTasklet) {
+        return new StepBuilder("partnerAggregationWorkerStep", jobRepository)
+                .tasklet(partnerAggregationWorkerTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Partitioner partnerIdPartitioner(
+            @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime,
+            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime) {
+        return new PartnerIdPartitioner(partnerAggregationService, startDateTime, endDateTime);
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet partnerAggregationWorkerTasklet(
+            @Value("#{stepExecutionContext['partnerIds']}") String partnerIds,
+            @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime,
+            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime) {
+        return (contribution, chunkContext) -> {
+            List<PartnerAggregation> aggregateList = partnerAggregationService.aggregateByPartnerIdsAndDateRange(
+                    PartnerIdPartitioner.parsePartnerIds(partnerIds), startDateTime, endDateTime);
+            partnerAggregationService.saveBatchData(aggregateList);
+            contribution.incrementWriteCount(aggregateList.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    // 시간 슬라이스 매니저 스텝: jobParameters['sliceMinutes'] (기본 60분) 단위로 나눠 부분 집계
+    @Bean
+    public Step partnerAggregationSlicePartitionStep(
+            Step partnerAggregationSliceWorkerStep,
+            Partitioner timeSlicePartitioner,
+            TaskExecutor partnerAggregationTaskExecutor) {
+        return new StepBuilder("partnerAggregationSlicePartitionStep", jobRepository)
+                .partitioner("partnerAggregationSliceWorkerStep", timeSlicePartitioner)
+                .step(partnerAggregationSliceWorkerStep)
+                .taskExecutor(partnerAggregationTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step partnerAggregationSliceWorkerStep(Tasklet partnerAggregationSliceWorkerTasklet) {
+        return new StepBuilder("partnerAggregationSliceWorkerStep", jobRepository)
+                .tasklet(partnerAggregationSliceWorkerTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Partitioner timeSlicePartitioner(
+            @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime,
+            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime,
+            @Value("#{jobParameters['sliceMinutes']}") Long sliceMinutes) {
+        return new TimeSlicePartitioner(startDateTime, endDateTime,
+                Duration.ofMinutes(sliceMinutes != null ? sliceMinutes : 60L));
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet partnerAggregationSliceWorkerTasklet(
+            @Value("#{stepExecutionContext['sliceStart']}") String sliceStart,
+            @Value("#{stepExecutionContext['sliceEnd']}") String sliceEnd) {
+        return (contribution, chunkContext) -> {
+            Long jobInstanceId = contribution.getStepExecution().getJobExecution().getJobId();
+            int partnerCount = partnerAggregationSliceService.aggregateSlice(
+                    jobInstanceId, LocalDateTime.parse(sliceStart), LocalDateTime.parse(sliceEnd));
+            contribution.incrementWriteCount(partnerCount);
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    // reduce: 슬라이스 부분 결과를 파트너별로 합산해 PartnerAggregation 으로 저장하고 중간 결과 삭제
+    @Bean
+    public Step partnerAggregationSliceMergeStep(Tasklet partnerAggregationSliceMergeTasklet) {
+        return new StepBuilder("partnerAggregationSliceMergeStep", jobRepository)
+                .tasklet(partnerAggregationSliceMergeTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet partnerAggregationSliceMergeTasklet(
+            @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime) {
+        return (contribution, chunkContext) -> {
+            Long jobInstanceId = contribution.getStepExecution().getJobExecution().getJobId();
+            List<PartnerAggregation> aggregateList = partnerAggregationSliceService.mergeSlices(jobInstanceId, startDateTime);
+            partnerAggregationService.saveBatchData(aggregateList);
+            partnerAggregationSliceService.deleteSlices(jobInstanceId);
+            contribution.incrementWriteCount(aggregateList.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    // 증분 집계: 워터마크 이후 로그만 aggregationType 버킷으로 집계해 기존 행에 병합 (UV 는 HyperLogLog 스케치)
+    @Bean
+    public Step partnerAggregationIncrementalStep(Tasklet partnerAggregationIncrementalTasklet) {
+        return new StepBuilder("partnerAggregationIncrementalStep", jobRepository)
+                .tasklet(partnerAggregationIncrementalTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet partnerAggregationIncrementalTasklet(
+            @Value("#{jobParameters['aggregationType'] ?: 'DAILY'}") String aggregationType,
+            @Value("#{jobParameters['uvRelativeError'] ?: ${aggregation.uv.relative-error:0.01}}") Double uvRelativeError) {
+        return (contribution, chunkContext) -> {
+            List<PartnerAggregation> merged = partnerAggregationIncrementalService.aggregateIncrementally(
+                    AggregationType.valueOf(aggregationType.toUpperCase()), HyperLogLog.precisionFor(uvRelativeError));
+            contribution.incrementWriteCount(merged.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    // 롤업 집계: 원본 로그를 MINUTELY 로 한 번 스캔하고 HOURLY, DAILY 는 하위 버킷 합산/스케치 병합으로 생성
+    @Bean
+    public Step partnerAggregationRollupStep(Tasklet partnerAggregationRollupTasklet) {
+        return new StepBuilder("partnerAggregationRollupStep", jobRepository)
+                .tasklet(partnerAggregationRollupTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet partnerAggregationRollupTasklet(
+            @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime,
+            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime,
+            @Value("#{jobParameters['uvRelativeError'] ?: ${aggregation.uv.relative-error:0.01}}") Double uvRelativeError) {
+        return (contribution, chunkContext) -> {
+            List<PartnerAggregation> aggregateList = partnerAggregationRollupService.aggregateWithRollup(
+                    startDateTime, endDateTime, HyperLogLog.precisionFor(uvRelativeError));
+            contribution.incrementWriteCount(aggregateList.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    // 워커 하나가 집계 동안 커넥션 하나를 점유하므로 워커 수는 집계 DB 커넥션 풀보다 하나 작게 둔다 (잡 저장소/매니저 스텝 몫)
+    // aggregation.partition.pool-size 가 0 이면 코어 수와 풀 크기 - 1 중 작은 값, 지정한 값이 풀 크기 - 1 보다 크면 기동 실패
+    @Bean
+    public TaskExecutor partnerAggregationTaskExecutor(
+            JdbcTemplate jdbcTemplate,
+            @Value("${aggregation.partition.pool-size:0}") int configuredPoolSize) {
+        int poolSize = partitionPoolSize(configuredPoolSize, maximumConnections(jdbcTemplate.getDataSource()));
+        log.info("partnerAggregationTaskExecutor 워커 수: {}", poolSize);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("partner-agg-");
+        return executor;
+    }
+
+    // maximumConnections 가 0 이면 풀 크기를 모르는 DataSource (코어 수만 적용)
+    static int partitionPoolSize(int configuredPoolSize, int maximumConnections) {
+        int limit = maximumConnections > 0 ? Math.max(1, maximumConnections - 1) : Integer.MAX_VALUE;
+        if (configuredPoolSize > 0) {
+            if (configuredPoolSize > limit) {
+                throw new IllegalStateException("aggregation.partition.pool-size(" + configuredPoolSize
+                        + ") 는 커넥션 풀 크기(" + maximumConnections + ") - 1 을 넘을 수 없습니다.");
+            }
+            return configuredPoolSize;
+        }
+        return Math.min(Runtime.getRuntime().availableProcessors(), limit);
+    }
+
+    private static int maximumConnections(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("커넥션 풀 크기를 확인할 수 없습니다.", e);
+        }
+        return 0;
+    }
+
     @Bean
     @StepScope
     public ItemReader<PartnerAggregation> partnerAggregationListItemReader(
@@ -80,7 +336,6 @@ public class PartnerAggregationBatchConfig {
     @StepScope
     public ItemProcessor<PartnerAggregation, PartnerAggregation> partnerAggregationItemProcessor() {
         return partnerAggregation -> {
-            if(count == 2) throw new RuntimeException("Retry Test: 2번째 아이템에서 강제 예외 발생");
             log.info("Processing item: {}", partnerAggregation);
             return partnerAggregation;
         };
@@ -113,11 +368,22 @@ public class PartnerAggregationBatchConfig {
     @StepScope
     public Tasklet partnerAggregationTasklet(
             @Value("#{jobParameters['startDateTime']}") LocalDateTime startDateTime,
-            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime) {
+            @Value("#{jobParameters['endDateTime']}") LocalDateTime endDateTime,
+            @Value("#{jobParameters['uvMode'] ?: 'EXACT'}") String uvMode,
+            @Value("#{jobParameters['aggregationType'] ?: 'DAILY'}") String aggregationType,
+            @Value("#{jobParameters['uvRelativeError'] ?: ${aggregation.uv.relative-error:0.01}}") Double uvRelativeError,
+            @Value("#{jobParameters['aggregationEngine'] ?: 'SQL'}") String aggregationEngine) {
         return (contribution, chunkContext) -> {
-            count++;
-            if(count ==1) throw new RuntimeException("Retry Test: 1번째 아이템에서 강제 예외 발생");
-            List<PartnerAggregation> aggregateList = partnerAggregationService.aggregateByDateRange(startDateTime, endDateTime);
+            UvMode mode = UvMode.valueOf(uvMode.toUpperCase());
+            List<PartnerAggregation> aggregateList = mode == UvMode.APPROXIMATE
+                    ? partnerAggregationService.aggregateApproximateByPeriod(startDateTime, endDateTime,
+                            AggregationType.valueOf(aggregationType.toUpperCase()), HyperLogLog.precisionFor(uvRelativeError))
+                    : mode == UvMode.BITMAP
+                    ? partnerAggregationService.aggregateBitmapByPeriod(startDateTime, endDateTime,
+                            AggregationType.valueOf(aggregationType.toUpperCase()))
+                    : AggregationEngine.valueOf(aggregationEngine.toUpperCase()) == AggregationEngine.STREAMING
+                    ? partnerAggregationStreamingService.aggregateByDateRange(startDateTime, endDateTime)
+                    : partnerAggregationService.aggregateByDateRange(startDateTime, endDateTime);
 
             log.info("Partner ID별 집계 배치 작업 시작");
             partnerAggregationService.saveBatchData(aggregateList);
@@ -0,0 +1,71 @@
+package com.example.batch.config;
+
+import com.example.batch.service.PlayerUserLogArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// player_userlog 콜드 스토리지 보관 잡: __time < cutoff 인 행을 세그먼트 파일로 옮기고 테이블에서 지운다
+// jobParameters['cutoffDateTime'] 이 없으면 현재 시각 - archive.retention (기본 90일)
+// 옮긴 행 수는 스텝 writeCount, 세그먼트 수/행 수/파일 크기는 스텝 ExecutionContext 에 남긴다
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerUserLogArchiveJobConfig {
+
+    public static final String ARCHIVE_SEGMENTS_KEY = "archiveSegments";
+    public static final String ARCHIVE_ROWS_KEY = "archiveRows";
+    public static final String ARCHIVE_BYTES_KEY = "archiveBytes";
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final PlayerUserLogArchiveService playerUserLogArchiveService;
+
+    @Bean
+    public Job playerUserLogArchiveJob(Step playerUserLogArchiveStep) {
+        return new JobBuilder("playerUserLogArchiveJob", jobRepository)
+                .start(playerUserLogArchiveStep)
+                .build();
+    }
+
+    @Bean
+    public Step playerUserLogArchiveStep(Tasklet playerUserLogArchiveTasklet) {
+        return new StepBuilder("playerUserLogArchiveStep", jobRepository)
+                .tasklet(playerUserLogArchiveTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public Tasklet playerUserLogArchiveTasklet(
+            @Value("#{jobParameters['cutoffDateTime']}") LocalDateTime cutoffDateTime,
+            @Value("${archive.retention:90d}") Duration retention) {
+        return (contribution, chunkContext) -> {
+            LocalDateTime cutoff = cutoffDateTime != null ? cutoffDateTime : LocalDateTime.now().minus(retention);
+            PlayerUserLogArchiveService.ArchiveResult result = playerUserLogArchiveService.archive(cutoff);
+
+            contribution.incrementWriteCount(result.getRowCount());
+            ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+            executionContext.putInt(ARCHIVE_SEGMENTS_KEY, result.getSegmentCount());
+            executionContext.putLong(ARCHIVE_ROWS_KEY, result.getRowCount());
+            executionContext.putLong(ARCHIVE_BYTES_KEY, result.getFileBytes());
+            log.info("콜드 스토리지 보관 잡 완료: cutoff={}, 세그먼트 {} 개, {} 행", cutoff, result.getSegmentCount(), result.getRowCount());
+            return RepeatStatus.FINISHED;
+        };
+    }
+}
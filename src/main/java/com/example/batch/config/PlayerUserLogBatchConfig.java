@@ -1,49 +1,196 @@
 package com.example.batch.config;
 
 import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.listener.AdaptiveChunkSizePolicy;
+import com.example.batch.partition.IdRangePartitioner;
 import com.example.batch.reader.PlayerUserLogItemReader;
 import com.example.batch.reader.PlayerUserLogJdbcItemReader;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
 import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.concurrent.Future;
+
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class PlayerUserLogBatchConfig {
 
+    // jobParameters['processingMode'] 로 지정, 없으면 jobParameters['threads'] 가 1 보다 클 때 MULTI_THREADED
+    public enum ProcessingMode {
+        SINGLE,
+        MULTI_THREADED,
+        ASYNC
+    }
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
     private final PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader;
     private final PlayerUserLogItemReader playerUserLogItemReader;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${batch.async.pool-size:16}")
+    private int asyncPoolSize;
 
     @Bean
-    public Job playerUserLogJob() {
+    public Job playerUserLogJob(Step playerUserLogStep,
+                                Step playerUserLogPartitionStep,
+                                Step playerUserLogAsyncStep,
+                                JobExecutionDecider playerUserLogModeDecider) {
         return new JobBuilder("playerUserLogJob", jobRepository)
-                .start(playerUserLogStep())
+                .start(playerUserLogModeDecider)
+                .on(ProcessingMode.MULTI_THREADED.name()).to(playerUserLogPartitionStep)
+                .from(playerUserLogModeDecider)
+                .on(ProcessingMode.ASYNC.name()).to(playerUserLogAsyncStep)
+                .from(playerUserLogModeDecider)
+                .on("*").to(playerUserLogStep)
+                .end()
                 .build();
     }
 
     @Bean
-    public Step playerUserLogStep() {
+    public JobExecutionDecider playerUserLogModeDecider() {
+        return (jobExecution, stepExecution) -> {
+            long threads = jobExecution.getJobParameters().getLong("threads", 1L);
+            String processingMode = jobExecution.getJobParameters().getString("processingMode");
+            ProcessingMode mode = processingMode != null
+                    ? ProcessingMode.valueOf(processingMode.toUpperCase())
+                    : threads > 1 ? ProcessingMode.MULTI_THREADED : ProcessingMode.SINGLE;
+            log.info("PlayerUserLog 처리 모드: {} (threads={})", mode, threads);
+            return new FlowExecutionStatus(mode.name());
+        };
+    }
+
+    // 청크 크기: 기본값은 min = max = 1000 으로 고정, batch.chunk.* 로 범위를 열면 target-latency 에 맞춰 조정
+    @Bean
+    public AdaptiveChunkSizePolicy playerUserLogChunkPolicy(
+            MeterRegistry meterRegistry,
+            @Value("${batch.chunk.min-size:1000}") int minSize,
+            @Value("${batch.chunk.max-size:1000}") int maxSize,
+            @Value("${batch.chunk.initial-size:1000}") int initialSize,
+            @Value("${batch.chunk.target-latency:500ms}") Duration targetLatency) {
+        return new AdaptiveChunkSizePolicy(meterRegistry, minSize, maxSize, initialSize, targetLatency);
+    }
+
+    @Bean
+    public Step playerUserLogStep(AdaptiveChunkSizePolicy playerUserLogChunkPolicy) {
         return new StepBuilder("playerUserLogStep", jobRepository)
-                .<PlayerUserLog, PlayerUserLog>chunk(1000, transactionManager)
+                .<PlayerUserLog, PlayerUserLog>chunk(playerUserLogChunkPolicy, transactionManager)
+                .listener(playerUserLogChunkPolicy)
                 .reader(playerUserLogJdbcItemReader.createReader())
                 .processor(playerUserLogProcessor())
                 .writer(playerUserLogWriter())
                 .build();
     }
 
+    // 멀티스레드 매니저 스텝: id 구간을 threads 개로 나눠 워커마다 자기 커서로 읽고 청크를 동시에 처리/쓰기
+    // 공유 리더(SynchronizedItemStreamReader)는 청크 경계와 읽은 위치가 스레드마다 섞여 재시작 위치를 저장할 수 없으므로
+    // 파티션별 StepExecution 에 각자의 읽은 건수를 저장하고, 재시작 시 실패한 파티션만 마지막 커밋 이후부터 다시 읽는다
+    @Bean
+    @JobScope
+    public Step playerUserLogPartitionStep(
+            Step playerUserLogWorkerStep,
+            Partitioner playerUserLogIdRangePartitioner,
+            @Value("#{jobParameters['threads']}") Long threads) {
+        int threadCount = threads != null ? threads.intValue() : 1;
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("player-userlog-");
+        taskExecutor.setConcurrencyLimit(threadCount);
+        return new StepBuilder("playerUserLogPartitionStep", jobRepository)
+                .partitioner("playerUserLogWorkerStep", playerUserLogIdRangePartitioner)
+                .step(playerUserLogWorkerStep)
+                .gridSize(threadCount)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step playerUserLogWorkerStep(JdbcCursorItemReader<PlayerUserLog> playerUserLogIdRangeReader,
+                                        AdaptiveChunkSizePolicy playerUserLogChunkPolicy) {
+        return new StepBuilder("playerUserLogWorkerStep", jobRepository)
+                .<PlayerUserLog, PlayerUserLog>chunk(playerUserLogChunkPolicy, transactionManager)
+                .listener(playerUserLogChunkPolicy)
+                .reader(playerUserLogIdRangeReader)
+                .processor(playerUserLogProcessor())
+                .writer(playerUserLogWriter())
+                .build();
+    }
+
+    @Bean
+    public Partitioner playerUserLogIdRangePartitioner() {
+        return new IdRangePartitioner(jdbcTemplate, "player_userlog");
+    }
+
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<PlayerUserLog> playerUserLogIdRangeReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return playerUserLogJdbcItemReader.createReader(minId, maxId);
+    }
+
+    // 비동기 파이프라인: 읽기/쓰기는 청크 스레드, 아이템별 처리(조회성 보강 등 I/O 대기)는 풀에서 동시에 실행
+    // AsyncItemWriter 가 청크 트랜잭션 안에서 Future 를 입력 순서대로 기다려 쓰므로 처리 실패 시 청크 전체가 롤백된다
+    // 처리 스레드는 청크 트랜잭션 밖이므로 프로세서는 조회만 하고 쓰기는 writer 에서 한다
+    @Bean
+    public Step playerUserLogAsyncStep(AdaptiveChunkSizePolicy playerUserLogChunkPolicy) {
+        return new StepBuilder("playerUserLogAsyncStep", jobRepository)
+                .<PlayerUserLog, Future<PlayerUserLog>>chunk(playerUserLogChunkPolicy, transactionManager)
+                .listener(playerUserLogChunkPolicy)
+                .reader(playerUserLogJdbcItemReader.createReader())
+                .processor(playerUserLogAsyncProcessor())
+                .writer(playerUserLogAsyncWriter())
+                .build();
+    }
+
+    @Bean
+    public AsyncItemProcessor<PlayerUserLog, PlayerUserLog> playerUserLogAsyncProcessor() {
+        AsyncItemProcessor<PlayerUserLog, PlayerUserLog> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(playerUserLogProcessor());
+        processor.setTaskExecutor(playerUserLogProcessorTaskExecutor());
+        return processor;
+    }
+
+    @Bean
+    public AsyncItemWriter<PlayerUserLog> playerUserLogAsyncWriter() {
+        AsyncItemWriter<PlayerUserLog> writer = new AsyncItemWriter<>();
+        writer.setDelegate(playerUserLogWriter());
+        return writer;
+    }
+
+    // Java 17 이라 가상 스레드 대신 크기가 고정된 플랫폼 스레드 풀 (동시 처리 수 = 풀 크기, 대기 작업은 청크 크기 이내)
+    @Bean
+    public TaskExecutor playerUserLogProcessorTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncPoolSize);
+        executor.setMaxPoolSize(asyncPoolSize);
+        executor.setThreadNamePrefix("player-userlog-async-");
+        return executor;
+    }
+
     @Bean
     public ItemProcessor<PlayerUserLog, PlayerUserLog> playerUserLogProcessor() {
         return item -> {
@@ -0,0 +1,247 @@
+package com.example.batch.config;
+
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.partition.FileRangePartitioner;
+import com.example.batch.reader.MappedPlayerUserLogReader;
+import com.example.batch.reader.PlayerUserLogFileFormat;
+import com.example.batch.service.PlayerUserLogIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.JsonLineMapper;
+import org.springframework.batch.item.file.transform.FieldSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+
+// 원본 로그 파일(CSV/NDJSON, 확장자로 판단) -> player_userlog 대량 적재
+// jobParameters['inputFile'] 필수, ['threads'] 파티션(워커) 수 (기본 1), ['readerType'] MAPPED(기본) / FLAT_FILE
+// MAPPED: 파일을 줄 경계에 맞춘 바이트 구간으로 나눠 워커마다 FileChannel.map 으로 읽는다
+// FLAT_FILE: 비교 기준용 FlatFileItemReader (줄마다 String + 토크나이저), 한 스레드
+// 쓰기는 PlayerUserLogIngestService.insert (JDBC batch, 사전 집계가 켜져 있으면 분 버킷 카운터도 함께 갱신)
+// 잡이 끝나면 파일 크기/적재 건수/경과 시간으로 MB/s, rows/s 를 로그와 잡 ExecutionContext 에 남긴다
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerUserLogIngestJobConfig {
+
+    public static final String INGEST_BYTES_KEY = "ingestBytes";
+    public static final String INGEST_ROWS_KEY = "ingestRows";
+    public static final String INGEST_MB_PER_SECOND_KEY = "ingestMbPerSecond";
+    public static final String INGEST_ROWS_PER_SECOND_KEY = "ingestRowsPerSecond";
+
+    public enum ReaderType {
+        MAPPED, FLAT_FILE
+    }
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final PlayerUserLogIngestService playerUserLogIngestService;
+
+    @Value("${ingest.file.chunk-size:5000}")
+    private int chunkSize;
+
+    @Bean
+    public Job playerUserLogIngestJob(Step playerUserLogIngestPartitionStep,
+                                      Step playerUserLogIngestFlatFileStep,
+                                      JobExecutionDecider playerUserLogIngestReaderDecider) {
+        return new JobBuilder("playerUserLogIngestJob", jobRepository)
+                .listener(playerUserLogIngestThroughputListener())
+                .start(playerUserLogIngestReaderDecider)
+                .on(ReaderType.FLAT_FILE.name()).to(playerUserLogIngestFlatFileStep)
+                .from(playerUserLogIngestReaderDecider)
+                .on("*").to(playerUserLogIngestPartitionStep)
+                .end()
+                .build();
+    }
+
+    @Bean
+    public JobExecutionDecider playerUserLogIngestReaderDecider() {
+        return (jobExecution, stepExecution) -> {
+            String readerType = jobExecution.getJobParameters().getString("readerType");
+            ReaderType type = readerType != null ? ReaderType.valueOf(readerType.toUpperCase()) : ReaderType.MAPPED;
+            log.info("로그 파일 적재 리더: {} ({})", type, jobExecution.getJobParameters().getString("inputFile"));
+            return new FlowExecutionStatus(type.name());
+        };
+    }
+
+    @Bean
+    @JobScope
+    public Step playerUserLogIngestPartitionStep(
+            Step playerUserLogIngestWorkerStep,
+            @Value("#{jobParameters['inputFile']}") String inputFile,
+            @Value("#{jobParameters['threads']}") Long threads) {
+        Path file = Path.of(inputFile);
+        int threadCount = threads != null ? threads.intValue() : 1;
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("player-userlog-ingest-");
+        taskExecutor.setConcurrencyLimit(threadCount);
+        return new StepBuilder("playerUserLogIngestPartitionStep", jobRepository)
+                .partitioner("playerUserLogIngestWorkerStep",
+                        new FileRangePartitioner(file, PlayerUserLogFileFormat.of(file).hasHeader()))
+                .step(playerUserLogIngestWorkerStep)
+                .gridSize(threadCount)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step playerUserLogIngestWorkerStep(MappedPlayerUserLogReader mappedPlayerUserLogReader) {
+        return new StepBuilder("playerUserLogIngestWorkerStep", jobRepository)
+                .<PlayerUserLog, PlayerUserLog>chunk(chunkSize, transactionManager)
+                .reader(mappedPlayerUserLogReader)
+                .writer(playerUserLogIngestWriter())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public MappedPlayerUserLogReader mappedPlayerUserLogReader(
+            @Value("#{jobParameters['inputFile']}") String inputFile,
+            @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+            @Value("#{stepExecutionContext['endOffset']}") Long endOffset) {
+        Path file = Path.of(inputFile);
+        return new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.of(file), startOffset, endOffset);
+    }
+
+    @Bean
+    public Step playerUserLogIngestFlatFileStep(FlatFileItemReader<PlayerUserLog> playerUserLogFlatFileItemReader) {
+        return new StepBuilder("playerUserLogIngestFlatFileStep", jobRepository)
+                .<PlayerUserLog, PlayerUserLog>chunk(chunkSize, transactionManager)
+                .reader(playerUserLogFlatFileItemReader)
+                .writer(playerUserLogIngestWriter())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<PlayerUserLog> playerUserLogFlatFileItemReader(
+            @Value("#{jobParameters['inputFile']}") String inputFile) {
+        return flatFileItemReader(Path.of(inputFile));
+    }
+
+    @Bean
+    public ItemWriter<PlayerUserLog> playerUserLogIngestWriter() {
+        return chunk -> playerUserLogIngestService.insert(new ArrayList<>(chunk.getItems()));
+    }
+
+    @Bean
+    public JobExecutionListener playerUserLogIngestThroughputListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                String inputFile = jobExecution.getJobParameters().getString("inputFile");
+                long bytes;
+                try {
+                    bytes = Files.size(Path.of(inputFile));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("로그 파일 크기를 알 수 없습니다: " + inputFile, e);
+                }
+                // 파티션 매니저 스텝은 워커 건수를 합친 값을 가지므로 워커 스텝은 세지 않는다
+                long rows = jobExecution.getStepExecutions().stream()
+                        .filter(step -> !step.getStepName().startsWith("playerUserLogIngestWorkerStep"))
+                        .mapToLong(StepExecution::getWriteCount)
+                        .sum();
+                long millis = Math.max(1, Duration.between(jobExecution.getStartTime(), LocalDateTime.now()).toMillis());
+                double mbPerSecond = bytes / (1024.0 * 1024.0) / (millis / 1000.0);
+                double rowsPerSecond = rows / (millis / 1000.0);
+
+                jobExecution.getExecutionContext().putLong(INGEST_BYTES_KEY, bytes);
+                jobExecution.getExecutionContext().putLong(INGEST_ROWS_KEY, rows);
+                jobExecution.getExecutionContext().putDouble(INGEST_MB_PER_SECOND_KEY, mbPerSecond);
+                jobExecution.getExecutionContext().putDouble(INGEST_ROWS_PER_SECOND_KEY, rowsPerSecond);
+                log.info("로그 파일 적재 완료: {} ({} bytes), {} 건, {} ms, {} MB/s, {} rows/s", inputFile, bytes, rows, millis,
+                        String.format("%.1f", mbPerSecond), String.format("%.0f", rowsPerSecond));
+            }
+        };
+    }
+
+    // 비교 기준: CSV 는 DelimitedLineTokenizer, NDJSON 은 JsonLineMapper(Jackson Map) 로 줄마다 String 을 만들어 파싱
+    public static FlatFileItemReader<PlayerUserLog> flatFileItemReader(Path file) {
+        FlatFileItemReaderBuilder<PlayerUserLog> builder = new FlatFileItemReaderBuilder<PlayerUserLog>()
+                .name("playerUserLogFlatFileItemReader")
+                .resource(new FileSystemResource(file))
+                .encoding("UTF-8");
+        if (PlayerUserLogFileFormat.of(file) == PlayerUserLogFileFormat.CSV) {
+            return builder
+                    .linesToSkip(1)
+                    .delimited()
+                    .names(PlayerUserLogFileFormat.COLUMNS)
+                    .fieldSetMapper(PlayerUserLogIngestJobConfig::toPlayerUserLog)
+                    .build();
+        }
+        JsonLineMapper jsonLineMapper = new JsonLineMapper();
+        return builder
+                .lineMapper((line, lineNumber) -> toPlayerUserLog(jsonLineMapper.mapLine(line, lineNumber)))
+                .build();
+    }
+
+    private static PlayerUserLog toPlayerUserLog(FieldSet fieldSet) {
+        return PlayerUserLog.builder()
+                .time(PlayerUserLogFileFormat.parseTime(fieldSet.readRawString("__time")))
+                .partnerId(emptyToNull(fieldSet.readRawString("partner_id")))
+                .broadcastStateCode(emptyToNull(fieldSet.readRawString("broadcast_state_code")))
+                .broadcastId(emptyToNull(fieldSet.readRawString("broadcast_id")))
+                .memberId(emptyToNull(fieldSet.readRawString("member_id")))
+                .action(emptyToNull(fieldSet.readRawString("action")))
+                .playtime(toInteger(fieldSet.readRawString("playtime")))
+                .likeCount(toInteger(fieldSet.readRawString("like_count")))
+                .productOrderAmount(toInteger(fieldSet.readRawString("product_order_amount")))
+                .productOrderQuantity(toInteger(fieldSet.readRawString("product_order_quantity")))
+                .broadcastTypeCode(emptyToNull(fieldSet.readRawString("broadcast_type_code")))
+                .build();
+    }
+
+    private static PlayerUserLog toPlayerUserLog(Map<String, Object> json) {
+        Object time = json.get("__time");
+        return PlayerUserLog.builder()
+                .time(time != null ? PlayerUserLogFileFormat.parseTime(time.toString()) : null)
+                .partnerId((String) json.get("partner_id"))
+                .broadcastStateCode((String) json.get("broadcast_state_code"))
+                .broadcastId((String) json.get("broadcast_id"))
+                .memberId((String) json.get("member_id"))
+                .action((String) json.get("action"))
+                .playtime(toInteger(json.get("playtime")))
+                .likeCount(toInteger(json.get("like_count")))
+                .productOrderAmount(toInteger(json.get("product_order_amount")))
+                .productOrderQuantity(toInteger(json.get("product_order_quantity")))
+                .broadcastTypeCode((String) json.get("broadcast_type_code"))
+                .build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value == null || value.toString().isEmpty()) {
+            return null;
+        }
+        return value instanceof Number number ? number.intValue() : Integer.valueOf(value.toString());
+    }
+}
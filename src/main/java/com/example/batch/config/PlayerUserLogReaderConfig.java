@@ -0,0 +1,16 @@
+package com.example.batch.config;
+
+import com.example.batch.reader.PlayerUserLogJdbcItemReader;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class PlayerUserLogReaderConfig {
+
+    // DataSource 가 여러 개일 때(메타/도메인 분리) @Primary 대신 집계 SQL(JdbcTemplate) 과 같은 DataSource 에서 읽는다
+    @Bean
+    public PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader(JdbcTemplate jdbcTemplate) {
+        return new PlayerUserLogJdbcItemReader(jdbcTemplate.getDataSource());
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.batch.controller;
 
 
+import com.example.batch.dto.JobExecutionProgressDto;
+import com.example.batch.service.AsyncJobLaunchService;
+import com.example.batch.service.JobExecutionProgressService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionException;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 
@@ -17,25 +23,105 @@ import java.time.LocalDateTime;
 @RestController
 public class BatchController {
     private final Job partnerAggregationJob;
-    private final JobLauncher jobLauncher;
+    private final Job playerUserLogIngestJob;
+    private final Job playerUserLogArchiveJob;
+    private final AsyncJobLaunchService asyncJobLaunchService;
+    private final JobExecutionProgressService jobExecutionProgressService;
 
+    // 잡은 jobLauncherTaskExecutor 풀에서 실행되고 요청은 JobExecution id 를 바로 반환 (진행 상황은 /batch/executions/{id})
     @GetMapping("/batch")
-    public void batch(LocalDateTime startDateTime, LocalDateTime endDateTime, String batchType, Long isRetryTest) {
-        JobParameters jobParameters = new JobParametersBuilder()
+    public Long batch(LocalDateTime startDateTime, LocalDateTime endDateTime, String batchType, Long isRetryTest,
+                      String aggregationMode, Long gridSize, Long sliceMinutes, String uvMode,
+                      String aggregationEngine, String aggregationType) {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
                 .addString("batchType", batchType)
                 .addLocalDateTime("startDateTime", startDateTime)
                 .addLocalDateTime("endDateTime", endDateTime)
-                .addLong("isRetryTest", isRetryTest)
-                .toJobParameters();
+                .addLong("isRetryTest", isRetryTest);
+        // SINGLE(기본) / PARTITIONED / TIME_SLICED / INCREMENTAL / ROLLUP
+        if (aggregationMode != null) {
+            jobParametersBuilder.addString("aggregationMode", aggregationMode);
+        }
+        if (gridSize != null) {
+            jobParametersBuilder.addLong("gridSize", gridSize);
+        }
+        if (sliceMinutes != null) {
+            jobParametersBuilder.addLong("sliceMinutes", sliceMinutes);
+        }
+        // EXACT(기본) / APPROXIMATE / BITMAP
+        if (uvMode != null) {
+            jobParametersBuilder.addString("uvMode", uvMode);
+        }
+        // SQL(기본) / STREAMING
+        if (aggregationEngine != null) {
+            jobParametersBuilder.addString("aggregationEngine", aggregationEngine);
+        }
+        // DAILY(기본) / HOURLY / MINUTELY: APPROXIMATE, BITMAP, INCREMENTAL 에서 사용
+        if (aggregationType != null) {
+            jobParametersBuilder.addString("aggregationType", aggregationType);
+        }
+        JobParameters jobParameters = jobParametersBuilder.toJobParameters();
 
 
         log.info("Batch job started with parameters: {}", jobParameters);
 
         try {
-            jobLauncher.run(partnerAggregationJob, jobParameters);
-        } catch (Exception e) {
-            log.error("Batch job failed with parameters: {}", jobParameters, e);
+            return asyncJobLaunchService.launch(partnerAggregationJob, jobParameters);
+        } catch (JobExecutionException e) {
+            log.error("Batch job launch failed with parameters: {}", jobParameters, e);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    // 원본 로그 파일(CSV/NDJSON) 적재. readerType: MAPPED(기본) / FLAT_FILE, threads: MAPPED 파티션(워커) 수
+    // 처리량(MB/s, rows/s)은 잡 ExecutionContext 와 로그에 남는다
+    @GetMapping("/batch/ingest")
+    public Long ingest(String inputFile, Long threads, String readerType) {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
+                .addString("inputFile", inputFile)
+                .addLocalDateTime("requestedAt", LocalDateTime.now());
+        if (threads != null) {
+            jobParametersBuilder.addLong("threads", threads);
+        }
+        if (readerType != null) {
+            jobParametersBuilder.addString("readerType", readerType);
+        }
+        JobParameters jobParameters = jobParametersBuilder.toJobParameters();
+
+        log.info("Ingest job started with parameters: {}", jobParameters);
+
+        try {
+            return asyncJobLaunchService.launch(playerUserLogIngestJob, jobParameters);
+        } catch (JobExecutionException e) {
+            log.error("Ingest job launch failed with parameters: {}", jobParameters, e);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    // __time < cutoffDateTime 인 로그를 콜드 스토리지 세그먼트로 옮긴다 (없으면 현재 시각 - archive.retention)
+    @GetMapping("/batch/archive")
+    public Long archive(LocalDateTime cutoffDateTime) {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
+                .addLocalDateTime("requestedAt", LocalDateTime.now());
+        if (cutoffDateTime != null) {
+            jobParametersBuilder.addLocalDateTime("cutoffDateTime", cutoffDateTime);
         }
+        JobParameters jobParameters = jobParametersBuilder.toJobParameters();
+
+        log.info("Archive job started with parameters: {}", jobParameters);
+
+        try {
+            return asyncJobLaunchService.launch(playerUserLogArchiveJob, jobParameters);
+        } catch (JobExecutionException e) {
+            log.error("Archive job launch failed with parameters: {}", jobParameters, e);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/batch/executions/{executionId}")
+    public JobExecutionProgressDto progress(@PathVariable Long executionId) {
+        return jobExecutionProgressService.getProgress(executionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "JobExecution not found: " + executionId));
     }
 
     @GetMapping("/batch/retry")
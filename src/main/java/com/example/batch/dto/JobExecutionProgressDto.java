@@ -0,0 +1,35 @@
+package com.example.batch.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobExecutionProgressDto {
+    private Long executionId;
+    private String jobName;
+    private String status;
+    private String exitCode;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long readCount;
+    private long writeCount;
+    private long elapsedMillis;
+    private double throughput; // 초당 읽은 건수
+    private List<StepProgress> steps;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StepProgress {
+        private String stepName;
+        private String status;
+        private long readCount;
+        private long writeCount;
+    }
+}
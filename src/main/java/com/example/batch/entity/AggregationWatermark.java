@@ -0,0 +1,32 @@
+package com.example.batch.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// 증분 집계 high-water mark: 이름(예: partnerAggregation:DAILY) 별로 마지막으로 반영한 player_userlog.id
+// 잡 인스턴스가 매 실행마다 바뀌므로 ExecutionContext 가 아닌 별도 테이블에 보관한다
+@Entity
+@Table(name = "aggregation_watermark")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregationWatermark {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "last_id")
+    private Long lastId;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
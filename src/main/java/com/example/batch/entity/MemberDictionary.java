@@ -0,0 +1,28 @@
+package com.example.batch.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// member_id 문자열 -> 조밀한 int ordinal (정확 UV 비트맵의 비트 위치)
+// 한 번 부여한 ordinal 은 바뀌지 않아야 저장된 비트맵끼리 OR 할 수 있으므로 행을 지우거나 고치지 않는다
+@Entity
+@Table(name = "member_dictionary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_member_dictionary_member_id", columnNames = "member_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "member_ordinal")
+    private Integer ordinal;
+
+    @Column(name = "member_id", length = 64, nullable = false)
+    private String memberId;
+}
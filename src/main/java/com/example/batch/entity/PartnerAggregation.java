@@ -5,12 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "partner_aggregation")
+@Table(name = "partner_aggregation", uniqueConstraints = {
+        // upsert 키: 같은 파트너/단위/버킷은 한 행 (aggregation_type/key 가 NULL 인 기간 집계 행은 제약 대상 아님)
+        @UniqueConstraint(name = "uk_partner_aggregation_key", columnNames = {"partner_id", "aggregation_type", "aggregation_key"})
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -83,6 +87,16 @@ public class PartnerAggregation {
     
     @Column(name = "aggregation_key")
     private String aggregationKey;  // 집계 키: yyyy-MM-dd, yyyy-MM-dd HH, yyyy-MM-dd HH:mm 등
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "uv_sketch")
+    private byte[] uvSketch; // 근사 UV 모드의 HyperLogLog 스케치 (버킷 간 UV 병합용)
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "uv_bitmap")
+    private byte[] uvBitmap; // 비트맵 UV 모드의 회원 ordinal RoaringBitmap (버킷/파트너 간 정확 UV 병합용)
     
     @CreationTimestamp
     @Column(name = "created_at")
@@ -0,0 +1,92 @@
+package com.example.batch.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// 시간 슬라이스별 부분 집계 (TIME_SLICED 모드의 중간 결과)
+// 합산 가능한 카운터와 회원 ordinal 비트맵을 보관한다 (병합 = 카운터 합산 + 비트맵 OR)
+@Entity
+@Table(name = "partner_aggregation_slice", indexes = {
+        @Index(name = "idx_partner_aggregation_slice_job", columnList = "job_instance_id, partner_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnerAggregationSlice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_instance_id")
+    private Long jobInstanceId;
+
+    @Column(name = "partner_id")
+    private String partnerId;
+
+    @Column(name = "slice_start")
+    private LocalDateTime sliceStart;
+
+    @Column(name = "slice_end")
+    private LocalDateTime sliceEnd;
+
+    @Column(name = "total_pv")
+    private Long totalPv;
+
+    @Column(name = "total_playtime")
+    private Long totalPlaytime;
+
+    @Column(name = "total_chat_count")
+    private Long totalChatCount;
+
+    @Column(name = "total_like_count")
+    private Long totalLikeCount;
+
+    @Column(name = "total_product_click_count")
+    private Long totalProductClickCount;
+
+    @Column(name = "total_product_order_count")
+    private Long totalProductOrderCount;
+
+    @Column(name = "total_product_order_amount")
+    private Long totalProductOrderAmount;
+
+    @Column(name = "total_product_order_quantity")
+    private Long totalProductOrderQuantity;
+
+    @Column(name = "total_product_order_cancel_count")
+    private Long totalProductOrderCancelCount;
+
+    @Column(name = "total_banner_click_count")
+    private Long totalBannerClickCount;
+
+    @Column(name = "total_coupon_click_count")
+    private Long totalCouponClickCount;
+
+    @Column(name = "total_reward_new_count")
+    private Long totalRewardNewCount;
+
+    @Column(name = "total_reward_complete_count")
+    private Long totalRewardCompleteCount;
+
+    @Column(name = "total_purchase_verifying_count")
+    private Long totalPurchaseVerifyingCount;
+
+    @Column(name = "total_quiz_new_count")
+    private Long totalQuizNewCount;
+
+    @Column(name = "total_share_click_count")
+    private Long totalShareClickCount;
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "uv_bitmap")
+    private byte[] uvBitmap; // 슬라이스 안의 회원 ordinal RoaringBitmap (UvBitmaps 직렬화)
+}
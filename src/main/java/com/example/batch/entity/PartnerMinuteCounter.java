@@ -0,0 +1,80 @@
+package com.example.batch.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 적재 시점 사전 집계: (partner_id, 분 버킷) 별 합산 가능한 카운터 (UV 제외)
+// player_userlog 를 넣는 같은 트랜잭션에서 더해지므로 원본 로그를 다시 읽지 않고 분/시간/일 집계를 만들 수 있다
+@Entity
+@Table(name = "partner_minute_counter", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_partner_minute_counter_key", columnNames = {"partner_id", "minute_bucket"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnerMinuteCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partner_id")
+    private String partnerId;
+
+    @Column(name = "minute_bucket")
+    private LocalDateTime minuteBucket; // __time 을 분 단위로 자른 값
+
+    @Column(name = "total_pv")
+    private Long totalPv;
+
+    @Column(name = "total_playtime")
+    private Long totalPlaytime;
+
+    @Column(name = "total_chat_count")
+    private Long totalChatCount;
+
+    @Column(name = "total_like_count")
+    private Long totalLikeCount;
+
+    @Column(name = "total_product_click_count")
+    private Long totalProductClickCount;
+
+    @Column(name = "total_product_order_count")
+    private Long totalProductOrderCount;
+
+    @Column(name = "total_product_order_amount")
+    private Long totalProductOrderAmount;
+
+    @Column(name = "total_product_order_quantity")
+    private Long totalProductOrderQuantity;
+
+    @Column(name = "total_product_order_cancel_count")
+    private Long totalProductOrderCancelCount;
+
+    @Column(name = "total_banner_click_count")
+    private Long totalBannerClickCount;
+
+    @Column(name = "total_coupon_click_count")
+    private Long totalCouponClickCount;
+
+    @Column(name = "total_reward_new_count")
+    private Long totalRewardNewCount;
+
+    @Column(name = "total_reward_complete_count")
+    private Long totalRewardCompleteCount;
+
+    @Column(name = "total_purchase_verifying_count")
+    private Long totalPurchaseVerifyingCount;
+
+    @Column(name = "total_quiz_new_count")
+    private Long totalQuizNewCount;
+
+    @Column(name = "total_share_click_count")
+    private Long totalShareClickCount;
+}
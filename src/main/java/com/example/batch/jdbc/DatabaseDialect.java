@@ -0,0 +1,109 @@
+package com.example.batch.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// 직접 쓰는 SQL 의 DB 별 차이 (H2: 테스트/벤치마크, MySQL/MariaDB: 운영)
+// DB 종류는 DataSource 마다 처음 한 번만 메타데이터로 확인하고 캐시한다
+public enum DatabaseDialect {
+    H2,
+    MYSQL;
+
+    private static final Map<DataSource, DatabaseDialect> DETECTED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static DatabaseDialect of(JdbcTemplate jdbcTemplate) {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        if (dataSource == null) {
+            throw new IllegalStateException("JdbcTemplate 에 DataSource 가 없습니다.");
+        }
+        return DETECTED.computeIfAbsent(dataSource, DatabaseDialect::detect);
+    }
+
+    public static DatabaseDialect of(String databaseProductName) {
+        if ("H2".equalsIgnoreCase(databaseProductName)) {
+            return H2;
+        }
+        if ("MySQL".equalsIgnoreCase(databaseProductName) || "MariaDB".equalsIgnoreCase(databaseProductName)) {
+            return MYSQL;
+        }
+        throw new IllegalStateException("지원하지 않는 DB 입니다: " + databaseProductName);
+    }
+
+    private static DatabaseDialect detect(DataSource dataSource) {
+        try {
+            return of(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("DB 종류를 확인할 수 없습니다.", e);
+        }
+    }
+
+    // 키 충돌 시 updateColumns 를 새 값으로 덮어쓰거나 (additive = false) 기존 값에 더하는 (additive = true) 한 행 upsert
+    // 파라미터 순서 = columns. h2Types 는 columns 와 같은 순서의 컬럼 타입 (H2 는 USING (VALUES ...) 의 파라미터 타입을 추론하지 못한다)
+    // keyColumns 는 H2 의 매칭 조건, MySQL 은 테이블의 유니크 키로 충돌을 판단한다
+    public String upsertSql(String table, String[] columns, String[] h2Types, String[] keyColumns,
+                            String[] updateColumns, boolean additive) {
+        String columnList = String.join(", ", columns);
+        StringBuilder update = new StringBuilder();
+        if (this == H2) {
+            StringBuilder placeholders = new StringBuilder();
+            StringBuilder insertValues = new StringBuilder();
+            for (int i = 0; i < columns.length; i++) {
+                placeholders.append(i == 0 ? "" : ", ").append("CAST(? AS ").append(h2Types[i]).append(')');
+                insertValues.append(i == 0 ? "" : ", ").append("s.").append(columns[i]);
+            }
+            StringBuilder on = new StringBuilder();
+            for (String key : keyColumns) {
+                on.append(on.isEmpty() ? "" : " AND ").append("t.").append(key).append(" = s.").append(key);
+            }
+            for (String column : updateColumns) {
+                update.append(update.isEmpty() ? "" : ", ").append(column).append(" = ")
+                        .append(additive ? "t." + column + " + " : "").append("s.").append(column);
+            }
+            return """
+                    MERGE INTO %s t
+                    USING (VALUES (%s)) s (%s)
+                    ON %s
+                    WHEN MATCHED THEN UPDATE SET %s
+                    WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)
+                """.formatted(table, placeholders, columnList, on, update, columnList, insertValues);
+        }
+        for (String column : updateColumns) {
+            update.append(update.isEmpty() ? "" : ", ").append(column).append(" = ")
+                    .append(additive ? column + " + " : "").append("VALUES(").append(column).append(')');
+        }
+        return """
+                INSERT INTO %s (%s)
+                VALUES (%s)
+                ON DUPLICATE KEY UPDATE %s
+            """.formatted(table, columnList, String.join(", ", Collections.nCopies(columns.length, "?")), update);
+    }
+
+    // 키가 이미 있으면 아무것도 하지 않는 한 행 insert
+    public String insertIgnoreSql(String table, String[] columns, String[] keyColumns) {
+        String columnList = String.join(", ", columns);
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        if (this == H2) {
+            return "MERGE INTO " + table + " (" + columnList + ") KEY (" + String.join(", ", keyColumns) + ") VALUES (" + placeholders + ")";
+        }
+        return "INSERT IGNORE INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")";
+    }
+
+    // INSERT ... SELECT. H2 는 INSERT IGNORE 가 없으므로 select 가 이미 있는 키를 걸러야 한다 (동시 실행 충돌은 DuplicateKeyException)
+    public String insertIgnoreSelectSql(String table, String[] columns, String select) {
+        return (this == H2 ? "INSERT INTO " : "INSERT IGNORE INTO ") + table + " (" + String.join(", ", columns) + ") " + select;
+    }
+
+    // 분 단위로 자른 시각 식
+    public String truncateToMinute(String column) {
+        return this == H2
+                ? "DATE_TRUNC('MINUTE', " + column + ")"
+                : "CAST(DATE_FORMAT(" + column + ", '%Y-%m-%d %H:%i:00') AS DATETIME)";
+    }
+}
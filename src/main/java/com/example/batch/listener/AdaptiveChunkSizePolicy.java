@@ -0,0 +1,148 @@
+package com.example.batch.listener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 청크 처리 시간(시작 ~ 커밋)이 targetLatency 에 가까워지도록 청크 크기를 실행 중에 조정하는 CompletionPolicy
+// 청크가 끝날 때마다 건당 처리 시간으로 목표 크기를 구해 현재 크기와의 중간값으로 이동 (한 번에 2 배 이상 바뀌지 않음)
+// 롤백된 청크는 다음 청크 크기를 절반으로 줄인다. 크기는 [minSize, maxSize] 안에서만 움직인다
+// 청크 경계를 알아야 하므로 스텝에 ChunkListener 로도 등록해야 한다 (.chunk(policy, tm).listener(policy))
+// 크기는 StepExecution 의 ExecutionContext 에 저장 (파티션 워커는 각자 수렴, 재시작 시 마지막 크기부터), 마지막으로 고른 크기는 batch.chunk.size 게이지
+@Slf4j
+public class AdaptiveChunkSizePolicy implements CompletionPolicy, ChunkListener {
+    public static final String CHUNK_SIZE_KEY = "adaptiveChunkSizePolicy.chunkSize";
+    private static final String CHUNK_START_KEY = "adaptiveChunkSizePolicy.chunkStart";
+    private static final String CHUNK_READ_COUNT_KEY = "adaptiveChunkSizePolicy.readCount";
+    private static final double MAX_STEP_FACTOR = 2.0;
+
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final int initialSize;
+    private final long targetLatencyNanos;
+
+    // 스텝 이름 태그 -> 마지막으로 고른 크기 (게이지)
+    private final Map<Tags, AtomicInteger> chosenSizes = new ConcurrentHashMap<>();
+
+    public AdaptiveChunkSizePolicy(MeterRegistry meterRegistry, int minSize, int maxSize, int initialSize,
+                                   Duration targetLatency) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("0 < minSize <= maxSize 여야 합니다: " + minSize + ", " + maxSize);
+        }
+        if (targetLatency.isZero() || targetLatency.isNegative()) {
+            throw new IllegalArgumentException("targetLatency 는 0 보다 커야 합니다: " + targetLatency);
+        }
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.initialSize = clamp(initialSize);
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        int size = stepContext == null ? initialSize : getChunkSize(stepContext.getStepExecution());
+        return new ChunkSizeContext(parent, size);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return result == null || !result.isContinuable() || isComplete(context);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return context.getStartedCount() >= ((ChunkSizeContext) context).chunkSize;
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        ((ChunkSizeContext) context).increment();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(CHUNK_START_KEY, System.nanoTime());
+        context.setAttribute(CHUNK_READ_COUNT_KEY, readCount(context.getStepContext().getStepExecution()));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Object start = context.getAttribute(CHUNK_START_KEY);
+        if (start == null) {
+            return;
+        }
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        long items = readCount(stepExecution) - (long) context.getAttribute(CHUNK_READ_COUNT_KEY);
+        if (items <= 0) {
+            return;
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - (long) start);
+        int next = nextSize(getChunkSize(stepExecution), items, elapsedNanos);
+        setChunkSize(stepExecution, next);
+        log.debug("청크 크기 조정: {} 건 {} ms -> 다음 청크 {} 건", items, elapsedNanos / 1_000_000, next);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        setChunkSize(stepExecution, clamp(getChunkSize(stepExecution) / 2));
+    }
+
+    // 목표 크기 = 목표 시간 / 건당 시간, 현재 크기에서 절반만 이동하고 한 번에 MAX_STEP_FACTOR 배 이상은 바꾸지 않는다
+    int nextSize(int current, long items, long elapsedNanos) {
+        double ideal = (double) targetLatencyNanos * items / elapsedNanos;
+        double bounded = Math.max(current / MAX_STEP_FACTOR, Math.min(current * MAX_STEP_FACTOR, ideal));
+        return clamp((int) Math.round((current + bounded) / 2));
+    }
+
+    public int getChunkSize(StepExecution stepExecution) {
+        return clamp(stepExecution.getExecutionContext().getInt(CHUNK_SIZE_KEY, initialSize));
+    }
+
+    private void setChunkSize(StepExecution stepExecution, int size) {
+        stepExecution.getExecutionContext().putInt(CHUNK_SIZE_KEY, size);
+        chosenSizes.computeIfAbsent(BatchMetricsListener.tags(stepExecution), tags -> {
+            AtomicInteger chosen = new AtomicInteger();
+            Gauge.builder("batch.chunk.size", chosen, AtomicInteger::get)
+                    .description("적응형 청크 정책이 마지막으로 고른 청크 크기")
+                    .tags(tags)
+                    .register(meterRegistry);
+            return chosen;
+        }).set(size);
+    }
+
+    private static long readCount(StepExecution stepExecution) {
+        return stepExecution.getReadCount() + stepExecution.getReadSkipCount();
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    private static class ChunkSizeContext extends RepeatContextSupport {
+        private final int chunkSize;
+
+        ChunkSizeContext(RepeatContext parent, int chunkSize) {
+            super(parent);
+            this.chunkSize = chunkSize;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.batch.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 잡/스텝/청크 Micrometer 지표 (BatchMetricsConfig 가 모든 잡과 TaskletStep 에 등록)
+// batch.items.read/processed/written: 청크 커밋마다 StepExecution 건수 증가분을 더하는 카운터 (Prometheus rate() 로 초당 처리량)
+// batch.chunk: 청크 시작부터 커밋(또는 롤백)까지 걸린 시간 히스토그램, batch.step.rollbacks: 스텝 롤백 수
+// batch.job.throughput: 마지막 실행의 초당 write 건수 (처리량 하락 알림용)
+// 리더 fetch 지연(spring.batch.item.read)과 커넥션 풀 대기(hikaricp.connections.acquire)는 Spring Batch/Boot 기본 지표를 쓴다
+@Component
+@RequiredArgsConstructor
+public class BatchMetricsListener implements JobExecutionListener, StepExecutionListener, ChunkListener {
+    private static final String CHUNK_START_KEY = "batchMetricsListener.chunkStart";
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private final MeterRegistry meterRegistry;
+
+    // stepExecutionId -> 이미 반영한 {read, processed, written}
+    private final Map<Long, long[]> publishedCounts = new ConcurrentHashMap<>();
+    // jobExecutionId -> 이번 실행에서 반영한 written 합계
+    private final Map<Long, LongAdder> jobWrittenCounts = new ConcurrentHashMap<>();
+    // jobName -> 마지막 실행 초당 written
+    private final Map<String, AtomicLong> jobThroughputs = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        jobWrittenCounts.put(jobExecution.getId(), new LongAdder());
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        LongAdder written = jobWrittenCounts.remove(jobExecution.getId());
+        LocalDateTime startTime = jobExecution.getStartTime();
+        if (written == null || startTime == null) {
+            return;
+        }
+        long elapsedMillis = Math.max(1, Duration.between(startTime, LocalDateTime.now()).toMillis());
+        String jobName = jobExecution.getJobInstance().getJobName();
+        jobThroughputs.computeIfAbsent(jobName, name -> {
+            AtomicLong throughput = new AtomicLong();
+            Gauge.builder("batch.job.throughput", throughput, AtomicLong::get)
+                    .description("마지막 잡 실행의 초당 write 건수")
+                    .baseUnit("items/s")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            return throughput;
+        }).set(written.sum() * 1000 / elapsedMillis);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        publishedCounts.put(stepExecution.getId(), new long[3]);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        // 청크가 없는 tasklet 스텝이나 마지막 청크 이후 남은 증가분 반영
+        publishCounts(stepExecution);
+        publishedCounts.remove(stepExecution.getId());
+        if (stepExecution.getRollbackCount() > 0) {
+            Counter.builder("batch.step.rollbacks")
+                    .tags(tags(stepExecution))
+                    .register(meterRegistry)
+                    .increment(stepExecution.getRollbackCount());
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(CHUNK_START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        recordChunk(context, "SUCCESS");
+        publishCounts(context.getStepContext().getStepExecution());
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        recordChunk(context, "FAILURE");
+    }
+
+    private void recordChunk(ChunkContext context, String status) {
+        Object start = context.getAttribute(CHUNK_START_KEY);
+        if (start == null) {
+            return;
+        }
+        Timer.builder("batch.chunk")
+                .description("청크 시작부터 커밋/롤백까지 걸린 시간")
+                .tags(tags(context.getStepContext().getStepExecution()).and("status", status))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+    }
+
+    // 멀티스레드 스텝은 여러 청크 스레드가 같은 StepExecution 으로 호출하므로 증가분 계산을 동기화
+    private void publishCounts(StepExecution stepExecution) {
+        long[] published = publishedCounts.get(stepExecution.getId());
+        if (published == null) {
+            return;
+        }
+        long readDelta;
+        long processedDelta;
+        long writtenDelta;
+        synchronized (published) {
+            long read = stepExecution.getReadCount();
+            long processed = stepExecution.getWriteCount() + stepExecution.getFilterCount() + stepExecution.getProcessSkipCount();
+            long written = stepExecution.getWriteCount();
+            readDelta = read - published[0];
+            processedDelta = processed - published[1];
+            writtenDelta = written - published[2];
+            published[0] = read;
+            published[1] = processed;
+            published[2] = written;
+        }
+        Tags tags = tags(stepExecution);
+        increment("batch.items.read", tags, readDelta);
+        increment("batch.items.processed", tags, processedDelta);
+        increment("batch.items.written", tags, writtenDelta);
+
+        LongAdder jobWritten = jobWrittenCounts.get(stepExecution.getJobExecutionId());
+        if (jobWritten != null && writtenDelta > 0) {
+            jobWritten.add(writtenDelta);
+        }
+    }
+
+    private void increment(String name, Tags tags, long delta) {
+        if (delta > 0) {
+            meterRegistry.counter(name, tags).increment(delta);
+        }
+    }
+
+    // 파티션 워커 스텝 이름("워커스텝명:partitionN")은 파티션 수만큼 시계열이 늘지 않도록 워커 스텝명으로 묶는다
+    static Tags tags(StepExecution stepExecution) {
+        String stepName = stepExecution.getStepName();
+        int separator = stepName.indexOf(PARTITION_SEPARATOR);
+        return Tags.of(
+                "job", stepExecution.getJobExecution().getJobInstance().getJobName(),
+                "step", separator < 0 ? stepName : stepName.substring(0, separator));
+    }
+}
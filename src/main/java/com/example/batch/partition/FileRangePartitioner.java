@@ -0,0 +1,86 @@
+package com.example.batch.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 로그 파일을 gridSize 개의 바이트 구간 [startOffset, endOffset) 으로 나눈다
+// 경계는 목표 위치 이후 첫 줄 시작으로 옮기므로 한 줄이 두 파티션에 걸치지 않는다 (줄이 긴 작은 파일은 파티션이 더 적을 수 있음)
+// skipHeader 면 첫 줄(CSV 헤더)은 어느 파티션에도 넣지 않는다
+@Slf4j
+@RequiredArgsConstructor
+public class FileRangePartitioner implements Partitioner {
+
+    public static final String START_OFFSET_KEY = "startOffset";
+    public static final String END_OFFSET_KEY = "endOffset";
+
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final boolean skipHeader;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = skipHeader ? nextLineStart(channel, 0, size) : 0;
+
+            List<Long> boundaries = new ArrayList<>();
+            boundaries.add(start);
+            int partitionCount = Math.max(1, gridSize);
+            for (int i = 1; i < partitionCount; i++) {
+                long target = start + (size - start) * i / partitionCount;
+                // target 이 줄 시작이면 그대로, 아니면 다음 줄 시작
+                long boundary = target <= start ? start : nextLineStart(channel, target - 1, size);
+                if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                    boundaries.add(boundary);
+                }
+            }
+            boundaries.add(size);
+
+            Map<String, ExecutionContext> partitions = new HashMap<>();
+            for (int i = 0; i < boundaries.size() - 1; i++) {
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_OFFSET_KEY, boundaries.get(i));
+                context.putLong(END_OFFSET_KEY, boundaries.get(i + 1));
+                partitions.put("partition" + i, context);
+            }
+            log.info("파일 구간 파티션 생성 완료: {} ({} bytes) -> {} 개", file, size, partitions.size());
+            return partitions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 파일을 나눌 수 없습니다: " + file, e);
+        }
+    }
+
+    // from 이후 첫 \n 다음 위치 (없으면 파일 끝)
+    static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
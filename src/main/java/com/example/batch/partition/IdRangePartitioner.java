@@ -0,0 +1,54 @@
+package com.example.batch.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+// 테이블의 PK(id) 구간 [MIN(id), MAX(id)] 을 gridSize 개의 연속 구간으로 나눈다
+// 각 워커는 자기 구간만 커서로 읽으므로 리더를 공유하지 않고, 재시작 시 파티션별 읽은 위치가 그대로 복원된다
+@Slf4j
+@RequiredArgsConstructor
+public class IdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + tableName, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tableName, Long.class);
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (minId == null || maxId == null) {
+            partitions.put("partition0", range(1L, 0L)); // 빈 테이블
+            return partitions;
+        }
+
+        int partitionCount = (int) Math.max(1, Math.min(gridSize, maxId - minId + 1));
+        long rangeSize = (maxId - minId + partitionCount) / partitionCount;
+        long start = minId;
+        for (int i = 0; i < partitionCount; i++) {
+            long end = i == partitionCount - 1 ? maxId : start + rangeSize - 1;
+            partitions.put("partition" + i, range(start, end));
+            start = end + 1;
+        }
+        log.info("id 구간 파티션 생성 완료: {} [{}, {}] -> {} 개", tableName, minId, maxId, partitionCount);
+        return partitions;
+    }
+
+    private static ExecutionContext range(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID_KEY, minId);
+        context.putLong(MAX_ID_KEY, maxId);
+        return context;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.batch.partition;
+
+import com.example.batch.service.PartnerAggregationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// 집계 기간 안의 partner_id 를 gridSize 개의 그룹으로 나눈다
+// 각 워커 스텝은 stepExecutionContext 의 partnerIds 에 담긴 파트너만 집계/저장한다
+@Slf4j
+@RequiredArgsConstructor
+public class PartnerIdPartitioner implements Partitioner {
+
+    public static final String PARTNER_IDS_KEY = "partnerIds";
+
+    private final PartnerAggregationService partnerAggregationService;
+    private final LocalDateTime startDateTime;
+    private final LocalDateTime endDateTime;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<String> partnerIds = partnerAggregationService.findPartnerIdsByDateRange(startDateTime, endDateTime);
+        int partitionCount = Math.max(1, Math.min(gridSize, partnerIds.size()));
+
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        // 라운드로빈 분배: 정렬된 partner_id 가 한 워커에 몰리지 않도록
+        for (int i = 0; i < partnerIds.size(); i++) {
+            groups.get(i % partitionCount).add(partnerIds.get(i));
+        }
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < partitionCount; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(PARTNER_IDS_KEY, String.join(",", groups.get(i)));
+            partitions.put("partition" + i, context);
+        }
+        log.info("파티션 생성 완료: {} 개 파트너 -> {} 개 파티션", partnerIds.size(), partitionCount);
+        return partitions;
+    }
+
+    public static List<String> parsePartnerIds(String partnerIds) {
+        if (partnerIds == null || partnerIds.isBlank()) {
+            return List.of();
+        }
+        return List.of(partnerIds.split(","));
+    }
+}
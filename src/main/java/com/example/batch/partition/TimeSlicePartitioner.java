@@ -0,0 +1,46 @@
+package com.example.batch.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+
+// 집계 기간 [startDateTime, endDateTime) 을 sliceSize 단위의 시간 슬라이스로 나눈다
+// 슬라이스 개수는 기간/sliceSize 로 정해지며 gridSize 는 사용하지 않는다 (동시 실행 수는 TaskExecutor 가 제한)
+@Slf4j
+@RequiredArgsConstructor
+public class TimeSlicePartitioner implements Partitioner {
+
+    public static final String SLICE_START_KEY = "sliceStart";
+    public static final String SLICE_END_KEY = "sliceEnd";
+
+    private final LocalDateTime startDateTime;
+    private final LocalDateTime endDateTime;
+    private final Duration sliceSize;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        LocalDateTime sliceStart = startDateTime;
+        int index = 0;
+        while (sliceStart.isBefore(endDateTime)) {
+            LocalDateTime sliceEnd = sliceStart.plus(sliceSize);
+            if (sliceEnd.isAfter(endDateTime)) {
+                sliceEnd = endDateTime;
+            }
+            ExecutionContext context = new ExecutionContext();
+            context.putString(SLICE_START_KEY, sliceStart.toString());
+            context.putString(SLICE_END_KEY, sliceEnd.toString());
+            partitions.put("slice" + index++, context);
+            sliceStart = sliceEnd;
+        }
+        log.info("시간 슬라이스 생성 완료: {} ~ {}, {} 단위 {} 개", startDateTime, endDateTime, sliceSize, partitions.size());
+        return partitions;
+    }
+}
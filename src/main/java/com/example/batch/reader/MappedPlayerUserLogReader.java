@@ -0,0 +1,137 @@
+package com.example.batch.reader;
+
+import com.example.batch.entity.PlayerUserLog;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// 로그 파일의 바이트 구간 [startOffset, endOffset) 을 FileChannel.map 으로 읽는다 (파티션 워커 하나당 하나)
+// 구간 경계는 줄 시작이어야 한다 (FileRangePartitioner). endOffset 이 음수면 파일 끝까지
+// 구간을 windowBytes 단위 창으로 매핑하고, 창 끝에 걸친 줄은 그 줄 시작부터 다시 매핑한다 (한 줄은 창보다 짧아야 함)
+// 줄은 PlayerUserLogLineParser 가 창에서 바로 읽는다. update() 때 다음 줄의 파일 위치를 저장하고 재시작하면 그 위치부터 읽는다
+public class MappedPlayerUserLogReader extends ItemStreamSupport implements ItemStreamReader<PlayerUserLog> {
+
+    public static final String POSITION_KEY = "position";
+    public static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    private final Path file;
+    private final long startOffset;
+    private final int windowBytes;
+    private final PlayerUserLogLineParser parser;
+    private long endOffset;
+    private FileChannel channel;
+    private long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    public MappedPlayerUserLogReader(Path file, PlayerUserLogFileFormat format, long startOffset, long endOffset) {
+        this(file, format, startOffset, endOffset, DEFAULT_WINDOW_BYTES);
+    }
+
+    MappedPlayerUserLogReader(Path file, PlayerUserLogFileFormat format, long startOffset, long endOffset, int windowBytes) {
+        this.file = file;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.windowBytes = windowBytes;
+        this.parser = new PlayerUserLogLineParser(format);
+        setName("mappedPlayerUserLogReader");
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new ItemStreamException("로그 파일을 열 수 없습니다: " + file, e);
+        }
+        if (endOffset < 0 || endOffset > fileSize) {
+            endOffset = fileSize;
+        }
+        String key = getExecutionContextKey(POSITION_KEY);
+        position = executionContext.containsKey(key) ? executionContext.getLong(key) : startOffset;
+        window = null;
+    }
+
+    @Override
+    public PlayerUserLog read() {
+        while (position < endOffset) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            int from = (int) (position - windowStart);
+            int newline = indexOfNewline(from);
+            if (newline < 0) {
+                long windowEnd = windowStart + window.limit();
+                if (windowEnd < fileSize) {
+                    if (windowStart == position) {
+                        throw new IllegalStateException("한 줄이 매핑 창(" + windowBytes + " bytes)보다 깁니다: " + file + " @" + position);
+                    }
+                    // 창 끝에 걸친 줄: 줄 시작부터 다시 매핑
+                    map(position);
+                    continue;
+                }
+                newline = window.limit(); // 마지막 줄에 \n 이 없음
+            }
+
+            long lineStart = position;
+            position = windowStart + newline + 1;
+            PlayerUserLog item;
+            try {
+                item = parser.parse(window, from, newline);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("로그 파일 줄을 읽을 수 없습니다: " + file + " @" + lineStart, e);
+            }
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(POSITION_KEY), Math.min(position, endOffset));
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        window = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("로그 파일을 닫을 수 없습니다: " + file, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private void map(long start) {
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, fileSize - start));
+            windowStart = start;
+        } catch (IOException e) {
+            throw new ItemStreamException("로그 파일을 매핑할 수 없습니다: " + file + " @" + start, e);
+        }
+    }
+
+    private int indexOfNewline(int from) {
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.batch.reader;
+
+import com.example.batch.entity.PlayerUserLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// player_userlog 원본 로그 파일 형식 (한 줄 = 한 행, UTF-8, 줄 끝은 \n 또는 \r\n)
+// CSV: 첫 줄은 HEADER, 컬럼 순서 고정, 빈 칸은 NULL, 값에 쉼표/따옴표 없음 (따옴표로 감싼 값은 따옴표만 벗긴다)
+// NDJSON: 평평한 JSON 객체 하나, 키는 컬럼 이름, 값은 문자열/숫자/null (없는 키는 NULL)
+// __time 은 yyyy-MM-dd'T'HH:mm:ss[.SSS] (T 대신 공백 허용)
+public enum PlayerUserLogFileFormat {
+    CSV,
+    NDJSON;
+
+    public static final String[] COLUMNS = {
+            "__time", "partner_id", "broadcast_state_code", "broadcast_id", "member_id", "action",
+            "playtime", "like_count", "product_order_amount", "product_order_quantity", "broadcast_type_code"};
+    public static final String HEADER = String.join(",", COLUMNS);
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    // 확장자로 판단 (.csv / .ndjson, .jsonl)
+    public static PlayerUserLogFileFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("지원하지 않는 로그 파일 형식입니다: " + file);
+    }
+
+    public boolean hasHeader() {
+        return this == CSV;
+    }
+
+    // 테스트 데이터/벤치마크용 파일 쓰기
+    public void writeHeader(Appendable out) throws IOException {
+        if (hasHeader()) {
+            out.append(HEADER).append('\n');
+        }
+    }
+
+    public void write(Appendable out, PlayerUserLog log) throws IOException {
+        Object[] values = {
+                log.getTime() != null ? TIME_FORMAT.format(log.getTime()) : null,
+                log.getPartnerId(), log.getBroadcastStateCode(), log.getBroadcastId(), log.getMemberId(), log.getAction(),
+                log.getPlaytime(), log.getLikeCount(), log.getProductOrderAmount(), log.getProductOrderQuantity(),
+                log.getBroadcastTypeCode()};
+        if (this == CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (values[i] != null) {
+                    out.append(values[i].toString());
+                }
+            }
+        } else {
+            out.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append('"').append(COLUMNS[i]).append("\":");
+                Object value = values[i];
+                if (value == null) {
+                    out.append("null");
+                } else if (value instanceof String) {
+                    out.append('"').append((String) value).append('"');
+                } else {
+                    out.append(value.toString());
+                }
+            }
+            out.append('}');
+        }
+        out.append('\n');
+    }
+
+    public static LocalDateTime parseTime(CharSequence value) {
+        return LocalDateTime.parse(value.toString().replace(' ', 'T'));
+    }
+}
@@ -1,87 +1,123 @@
 package com.example.batch.reader;
 
 import java.util.Iterator;
+import java.util.List;
 
-import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.NonTransientResourceException;
 import org.springframework.batch.item.ParseException;
 import org.springframework.batch.item.UnexpectedInputException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.example.batch.entity.PlayerUserLog;
 import com.example.batch.repository.PlayerUserLogRepository;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 
-// 페이징 + jpa 방식 
+// keyset(seek) 페이징 + jpa 방식
+// OFFSET 페이징은 페이지마다 앞 행을 다시 건너뛰고 COUNT(*) 까지 실행해 뒤 페이지일수록 느려진다
+// WHERE id > :lastId ORDER BY id LIMIT :n 은 PK 인덱스로 바로 찾아가므로 페이지 위치와 무관하게 일정
+// 마지막으로 반환한 id 를 ExecutionContext 에 저장해 재시작 시 그 다음 행부터 읽는다
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class PlayerUserLogItemReader implements ItemReader<PlayerUserLog> {
+public class PlayerUserLogItemReader implements ItemStreamReader<PlayerUserLog> {
+
+    public static final String LAST_ID_KEY = "playerUserLogItemReader.lastId";
+    public static final int DEFAULT_PAGE_SIZE = 1000;
 
     private final PlayerUserLogRepository playerUserLogRepository;
-    
+
+    private final int pageSize; // 페이지 크기
     private Iterator<PlayerUserLog> currentPageIterator;
-    private int currentPage = 0;
-    private static final int PAGE_SIZE = 1000; // 페이지 크기
+    private long lastLoadedId = 0L;   // 다음 페이지 조회 기준
+    private long lastReturnedId = 0L; // 재시작 기준 (청크 커밋 시점에 저장)
+    private int pageCount = 0;
     private boolean isInitialized = false;
 
+    @Autowired
+    public PlayerUserLogItemReader(PlayerUserLogRepository playerUserLogRepository) {
+        this(playerUserLogRepository, DEFAULT_PAGE_SIZE);
+    }
+
+    // 다른 페이지 크기가 필요하면 (벤치마크 등) 공유 빈을 바꾸지 말고 새 리더를 만든다
+    public PlayerUserLogItemReader(PlayerUserLogRepository playerUserLogRepository, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize 는 0 보다 커야 합니다: " + pageSize);
+        }
+        this.playerUserLogRepository = playerUserLogRepository;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        reset();
+        if (executionContext.containsKey(LAST_ID_KEY)) {
+            lastLoadedId = executionContext.getLong(LAST_ID_KEY);
+            lastReturnedId = lastLoadedId;
+            log.info("PlayerUserLog ItemReader 재시작: lastId={}", lastLoadedId);
+        }
+        isInitialized = true;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(LAST_ID_KEY, lastReturnedId);
+    }
+
     @Override
     public PlayerUserLog read() throws Exception, UnexpectedInputException, ParseException, NonTransientResourceException {
         if (!isInitialized) {
             initializeReader();
         }
 
-        if (currentPageIterator != null && currentPageIterator.hasNext()) {
-            return currentPageIterator.next();
-        }
-
-        // 현재 페이지의 데이터를 모두 읽었으면 다음 페이지 로드
-        Page<PlayerUserLog> nextPage = loadNextPage();
-        if (nextPage != null && nextPage.hasContent()) {
+        if (currentPageIterator == null || !currentPageIterator.hasNext()) {
+            // 현재 페이지의 데이터를 모두 읽었으면 다음 페이지 로드
+            List<PlayerUserLog> nextPage = loadNextPage();
+            if (nextPage.isEmpty()) {
+                // 더 이상 읽을 데이터가 없음
+                return null;
+            }
             currentPageIterator = nextPage.iterator();
-            return currentPageIterator.next();
         }
 
-        // 더 이상 읽을 데이터가 없음
-        return null;
+        PlayerUserLog item = currentPageIterator.next();
+        lastReturnedId = item.getId();
+        return item;
     }
 
     private void initializeReader() {
         log.info("PlayerUserLog ItemReader 초기화 시작");
-        currentPage = 0;
-        currentPageIterator = null;
+        reset();
         isInitialized = true;
         log.info("PlayerUserLog ItemReader 초기화 완료");
     }
 
-    private Page<PlayerUserLog> loadNextPage() {
+    private List<PlayerUserLog> loadNextPage() {
         try {
-            Pageable pageable = PageRequest.of(currentPage, PAGE_SIZE);
-            Page<PlayerUserLog> page = playerUserLogRepository.findAll(pageable);
-            
-            if (page.hasContent()) {
-                log.debug("페이지 {} 로드 완료: {} 건", currentPage, page.getNumberOfElements());
-                currentPage++;
+            List<PlayerUserLog> page = playerUserLogRepository.findNextPage(lastLoadedId, pageSize);
+            if (page.isEmpty()) {
+                log.info("모든 페이지 로드 완료. 총 {} 페이지 처리", pageCount);
                 return page;
-            } else {
-                log.info("모든 페이지 로드 완료. 총 {} 페이지 처리", currentPage);
-                return null;
             }
+            lastLoadedId = page.get(page.size() - 1).getId();
+            pageCount++;
+            log.debug("페이지 {} 로드 완료: {} 건, lastId={}", pageCount, page.size(), lastLoadedId);
+            return page;
         } catch (Exception e) {
-            log.error("페이지 {} 로드 중 오류 발생", currentPage, e);
+            log.error("lastId {} 이후 페이지 로드 중 오류 발생", lastLoadedId, e);
             throw new RuntimeException("데이터 로드 중 오류 발생", e);
         }
     }
 
     public void reset() {
         isInitialized = false;
-        currentPage = 0;
+        lastLoadedId = 0L;
+        lastReturnedId = 0L;
+        pageCount = 0;
         currentPageIterator = null;
     }
-} 
\ No newline at end of file
+}
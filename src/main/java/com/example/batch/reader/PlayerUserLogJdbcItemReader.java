@@ -2,14 +2,21 @@ package com.example.batch.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.stereotype.Component;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
 
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.aggregation.PlayerAction;
 import com.example.batch.entity.PlayerUserLog;
 
 import lombok.RequiredArgsConstructor;
@@ -18,13 +25,22 @@ import lombok.extern.slf4j.Slf4j;
 
 // jdbc + cursor 방식 
 // cursor 방식은 전체 데이터를 읽을 때까지 커넥션을 유지해야한다 
-@Component
+// 빈은 PlayerUserLogReaderConfig 가 집계 SQL(JdbcTemplate) 과 같은 DataSource 로 만든다
 @RequiredArgsConstructor
 @Slf4j
 public class PlayerUserLogJdbcItemReader {
 
     private final DataSource dataSource;
 
+    // 경량 행 리더가 member_id 문자열이 필요한 행만 넘기는 콜백 (행마다 문자열을 만들지 않는다)
+    public interface MemberIdListener {
+        // true 면 이 ordinal 을 가진 행의 member_id 를 memberRead 로 넘긴다 (근사 UV 해시처럼 ordinal 마다 한 번 필요할 때)
+        boolean needsMemberId(int memberOrdinal);
+
+        // memberOrdinal 이 -1 이면 member_dictionary 에 아직 없는 회원 (등록 뒤에 들어온 행), 이 행의 memberCode 는 -1
+        void memberRead(int partnerCode, int memberOrdinal, String memberId);
+    }
+
     public JdbcCursorItemReader<PlayerUserLog> createReader() {
         JdbcCursorItemReader<PlayerUserLog> reader = new JdbcCursorItemReader<>();
         
@@ -42,6 +58,101 @@ public class PlayerUserLogJdbcItemReader {
         return reader;
     }
 
+    // 기간 조건 [startDateTime, endDateTime)
+    public JdbcCursorItemReader<PlayerUserLog> createReader(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        JdbcCursorItemReader<PlayerUserLog> reader = new JdbcCursorItemReader<>();
+
+        reader.setDataSource(dataSource);
+        reader.setSql("SELECT id, __time, partner_id, broadcast_state_code, broadcast_id, " +
+                     "member_id, action, playtime, like_count, product_order_amount, " +
+                     "product_order_quantity, broadcast_type_code, created_at " +
+                     "FROM player_userlog " +
+                     "WHERE __time >= ? AND __time < ? " +
+                     "ORDER BY id");
+        reader.setPreparedStatementSetter(ps -> {
+            ps.setObject(1, startDateTime);
+            ps.setObject(2, endDateTime);
+        });
+
+        reader.setRowMapper(new PlayerUserLogRowMapper());
+        reader.setFetchSize(1000);
+        reader.setMaxRows(0);
+
+        return reader;
+    }
+
+    // id 구간 조건 [minId, maxId]: 파티션 워커용 (워커마다 별도 커서)
+    public JdbcCursorItemReader<PlayerUserLog> createReader(long minId, long maxId) {
+        JdbcCursorItemReader<PlayerUserLog> reader = new JdbcCursorItemReader<>();
+
+        reader.setName("playerUserLogIdRangeReader");
+        reader.setDataSource(dataSource);
+        reader.setSql("SELECT id, __time, partner_id, broadcast_state_code, broadcast_id, " +
+                     "member_id, action, playtime, like_count, product_order_amount, " +
+                     "product_order_quantity, broadcast_type_code, created_at " +
+                     "FROM player_userlog " +
+                     "WHERE id >= ? AND id <= ? " +
+                     "ORDER BY id");
+        reader.setPreparedStatementSetter(ps -> {
+            ps.setLong(1, minId);
+            ps.setLong(2, maxId);
+        });
+
+        reader.setRowMapper(new PlayerUserLogRowMapper());
+        reader.setFetchSize(1000);
+        reader.setMaxRows(0);
+
+        return reader;
+    }
+
+    // 기간 조건 [startDateTime, endDateTime) 경량 행 리더: 행마다 엔티티/LocalDateTime/Integer 를 만들지 않는다
+    // partner_id 는 partnerIds, 방송 상태/유형 코드는 codes 사전으로 인코딩 (action 은 PlayerAction 에 없는 코드는 -1)
+    // member_id 는 member_dictionary 를 조인한 ordinal, 집계에 쓰지 않는 broadcast_id 는 읽지 않는다
+    // 사전에 없는 회원은 memberIds 로 넘기고 (호출한 쪽이 커서를 닫은 뒤 등록), memberIds 가 null 이면 실패시킨다 (MemberDictionaryService.registerMembers 로 먼저 등록)
+    // 트랜잭션 안에서 열면 그 트랜잭션의 커넥션으로 읽는다 (같은 트랜잭션에서 등록한 사전 행이 보이고 커넥션을 하나만 쓴다)
+    // 집계는 순서와 무관하므로 정렬하지 않는다 (ORDER BY 가 있으면 MySQL 은 기간 전체를 filesort 한 뒤에야 첫 행을 돌려준다)
+    public JdbcCursorItemReader<PlayerUserLogRow> createRowReader(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                                  CodeDictionary partnerIds, CodeDictionary codes,
+                                                                  MemberIdListener memberIds) {
+        return createRowReader(startDateTime, endDateTime, null, partnerIds, codes, memberIds);
+    }
+
+    // partnerFilter 가 null 이 아니면 그 partner_id 의 행만 읽는다 (partner_id 가 NULL 인 행은 제외)
+    public JdbcCursorItemReader<PlayerUserLogRow> createRowReader(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                                  Collection<String> partnerFilter,
+                                                                  CodeDictionary partnerIds, CodeDictionary codes,
+                                                                  MemberIdListener memberIds) {
+        JdbcCursorItemReader<PlayerUserLogRow> reader = new JdbcCursorItemReader<>();
+        List<Object> args = new ArrayList<>();
+        args.add(startDateTime);
+        args.add(endDateTime);
+        String partnerCondition = "";
+        if (partnerFilter != null) {
+            partnerCondition = " AND p.partner_id IN (" + String.join(", ", Collections.nCopies(partnerFilter.size(), "?")) + ")";
+            args.addAll(partnerFilter);
+        }
+
+        reader.setName("playerUserLogRowReader");
+        reader.setDataSource(new TransactionAwareDataSourceProxy(dataSource));
+        reader.setSql("SELECT p.id, p.__time, p.partner_id, p.broadcast_state_code, " +
+                     "d.member_ordinal, p.action, p.playtime, p.like_count, p.product_order_amount, " +
+                     "p.product_order_quantity, p.broadcast_type_code, p.member_id " +
+                     "FROM player_userlog p " +
+                     "LEFT JOIN member_dictionary d ON d.member_id = p.member_id " +
+                     "WHERE p.__time >= ? AND p.__time < ?" + partnerCondition);
+        reader.setPreparedStatementSetter(ps -> {
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+        });
+
+        reader.setRowMapper(new PlayerUserLogCompactRowMapper(partnerIds, codes, memberIds));
+        reader.setFetchSize(1000);
+        reader.setMaxRows(0);
+
+        return reader;
+    }
+
     private static class PlayerUserLogRowMapper implements RowMapper<PlayerUserLog> {
         @Override
         public PlayerUserLog mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -62,4 +173,69 @@ public class PlayerUserLogJdbcItemReader {
                     .build();
         }
     }
-} 
\ No newline at end of file
+
+    // 컬럼 이름 조회 대신 인덱스로 읽고, NULL 숫자는 wasNull() 로 비트마스크에 기록
+    private static class PlayerUserLogCompactRowMapper implements RowMapper<PlayerUserLogRow> {
+        private final CodeDictionary partnerIds;
+        private final CodeDictionary codes;
+        private final MemberIdListener memberIds;
+
+        private PlayerUserLogCompactRowMapper(CodeDictionary partnerIds, CodeDictionary codes,
+                                              MemberIdListener memberIds) {
+            this.partnerIds = partnerIds;
+            this.codes = codes;
+            this.memberIds = memberIds;
+        }
+
+        @Override
+        public PlayerUserLogRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+            int nullMask = 0;
+            int playtime = rs.getInt(7);
+            if (rs.wasNull()) {
+                nullMask |= PlayerUserLogRow.PLAYTIME_NULL;
+            }
+            int likeCount = rs.getInt(8);
+            if (rs.wasNull()) {
+                nullMask |= PlayerUserLogRow.LIKE_COUNT_NULL;
+            }
+            int productOrderAmount = rs.getInt(9);
+            if (rs.wasNull()) {
+                nullMask |= PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL;
+            }
+            int productOrderQuantity = rs.getInt(10);
+            if (rs.wasNull()) {
+                nullMask |= PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL;
+            }
+            PlayerAction action = PlayerAction.fromCode(rs.getString(6));
+            Timestamp time = rs.getTimestamp(2);
+            int partnerCode = partnerIds.encode(rs.getString(3));
+            int memberOrdinal = rs.getInt(5);
+            if (rs.wasNull()) {
+                memberOrdinal = -1;
+                String memberId = rs.getString(12);
+                if (memberId != null) {
+                    if (memberIds == null) {
+                        throw new IllegalStateException("member_dictionary 에 없는 회원입니다 (registerMembers 를 먼저 호출하세요): " + memberId);
+                    }
+                    memberIds.memberRead(partnerCode, -1, memberId);
+                }
+            } else if (memberIds != null && memberIds.needsMemberId(memberOrdinal)) {
+                memberIds.memberRead(partnerCode, memberOrdinal, rs.getString(12));
+            }
+
+            return new PlayerUserLogRow(
+                    rs.getLong(1),
+                    time != null ? time.getTime() : 0L,
+                    partnerCode,
+                    codes.encode(rs.getString(4)),
+                    codes.encode(rs.getString(11)),
+                    action != null ? action.ordinal() : -1,
+                    memberOrdinal,
+                    playtime,
+                    likeCount,
+                    productOrderAmount,
+                    productOrderQuantity,
+                    nullMask);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.batch.reader;
+
+import com.example.batch.entity.PlayerUserLog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+// 로그 파일 한 줄(ByteBuffer 의 [from, to)) -> PlayerUserLog: 줄 String 을 만들지 않고 바이트에서 바로 읽는다
+// 필드는 바이트 구간만 기록하고, 숫자/__time 은 바이트에서 직접 계산한다
+// 카디널리티가 작은 코드(partner_id, 방송 상태/유형 코드, action)는 바이트가 같으면 같은 String 을 재사용하고
+// broadcast_id/member_id 만 행마다 String 을 만든다 (JDBC setString)
+// 스레드 안전하지 않음: 리더 하나당 하나
+final class PlayerUserLogLineParser {
+
+    private static final int TIME = 0;
+    private static final int PARTNER_ID = 1;
+    private static final int BROADCAST_STATE_CODE = 2;
+    private static final int BROADCAST_ID = 3;
+    private static final int MEMBER_ID = 4;
+    private static final int ACTION = 5;
+    private static final int PLAYTIME = 6;
+    private static final int LIKE_COUNT = 7;
+    private static final int PRODUCT_ORDER_AMOUNT = 8;
+    private static final int PRODUCT_ORDER_QUANTITY = 9;
+    private static final int BROADCAST_TYPE_CODE = 10;
+    private static final int FIELD_COUNT = PlayerUserLogFileFormat.COLUMNS.length;
+
+    private static final byte[][] KEYS = new byte[FIELD_COUNT][];
+
+    static {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            KEYS[i] = PlayerUserLogFileFormat.COLUMNS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final PlayerUserLogFileFormat format;
+    private final CodeStrings codes = new CodeStrings();
+    // 필드별 바이트 구간 [starts, ends), starts 가 -1 이면 NULL
+    private final int[] starts = new int[FIELD_COUNT];
+    private final int[] ends = new int[FIELD_COUNT];
+    private final boolean[] escaped = new boolean[FIELD_COUNT];
+    private byte[] scratch = new byte[64];
+    private ByteBuffer buffer;
+
+    PlayerUserLogLineParser(PlayerUserLogFileFormat format) {
+        this.format = format;
+    }
+
+    // 빈 줄이면 null
+    PlayerUserLog parse(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (isBlank(from, to)) {
+            return null;
+        }
+        Arrays.fill(starts, -1);
+        Arrays.fill(escaped, false);
+        if (format == PlayerUserLogFileFormat.CSV) {
+            splitCsv(from, to);
+        } else {
+            scanJson(from, to);
+        }
+
+        return PlayerUserLog.builder()
+                .time(time(TIME))
+                .partnerId(code(PARTNER_ID))
+                .broadcastStateCode(code(BROADCAST_STATE_CODE))
+                .broadcastId(string(BROADCAST_ID))
+                .memberId(string(MEMBER_ID))
+                .action(code(ACTION))
+                .playtime(integer(PLAYTIME))
+                .likeCount(integer(LIKE_COUNT))
+                .productOrderAmount(integer(PRODUCT_ORDER_AMOUNT))
+                .productOrderQuantity(integer(PRODUCT_ORDER_QUANTITY))
+                .broadcastTypeCode(code(BROADCAST_TYPE_CODE))
+                .build();
+    }
+
+    private void splitCsv(int from, int to) {
+        int field = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buffer.get(i) == ',') {
+                if (field == FIELD_COUNT) {
+                    throw new IllegalArgumentException("CSV 컬럼 수가 " + FIELD_COUNT + " 개보다 많습니다.");
+                }
+                int end = i;
+                if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                    start++;
+                    end--;
+                }
+                if (end > start) {
+                    starts[field] = start;
+                    ends[field] = end;
+                }
+                field++;
+                start = i + 1;
+            }
+        }
+        if (field != FIELD_COUNT) {
+            throw new IllegalArgumentException("CSV 컬럼 수가 " + FIELD_COUNT + " 개가 아닙니다: " + field);
+        }
+    }
+
+    // 평평한 객체만: {"key":value,...}, 값은 문자열/숫자/true/false/null
+    private void scanJson(int from, int to) {
+        int i = skipWhitespace(from, to);
+        expect(i++, to, '{');
+        i = skipWhitespace(i, to);
+        if (i < to && buffer.get(i) == '}') {
+            return;
+        }
+        while (true) {
+            i = skipWhitespace(i, to);
+            expect(i++, to, '"');
+            int keyStart = i;
+            while (i < to && buffer.get(i) != '"') {
+                i++;
+            }
+            int field = field(keyStart, i);
+            i = skipWhitespace(i + 1, to);
+            expect(i++, to, ':');
+            i = skipWhitespace(i, to);
+            if (i >= to) {
+                throw new IllegalArgumentException("JSON 값이 없습니다.");
+            }
+            int valueStart;
+            int valueEnd;
+            boolean valueEscaped = false;
+            if (buffer.get(i) == '"') {
+                valueStart = ++i;
+                while (i < to && buffer.get(i) != '"') {
+                    if (buffer.get(i) == '\\') {
+                        valueEscaped = true;
+                        i++;
+                    }
+                    i++;
+                }
+                expect(i, to, '"');
+                valueEnd = i++;
+            } else {
+                valueStart = i;
+                while (i < to && buffer.get(i) != ',' && buffer.get(i) != '}' && !isWhitespace(buffer.get(i))) {
+                    i++;
+                }
+                valueEnd = i;
+                if (matches(valueStart, valueEnd, "null")) {
+                    valueStart = -1;
+                }
+            }
+            if (field >= 0 && valueStart >= 0 && valueEnd > valueStart) {
+                starts[field] = valueStart;
+                ends[field] = valueEnd;
+                escaped[field] = valueEscaped;
+            }
+            i = skipWhitespace(i, to);
+            if (i < to && buffer.get(i) == ',') {
+                i++;
+                continue;
+            }
+            expect(i, to, '}');
+            return;
+        }
+    }
+
+    private int field(int start, int end) {
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            byte[] key = KEYS[field];
+            if (key.length == end - start && matches(start, key)) {
+                return field;
+            }
+        }
+        return -1; // 모르는 키는 건너뛴다
+    }
+
+    private String string(int field) {
+        if (starts[field] < 0) {
+            return null;
+        }
+        if (escaped[field]) {
+            return unescape(starts[field], ends[field]);
+        }
+        int length = ends[field] - starts[field];
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(starts[field], scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String code(int field) {
+        if (starts[field] < 0) {
+            return null;
+        }
+        if (escaped[field]) {
+            return unescape(starts[field], ends[field]);
+        }
+        return codes.get(buffer, starts[field], ends[field]);
+    }
+
+    private Integer integer(int field) {
+        if (starts[field] < 0) {
+            return null;
+        }
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == end) {
+            throw new IllegalArgumentException("숫자가 아닙니다: " + PlayerUserLogFileFormat.COLUMNS[field]);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("숫자가 아닙니다: " + PlayerUserLogFileFormat.COLUMNS[field]);
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("int 범위를 넘는 값입니다: " + PlayerUserLogFileFormat.COLUMNS[field]);
+        }
+        return (int) value;
+    }
+
+    // yyyy-MM-dd'T'HH:mm:ss[.fraction] (T 대신 공백 허용), 그 외 형식은 LocalDateTime.parse 에 맡긴다
+    private LocalDateTime time(int field) {
+        if (starts[field] < 0) {
+            return null;
+        }
+        int s = starts[field];
+        int length = ends[field] - s;
+        if (length < 19 || buffer.get(s + 4) != '-' || buffer.get(s + 7) != '-'
+                || (buffer.get(s + 10) != 'T' && buffer.get(s + 10) != ' ')
+                || buffer.get(s + 13) != ':' || buffer.get(s + 16) != ':') {
+            return PlayerUserLogFileFormat.parseTime(string(field));
+        }
+        int nanos = 0;
+        if (length > 19) {
+            if (buffer.get(s + 19) != '.' || length > 29) {
+                return PlayerUserLogFileFormat.parseTime(string(field));
+            }
+            int digits = length - 20;
+            nanos = digits(s + 20, digits);
+            for (int i = digits; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+        return LocalDateTime.of(digits(s, 4), digits(s + 5, 2), digits(s + 8, 2),
+                digits(s + 11, 2), digits(s + 14, 2), digits(s + 17, 2), nanos);
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("__time 형식이 아닙니다.");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // JSON 이스케이프가 있는 드문 값만 여기로 온다
+    private String unescape(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        String raw = new String(bytes, StandardCharsets.UTF_8);
+        StringBuilder value = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 == raw.length()) {
+                value.append(c);
+                continue;
+            }
+            char next = raw.charAt(++i);
+            switch (next) {
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= raw.length()) {
+                        throw new IllegalArgumentException("잘못된 JSON 이스케이프입니다.");
+                    }
+                    value.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> value.append(next); // \" \\ \/
+            }
+        }
+        return value.toString();
+    }
+
+    private boolean matches(int start, int end, String literal) {
+        if (end - start != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (buffer.get(start + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(int start, byte[] key) {
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(int i, int to, char c) {
+        if (i >= to || buffer.get(i) != c) {
+            throw new IllegalArgumentException("JSON 형식이 아닙니다: '" + c + "' 가 필요합니다.");
+        }
+    }
+
+    private int skipWhitespace(int i, int to) {
+        while (i < to && isWhitespace(buffer.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isBlank(int from, int to) {
+        return skipWhitespace(from, to) == to;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    // 바이트 -> String 재사용 (open addressing, 가득 차면 새 String 을 그냥 만든다)
+    private static final class CodeStrings {
+        private static final int CAPACITY = 512;
+        private static final int MAX_ENTRIES = CAPACITY / 2;
+
+        private final byte[][] keys = new byte[CAPACITY][];
+        private final String[] values = new String[CAPACITY];
+        private int size;
+
+        String get(ByteBuffer buffer, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+            while (keys[slot] != null) {
+                if (equals(keys[slot], buffer, start, end)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & (CAPACITY - 1);
+            }
+            byte[] key = new byte[end - start];
+            buffer.get(start, key);
+            String value = new String(key, StandardCharsets.UTF_8);
+            if (size < MAX_ENTRIES) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+            }
+            return value;
+        }
+
+        private static boolean equals(byte[] key, ByteBuffer buffer, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.batch.reader;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 배치 hot path 용 경량 읽기 모델 (PlayerUserLog 엔티티 대신)
+// 저카디널리티 코드는 CodeDictionary id, member_id 는 member_dictionary ordinal (NULL 은 -1), action 은 PlayerAction ordinal (알 수 없으면 -1),
+// 숫자는 primitive + null 비트마스크, __time 은 epoch millis (밀리초 미만은 버림). 집계에 쓰지 않는 broadcast_id, created_at 은 읽지 않는다
+@Getter
+@AllArgsConstructor
+public final class PlayerUserLogRow {
+
+    public static final int PLAYTIME_NULL = 1;
+    public static final int LIKE_COUNT_NULL = 1 << 1;
+    public static final int PRODUCT_ORDER_AMOUNT_NULL = 1 << 2;
+    public static final int PRODUCT_ORDER_QUANTITY_NULL = 1 << 3;
+
+    private final long id;
+    private final long timeMillis;
+    private final int partnerCode;
+    private final int broadcastStateCode;
+    private final int broadcastTypeCode;
+    private final int actionOrdinal;
+    private final int memberCode;
+    private final int playtime;
+    private final int likeCount;
+    private final int productOrderAmount;
+    private final int productOrderQuantity;
+    private final int nullMask;
+
+    public boolean isNull(int flag) {
+        return (nullMask & flag) != 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.batch.repository;
+
+import com.example.batch.entity.AggregationWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AggregationWatermarkRepository extends JpaRepository<AggregationWatermark, String> {
+}
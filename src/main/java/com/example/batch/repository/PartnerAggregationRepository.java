@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,7 +31,20 @@ public interface PartnerAggregationRepository extends JpaRepository<PartnerAggre
     @Query(value = "SELECT * FROM partner_aggregation WHERE aggregation_type = :aggregationType AND aggregation_key = :aggregationKey", nativeQuery = true)
     List<PartnerAggregation> findByAggregationTypeAndAggregationKey(@Param("aggregationType") String aggregationType, @Param("aggregationKey") String aggregationKey);
 
+    @Query(value = "SELECT * FROM partner_aggregation WHERE partner_id = :partnerId AND aggregation_type = :aggregationType AND aggregation_key IN (:aggregationKeys)", nativeQuery = true)
+    List<PartnerAggregation> findByPartnerIdAndAggregationTypeAndAggregationKeyIn(@Param("partnerId") String partnerId, @Param("aggregationType") String aggregationType, @Param("aggregationKeys") Collection<String> aggregationKeys);
+
+    @Query(value = "SELECT * FROM partner_aggregation WHERE partner_id IN (:partnerIds) AND aggregation_type = :aggregationType AND aggregation_key IN (:aggregationKeys)", nativeQuery = true)
+    List<PartnerAggregation> findByPartnerIdInAndAggregationTypeAndAggregationKeyIn(@Param("partnerIds") Collection<String> partnerIds, @Param("aggregationType") String aggregationType, @Param("aggregationKeys") Collection<String> aggregationKeys);
+
+    @Query(value = "SELECT * FROM partner_aggregation WHERE aggregation_type = :aggregationType AND aggregation_key IN (:aggregationKeys)", nativeQuery = true)
+    List<PartnerAggregation> findByAggregationTypeAndAggregationKeyIn(@Param("aggregationType") String aggregationType, @Param("aggregationKeys") Collection<String> aggregationKeys);
+
     @Modifying
     @Query(value = "DELETE FROM partner_aggregation WHERE partner_id = :partnerId AND aggregation_type = :aggregationType AND aggregation_key = :aggregationKey", nativeQuery = true)
     void deleteByPartnerIdAndAggregationTypeAndAggregationKey(@Param("partnerId") String partnerId, @Param("aggregationType") String aggregationType, @Param("aggregationKey") String aggregationKey);
-} 
\ No newline at end of file
+
+    @Modifying
+    @Query(value = "DELETE FROM partner_aggregation WHERE aggregation_type IN (:aggregationTypes) AND aggregation_date >= :startDate AND aggregation_date < :endDate", nativeQuery = true)
+    int deleteByAggregationTypeInAndAggregationDateBetween(@Param("aggregationTypes") Collection<String> aggregationTypes, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+}
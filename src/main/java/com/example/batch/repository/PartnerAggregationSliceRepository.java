@@ -0,0 +1,16 @@
+package com.example.batch.repository;
+
+import com.example.batch.entity.PartnerAggregationSlice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PartnerAggregationSliceRepository extends JpaRepository<PartnerAggregationSlice, Long> {
+
+    @Modifying
+    @Query(value = "DELETE FROM partner_aggregation_slice WHERE job_instance_id = :jobInstanceId", nativeQuery = true)
+    void deleteByJobInstanceId(@Param("jobInstanceId") Long jobInstanceId);
+}
@@ -5,8 +5,11 @@ import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PlayerUserLogRepository extends JpaRepository<PlayerUserLog, Long> {
 
@@ -19,4 +22,8 @@ public interface PlayerUserLogRepository extends JpaRepository<PlayerUserLog, Lo
     @Query(value = "SELECT COUNT(*) FROM player_userlog", nativeQuery = true)
     long countAllData();
 
+    // keyset 페이징: COUNT/OFFSET 없이 PK 인덱스로 lastId 다음 행부터 조회
+    @Query(value = "SELECT * FROM player_userlog WHERE id > :lastId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<PlayerUserLog> findNextPage(@Param("lastId") long lastId, @Param("limit") int limit);
+
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.batch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+// API 요청용 비동기 실행: 잡은 jobLauncherTaskExecutor 에서 실행하고 호출 스레드는 JobExecution 만 받아 바로 반환
+// JobLauncher 빈으로 노출하면 기본 jobLauncher(동기, 테스트/내부 호출용) 와 타입 주입이 겹치므로 서비스 안에 둔다
+@Service
+@Slf4j
+public class AsyncJobLaunchService {
+    private final TaskExecutorJobLauncher jobLauncher;
+
+    public AsyncJobLaunchService(JobRepository jobRepository, TaskExecutor jobLauncherTaskExecutor) throws Exception {
+        this.jobLauncher = new TaskExecutorJobLauncher();
+        this.jobLauncher.setJobRepository(jobRepository);
+        this.jobLauncher.setTaskExecutor(jobLauncherTaskExecutor);
+        this.jobLauncher.afterPropertiesSet();
+    }
+
+    public Long launch(Job job, JobParameters jobParameters) throws JobExecutionException {
+        JobExecution jobExecution = jobLauncher.run(job, jobParameters);
+        log.info("잡 실행 요청: {} executionId={}", job.getName(), jobExecution.getId());
+        return jobExecution.getId();
+    }
+}
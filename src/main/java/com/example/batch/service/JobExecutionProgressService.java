@@ -0,0 +1,86 @@
+package com.example.batch.service;
+
+import com.example.batch.dto.JobExecutionProgressDto;
+import com.example.batch.dto.JobExecutionProgressDto.StepProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// JobRepository 에 기록된 StepExecution 으로 실행 중/완료된 잡의 진행 상황을 계산
+// 청크 커밋마다 read/write 건수가 갱신되므로 실행 중에도 마지막 커밋 기준 진행률을 볼 수 있다
+@Service
+@RequiredArgsConstructor
+public class JobExecutionProgressService {
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private final JobExplorer jobExplorer;
+
+    public Optional<JobExecutionProgressDto> getProgress(Long executionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            return Optional.empty();
+        }
+
+        Collection<StepExecution> stepExecutions = jobExecution.getStepExecutions();
+        long readCount = 0;
+        long writeCount = 0;
+        List<StepProgress> steps = new ArrayList<>();
+        for (StepExecution stepExecution : stepExecutions) {
+            steps.add(StepProgress.builder()
+                    .stepName(stepExecution.getStepName())
+                    .status(stepExecution.getStatus().name())
+                    .readCount(stepExecution.getReadCount())
+                    .writeCount(stepExecution.getWriteCount())
+                    .build());
+            // 파티션 매니저 스텝은 종료 시 워커 건수를 합산해 저장하므로 중복 집계하지 않는다
+            if (!isPartitionManager(stepExecution, stepExecutions)) {
+                readCount += stepExecution.getReadCount();
+                writeCount += stepExecution.getWriteCount();
+            }
+        }
+
+        LocalDateTime startTime = jobExecution.getStartTime();
+        LocalDateTime endTime = jobExecution.getEndTime();
+        long elapsedMillis = startTime == null ? 0
+                : Duration.between(startTime, endTime != null ? endTime : LocalDateTime.now()).toMillis();
+
+        return Optional.of(JobExecutionProgressDto.builder()
+                .executionId(jobExecution.getId())
+                .jobName(jobExecution.getJobInstance().getJobName())
+                .status(jobExecution.getStatus().name())
+                .exitCode(jobExecution.getExitStatus().getExitCode())
+                .startTime(startTime)
+                .endTime(endTime)
+                .readCount(readCount)
+                .writeCount(writeCount)
+                .elapsedMillis(elapsedMillis)
+                .throughput(elapsedMillis > 0 ? readCount * 1000.0 / elapsedMillis : 0)
+                .steps(steps)
+                .build());
+    }
+
+    // 워커 스텝 이름은 "워커스텝명:partitionN" 이고 매니저 실행 구간 안에서 시작한다
+    private static boolean isPartitionManager(StepExecution candidate, Collection<StepExecution> stepExecutions) {
+        if (candidate.getStepName().contains(PARTITION_SEPARATOR) || candidate.getStartTime() == null) {
+            return false;
+        }
+        for (StepExecution stepExecution : stepExecutions) {
+            LocalDateTime workerStart = stepExecution.getStartTime();
+            if (stepExecution.getStepName().contains(PARTITION_SEPARATOR) && workerStart != null
+                    && !workerStart.isBefore(candidate.getStartTime())
+                    && (candidate.getEndTime() == null || !workerStart.isAfter(candidate.getEndTime()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.StringIntDictionary;
+import com.example.batch.jdbc.DatabaseDialect;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// member_dictionary 기반 member_id -> ordinal 변환: 비트맵 UV, 스트리밍 집계, 콜드 스토리지 세그먼트가 모두 이 ordinal 을 회원 코드로 쓴다
+// 비트맵/슬라이스 스캔은 registerMembers 로 기간의 회원을 한 문장(INSERT ... SELECT)으로 먼저 등록하고, 스캔은 member_dictionary 를 조인해 ordinal 을 읽는다
+// ordinalsOf 는 스캔에 없던 회원(세그먼트, 등록 뒤 들어온 행, 먼저 등록하지 않는 스트리밍 스캔)용: 조회한 ordinal 은 크기 제한 JVM 캐시에 두고 처음 보는 회원만 DB 에서 찾거나 등록한다
+// 등록은 호출한 쪽 트랜잭션에서 한다 (커서를 연 채로 두 번째 커넥션을 잡지 않도록). 캐시는 커밋된 뒤에만 채운다 (롤백돼도 캐시와 테이블이 어긋나지 않도록)
+// H2: MERGE INTO ... KEY (member_id), MySQL: INSERT IGNORE (다른 JVM 이 먼저 등록한 회원은 그 ordinal 을 그대로 쓴다)
+@Slf4j
+@Service
+public class MemberDictionaryService {
+
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+    private static final int REGISTER_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrdinalCache ordinals;
+
+    @Autowired
+    public MemberDictionaryService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   @Value("${dictionary.member-cache-size:1000000}") int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("cacheSize must be positive: " + cacheSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ordinals = new OrdinalCache(cacheSize);
+    }
+
+    // [start, end) 의 player_userlog 회원 중 사전에 없는 회원을 한 번에 등록한다. 반환값은 새로 등록한 회원 수
+    // H2 는 병렬 워커(TIME_SLICED 슬라이스 등)가 같은 회원을 동시에 넣으면 키 중복으로 실패하므로 문장만 다시 실행한다
+    public int registerMembers(LocalDateTime start, LocalDateTime end) {
+        String sql = buildRegisterSql(DatabaseDialect.of(jdbcTemplate));
+        Integer registered = transactionTemplate.execute(status -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return jdbcTemplate.update(sql, start, end);
+                } catch (DuplicateKeyException e) {
+                    if (attempt >= REGISTER_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("member_dictionary 동시 등록 충돌, 다시 시도: {}", attempt);
+                }
+            }
+        });
+        int count = registered != null ? registered : 0;
+        log.debug("member_dictionary 일괄 등록: {} ~ {}, {} 건", start, end, count);
+        return count;
+    }
+
+    // memberIds 와 같은 순서의 ordinal 배열 (null 회원은 -1)
+    public int[] ordinalsOf(List<String> memberIds) {
+        int[] result = new int[memberIds.size()];
+        Set<String> missing = new LinkedHashSet<>();
+        for (int i = 0; i < result.length; i++) {
+            String memberId = memberIds.get(i);
+            result[i] = memberId != null ? ordinals.get(memberId) : -1;
+            if (memberId != null && result[i] < 0) {
+                missing.add(memberId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<String, Integer> resolved = resolve(new ArrayList<>(missing));
+        for (int i = 0; i < result.length; i++) {
+            String memberId = memberIds.get(i);
+            if (memberId != null && result[i] < 0) {
+                result[i] = resolved.get(memberId);
+            }
+        }
+        return result;
+    }
+
+    public int ordinalOf(String memberId) {
+        return ordinalsOf(Collections.singletonList(memberId))[0];
+    }
+
+    public int cachedSize() {
+        return ordinals.size();
+    }
+
+    private Map<String, Integer> resolve(List<String> memberIds) {
+        Map<String, Integer> resolved = new HashMap<>(memberIds.size() * 2);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < memberIds.size(); from += LOOKUP_BATCH_SIZE) {
+                List<String> batch = memberIds.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, memberIds.size()));
+                List<String> unknown = lookup(batch, resolved);
+                if (!unknown.isEmpty()) {
+                    jdbcTemplate.batchUpdate(buildInsertSql(DatabaseDialect.of(jdbcTemplate)), unknown, unknown.size(),
+                            (ps, memberId) -> ps.setString(1, memberId));
+                    List<String> stillUnknown = lookup(unknown, resolved);
+                    if (!stillUnknown.isEmpty()) {
+                        throw new IllegalStateException("회원 ordinal 을 등록하지 못했습니다: " + stillUnknown.get(0));
+                    }
+                    log.debug("member_dictionary 신규 등록: {} 건", unknown.size());
+                }
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 호출한 쪽 트랜잭션에 참여했으면 그 트랜잭션이 커밋된 뒤에 캐시에 넣는다
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ordinals.putAll(resolved);
+                }
+            });
+        } else {
+            ordinals.putAll(resolved);
+        }
+        return resolved;
+    }
+
+    // DB 에 있는 회원은 resolved 에 채우고, 없는 회원 목록을 돌려준다
+    private List<String> lookup(List<String> memberIds, Map<String, Integer> resolved) {
+        String placeholders = String.join(", ", Collections.nCopies(memberIds.size(), "?"));
+        jdbcTemplate.query("SELECT member_id, member_ordinal FROM member_dictionary WHERE member_id IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> resolved.put(rs.getString(1), rs.getInt(2)), memberIds.toArray());
+        List<String> unknown = new ArrayList<>();
+        for (String memberId : memberIds) {
+            if (!resolved.containsKey(memberId)) {
+                unknown.add(memberId);
+            }
+        }
+        return unknown;
+    }
+
+    static String buildInsertSql(DatabaseDialect dialect) {
+        return dialect.insertIgnoreSql("member_dictionary", new String[]{"member_id"}, new String[]{"member_id"});
+    }
+
+    // 사전에 없는 회원만 고르므로 이미 등록된 회원 행은 건드리지 않는다
+    static String buildRegisterSql(DatabaseDialect dialect) {
+        return dialect.insertIgnoreSelectSql("member_dictionary", new String[]{"member_id"}, """
+                SELECT DISTINCT p.member_id FROM player_userlog p
+                WHERE p.__time >= ? AND p.__time < ? AND p.member_id IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM member_dictionary d WHERE d.member_id = p.member_id)
+                """);
+    }
+
+    // member_id -> ordinal 캐시: StringIntDictionary 코드 -> ordinal 배열 (항목마다 String/Integer 객체가 없다)
+    // maxSize 를 넘으면 비우고 다시 채운다 (회원 수가 많아도 힙 사용량이 maxSize 에 비례)
+    private static final class OrdinalCache {
+        private final int maxSize;
+        private StringIntDictionary memberIds = new StringIntDictionary();
+        private int[] ordinals = new int[1024];
+
+        private OrdinalCache(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        // 없으면 -1
+        private synchronized int get(String memberId) {
+            int code = memberIds.find(memberId);
+            return code != StringIntDictionary.NULL_ID ? ordinals[code] : -1;
+        }
+
+        private synchronized void putAll(Map<String, Integer> resolved) {
+            for (Map.Entry<String, Integer> entry : resolved.entrySet()) {
+                if (memberIds.size() >= maxSize) {
+                    memberIds = new StringIntDictionary();
+                    ordinals = new int[1024];
+                }
+                int code = memberIds.encode(entry.getKey());
+                if (code >= ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, Math.max(code + 1, ordinals.length * 2));
+                }
+                ordinals[code] = entry.getValue();
+            }
+        }
+
+        private synchronized int size() {
+            return memberIds.size();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.aggregation.PartnerAggregationCounters;
+import com.example.batch.entity.AggregationWatermark;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.AggregationWatermarkRepository;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// INCREMENTAL 모드: 워터마크(마지막 반영 id) 이후의 로그만 집계해 기존 partner_aggregation 행에 더한다
+// 카운터는 합산, UV 는 저장된 HyperLogLog 스케치 병합 (정확 UV 는 회원 집합 없이 증분 병합이 불가능)
+// 워터마크 갱신과 집계 행 반영은 한 트랜잭션이라 실패 시 같은 구간을 다시 처리한다
+// 워터마크가 없는 첫 실행은 전체 로그를 다시 집계한 것이므로 기존 행(SINGLE/ROLLUP 등이 저장한 같은 키)에 더하지 않고 덮어쓴다
+// id 구간에는 콜드 스토리지로 옮겨진 행도 포함한다 (보관과 겹치지 않게 읽기 잠금 안에서 상한을 정하고 집계한다)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerAggregationIncrementalService {
+    private static final int KEY_LOOKUP_SIZE = 1000;
+
+    private final PartnerAggregationService partnerAggregationService;
+    private final PlayerUserLogArchiveService playerUserLogArchiveService;
+    private final PartnerAggregationRepository partnerAggregationRepository;
+    private final AggregationWatermarkRepository aggregationWatermarkRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String watermarkName(AggregationType aggregationType) {
+        return "partnerAggregation:" + aggregationType.name();
+    }
+
+    public long getWatermark(AggregationType aggregationType) {
+        return aggregationWatermarkRepository.findById(watermarkName(aggregationType))
+                .map(AggregationWatermark::getLastId)
+                .orElse(0L);
+    }
+
+    @Transactional
+    public List<PartnerAggregation> aggregateIncrementally(AggregationType aggregationType, int precision) {
+        return playerUserLogArchiveService.readConsistently(() -> aggregateConsistently(aggregationType, precision));
+    }
+
+    private List<PartnerAggregation> aggregateConsistently(AggregationType aggregationType, int precision) {
+        boolean firstRun = aggregationWatermarkRepository.findById(watermarkName(aggregationType)).isEmpty();
+        long lastId = getWatermark(aggregationType);
+        // 이번 실행의 상한을 먼저 고정해 집계 도중 들어온 로그는 다음 실행에서 처리
+        // IDENTITY id 는 커밋 순서와 다를 수 있으므로 적재가 끝난 뒤(적재 배치 사이) 실행하는 것을 전제로 한다
+        // 테이블이 비어도 (모두 보관됐어도) 세그먼트의 id 까지 상한에 넣는다
+        Long tableMaxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM player_userlog", Long.class);
+        long maxId = Math.max(tableMaxId != null ? tableMaxId : 0L, playerUserLogArchiveService.archivedMaxId());
+        if (maxId <= lastId) {
+            log.info("증분 집계 대상 없음: type={}, watermark={}", aggregationType, lastId);
+            return new ArrayList<>();
+        }
+
+        List<PartnerAggregation> deltas = partnerAggregationService.aggregateApproximateByIdRange(
+                lastId, maxId, aggregationType, precision);
+        // 첫 실행: id 가 없는 신규 행은 (partner_id, aggregation_type, aggregation_key) upsert 로 기존 행을 덮어쓴다
+        List<PartnerAggregation> merged = firstRun ? deltas : mergeIntoExisting(aggregationType, deltas);
+        partnerAggregationService.saveBatchData(merged);
+
+        aggregationWatermarkRepository.save(AggregationWatermark.builder()
+                .name(watermarkName(aggregationType))
+                .lastId(maxId)
+                .build());
+
+        log.info("증분 집계 완료: type={}, id ({}, {}], {} 개 행 {}", aggregationType, lastId, maxId, merged.size(),
+                firstRun ? "덮어씀 (첫 실행)" : "병합");
+        return merged;
+    }
+
+    private List<PartnerAggregation> mergeIntoExisting(AggregationType aggregationType, List<PartnerAggregation> deltas) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (PartnerAggregation delta : deltas) {
+            keys.add(delta.getAggregationKey());
+        }
+
+        Map<String, PartnerAggregation> existing = new HashMap<>();
+        List<String> keyList = new ArrayList<>(keys);
+        for (int i = 0; i < keyList.size(); i += KEY_LOOKUP_SIZE) {
+            List<String> lookup = keyList.subList(i, Math.min(i + KEY_LOOKUP_SIZE, keyList.size()));
+            for (PartnerAggregation row : partnerAggregationRepository
+                    .findByAggregationTypeAndAggregationKeyIn(aggregationType.name(), lookup)) {
+                existing.put(row.getPartnerId() + "|" + row.getAggregationKey(), row);
+            }
+        }
+
+        List<PartnerAggregation> result = new ArrayList<>(deltas.size());
+        for (PartnerAggregation delta : deltas) {
+            PartnerAggregation current = existing.get(delta.getPartnerId() + "|" + delta.getAggregationKey());
+            if (current == null) {
+                result.add(delta);
+                continue;
+            }
+            if (current.getUvSketch() == null) {
+                throw new IllegalStateException("UV 스케치가 없는 집계 행은 증분 병합할 수 없습니다: "
+                        + current.getPartnerId() + " " + current.getAggregationType() + " " + current.getAggregationKey());
+            }
+            HyperLogLog sketch = HyperLogLog.fromBytes(current.getUvSketch()).merge(HyperLogLog.fromBytes(delta.getUvSketch()));
+            current.setTotalUv(sketch.estimate());
+            current.setUvSketch(sketch.toBytes());
+            PartnerAggregationCounters.add(current, delta);
+            result.add(current);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.aggregation.PartnerAggregationCounters;
+import com.example.batch.aggregation.UvBitmaps;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ROLLUP 모드: 원본 로그는 MINUTELY 로 한 번만 스캔하고 HOURLY, DAILY 는 하위 버킷을 더해서 만든다
+// 카운터는 합산, UV 는 하위 버킷 HyperLogLog 스케치 병합 (합집합 스케치와 같으므로 직접 집계한 값과 동일)
+// 비트맵 UV 행(uvBitmap)은 비트맵 OR 로 합쳐 정확한 UV 를 유지한다
+// 기간은 자정 경계여야 한다 (아니면 첫/마지막 DAILY, HOURLY 버킷이 일부 시간만 담긴 채 저장된다)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerAggregationRollupService {
+    private final PartnerAggregationService partnerAggregationService;
+    private final PartnerAggregationRepository partnerAggregationRepository;
+
+    @Transactional
+    public List<PartnerAggregation> aggregateWithRollup(LocalDateTime startDate, LocalDateTime endDate, int precision) {
+        requireAligned(startDate, "startDate");
+        requireAligned(endDate, "endDate");
+        long scanStart = System.currentTimeMillis();
+        List<PartnerAggregation> minutely = partnerAggregationService.aggregateApproximateByPeriod(
+                startDate, endDate, AggregationType.MINUTELY, precision);
+        long rollupStart = System.currentTimeMillis();
+        List<PartnerAggregation> hourly = rollup(minutely, AggregationType.HOURLY);
+        List<PartnerAggregation> daily = rollup(hourly, AggregationType.DAILY);
+        log.info("롤업 집계: MINUTELY {} 개 ({} ms) -> HOURLY {} 개, DAILY {} 개 ({} ms)",
+                minutely.size(), rollupStart - scanStart, hourly.size(), daily.size(),
+                System.currentTimeMillis() - rollupStart);
+
+        List<PartnerAggregation> result = new ArrayList<>(minutely.size() + hourly.size() + daily.size());
+        result.addAll(minutely);
+        result.addAll(hourly);
+        result.addAll(daily);
+
+        // 기간 안의 세 단위 버킷은 모두 다시 만들었으므로 먼저 지운다 (이번에 만들지 않은 버킷이 예전 값으로 남지 않도록)
+        int deleted = partnerAggregationRepository.deleteByAggregationTypeInAndAggregationDateBetween(
+                List.of(AggregationType.MINUTELY.name(), AggregationType.HOURLY.name(), AggregationType.DAILY.name()),
+                startDate, endDate);
+        log.info("롤업 기간 기존 행 삭제: {} 개", deleted);
+        partnerAggregationService.saveBatchData(result);
+        return result;
+    }
+
+    // 가장 큰 롤업 단위(DAILY) 경계
+    private static void requireAligned(LocalDateTime time, String name) {
+        if (!AggregationType.DAILY.truncate(time).equals(time)) {
+            throw new IllegalArgumentException("롤업 집계 기간은 자정 경계여야 합니다: " + name + "=" + time);
+        }
+    }
+
+    // 하위 단위 행들을 (partner_id, 상위 버킷) 으로 묶어 더한다. 입력 행은 uvSketch 또는 uvBitmap 이 있어야 한다
+    public List<PartnerAggregation> rollup(List<PartnerAggregation> finer, AggregationType target) {
+        Map<String, PartnerAggregation> rolledUp = new LinkedHashMap<>();
+        Map<String, HyperLogLog> sketches = new LinkedHashMap<>();
+        Map<String, RoaringBitmap> bitmaps = new LinkedHashMap<>();
+        for (PartnerAggregation row : finer) {
+            if (AggregationType.valueOf(row.getAggregationType()).ordinal() <= target.ordinal()) {
+                throw new IllegalArgumentException("롤업은 더 작은 단위에서 큰 단위로만 가능합니다: "
+                        + row.getAggregationType() + " -> " + target);
+            }
+            if (row.getUvSketch() == null && row.getUvBitmap() == null) {
+                throw new IllegalArgumentException("UV 스케치/비트맵이 없는 행은 롤업할 수 없습니다: "
+                        + row.getPartnerId() + " " + row.getAggregationKey());
+            }
+            LocalDateTime bucketStart = target.truncate(row.getAggregationDate());
+            String aggregationKey = target.keyOf(bucketStart);
+            String key = row.getPartnerId() + "|" + aggregationKey;
+
+            PartnerAggregation current = rolledUp.get(key);
+            if (current == null) {
+                rolledUp.put(key, PartnerAggregation.builder()
+                        .partnerId(row.getPartnerId())
+                        .totalPv(row.getTotalPv())
+                        .totalPlaytime(row.getTotalPlaytime())
+                        .totalChatCount(row.getTotalChatCount())
+                        .totalLikeCount(row.getTotalLikeCount())
+                        .totalProductClickCount(row.getTotalProductClickCount())
+                        .totalProductOrderCount(row.getTotalProductOrderCount())
+                        .totalProductOrderAmount(row.getTotalProductOrderAmount())
+                        .totalProductOrderQuantity(row.getTotalProductOrderQuantity())
+                        .totalProductOrderCancelCount(row.getTotalProductOrderCancelCount())
+                        .totalBannerClickCount(row.getTotalBannerClickCount())
+                        .totalCouponClickCount(row.getTotalCouponClickCount())
+                        .totalRewardNewCount(row.getTotalRewardNewCount())
+                        .totalRewardCompleteCount(row.getTotalRewardCompleteCount())
+                        .totalPurchaseVerifyingCount(row.getTotalPurchaseVerifyingCount())
+                        .totalQuizNewCount(row.getTotalQuizNewCount())
+                        .totalShareClickCount(row.getTotalShareClickCount())
+                        .aggregationDate(bucketStart)
+                        .aggregationType(target.name())
+                        .aggregationKey(aggregationKey)
+                        .build());
+            } else {
+                PartnerAggregationCounters.add(current, row);
+            }
+            if (row.getUvBitmap() != null) {
+                bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).or(UvBitmaps.fromBytes(row.getUvBitmap()));
+            } else {
+                HyperLogLog sketch = HyperLogLog.fromBytes(row.getUvSketch());
+                sketches.merge(key, sketch, HyperLogLog::merge);
+            }
+        }
+
+        List<PartnerAggregation> result = new ArrayList<>(rolledUp.size());
+        for (Map.Entry<String, PartnerAggregation> entry : rolledUp.entrySet()) {
+            PartnerAggregation aggregation = entry.getValue();
+            RoaringBitmap bitmap = bitmaps.get(entry.getKey());
+            if (bitmap != null) {
+                aggregation.setTotalUv(bitmap.getLongCardinality());
+                aggregation.setUvBitmap(UvBitmaps.toBytes(bitmap));
+            } else {
+                HyperLogLog sketch = sketches.get(entry.getKey());
+                aggregation.setTotalUv(sketch.estimate());
+                aggregation.setUvSketch(sketch.toBytes());
+            }
+            result.add(aggregation);
+        }
+        return result;
+    }
+}
@@ -1,27 +1,56 @@
 package com.example.batch.service;
 
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.aggregation.PartnerAggregationCounters;
+import com.example.batch.aggregation.PartnerMetricsAccumulator;
+import com.example.batch.aggregation.UvBitmaps;
 import com.example.batch.entity.PartnerAggregation;
 import com.example.batch.repository.PartnerAggregationRepository;
 import com.example.batch.repository.PlayerUserLogRepository;
+import com.example.batch.writer.PartnerAggregationUpsertWriter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.batch.item.Chunk;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PartnerAggregationService {
+    private static final int PARTNER_LOOKUP_SIZE = 1000;
+
     private final PartnerAggregationRepository partnerAggregationRepository;
     private final PlayerUserLogRepository playerUserLogRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final PartnerAggregationUpsertWriter partnerAggregationUpsertWriter;
+    private final PartnerMinuteCounterService partnerMinuteCounterService;
+    private final MemberDictionaryService memberDictionaryService;
+    private final PartnerAggregationStreamingService partnerAggregationStreamingService;
+    private final PlayerUserLogArchiveService playerUserLogArchiveService;
     
     @Transactional
     public List<PartnerAggregation> aggregateByPartnerId(LocalDateTime aggregationDate) {
@@ -32,6 +61,22 @@ public class PartnerAggregationService {
         partnerAggregationRepository.deleteByAggregationDate(aggregationDate);
         
         log.info("playerUserLogRepository : {}", playerUserLogRepository.countAllData());
+        partnerAggregations.addAll(playerUserLogArchiveService.readConsistently(() -> {
+            List<PartnerAggregation> result = queryByPartnerId(aggregationDate);
+            if (!playerUserLogArchiveService.getSegments().isEmpty()) {
+                addArchivedPartners(result, aggregationDate);
+            }
+            return result;
+        }));
+        saveBatchData(partnerAggregations);
+        
+        long count = partnerAggregationRepository.countAllData();
+        log.info("Partner ID별 집계 완료: {} 개 파트너", count);
+
+        return partnerAggregations;
+    }
+
+    private List<PartnerAggregation> queryByPartnerId(LocalDateTime aggregationDate) {
         // SQL 쿼리를 통한 집계 수행
         String aggregationSql = """
             SELECT 
@@ -58,39 +103,70 @@ public class PartnerAggregationService {
             GROUP BY partner_id
             """;
         
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(aggregationSql);
-        
-        for (Map<String, Object> row : results) {
-            PartnerAggregation aggregation = PartnerAggregation.builder()
-                    .partnerId((String) row.get("partner_id"))
-                    .totalUv(((Number) row.get("total_uv")).longValue())
-                    .totalPv(((Number) row.get("total_pv")).longValue())
-                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
-                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
-                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
-                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
-                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
-                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
-                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
-                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
-                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
-                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
-                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
-                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
-                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
-                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
-                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
-                    .aggregationDate(aggregationDate)
-                    .build();
-            
-            partnerAggregationRepository.save(aggregation);
-            partnerAggregations.add(aggregation);
+        return queryPartnerAggregations(aggregationSql, aggregationDate);
+    }
+
+    // 콜드 스토리지로 옮겨진 행(전체 기간) 의 카운터를 SQL 결과에 더한다 (테이블에 없던 파트너는 새 행)
+    // UV 는 보관된 행이 있는 파트너만 테이블 회원과 보관된 회원의 ordinal 합집합으로 다시 센다 (나머지는 COUNT(DISTINCT) 그대로)
+    private void addArchivedPartners(List<PartnerAggregation> result, LocalDateTime aggregationDate) {
+        Map<String, PartnerMetricsAccumulator> archived = playerUserLogArchiveService.foldArchivedRowsByIdRange(
+                0L, Long.MAX_VALUE, (partnerId, time) -> partnerId, memberDictionaryService::ordinalsOf);
+        Map<String, PartnerAggregation> partners = new HashMap<>();
+        for (PartnerAggregation aggregation : result) {
+            partners.put(aggregation.getPartnerId(), aggregation);
         }
-        
-        long count = partnerAggregationRepository.countAllData();
-        log.info("Partner ID별 집계 완료: {} 개 파트너", count);
+        Map<String, RoaringBitmap> tableMembers = partnerMemberBitmaps(archived.keySet());
+        for (Map.Entry<String, PartnerMetricsAccumulator> entry : archived.entrySet()) {
+            PartnerAggregation counters = entry.getValue().toPartnerAggregation(aggregationDate);
+            PartnerAggregation partner = partners.get(entry.getKey());
+            if (partner != null) {
+                PartnerAggregationCounters.add(partner, counters);
+            } else {
+                partner = counters;
+                result.add(partner);
+            }
+            RoaringBitmap members = entry.getValue().getMembers();
+            RoaringBitmap table = tableMembers.get(entry.getKey());
+            partner.setTotalUv(table != null ? RoaringBitmap.orCardinality(table, members) : members.getLongCardinality());
+        }
+        log.info("콜드 스토리지 행 병합: {} 개 파트너", archived.size());
+    }
 
-        return partnerAggregations;
+    // partnerIds 의 테이블 행 회원 ordinal 비트맵 (전체 기간). 사전에 없는 회원은 파트너별로 중복 없이 모아 커서를 닫은 뒤 ordinal 을 받는다
+    private Map<String, RoaringBitmap> partnerMemberBitmaps(Collection<String> partnerIds) {
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        Map<String, Set<String>> lateMembers = new HashMap<>();
+        List<String> partnerList = new ArrayList<>(partnerIds);
+        for (int from = 0; from < partnerList.size(); from += PARTNER_LOOKUP_SIZE) {
+            List<String> chunk = partnerList.subList(from, Math.min(from + PARTNER_LOOKUP_SIZE, partnerList.size()));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "SELECT p.partner_id, d.member_ordinal, p.member_id FROM player_userlog p " +
+                        "LEFT JOIN member_dictionary d ON d.member_id = p.member_id " +
+                        "WHERE p.partner_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i));
+                }
+                ps.setFetchSize(1000);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                int ordinal = rs.getInt(2);
+                if (!rs.wasNull()) {
+                    bitmaps.computeIfAbsent(rs.getString(1), k -> new RoaringBitmap()).add(ordinal);
+                    return;
+                }
+                String memberId = rs.getString(3);
+                if (memberId != null) {
+                    lateMembers.computeIfAbsent(rs.getString(1), k -> new HashSet<>()).add(memberId);
+                }
+            });
+        }
+        for (Map.Entry<String, Set<String>> entry : lateMembers.entrySet()) {
+            bitmaps.computeIfAbsent(entry.getKey(), k -> new RoaringBitmap())
+                    .add(memberDictionaryService.ordinalsOf(new ArrayList<>(entry.getValue())));
+        }
+        return bitmaps;
     }
     
     @Transactional
@@ -128,35 +204,12 @@ public class PartnerAggregationService {
                 GROUP BY partner_id
             """;
 
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(aggregationSql, partnerId, startDate, endDate);
-
-        List<PartnerAggregation> result = new ArrayList<>();
-        for (Map<String, Object> row : results) {
-            PartnerAggregation aggregation = PartnerAggregation.builder()
-                    .partnerId((String) row.get("partner_id"))
-                    .totalUv(((Number) row.get("total_uv")).longValue())
-                    .totalPv(((Number) row.get("total_pv")).longValue())
-                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
-                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
-                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
-                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
-                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
-                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
-                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
-                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
-                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
-                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
-                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
-                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
-                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
-                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
-                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
-                    .aggregationDate(startDate) // 집계 기준일을 startDate로 저장 (필요에 따라 endDate 등 조정)
-                    .build();
-
-            partnerAggregationRepository.save(aggregation);
-            result.add(aggregation);
-        }
+        // 기간이 콜드 스토리지에 걸치면 세그먼트까지 읽는 STREAMING 엔진으로 이 파트너만 집계한다
+        List<PartnerAggregation> result = playerUserLogArchiveService.readConsistently(() ->
+                playerUserLogArchiveService.isArchived(startDate, endDate)
+                        ? partnerAggregationStreamingService.aggregateByPartnerIdsAndDateRange(List.of(partnerId), startDate, endDate)
+                        : queryPartnerAggregations(aggregationSql, startDate, partnerId, startDate, endDate));
+        saveBatchData(result);
 
         long count = partnerAggregationRepository.countAllData();
         log.info("Partner ID별 집계(기간 조건) 완료: {} 개 파트너", count);
@@ -164,8 +217,27 @@ public class PartnerAggregationService {
         return result;
     }
 
+    private List<PartnerAggregation> queryPartnerAggregations(String aggregationSql, LocalDateTime aggregationDate, Object... args) {
+        List<PartnerAggregation> result = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(aggregationSql, args)) {
+            result.add(toPartnerAggregation(row, aggregationDate));
+        }
+        return result;
+    }
+
+    // 기간이 콜드 스토리지에 걸치면 세그먼트까지 읽는 STREAMING 엔진으로 넘긴다 (결과는 같다)
     @Transactional
     public List<PartnerAggregation> aggregateByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return playerUserLogArchiveService.readConsistently(() -> {
+            if (playerUserLogArchiveService.isArchived(startDate, endDate)) {
+                log.info("집계 기간이 콜드 스토리지에 걸쳐 STREAMING 엔진으로 집계: startDate={}, endDate={}", startDate, endDate);
+                return partnerAggregationStreamingService.aggregateByDateRange(startDate, endDate);
+            }
+            return queryByDateRange(startDate, endDate);
+        });
+    }
+
+    private List<PartnerAggregation> queryByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("집계(기간 조건) 시작: startDate={}, endDate={}", startDate, endDate);
 
         // SQL 쿼리를 통한 집계 수행
@@ -195,47 +267,113 @@ public class PartnerAggregationService {
                 GROUP BY partner_id
             """;
 
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(aggregationSql, startDate, endDate);
+        // 집계 기준일을 startDate로 저장 (필요에 따라 endDate 등 조정)
+        return queryPartnerAggregations(aggregationSql, startDate, startDate, endDate);
+    }
 
-        List<PartnerAggregation> result = new ArrayList<>();
-        for (Map<String, Object> row : results) {
-            PartnerAggregation aggregation = PartnerAggregation.builder()
-                    .partnerId((String) row.get("partner_id"))
-                    .totalUv(((Number) row.get("total_uv")).longValue())
-                    .totalPv(((Number) row.get("total_pv")).longValue())
-                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
-                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
-                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
-                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
-                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
-                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
-                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
-                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
-                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
-                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
-                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
-                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
-                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
-                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
-                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
-                    .aggregationDate(startDate) // 집계 기준일을 startDate로 저장 (필요에 따라 endDate 등 조정)
-                    .build();
+    // 콜드 스토리지에만 남은 파트너도 파티션에 넣는다
+    public List<String> findPartnerIdsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        List<String> partnerIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT partner_id FROM player_userlog " +
+                "WHERE partner_id IS NOT NULL AND __time >= ? AND __time < ? " +
+                "ORDER BY partner_id",
+                String.class, startDate, endDate);
+        if (!playerUserLogArchiveService.isArchived(startDate, endDate)) {
+            return partnerIds;
+        }
+        Set<String> merged = new TreeSet<>(partnerIds);
+        merged.addAll(playerUserLogArchiveService.archivedPartnerIds(startDate, endDate));
+        return new ArrayList<>(merged);
+    }
 
-            result.add(aggregation);
+    // 파티션 워커용: 할당된 partner_id 들만 기간 조건으로 집계
+    @Transactional
+    public List<PartnerAggregation> aggregateByPartnerIdsAndDateRange(List<String> partnerIds, LocalDateTime startDate, LocalDateTime endDate) {
+        if (partnerIds.isEmpty()) {
+            return new ArrayList<>();
         }
+        log.info("집계(파트너 목록, 기간 조건) 시작: partnerIds={}, startDate={}, endDate={}", partnerIds, startDate, endDate);
 
-        return result;
+        String placeholders = String.join(", ", Collections.nCopies(partnerIds.size(), "?"));
+        String aggregationSql = """
+                SELECT
+                    partner_id,
+                    COUNT(DISTINCT member_id) AS total_uv,
+                    COUNT(CASE WHEN action = 'pageView' THEN 1 END) AS total_pv,
+                    COALESCE(SUM(playtime), 0) AS total_playtime,
+                    COUNT(CASE WHEN action = 'chat' THEN 1 END) AS total_chat_count,
+                    COALESCE(SUM(like_count), 0) AS total_like_count,
+                    COUNT(CASE WHEN action = 'productClick' THEN 1 END) AS total_product_click_count,
+                    COUNT(CASE WHEN action = 'productOrder' THEN 1 END) AS total_product_order_count,
+                    COALESCE(SUM(product_order_amount), 0) AS total_product_order_amount,
+                    COALESCE(SUM(product_order_quantity), 0) AS total_product_order_quantity,
+                    COUNT(CASE WHEN action = 'productOrderCancel' THEN 1 END) AS total_product_order_cancel_count,
+                    COUNT(CASE WHEN action = 'bannerClick' THEN 1 END) AS total_banner_click_count,
+                    COUNT(CASE WHEN action = 'couponClick' THEN 1 END) AS total_coupon_click_count,
+                    COUNT(CASE WHEN action = 'joinReward' THEN 1 END) AS total_reward_new_count,
+                    COUNT(CASE WHEN action = 'rewardComplete' THEN 1 END) AS total_reward_complete_count,
+                    COUNT(CASE WHEN action = 'purchaseVerifying' THEN 1 END) AS total_purchase_verifying_count,
+                    COUNT(CASE WHEN action = 'joinQuiz' THEN 1 END) AS total_quiz_new_count,
+                    COUNT(CASE WHEN action = 'shareClick' THEN 1 END) AS total_share_click_count
+                FROM player_userlog
+                WHERE partner_id IN (%s)
+                  AND __time >= ?
+                  AND __time < ?
+                GROUP BY partner_id
+            """.formatted(placeholders);
+
+        List<Object> args = new ArrayList<>(partnerIds);
+        args.add(startDate);
+        args.add(endDate);
+        // 기간이 콜드 스토리지에 걸치면 할당된 파트너만 STREAMING 엔진으로 (세그먼트 행도 같은 파트너만 접는다)
+        return playerUserLogArchiveService.readConsistently(() ->
+                playerUserLogArchiveService.isArchived(startDate, endDate)
+                        ? partnerAggregationStreamingService.aggregateByPartnerIdsAndDateRange(partnerIds, startDate, endDate)
+                        : queryPartnerAggregations(aggregationSql, startDate, args.toArray()));
     }
 
+    private PartnerAggregation toPartnerAggregation(Map<String, Object> row, LocalDateTime aggregationDate) {
+        Number totalUv = (Number) row.get("total_uv"); // 근사 UV 모드에서는 SQL 에서 계산하지 않음
+        return PartnerAggregation.builder()
+                .partnerId((String) row.get("partner_id"))
+                .totalUv(totalUv != null ? totalUv.longValue() : null)
+                .totalPv(((Number) row.get("total_pv")).longValue())
+                .totalPlaytime(((Number) row.get("total_playtime")).longValue())
+                .totalChatCount(((Number) row.get("total_chat_count")).longValue())
+                .totalLikeCount(((Number) row.get("total_like_count")).longValue())
+                .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
+                .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
+                .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
+                .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
+                .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
+                .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
+                .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
+                .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
+                .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
+                .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
+                .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
+                .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
+                .aggregationDate(aggregationDate)
+                .build();
+    }
+
+    // 신규 행(id 없음)은 (partner_id, aggregation_type, aggregation_key) 기준 JDBC batch upsert, 이미 저장된 행(증분 병합 등)은 JPA 로 갱신
+    // upsert 와 JPA 갱신은 한 트랜잭션 (호출한 쪽 트랜잭션이 없어도 일부만 반영되지 않도록)
+    @Transactional
     public int saveBatchData(List<PartnerAggregation> aggregations) {
         log.info("Batch data save started: {} items", aggregations.size());
-        int savedCount = 0;
+        List<PartnerAggregation> inserts = new ArrayList<>(aggregations.size());
+        List<PartnerAggregation> updates = new ArrayList<>();
         for (PartnerAggregation aggregation : aggregations) {
-            PartnerAggregation savedAggregation = partnerAggregationRepository.save(aggregation);
-            if (savedAggregation != null) {
-                savedCount++;
+            if (aggregation.getId() == null) {
+                inserts.add(aggregation);
+            } else {
+                updates.add(aggregation);
             }
         }
+        partnerAggregationUpsertWriter.write(new Chunk<>(inserts));
+        partnerAggregationRepository.saveAll(updates);
+        int savedCount = inserts.size() + updates.size();
         log.info("Batch data save completed: {} items saved", savedCount);
         return savedCount;
     }
@@ -250,9 +388,400 @@ public class PartnerAggregationService {
     }
 
     public enum AggregationType {
-        DAILY, HOURLY, MINUTELY
+        DAILY("yyyy-MM-dd", ChronoUnit.DAYS),
+        HOURLY("yyyy-MM-dd HH", ChronoUnit.HOURS),
+        MINUTELY("yyyy-MM-dd HH:mm", ChronoUnit.MINUTES);
+
+        private final DateTimeFormatter keyFormatter;
+        private final ChronoUnit unit;
+
+        AggregationType(String keyPattern, ChronoUnit unit) {
+            this.keyFormatter = DateTimeFormatter.ofPattern(keyPattern);
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public String keyOf(LocalDateTime time) {
+            return keyFormatter.format(time);
+        }
     }
 
+    // 근사 UV 모드: COUNT(DISTINCT member_id) 대신 파트너/버킷별 HyperLogLog 스케치로 UV 계산
+    // 카운터는 DISTINCT 없는 GROUP BY 한 번, UV 는 (partner_id, __time, member_id) 를 한 번 스트리밍하며 스케치에 적재
+    // 결과 행에 스케치를 함께 저장하므로 이후 버킷 합집합 UV 는 estimateUv 로 원본 로그 없이 계산한다
+    // 스케치는 파트너 x 버킷마다 sparse 로 시작하므로 회원이 적은 버킷(MINUTELY 등)은 dense(p14 = 16KB) 대신 회원 수만큼만 쓴다
+    // 기간이 콜드 스토리지에 걸치면 보관된 행도 카운터에 더하고 같은 스케치에 넣는다
+    @Transactional
+    public List<PartnerAggregation> aggregateApproximateByPeriod(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            AggregationType aggregationType,
+            int precision
+    ) {
+        log.info("근사 UV 집계 시작: startDate={}, endDate={}, type={}, precision={} (표준오차 {})",
+                startDate, endDate, aggregationType, precision, HyperLogLog.standardError(precision));
+        return playerUserLogArchiveService.readConsistently(() -> aggregateApproximate(
+                "__time >= ? AND __time < ?", new Object[]{startDate, endDate}, aggregationType, precision,
+                playerUserLogArchiveService.isArchived(startDate, endDate)
+                        ? (groupKey, memberOrdinals) -> playerUserLogArchiveService.foldArchivedRows(startDate, endDate, groupKey, memberOrdinals)
+                        : null));
+    }
+
+    // 증분 집계용: id 구간 (afterId, toId] 의 로그만 버킷별로 집계 (__time 기준 버킷이므로 늦게 도착한 로그도 제 버킷으로 간다)
+    // 그 id 구간에서 이미 콜드 스토리지로 옮겨진 행(워터마크 이후 늦게 도착한 옛 행 등)도 세그먼트에서 읽어 함께 접는다
+    @Transactional
+    public List<PartnerAggregation> aggregateApproximateByIdRange(
+            long afterId,
+            long toId,
+            AggregationType aggregationType,
+            int precision
+    ) {
+        log.info("근사 UV 집계(id 구간) 시작: afterId={}, toId={}, type={}, precision={}", afterId, toId, aggregationType, precision);
+        return playerUserLogArchiveService.readConsistently(() -> aggregateApproximate(
+                "id > ? AND id <= ?", new Object[]{afterId, toId}, aggregationType, precision,
+                playerUserLogArchiveService.archivedMaxId() > afterId
+                        ? (groupKey, memberOrdinals) -> playerUserLogArchiveService.foldArchivedRowsByIdRange(afterId, toId, groupKey, memberOrdinals)
+                        : null));
+    }
+
+    // 테이블 구간과 같은 구간의 보관된 행을 접는 방법 (기간 또는 id 구간)
+    @FunctionalInterface
+    private interface ArchivedRows {
+        Map<Bucket, PartnerMetricsAccumulator> fold(BiFunction<String, LocalDateTime, Bucket> groupKey,
+                                                    Function<List<String>, int[]> memberOrdinals);
+    }
+
+    // archivedRows 가 있으면 보관된 행도 접는다 (구간에 보관된 행이 없으면 null)
+    private List<PartnerAggregation> aggregateApproximate(
+            String rangeCondition,
+            Object[] rangeArgs,
+            AggregationType aggregationType,
+            int precision,
+            ArchivedRows archivedRows
+    ) {
+        List<PartnerAggregation> result = aggregateBucketCounters(rangeCondition, rangeArgs, aggregationType);
+
+        // 파트너|버킷키 -> 스케치
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        streamBucketMembers(rangeCondition, rangeArgs, aggregationType,
+                (key, memberId) -> sketches.computeIfAbsent(key, k -> new HyperLogLog(precision)).add(memberId));
+
+        if (archivedRows != null) {
+            // 세그먼트 회원은 ordinal 로 오므로 ordinal -> member_id 해시를 사전 조회 때 같이 기억한다
+            Map<Integer, Long> memberHashes = new HashMap<>();
+            Function<List<String>, int[]> memberOrdinals = memberIds -> {
+                int[] ordinals = memberDictionaryService.ordinalsOf(memberIds);
+                for (int i = 0; i < ordinals.length; i++) {
+                    if (ordinals[i] >= 0) {
+                        memberHashes.putIfAbsent(ordinals[i], HyperLogLog.hash64(memberIds.get(i)));
+                    }
+                }
+                return ordinals;
+            };
+            addArchivedBuckets(result, archivedRows, aggregationType, null, memberOrdinals).forEach((key, members) -> {
+                HyperLogLog sketch = sketches.computeIfAbsent(key, k -> new HyperLogLog(precision));
+                members.forEach((int ordinal) -> sketch.addHash(memberHashes.get(ordinal)));
+            });
+        }
+
+        long sketchBytes = 0;
+        for (HyperLogLog sketch : sketches.values()) {
+            sketchBytes += sketch.memoryBytes();
+        }
+        for (PartnerAggregation aggregation : result) {
+            HyperLogLog sketch = sketches.get(aggregation.getPartnerId() + "|" + aggregation.getAggregationKey());
+            aggregation.setTotalUv(sketch != null ? sketch.estimate() : 0L);
+            aggregation.setUvSketch(sketch != null ? sketch.toBytes() : null);
+        }
+
+        log.info("근사 UV 집계 완료: {} 개 (파트너 x 버킷), 스케치 {} 개 / {} KB (dense 였다면 {} KB)", result.size(),
+                sketches.size(), sketchBytes / 1024, (long) sketches.size() * (1 << precision) / 1024);
+        return result;
+    }
+
+    // 비트맵 UV 모드: 회원을 member_dictionary ordinal 로 바꿔 파트너/버킷별 RoaringBitmap 에 넣는다
+    // UV 는 비트맵 cardinality 로 정확하고, 결과 행에 비트맵을 함께 저장하므로 이후 버킷/파트너 합집합 UV 도 exactUv 로 정확히 계산한다
+    // 기간의 회원을 스캔 전에 한 번에 등록하고 스캔은 사전을 조인해 ordinal 을 읽는다 (커서를 연 채로 회원을 등록하지 않는다)
+    // 기간이 콜드 스토리지에 걸치면 보관된 행도 카운터에 더하고 같은 ordinal 로 비트맵에 넣는다
+    @Transactional
+    public List<PartnerAggregation> aggregateBitmapByPeriod(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            AggregationType aggregationType
+    ) {
+        log.info("비트맵 UV 집계 시작: startDate={}, endDate={}, type={}", startDate, endDate, aggregationType);
+        List<PartnerAggregation> result = playerUserLogArchiveService.readConsistently(() ->
+                aggregateBitmapBuckets(null, startDate, endDate, aggregationType));
+        log.info("비트맵 UV 집계 완료: {} 개 (파트너 x 버킷)", result.size());
+        return result;
+    }
+
+    // partnerIds 가 null 이 아니면 그 파트너만 집계한다
+    private List<PartnerAggregation> aggregateBitmapBuckets(
+            Collection<String> partnerIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            AggregationType aggregationType
+    ) {
+        String rangeCondition = "__time >= ? AND __time < ?";
+        List<Object> args = new ArrayList<>(List.of(startDate, endDate));
+        if (partnerIds != null) {
+            rangeCondition += " AND partner_id IN (" + String.join(", ", Collections.nCopies(partnerIds.size(), "?")) + ")";
+            args.addAll(partnerIds);
+        }
+        Object[] rangeArgs = args.toArray();
+        String scanCondition = rangeCondition;
+        List<PartnerAggregation> result = aggregateBucketCounters(rangeCondition, rangeArgs, aggregationType);
+        memberDictionaryService.registerMembers(startDate, endDate);
+
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        // 등록 뒤에 들어온 행의 회원은 사전에 없으므로 커서를 닫은 뒤 ordinal 을 받는다
+        List<String> lateKeys = new ArrayList<>();
+        List<String> lateMembers = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT p.partner_id, p.__time, d.member_ordinal, p.member_id FROM player_userlog p " +
+                    "LEFT JOIN member_dictionary d ON d.member_id = p.member_id " +
+                    "WHERE p.partner_id IS NOT NULL AND " + scanCondition,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < rangeArgs.length; i++) {
+                ps.setObject(i + 1, rangeArgs[i]);
+            }
+            ps.setFetchSize(1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            String key = rs.getString(1) + "|" + aggregationType.keyOf(rs.getObject(2, LocalDateTime.class));
+            int ordinal = rs.getInt(3);
+            if (!rs.wasNull()) {
+                bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(ordinal);
+                return;
+            }
+            String memberId = rs.getString(4);
+            if (memberId != null) {
+                lateKeys.add(key);
+                lateMembers.add(memberId);
+            }
+        });
+        if (!lateMembers.isEmpty()) {
+            int[] ordinals = memberDictionaryService.ordinalsOf(lateMembers);
+            for (int i = 0; i < ordinals.length; i++) {
+                bitmaps.computeIfAbsent(lateKeys.get(i), k -> new RoaringBitmap()).add(ordinals[i]);
+            }
+        }
+        if (playerUserLogArchiveService.isArchived(startDate, endDate)) {
+            addArchivedBuckets(result,
+                    (groupKey, memberOrdinals) -> playerUserLogArchiveService.foldArchivedRows(startDate, endDate, groupKey, memberOrdinals),
+                    aggregationType, partnerIds, memberDictionaryService::ordinalsOf)
+                    .forEach((key, members) -> bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).or(members));
+        }
+
+        for (PartnerAggregation aggregation : result) {
+            RoaringBitmap bitmap = bitmaps.get(aggregation.getPartnerId() + "|" + aggregation.getAggregationKey());
+            aggregation.setTotalUv(bitmap != null ? bitmap.getLongCardinality() : 0L);
+            aggregation.setUvBitmap(bitmap != null ? UvBitmaps.toBytes(bitmap) : null);
+        }
+        return result;
+    }
+
+    // 콜드 스토리지로 옮겨진 행(archivedRows 의 구간) 의 카운터를 버킷 결과에 더하고 (테이블에 없던 파트너/버킷은 새 행)
+    // "파트너|버킷키" -> 보관된 행의 회원 ordinal 비트맵을 돌려준다. UV 는 호출한 쪽이 테이블 쪽 회원과 합집합으로 낸다
+    private Map<String, RoaringBitmap> addArchivedBuckets(
+            List<PartnerAggregation> result,
+            ArchivedRows archivedRows,
+            AggregationType aggregationType,
+            Collection<String> partnerIds,
+            Function<List<String>, int[]> memberOrdinals
+    ) {
+        Map<Bucket, PartnerMetricsAccumulator> archived = archivedRows.fold(
+                (partnerId, time) -> partnerIds == null || partnerIds.contains(partnerId)
+                        ? new Bucket(partnerId, aggregationType.truncate(time)) : null,
+                memberOrdinals);
+
+        Map<String, PartnerAggregation> buckets = new HashMap<>();
+        for (PartnerAggregation aggregation : result) {
+            buckets.put(aggregation.getPartnerId() + "|" + aggregation.getAggregationKey(), aggregation);
+        }
+        Map<String, RoaringBitmap> members = new HashMap<>();
+        for (Map.Entry<Bucket, PartnerMetricsAccumulator> entry : archived.entrySet()) {
+            String aggregationKey = aggregationType.keyOf(entry.getKey().start());
+            String key = entry.getKey().partnerId() + "|" + aggregationKey;
+            PartnerAggregation counters = entry.getValue().toPartnerAggregation(entry.getKey().start());
+            PartnerAggregation bucket = buckets.get(key);
+            if (bucket != null) {
+                PartnerAggregationCounters.add(bucket, counters);
+            } else {
+                counters.setAggregationType(aggregationType.name());
+                counters.setAggregationKey(aggregationKey);
+                result.add(counters);
+            }
+            members.put(key, entry.getValue().getMembers());
+        }
+        log.info("콜드 스토리지 행 병합: {} 개 (파트너 x 버킷)", archived.size());
+        return members;
+    }
+
+    private record Bucket(String partnerId, LocalDateTime start) {
+    }
+
+    // 파트너 x 버킷별 합산 카운터 (UV 제외), 결과 행에는 버킷 시작 시각/단위/키가 채워진다
+    private List<PartnerAggregation> aggregateBucketCounters(
+            String rangeCondition,
+            Object[] rangeArgs,
+            AggregationType aggregationType
+    ) {
+        List<String> bucketExpressions = bucketExpressions(aggregationType);
+        StringBuilder bucketColumns = new StringBuilder();
+        for (int i = 0; i < bucketExpressions.size(); i++) {
+            bucketColumns.append(bucketExpressions.get(i)).append(" AS bucket_").append(i).append(", ");
+        }
+
+        String aggregationSql = """
+                SELECT
+                    partner_id,
+                    %s
+                    COUNT(CASE WHEN action = 'pageView' THEN 1 END) AS total_pv,
+                    COALESCE(SUM(playtime), 0) AS total_playtime,
+                    COUNT(CASE WHEN action = 'chat' THEN 1 END) AS total_chat_count,
+                    COALESCE(SUM(like_count), 0) AS total_like_count,
+                    COUNT(CASE WHEN action = 'productClick' THEN 1 END) AS total_product_click_count,
+                    COUNT(CASE WHEN action = 'productOrder' THEN 1 END) AS total_product_order_count,
+                    COALESCE(SUM(product_order_amount), 0) AS total_product_order_amount,
+                    COALESCE(SUM(product_order_quantity), 0) AS total_product_order_quantity,
+                    COUNT(CASE WHEN action = 'productOrderCancel' THEN 1 END) AS total_product_order_cancel_count,
+                    COUNT(CASE WHEN action = 'bannerClick' THEN 1 END) AS total_banner_click_count,
+                    COUNT(CASE WHEN action = 'couponClick' THEN 1 END) AS total_coupon_click_count,
+                    COUNT(CASE WHEN action = 'joinReward' THEN 1 END) AS total_reward_new_count,
+                    COUNT(CASE WHEN action = 'rewardComplete' THEN 1 END) AS total_reward_complete_count,
+                    COUNT(CASE WHEN action = 'purchaseVerifying' THEN 1 END) AS total_purchase_verifying_count,
+                    COUNT(CASE WHEN action = 'joinQuiz' THEN 1 END) AS total_quiz_new_count,
+                    COUNT(CASE WHEN action = 'shareClick' THEN 1 END) AS total_share_click_count
+                FROM player_userlog
+                WHERE partner_id IS NOT NULL
+                  AND %s
+                GROUP BY partner_id, %s
+            """.formatted(bucketColumns, rangeCondition, String.join(", ", bucketExpressions));
+
+        List<Map<String, Object>> results = jdbcTemplate.queryForList(aggregationSql, rangeArgs);
+
+        List<PartnerAggregation> result = new ArrayList<>();
+        for (Map<String, Object> row : results) {
+            LocalDateTime bucketStart = bucketStart(row, bucketExpressions.size());
+            PartnerAggregation aggregation = toPartnerAggregation(row, bucketStart);
+            aggregation.setAggregationType(aggregationType.name());
+            aggregation.setAggregationKey(aggregationType.keyOf(bucketStart));
+            result.add(aggregation);
+        }
+        return result;
+    }
+
+    // (partner_id, __time, member_id) 를 한 번 스트리밍하며 "파트너|버킷키" 와 회원을 넘긴다
+    private void streamBucketMembers(
+            String rangeCondition,
+            Object[] rangeArgs,
+            AggregationType aggregationType,
+            BiConsumer<String, String> handler
+    ) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT partner_id, __time, member_id FROM player_userlog " +
+                    "WHERE partner_id IS NOT NULL AND " + rangeCondition,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < rangeArgs.length; i++) {
+                ps.setObject(i + 1, rangeArgs[i]);
+            }
+            ps.setFetchSize(1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            handler.accept(rs.getString(1) + "|" + aggregationType.keyOf(rs.getObject(2, LocalDateTime.class)), rs.getString(3));
+        });
+    }
+
+    // 저장된 버킷 스케치의 합집합 UV (예: 시간 -> 일, 일 -> 월)
+    public long estimateUv(String partnerId, AggregationType aggregationType, Collection<String> aggregationKeys) {
+        List<PartnerAggregation> aggregations = partnerAggregationRepository
+                .findByPartnerIdAndAggregationTypeAndAggregationKeyIn(partnerId, aggregationType.name(), aggregationKeys);
+        HyperLogLog union = mergeUvSketches(aggregations);
+        return union != null ? union.estimate() : 0L;
+    }
+
+    // 저장된 버킷 비트맵의 합집합 UV (여러 버킷, 여러 파트너), 비트맵 OR 후 cardinality 라서 정확한 값
+    public long exactUv(Collection<String> partnerIds, AggregationType aggregationType, Collection<String> aggregationKeys) {
+        List<PartnerAggregation> aggregations = partnerAggregationRepository
+                .findByPartnerIdInAndAggregationTypeAndAggregationKeyIn(partnerIds, aggregationType.name(), aggregationKeys);
+        return mergeUvBitmaps(aggregations).getLongCardinality();
+    }
+
+    public RoaringBitmap mergeUvBitmaps(Collection<PartnerAggregation> aggregations) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(aggregations.size());
+        for (PartnerAggregation aggregation : aggregations) {
+            if (aggregation.getUvBitmap() != null) {
+                bitmaps.add(UvBitmaps.fromBytes(aggregation.getUvBitmap()));
+            }
+        }
+        return FastAggregation.or(bitmaps.iterator());
+    }
+
+    public HyperLogLog mergeUvSketches(Collection<PartnerAggregation> aggregations) {
+        HyperLogLog union = null;
+        for (PartnerAggregation aggregation : aggregations) {
+            if (aggregation.getUvSketch() == null) {
+                continue;
+            }
+            HyperLogLog sketch = HyperLogLog.fromBytes(aggregation.getUvSketch());
+            union = union == null ? sketch : union.merge(sketch);
+        }
+        return union;
+    }
+
+    // 버킷 시작 시각을 이루는 __time 부분 (DB 공통 EXTRACT, 결과 컬럼은 bucket_0 ..)
+    private static List<String> bucketExpressions(AggregationType aggregationType) {
+        List<String> bucketExpressions = new ArrayList<>(List.of(
+                "EXTRACT(YEAR FROM __time)", "EXTRACT(MONTH FROM __time)", "EXTRACT(DAY FROM __time)"));
+        if (aggregationType != AggregationType.DAILY) {
+            bucketExpressions.add("EXTRACT(HOUR FROM __time)");
+        }
+        if (aggregationType == AggregationType.MINUTELY) {
+            bucketExpressions.add("EXTRACT(MINUTE FROM __time)");
+        }
+        return bucketExpressions;
+    }
+
+    private static LocalDateTime bucketStart(Map<String, Object> row, int parts) {
+        return LocalDateTime.of(
+                bucketPart(row, 0), bucketPart(row, 1), bucketPart(row, 2),
+                parts > 3 ? bucketPart(row, 3) : 0,
+                parts > 4 ? bucketPart(row, 4) : 0);
+    }
+
+    private static int bucketPart(Map<String, Object> row, int index) {
+        return ((Number) row.get("bucket_" + index)).intValue();
+    }
+
+    // 파트너 하나의 버킷키 -> 정확 UV (원본 로그 COUNT(DISTINCT), 사전 집계 카운터에 UV 를 채울 때)
+    private Map<String, Long> countBucketUv(String partnerId, LocalDateTime startDate, LocalDateTime endDate,
+                                           AggregationType aggregationType) {
+        List<String> bucketExpressions = bucketExpressions(aggregationType);
+        StringBuilder bucketColumns = new StringBuilder();
+        for (int i = 0; i < bucketExpressions.size(); i++) {
+            bucketColumns.append(bucketExpressions.get(i)).append(" AS bucket_").append(i).append(", ");
+        }
+        String sql = "SELECT " + bucketColumns + "COUNT(DISTINCT member_id) AS total_uv FROM player_userlog " +
+                "WHERE partner_id = ? AND __time >= ? AND __time < ? GROUP BY " + String.join(", ", bucketExpressions);
+
+        Map<String, Long> uvs = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, partnerId, startDate, endDate)) {
+            uvs.put(aggregationType.keyOf(bucketStart(row, bucketExpressions.size())), ((Number) row.get("total_uv")).longValue());
+        }
+        return uvs;
+    }
+
+    // 버킷은 어느 경로든 __time 기준, aggregationDate 는 버킷 시작
+    // 사전 집계(ingest.pre-aggregation.enabled) 가 켜져 있으면 카운터는 원본 로그 대신 partner_minute_counter 에서 합산한다
+    // 이 경우 UV 는 분 버킷끼리 더할 수 없으므로 원본 로그에서 버킷별 COUNT(DISTINCT) 로 채운다
+    // 기간이 콜드 스토리지에 걸치면 UV(사전 집계) 또는 버킷 전체(원본 로그) 를 보관된 행까지 읽는 비트맵 집계로 구한다
     @Transactional
     public void aggregateByPartnerAndPeriod(
             String partnerId,
@@ -260,78 +789,60 @@ public class PartnerAggregationService {
             LocalDateTime endDate,
             AggregationType aggregationType
     ) {
-        String groupByFormat;
-        switch (aggregationType) {
-            case DAILY:
-                groupByFormat = "%Y-%m-%d";
-                break;
-            case HOURLY:
-                groupByFormat = "%Y-%m-%d %H";
-                break;
-            case MINUTELY:
-                groupByFormat = "%Y-%m-%d %H:%i";
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown aggregation type");
-        }
-
-        String aggregationSql = String.format(
-            "SELECT " +
-            "  partner_id, " +
-            "  DATE_FORMAT(created_at, '%s') AS aggregation_key, " +
-            "  COUNT(DISTINCT member_id) AS total_uv, " +
-            "  COUNT(*) AS total_pv, " +
-            "  COALESCE(SUM(playtime), 0) AS total_playtime, " +
-            "  SUM(CASE WHEN action = 'chat' THEN 1 ELSE 0 END) AS total_chat_count, " +
-            "  COALESCE(SUM(like_count), 0) AS total_like_count, " +
-            "  SUM(CASE WHEN action = 'productClick' THEN 1 ELSE 0 END) AS total_product_click_count, " +
-            "  SUM(CASE WHEN action = 'productOrder' THEN 1 ELSE 0 END) AS total_product_order_count, " +
-            "  COALESCE(SUM(product_order_amount), 0) AS total_product_order_amount, " +
-            "  COALESCE(SUM(product_order_quantity), 0) AS total_product_order_quantity, " +
-            "  SUM(CASE WHEN action = 'productOrderCancel' THEN 1 ELSE 0 END) AS total_product_order_cancel_count, " +
-            "  SUM(CASE WHEN action = 'bannerClick' THEN 1 ELSE 0 END) AS total_banner_click_count, " +
-            "  SUM(CASE WHEN action = 'couponClick' THEN 1 ELSE 0 END) AS total_coupon_click_count, " +
-            "  SUM(CASE WHEN action = 'joinReward' THEN 1 ELSE 0 END) AS total_reward_new_count, " +
-            "  SUM(CASE WHEN action = 'rewardComplete' THEN 1 ELSE 0 END) AS total_reward_complete_count, " +
-            "  SUM(CASE WHEN action = 'purchaseVerifying' THEN 1 ELSE 0 END) AS total_purchase_verifying_count, " +
-            "  SUM(CASE WHEN action = 'joinQuiz' THEN 1 ELSE 0 END) AS total_quiz_new_count, " +
-            "  SUM(CASE WHEN action = 'shareClick' THEN 1 ELSE 0 END) AS total_share_click_count " +
-            "FROM player_userlog " +
-            "WHERE partner_id = ? AND created_at >= ? AND created_at < ? " +
-            "GROUP BY partner_id, aggregation_key",
-            groupByFormat
-        );
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(
-            aggregationSql, partnerId, startDate, endDate
-        );
+        if (partnerMinuteCounterService.isEnabled()) {
+            List<PartnerAggregation> buckets = partnerMinuteCounterService.aggregate(partnerId, startDate, endDate, aggregationType);
+            Map<String, Long> uvs = playerUserLogArchiveService.readConsistently(() ->
+                    playerUserLogArchiveService.isArchived(startDate, endDate)
+                            ? bucketUvs(aggregateBitmapBuckets(List.of(partnerId), startDate, endDate, aggregationType))
+                            : countBucketUv(partnerId, startDate, endDate, aggregationType));
+            for (PartnerAggregation bucket : buckets) {
+                bucket.setTotalUv(uvs.getOrDefault(bucket.getAggregationKey(), 0L));
+            }
+            saveBatchData(buckets);
+            return;
+        }
+        saveBatchData(playerUserLogArchiveService.readConsistently(() ->
+                playerUserLogArchiveService.isArchived(startDate, endDate)
+                        ? aggregateArchivedPartnerBuckets(partnerId, startDate, endDate, aggregationType)
+                        : queryPartnerBuckets(partnerId, startDate, endDate, aggregationType)));
+    }
 
-        for (Map<String, Object> row : results) {
-            PartnerAggregation aggregation = PartnerAggregation.builder()
-                    .partnerId((String) row.get("partner_id"))
-                    .aggregationType(aggregationType.name())
-                    .aggregationKey((String) row.get("aggregation_key"))
-                    .totalUv(((Number) row.get("total_uv")).longValue())
-                    .totalPv(((Number) row.get("total_pv")).longValue())
-                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
-                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
-                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
-                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
-                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
-                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
-                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
-                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
-                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
-                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
-                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
-                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
-                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
-                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
-                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
-                    .aggregationDate(startDate) // 또는 aggregationKey 파싱해서 날짜로 저장
-                    .build();
-
-            partnerAggregationRepository.save(aggregation);
+    private static Map<String, Long> bucketUvs(List<PartnerAggregation> buckets) {
+        Map<String, Long> uvs = new HashMap<>();
+        for (PartnerAggregation bucket : buckets) {
+            uvs.put(bucket.getAggregationKey(), bucket.getTotalUv());
+        }
+        return uvs;
+    }
+
+    // 원본 로그 집계와 같은 모양으로 저장한다 (비트맵은 저장하지 않음)
+    private List<PartnerAggregation> aggregateArchivedPartnerBuckets(
+            String partnerId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            AggregationType aggregationType
+    ) {
+        log.info("파트너/버킷 집계 기간이 콜드 스토리지에 걸쳐 비트맵 집계로 대신: partnerId={}, {} ~ {}", partnerId, startDate, endDate);
+        List<PartnerAggregation> buckets = aggregateBitmapBuckets(List.of(partnerId), startDate, endDate, aggregationType);
+        for (PartnerAggregation bucket : buckets) {
+            bucket.setUvBitmap(null);
+        }
+        return buckets;
+    }
+
+    // 버킷은 사전 집계/콜드 스토리지 경로와 같은 __time 기준 (aggregationDate = 버킷 시작)
+    private List<PartnerAggregation> queryPartnerBuckets(
+            String partnerId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            AggregationType aggregationType
+    ) {
+        List<PartnerAggregation> buckets = aggregateBucketCounters("partner_id = ? AND __time >= ? AND __time < ?",
+                new Object[]{partnerId, startDate, endDate}, aggregationType);
+        Map<String, Long> uvs = countBucketUv(partnerId, startDate, endDate, aggregationType);
+        for (PartnerAggregation bucket : buckets) {
+            bucket.setTotalUv(uvs.getOrDefault(bucket.getAggregationKey(), 0L));
         }
+        return buckets;
     }
 } 
\ No newline at end of file
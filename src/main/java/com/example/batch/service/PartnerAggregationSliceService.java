@@ -0,0 +1,247 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.PartnerMetricsAccumulator;
+import com.example.batch.aggregation.UvBitmaps;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.entity.PartnerAggregationSlice;
+import com.example.batch.repository.PartnerAggregationSliceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// TIME_SLICED 모드: 슬라이스별 부분 집계(map) 와 최종 병합(reduce)
+// 부분 결과는 jobInstanceId 로 구분하므로 재시작 시 완료된 슬라이스 결과를 그대로 재사용한다
+// UV 는 슬라이스 행마다 회원 ordinal(member_dictionary) RoaringBitmap 으로 두고 병합 때 OR 한다 (회원 행을 따로 쌓지 않는다)
+// 슬라이스가 콜드 스토리지에 걸치면 보관된 행은 파트너마다 슬라이스 행을 하나 더 둔다 (병합은 파트너별 SUM / OR 이라 그대로 합쳐진다)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerAggregationSliceService {
+    private final PartnerAggregationSliceRepository partnerAggregationSliceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayerUserLogArchiveService playerUserLogArchiveService;
+    private final MemberDictionaryService memberDictionaryService;
+
+    @Transactional
+    public int aggregateSlice(Long jobInstanceId, LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+        return playerUserLogArchiveService.readConsistently(() -> {
+            int partnerCount = aggregateTableSlice(jobInstanceId, sliceStart, sliceEnd);
+            if (playerUserLogArchiveService.isArchived(sliceStart, sliceEnd)) {
+                partnerCount += aggregateArchivedSlice(jobInstanceId, sliceStart, sliceEnd);
+            }
+            return partnerCount;
+        });
+    }
+
+    private int aggregateTableSlice(Long jobInstanceId, LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+        String sliceSql = """
+                INSERT INTO partner_aggregation_slice (
+                    job_instance_id, partner_id, slice_start, slice_end,
+                    total_pv, total_playtime, total_chat_count, total_like_count,
+                    total_product_click_count, total_product_order_count, total_product_order_amount,
+                    total_product_order_quantity, total_product_order_cancel_count, total_banner_click_count,
+                    total_coupon_click_count, total_reward_new_count, total_reward_complete_count,
+                    total_purchase_verifying_count, total_quiz_new_count, total_share_click_count)
+                SELECT
+                    ?, partner_id, ?, ?,
+                    COUNT(CASE WHEN action = 'pageView' THEN 1 END),
+                    COALESCE(SUM(playtime), 0),
+                    COUNT(CASE WHEN action = 'chat' THEN 1 END),
+                    COALESCE(SUM(like_count), 0),
+                    COUNT(CASE WHEN action = 'productClick' THEN 1 END),
+                    COUNT(CASE WHEN action = 'productOrder' THEN 1 END),
+                    COALESCE(SUM(product_order_amount), 0),
+                    COALESCE(SUM(product_order_quantity), 0),
+                    COUNT(CASE WHEN action = 'productOrderCancel' THEN 1 END),
+                    COUNT(CASE WHEN action = 'bannerClick' THEN 1 END),
+                    COUNT(CASE WHEN action = 'couponClick' THEN 1 END),
+                    COUNT(CASE WHEN action = 'joinReward' THEN 1 END),
+                    COUNT(CASE WHEN action = 'rewardComplete' THEN 1 END),
+                    COUNT(CASE WHEN action = 'purchaseVerifying' THEN 1 END),
+                    COUNT(CASE WHEN action = 'joinQuiz' THEN 1 END),
+                    COUNT(CASE WHEN action = 'shareClick' THEN 1 END)
+                FROM player_userlog
+                WHERE partner_id IS NOT NULL
+                  AND __time >= ?
+                  AND __time < ?
+                GROUP BY partner_id
+            """;
+        int partnerCount = jdbcTemplate.update(sliceSql, jobInstanceId, sliceStart, sliceEnd, sliceStart, sliceEnd);
+
+        // UV 병합용 회원 비트맵: 슬라이스 기간의 회원을 먼저 등록하고 사전을 조인해 ordinal 을 읽는다
+        memberDictionaryService.registerMembers(sliceStart, sliceEnd);
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        List<String> latePartners = new ArrayList<>();
+        List<String> lateMembers = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT p.partner_id, d.member_ordinal, p.member_id FROM player_userlog p " +
+                    "LEFT JOIN member_dictionary d ON d.member_id = p.member_id " +
+                    "WHERE p.partner_id IS NOT NULL AND p.__time >= ? AND p.__time < ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setObject(1, sliceStart);
+            ps.setObject(2, sliceEnd);
+            ps.setFetchSize(1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int ordinal = rs.getInt(2);
+            if (!rs.wasNull()) {
+                bitmaps.computeIfAbsent(rs.getString(1), k -> new RoaringBitmap()).add(ordinal);
+                return;
+            }
+            String memberId = rs.getString(3);
+            if (memberId != null) {
+                latePartners.add(rs.getString(1));
+                lateMembers.add(memberId);
+            }
+        });
+        if (!lateMembers.isEmpty()) {
+            int[] ordinals = memberDictionaryService.ordinalsOf(lateMembers);
+            for (int i = 0; i < ordinals.length; i++) {
+                bitmaps.computeIfAbsent(latePartners.get(i), k -> new RoaringBitmap()).add(ordinals[i]);
+            }
+        }
+
+        List<Object[]> bitmapArgs = new ArrayList<>(bitmaps.size());
+        long memberCount = 0;
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+            memberCount += entry.getValue().getLongCardinality();
+            bitmapArgs.add(new Object[]{UvBitmaps.toBytes(entry.getValue()), jobInstanceId, entry.getKey(), sliceStart});
+        }
+        jdbcTemplate.batchUpdate("""
+                UPDATE partner_aggregation_slice SET uv_bitmap = ?
+                WHERE job_instance_id = ? AND partner_id = ? AND slice_start = ?
+            """, bitmapArgs);
+
+        log.debug("슬라이스 집계 완료: {} ~ {}, 파트너 {} 개, 회원 {} 명", sliceStart, sliceEnd, partnerCount, memberCount);
+        return partnerCount;
+    }
+
+    private int aggregateArchivedSlice(Long jobInstanceId, LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+        Map<String, PartnerMetricsAccumulator> archived = playerUserLogArchiveService.foldArchivedRows(
+                sliceStart, sliceEnd, (partnerId, time) -> partnerId, memberDictionaryService::ordinalsOf);
+
+        List<PartnerAggregationSlice> slices = new ArrayList<>(archived.size());
+        for (PartnerMetricsAccumulator accumulator : archived.values()) {
+            PartnerAggregation counters = accumulator.toPartnerAggregation(sliceStart);
+            slices.add(PartnerAggregationSlice.builder()
+                    .jobInstanceId(jobInstanceId)
+                    .partnerId(counters.getPartnerId())
+                    .sliceStart(sliceStart)
+                    .sliceEnd(sliceEnd)
+                    .totalPv(counters.getTotalPv())
+                    .totalPlaytime(counters.getTotalPlaytime())
+                    .totalChatCount(counters.getTotalChatCount())
+                    .totalLikeCount(counters.getTotalLikeCount())
+                    .totalProductClickCount(counters.getTotalProductClickCount())
+                    .totalProductOrderCount(counters.getTotalProductOrderCount())
+                    .totalProductOrderAmount(counters.getTotalProductOrderAmount())
+                    .totalProductOrderQuantity(counters.getTotalProductOrderQuantity())
+                    .totalProductOrderCancelCount(counters.getTotalProductOrderCancelCount())
+                    .totalBannerClickCount(counters.getTotalBannerClickCount())
+                    .totalCouponClickCount(counters.getTotalCouponClickCount())
+                    .totalRewardNewCount(counters.getTotalRewardNewCount())
+                    .totalRewardCompleteCount(counters.getTotalRewardCompleteCount())
+                    .totalPurchaseVerifyingCount(counters.getTotalPurchaseVerifyingCount())
+                    .totalQuizNewCount(counters.getTotalQuizNewCount())
+                    .totalShareClickCount(counters.getTotalShareClickCount())
+                    .uvBitmap(UvBitmaps.toBytes(accumulator.getMembers()))
+                    .build());
+        }
+        partnerAggregationSliceRepository.saveAll(slices);
+
+        log.debug("슬라이스 콜드 스토리지 행 집계: {} ~ {}, 파트너 {} 개", sliceStart, sliceEnd, slices.size());
+        return slices.size();
+    }
+
+    @Transactional
+    public List<PartnerAggregation> mergeSlices(Long jobInstanceId, LocalDateTime aggregationDate) {
+        log.info("슬라이스 병합 시작: jobInstanceId={}", jobInstanceId);
+
+        // 슬라이스 비트맵 OR = 기간 전체 회원 집합
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT partner_id, uv_bitmap
+                FROM partner_aggregation_slice
+                WHERE job_instance_id = ? AND uv_bitmap IS NOT NULL
+            """, (RowCallbackHandler) rs -> {
+            RoaringBitmap bitmap = UvBitmaps.fromBytes(rs.getBytes("uv_bitmap"));
+            bitmaps.merge(rs.getString("partner_id"), bitmap, (merged, next) -> {
+                merged.or(next);
+                return merged;
+            });
+        }, jobInstanceId);
+
+        String mergeSql = """
+                SELECT
+                    partner_id,
+                    SUM(total_pv) AS total_pv,
+                    SUM(total_playtime) AS total_playtime,
+                    SUM(total_chat_count) AS total_chat_count,
+                    SUM(total_like_count) AS total_like_count,
+                    SUM(total_product_click_count) AS total_product_click_count,
+                    SUM(total_product_order_count) AS total_product_order_count,
+                    SUM(total_product_order_amount) AS total_product_order_amount,
+                    SUM(total_product_order_quantity) AS total_product_order_quantity,
+                    SUM(total_product_order_cancel_count) AS total_product_order_cancel_count,
+                    SUM(total_banner_click_count) AS total_banner_click_count,
+                    SUM(total_coupon_click_count) AS total_coupon_click_count,
+                    SUM(total_reward_new_count) AS total_reward_new_count,
+                    SUM(total_reward_complete_count) AS total_reward_complete_count,
+                    SUM(total_purchase_verifying_count) AS total_purchase_verifying_count,
+                    SUM(total_quiz_new_count) AS total_quiz_new_count,
+                    SUM(total_share_click_count) AS total_share_click_count
+                FROM partner_aggregation_slice
+                WHERE job_instance_id = ?
+                GROUP BY partner_id
+            """;
+
+        List<PartnerAggregation> result = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(mergeSql, jobInstanceId)) {
+            String partnerId = (String) row.get("partner_id");
+            RoaringBitmap bitmap = bitmaps.get(partnerId);
+            result.add(PartnerAggregation.builder()
+                    .partnerId(partnerId)
+                    .totalUv(bitmap != null ? bitmap.getLongCardinality() : 0L)
+                    .uvBitmap(bitmap != null ? UvBitmaps.toBytes(bitmap) : null)
+                    .totalPv(((Number) row.get("total_pv")).longValue())
+                    .totalPlaytime(((Number) row.get("total_playtime")).longValue())
+                    .totalChatCount(((Number) row.get("total_chat_count")).longValue())
+                    .totalLikeCount(((Number) row.get("total_like_count")).longValue())
+                    .totalProductClickCount(((Number) row.get("total_product_click_count")).longValue())
+                    .totalProductOrderCount(((Number) row.get("total_product_order_count")).longValue())
+                    .totalProductOrderAmount(((Number) row.get("total_product_order_amount")).longValue())
+                    .totalProductOrderQuantity(((Number) row.get("total_product_order_quantity")).longValue())
+                    .totalProductOrderCancelCount(((Number) row.get("total_product_order_cancel_count")).longValue())
+                    .totalBannerClickCount(((Number) row.get("total_banner_click_count")).longValue())
+                    .totalCouponClickCount(((Number) row.get("total_coupon_click_count")).longValue())
+                    .totalRewardNewCount(((Number) row.get("total_reward_new_count")).longValue())
+                    .totalRewardCompleteCount(((Number) row.get("total_reward_complete_count")).longValue())
+                    .totalPurchaseVerifyingCount(((Number) row.get("total_purchase_verifying_count")).longValue())
+                    .totalQuizNewCount(((Number) row.get("total_quiz_new_count")).longValue())
+                    .totalShareClickCount(((Number) row.get("total_share_click_count")).longValue())
+                    .aggregationDate(aggregationDate)
+                    .build());
+        }
+
+        log.info("슬라이스 병합 완료: {} 개 파트너", result.size());
+        return result;
+    }
+
+    @Transactional
+    public void deleteSlices(Long jobInstanceId) {
+        partnerAggregationSliceRepository.deleteByJobInstanceId(jobInstanceId);
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.aggregation.ExternalDistinctCounter;
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.aggregation.PartnerMetricsAccumulator;
+import com.example.batch.aggregation.StringIntDictionary;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.reader.PlayerUserLogJdbcItemReader;
+import com.example.batch.reader.PlayerUserLogRow;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+// STREAMING 엔진: player_userlog 를 한 번만 읽으면서 파트너별 long[] 누산기에 접어 넣는다
+// 경량 행(PlayerUserLogRow) 으로 읽어 partner_id 사전 id 를 누산기 목록 인덱스로 쓴다 (행마다 해시 조회/엔티티 생성 없음)
+// 회원은 member_dictionary ordinal 로 받는다 (리더가 사전을 조인, 세그먼트도 같은 ordinal)
+// 사전에 아직 없는 회원은 스캔 중에 (파트너, 회원) 으로 중복 없이 모아 두고 커서를 닫은 뒤 한 번에 ordinal 을 받는다
+// (기간 전체를 한 번 더 읽는 사전 등록 INSERT ... SELECT 를 하지 않는다)
+// 정확 UV 는 ordinal 비트맵, 근사 UV 는 ordinal 마다 한 번만 계산한 member_id 해시로 센다
+// aggregation.distinct.memory-budget 이 0 보다 크면 정확 UV 는 파트너별 비트맵 대신 ExternalDistinctCounter 로 센다
+// (회원 코드를 예산만큼 힙에 모으고 넘치면 정렬 run 으로 디스크에 내린 뒤 병합, 기간이 길어도 힙 사용량이 예산을 넘지 않는다)
+// 콜드 스토리지(PlayerUserLogArchiveService) 로 옮겨진 기간은 테이블을 읽은 뒤 세그먼트 행을 같은 누산기에 이어 접는다
+// SQL 엔진(aggregateByDateRange) 과 같은 결과를 내야 한다 (partner_id 가 NULL 인 로그도 별도 그룹)
+@Service
+@Slf4j
+public class PartnerAggregationStreamingService {
+    private final PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader;
+    private final MemberDictionaryService memberDictionaryService;
+    private final long distinctMemoryBudget;
+    private final Path spillDirectory;
+    private final PlayerUserLogArchiveService archiveService;
+
+    @Autowired
+    public PartnerAggregationStreamingService(PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader,
+                                              MemberDictionaryService memberDictionaryService,
+                                              @Value("${aggregation.distinct.memory-budget:0}") DataSize distinctMemoryBudget,
+                                              @Value("${aggregation.distinct.spill-directory:${java.io.tmpdir}}") String spillDirectory,
+                                              PlayerUserLogArchiveService archiveService) {
+        this.playerUserLogJdbcItemReader = playerUserLogJdbcItemReader;
+        this.memberDictionaryService = memberDictionaryService;
+        this.distinctMemoryBudget = distinctMemoryBudget.toBytes();
+        this.spillDirectory = Path.of(spillDirectory);
+        this.archiveService = archiveService;
+    }
+
+    public List<PartnerAggregation> aggregateByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return aggregate(startDate, endDate, null, null);
+    }
+
+    // UV 를 HyperLogLog(precision) 으로 근사하고 스케치를 함께 채운다
+    public List<PartnerAggregation> aggregateApproximateByDateRange(LocalDateTime startDate, LocalDateTime endDate, int precision) {
+        return aggregate(startDate, endDate, precision, null);
+    }
+
+    // partnerIds 의 파트너만 집계한다 (파트너별/파티션 SQL 집계의 기간이 콜드 스토리지에 걸칠 때). partner_id 가 NULL 인 로그는 제외
+    public List<PartnerAggregation> aggregateByPartnerIdsAndDateRange(Collection<String> partnerIds,
+                                                                      LocalDateTime startDate, LocalDateTime endDate) {
+        if (partnerIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return aggregate(startDate, endDate, null, partnerIds);
+    }
+
+    private List<PartnerAggregation> aggregate(LocalDateTime startDate, LocalDateTime endDate, Integer precision,
+                                               Collection<String> partnerFilter) {
+        // 테이블을 읽는 동안 보관 작업이 행을 세그먼트로 옮기지 못하게 한다
+        return archiveService.readConsistently(() -> aggregateConsistently(startDate, endDate, precision, partnerFilter));
+    }
+
+    private List<PartnerAggregation> aggregateConsistently(LocalDateTime startDate, LocalDateTime endDate, Integer precision,
+                                                           Collection<String> partnerFilter) {
+        log.info("스트리밍 집계 시작: startDate={}, endDate={}, precision={}, partners={}", startDate, endDate, precision,
+                partnerFilter != null ? partnerFilter.size() : "all");
+
+        CodeDictionary partnerIds = new CodeDictionary();
+        CodeDictionary codes = new CodeDictionary();
+        MemberHashes memberHashes = precision != null ? new MemberHashes() : null;
+        ExternalDistinctCounter distinctCounter = precision == null && distinctMemoryBudget > 0
+                ? new ExternalDistinctCounter(distinctMemoryBudget, spillDirectory) : null;
+        Fold fold = new Fold(partnerIds, precision, memberHashes, distinctCounter);
+        LateMembers lateMembers = new LateMembers(memberHashes);
+
+        try {
+            JdbcCursorItemReader<PlayerUserLogRow> reader = playerUserLogJdbcItemReader.createRowReader(
+                    startDate, endDate, partnerFilter, partnerIds, codes, lateMembers);
+            try {
+                reader.afterPropertiesSet();
+                reader.open(new ExecutionContext());
+                PlayerUserLogRow row;
+                while ((row = reader.read()) != null) {
+                    fold.accept(row);
+                }
+            } finally {
+                reader.close();
+            }
+            // 사전에 없던 회원은 커서를 닫은 뒤에 ordinal 을 받아 접는다 (커서를 연 채로 사전에 쓰지 않는다)
+            int lateCount = lateMembers.resolveInto(fold, memberDictionaryService::ordinalsOf);
+
+            // 콜드 스토리지로 옮겨진 행은 같은 사전, 같은 회원 ordinal 로 같은 누산기에 접는다
+            Function<List<String>, int[]> memberOrdinals = memberHashes != null
+                    ? memberHashes.remembering(memberDictionaryService::ordinalsOf)
+                    : memberDictionaryService::ordinalsOf;
+            archiveService.forEachArchivedRow(startDate, endDate, partnerIds, codes, memberOrdinals,
+                    partnerFilter != null ? filtered(partnerFilter, partnerIds, fold) : fold);
+
+            List<PartnerAggregation> result = fold.toResult(startDate);
+            log.info("스트리밍 집계 완료: {} 건 -> {} 개 파트너 (사전에 새로 등록한 회원 {} 명)", fold.rowCount, result.size(), lateCount);
+            return result;
+        } catch (Exception e) {
+            throw new IllegalStateException("스트리밍 집계 중 로그 읽기 실패", e);
+        } finally {
+            if (distinctCounter != null) {
+                distinctCounter.close();
+            }
+        }
+    }
+
+    // 세그먼트 행 중 partnerFilter 의 파트너만 넘긴다 (테이블 쪽은 리더 SQL 이 거른다)
+    private static Consumer<PlayerUserLogRow> filtered(Collection<String> partnerFilter, CodeDictionary partnerIds,
+                                                       Consumer<PlayerUserLogRow> consumer) {
+        Set<String> accepted = new HashSet<>(partnerFilter);
+        return row -> {
+            if (row.getPartnerCode() != CodeDictionary.NULL_ID && accepted.contains(partnerIds.decode(row.getPartnerCode()))) {
+                consumer.accept(row);
+            }
+        };
+    }
+
+    private static PartnerMetricsAccumulator newAccumulator(String partnerId, Integer precision, IntToLongFunction memberHashes,
+                                                            ExternalDistinctCounter distinctCounter) {
+        if (precision != null) {
+            return PartnerMetricsAccumulator.approximate(partnerId, precision, memberHashes);
+        }
+        return distinctCounter != null
+                ? PartnerMetricsAccumulator.withoutUv(partnerId)
+                : PartnerMetricsAccumulator.exact(partnerId);
+    }
+
+    // 경량 행 -> 파트너별 누산기. 누산기 목록 인덱스 = partner_id 사전 id
+    // 세그먼트는 행이 없는 파트너도 사전에 올릴 수 있으므로 누산기는 처음 행이 올 때 만들고 빈 자리는 null 로 둔다
+    private static final class Fold implements Consumer<PlayerUserLogRow> {
+        private final CodeDictionary partnerIds;
+        private final Integer precision;
+        private final IntToLongFunction memberHashes;
+        private final ExternalDistinctCounter distinctCounter;
+        private final List<PartnerMetricsAccumulator> accumulators = new ArrayList<>();
+        private PartnerMetricsAccumulator nullPartnerAccumulator;
+        private long rowCount;
+
+        private Fold(CodeDictionary partnerIds, Integer precision, IntToLongFunction memberHashes,
+                     ExternalDistinctCounter distinctCounter) {
+            this.partnerIds = partnerIds;
+            this.precision = precision;
+            this.memberHashes = memberHashes;
+            this.distinctCounter = distinctCounter;
+        }
+
+        @Override
+        public void accept(PlayerUserLogRow row) {
+            accumulator(row.getPartnerCode()).add(row.getActionOrdinal(),
+                    row.getMemberCode(),
+                    row.getPlaytime(),
+                    row.getLikeCount(),
+                    row.getProductOrderAmount(),
+                    row.getProductOrderQuantity());
+            if (distinctCounter != null && row.getMemberCode() >= 0) {
+                distinctCounter.add(row.getPartnerCode(), row.getMemberCode());
+            }
+            rowCount++;
+        }
+
+        // 행은 이미 접었고 회원 ordinal 만 나중에 정해진 경우
+        private void addMember(int partnerCode, int memberOrdinal) {
+            accumulator(partnerCode).addMember(memberOrdinal);
+            if (distinctCounter != null) {
+                distinctCounter.add(partnerCode, memberOrdinal);
+            }
+        }
+
+        private PartnerMetricsAccumulator accumulator(int partnerCode) {
+            if (partnerCode == CodeDictionary.NULL_ID) {
+                if (nullPartnerAccumulator == null) {
+                    nullPartnerAccumulator = newAccumulator(null, precision, memberHashes, distinctCounter);
+                }
+                return nullPartnerAccumulator;
+            }
+            while (partnerCode >= accumulators.size()) {
+                accumulators.add(null);
+            }
+            PartnerMetricsAccumulator accumulator = accumulators.get(partnerCode);
+            if (accumulator == null) {
+                accumulator = newAccumulator(partnerIds.decode(partnerCode), precision, memberHashes, distinctCounter);
+                accumulators.set(partnerCode, accumulator);
+            }
+            return accumulator;
+        }
+
+        // 사전 id 순서 + 마지막에 NULL 파트너
+        private List<PartnerAggregation> toResult(LocalDateTime startDate) {
+            // 그룹 = partner_id 사전 id (NULL 파트너는 -1)
+            Map<Integer, Long> uvs = distinctCounter != null ? distinctCounter.counts() : null;
+            List<PartnerAggregation> result = new ArrayList<>(accumulators.size() + 1);
+            for (int partnerCode = 0; partnerCode < accumulators.size(); partnerCode++) {
+                if (accumulators.get(partnerCode) != null) {
+                    result.add(toPartnerAggregation(accumulators.get(partnerCode), partnerCode, uvs, startDate));
+                }
+            }
+            if (nullPartnerAccumulator != null) {
+                result.add(toPartnerAggregation(nullPartnerAccumulator, CodeDictionary.NULL_ID, uvs, startDate));
+            }
+            if (distinctCounter != null) {
+                log.info("외부 distinct: run {} 개, 스필 {} 건", distinctCounter.getSpilledRuns(), distinctCounter.getSpilledValues());
+            }
+            return result;
+        }
+
+        private static PartnerAggregation toPartnerAggregation(PartnerMetricsAccumulator accumulator, int partnerCode,
+                                                               Map<Integer, Long> uvs, LocalDateTime startDate) {
+            PartnerAggregation aggregation = accumulator.toPartnerAggregation(startDate);
+            if (uvs != null) {
+                aggregation.setTotalUv(uvs.getOrDefault(partnerCode, 0L));
+            }
+            return aggregation;
+        }
+    }
+
+    // 회원 ordinal -> HyperLogLog.hash64(member_id), ordinal 마다 한 번만 계산한다 (0 은 아직 모름)
+    // member_id 는 리더(needsMemberId/memberRead) 와 세그먼트 사전(remembering) 에서 받는다
+    private static final class MemberHashes implements IntToLongFunction {
+        private long[] hashes = new long[1024];
+
+        private boolean isKnown(int memberOrdinal) {
+            return memberOrdinal < hashes.length && hashes[memberOrdinal] != 0;
+        }
+
+        private void remember(int memberOrdinal, String memberId) {
+            if (memberOrdinal >= hashes.length) {
+                hashes = Arrays.copyOf(hashes, Math.max(memberOrdinal + 1, hashes.length * 2));
+            }
+            hashes[memberOrdinal] = HyperLogLog.hash64(memberId);
+        }
+
+        private Function<List<String>, int[]> remembering(Function<List<String>, int[]> ordinalsOf) {
+            return memberIds -> {
+                int[] ordinals = ordinalsOf.apply(memberIds);
+                for (int i = 0; i < ordinals.length; i++) {
+                    if (ordinals[i] >= 0 && !isKnown(ordinals[i])) {
+                        remember(ordinals[i], memberIds.get(i));
+                    }
+                }
+                return ordinals;
+            };
+        }
+
+        @Override
+        public long applyAsLong(int memberOrdinal) {
+            if (!isKnown(memberOrdinal)) {
+                throw new IllegalStateException("member_id 해시를 모르는 회원 ordinal 입니다: " + memberOrdinal);
+            }
+            return hashes[memberOrdinal];
+        }
+    }
+
+    // 리더 콜백: 근사 UV 해시에 필요한 member_id 를 받고, member_dictionary 에 아직 없는 회원은 이번 실행의 임시 코드로 모아 둔다
+    // 임시 코드는 회원마다 하나, 파트너별로는 임시 코드 비트맵이라 같은 회원의 행이 많아도 회원 수만큼만 쌓인다
+    private static final class LateMembers implements PlayerUserLogJdbcItemReader.MemberIdListener {
+        private final MemberHashes memberHashes;
+        private final StringIntDictionary memberIds = new StringIntDictionary();
+        private final List<RoaringBitmap> partners = new ArrayList<>();
+        private RoaringBitmap nullPartner;
+
+        private LateMembers(MemberHashes memberHashes) {
+            this.memberHashes = memberHashes;
+        }
+
+        @Override
+        public boolean needsMemberId(int memberOrdinal) {
+            return memberHashes != null && !memberHashes.isKnown(memberOrdinal);
+        }
+
+        @Override
+        public void memberRead(int partnerCode, int memberOrdinal, String memberId) {
+            if (memberOrdinal >= 0) {
+                memberHashes.remember(memberOrdinal, memberId);
+                return;
+            }
+            partnerMembers(partnerCode).add(memberIds.encode(memberId));
+        }
+
+        private RoaringBitmap partnerMembers(int partnerCode) {
+            if (partnerCode == CodeDictionary.NULL_ID) {
+                if (nullPartner == null) {
+                    nullPartner = new RoaringBitmap();
+                }
+                return nullPartner;
+            }
+            while (partnerCode >= partners.size()) {
+                partners.add(null);
+            }
+            RoaringBitmap members = partners.get(partnerCode);
+            if (members == null) {
+                members = new RoaringBitmap();
+                partners.set(partnerCode, members);
+            }
+            return members;
+        }
+
+        // 모은 회원의 ordinal 을 한 번에 받아 파트너별로 접는다. 반환값은 회원 수
+        private int resolveInto(Fold fold, Function<List<String>, int[]> ordinalsOf) {
+            if (memberIds.size() == 0) {
+                return 0;
+            }
+            List<String> values = new ArrayList<>(memberIds.size());
+            for (int code = 0; code < memberIds.size(); code++) {
+                values.add(memberIds.decode(code));
+            }
+            int[] ordinals = memberHashes != null ? memberHashes.remembering(ordinalsOf).apply(values) : ordinalsOf.apply(values);
+            for (int partnerCode = 0; partnerCode < partners.size(); partnerCode++) {
+                if (partners.get(partnerCode) != null) {
+                    int partner = partnerCode;
+                    partners.get(partnerCode).forEach((int code) -> fold.addMember(partner, ordinals[code]));
+                }
+            }
+            if (nullPartner != null) {
+                nullPartner.forEach((int code) -> fold.addMember(CodeDictionary.NULL_ID, ordinals[code]));
+            }
+            return values.size();
+        }
+    }
+}
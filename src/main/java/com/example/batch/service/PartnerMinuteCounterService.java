@@ -0,0 +1,237 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.PartnerAggregationCounters;
+import com.example.batch.aggregation.PlayerAction;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.jdbc.DatabaseDialect;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.example.batch.aggregation.PartnerMetricsAccumulator.LIKE_COUNT;
+import static com.example.batch.aggregation.PartnerMetricsAccumulator.PLAYTIME;
+import static com.example.batch.aggregation.PartnerMetricsAccumulator.PRODUCT_ORDER_AMOUNT;
+import static com.example.batch.aggregation.PartnerMetricsAccumulator.PRODUCT_ORDER_QUANTITY;
+import static com.example.batch.aggregation.PartnerMetricsAccumulator.SLOT_COUNT;
+
+// 적재 시점 사전 집계 (ingest.pre-aggregation.enabled): partner_minute_counter 의 갱신과 조회
+// 갱신: 적재 배치를 메모리에서 (partner_id, 분 버킷) 으로 먼저 합친 뒤 버킷당 한 번 가산 upsert
+// 조회: 분 버킷 행을 읽어 HOURLY/DAILY 로 더하므로 원본 로그 행 수가 아닌 버킷 수에 비례한다
+// 가산 upsert 구문은 DatabaseDialect (H2: MERGE INTO ... USING, MySQL: INSERT ... ON DUPLICATE KEY UPDATE, 기존 값 + 새 값)
+@Slf4j
+@Service
+public class PartnerMinuteCounterService {
+
+    // 테이블 컬럼 순서 = PartnerAggregation 카운터 순서, 각 컬럼이 읽는 PartnerMetricsAccumulator 슬롯
+    private static final String[] COUNTER_COLUMNS = {
+            "total_pv", "total_playtime", "total_chat_count", "total_like_count",
+            "total_product_click_count", "total_product_order_count", "total_product_order_amount",
+            "total_product_order_quantity", "total_product_order_cancel_count", "total_banner_click_count",
+            "total_coupon_click_count", "total_reward_new_count", "total_reward_complete_count",
+            "total_purchase_verifying_count", "total_quiz_new_count", "total_share_click_count"};
+    private static final int[] COUNTER_SLOTS = {
+            PlayerAction.PAGE_VIEW.ordinal(), PLAYTIME, PlayerAction.CHAT.ordinal(), LIKE_COUNT,
+            PlayerAction.PRODUCT_CLICK.ordinal(), PlayerAction.PRODUCT_ORDER.ordinal(), PRODUCT_ORDER_AMOUNT,
+            PRODUCT_ORDER_QUANTITY, PlayerAction.PRODUCT_ORDER_CANCEL.ordinal(), PlayerAction.BANNER_CLICK.ordinal(),
+            PlayerAction.COUPON_CLICK.ordinal(), PlayerAction.JOIN_REWARD.ordinal(), PlayerAction.REWARD_COMPLETE.ordinal(),
+            PlayerAction.PURCHASE_VERIFYING.ordinal(), PlayerAction.JOIN_QUIZ.ordinal(), PlayerAction.SHARE_CLICK.ordinal()};
+
+    // 동시에 적재하는 트랜잭션끼리 같은 순서로 행 잠금을 잡도록 버킷을 정렬해서 upsert
+    private static final Comparator<MinuteBucket> BUCKET_ORDER =
+            Comparator.comparing(MinuteBucket::partnerId).thenComparing(MinuteBucket::minute);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayerUserLogArchiveService archiveService;
+    private final boolean enabled;
+
+    @Autowired
+    public PartnerMinuteCounterService(JdbcTemplate jdbcTemplate, PlayerUserLogArchiveService archiveService,
+                                       @Value("${ingest.pre-aggregation.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveService = archiveService;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 적재 배치 하나를 버킷별로 합산해 가산 upsert (호출하는 쪽 트랜잭션 안에서 실행해야 원본 insert 와 함께 커밋/롤백된다)
+    public int add(List<PlayerUserLog> rows) {
+        Map<MinuteBucket, long[]> buckets = new TreeMap<>(BUCKET_ORDER);
+        for (PlayerUserLog row : rows) {
+            if (row.getPartnerId() == null || row.getTime() == null) {
+                continue; // 집계 쿼리와 같이 partner_id 가 없는 로그는 제외
+            }
+            long[] slots = buckets.computeIfAbsent(
+                    new MinuteBucket(row.getPartnerId(), row.getTime().truncatedTo(ChronoUnit.MINUTES)),
+                    bucket -> new long[SLOT_COUNT]);
+            PlayerAction action = PlayerAction.fromCode(row.getAction());
+            if (action != null) {
+                slots[action.ordinal()]++;
+            }
+            slots[PLAYTIME] += valueOf(row.getPlaytime());
+            slots[LIKE_COUNT] += valueOf(row.getLikeCount());
+            slots[PRODUCT_ORDER_AMOUNT] += valueOf(row.getProductOrderAmount());
+            slots[PRODUCT_ORDER_QUANTITY] += valueOf(row.getProductOrderQuantity());
+        }
+        if (buckets.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<MinuteBucket, long[]>> entries = new ArrayList<>(buckets.entrySet());
+        jdbcTemplate.batchUpdate(buildUpsertSql(DatabaseDialect.of(jdbcTemplate)), entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey().partnerId());
+            ps.setTimestamp(2, Timestamp.valueOf(entry.getKey().minute()));
+            for (int i = 0; i < COUNTER_SLOTS.length; i++) {
+                ps.setLong(i + 3, entry.getValue()[COUNTER_SLOTS[i]]);
+            }
+        });
+        log.debug("partner_minute_counter upsert: 로그 {} 건 -> 버킷 {} 개", rows.size(), entries.size());
+        return entries.size();
+    }
+
+    // 원본 로그에서 카운터 테이블을 다시 만든다 (대량 적재처럼 add 를 거치지 않은 적재 뒤, 또는 기존 데이터 백필)
+    // 콜드 스토리지로 옮긴 행은 원본에 없으므로 마지막 세그먼트 cutoff 이후의 분 버킷만 지우고 다시 만든다
+    // (cutoff 가 걸친 분과 그 이전 버킷은 보관 전에 쌓인 카운터를 그대로 둔다)
+    public void rebuild() {
+        archiveService.readConsistently(() -> {
+            LocalDateTime archivedBefore = archiveService.archivedBefore();
+            String sql = buildRebuildSql(DatabaseDialect.of(jdbcTemplate), archivedBefore != null);
+            int buckets;
+            if (archivedBefore == null) {
+                jdbcTemplate.update("DELETE FROM partner_minute_counter");
+                buckets = jdbcTemplate.update(sql);
+            } else {
+                Timestamp from = Timestamp.valueOf(ceilToMinute(archivedBefore));
+                jdbcTemplate.update("DELETE FROM partner_minute_counter WHERE minute_bucket >= ?", from);
+                buckets = jdbcTemplate.update(sql, from);
+            }
+            log.info("partner_minute_counter 재구성 완료: {} 개 버킷 (보관 기준 {} 이후)", buckets, archivedBefore);
+            return buckets;
+        });
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM partner_minute_counter");
+    }
+
+    // 파트너 하나의 [startDate, endDate) 분 버킷을 aggregationType 단위로 합산 (UV 는 합산할 수 없으므로 null)
+    public List<PartnerAggregation> aggregate(String partnerId, LocalDateTime startDate, LocalDateTime endDate,
+                                              AggregationType aggregationType) {
+        String sql = "SELECT minute_bucket, " + String.join(", ", COUNTER_COLUMNS) + " FROM partner_minute_counter " +
+                "WHERE partner_id = ? AND minute_bucket >= ? AND minute_bucket < ? ORDER BY minute_bucket";
+
+        Map<LocalDateTime, PartnerAggregation> result = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            PartnerAggregation minute = toPartnerAggregation(partnerId, rs);
+            LocalDateTime bucketStart = aggregationType.truncate(minute.getAggregationDate());
+            PartnerAggregation current = result.get(bucketStart);
+            if (current == null) {
+                minute.setAggregationDate(bucketStart);
+                minute.setAggregationType(aggregationType.name());
+                minute.setAggregationKey(aggregationType.keyOf(bucketStart));
+                result.put(bucketStart, minute);
+            } else {
+                PartnerAggregationCounters.add(current, minute);
+            }
+        }, partnerId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+        return new ArrayList<>(result.values());
+    }
+
+    private static PartnerAggregation toPartnerAggregation(String partnerId, ResultSet rs) throws SQLException {
+        return PartnerAggregation.builder()
+                .partnerId(partnerId)
+                .aggregationDate(rs.getTimestamp(1).toLocalDateTime())
+                .totalPv(rs.getLong(2))
+                .totalPlaytime(rs.getLong(3))
+                .totalChatCount(rs.getLong(4))
+                .totalLikeCount(rs.getLong(5))
+                .totalProductClickCount(rs.getLong(6))
+                .totalProductOrderCount(rs.getLong(7))
+                .totalProductOrderAmount(rs.getLong(8))
+                .totalProductOrderQuantity(rs.getLong(9))
+                .totalProductOrderCancelCount(rs.getLong(10))
+                .totalBannerClickCount(rs.getLong(11))
+                .totalCouponClickCount(rs.getLong(12))
+                .totalRewardNewCount(rs.getLong(13))
+                .totalRewardCompleteCount(rs.getLong(14))
+                .totalPurchaseVerifyingCount(rs.getLong(15))
+                .totalQuizNewCount(rs.getLong(16))
+                .totalShareClickCount(rs.getLong(17))
+                .build();
+    }
+
+    private static LocalDateTime ceilToMinute(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        return minute.equals(time) ? minute : minute.plusMinutes(1);
+    }
+
+    private static long valueOf(Integer value) {
+        return value != null ? value : 0L;
+    }
+
+    static String buildUpsertSql(DatabaseDialect dialect) {
+        String[] columns = new String[COUNTER_COLUMNS.length + 2];
+        String[] h2Types = new String[columns.length];
+        columns[0] = "partner_id";
+        h2Types[0] = "VARCHAR";
+        columns[1] = "minute_bucket";
+        h2Types[1] = "TIMESTAMP";
+        for (int i = 0; i < COUNTER_COLUMNS.length; i++) {
+            columns[i + 2] = COUNTER_COLUMNS[i];
+            h2Types[i + 2] = "BIGINT";
+        }
+        return dialect.upsertSql("partner_minute_counter", columns, h2Types,
+                new String[]{"partner_id", "minute_bucket"}, COUNTER_COLUMNS, true);
+    }
+
+    // from 이 true 면 __time >= ? 인 행만 (파라미터 하나)
+    static String buildRebuildSql(DatabaseDialect dialect, boolean from) {
+        String minuteExpression = dialect.truncateToMinute("__time");
+        StringBuilder counters = new StringBuilder();
+        for (int slot : COUNTER_SLOTS) {
+            counters.append(", ").append(counterExpression(slot));
+        }
+        return "INSERT INTO partner_minute_counter (partner_id, minute_bucket, " + String.join(", ", COUNTER_COLUMNS) + ") " +
+                "SELECT partner_id, " + minuteExpression + counters + " FROM player_userlog " +
+                "WHERE partner_id IS NOT NULL AND __time IS NOT NULL " + (from ? "AND __time >= ? " : "") +
+                "GROUP BY partner_id, " + minuteExpression;
+    }
+
+    private static String counterExpression(int slot) {
+        if (slot < PlayerAction.count()) {
+            return "COUNT(CASE WHEN action = '" + PlayerAction.fromOrdinal(slot).getCode() + "' THEN 1 END)";
+        }
+        if (slot == PLAYTIME) {
+            return "COALESCE(SUM(playtime), 0)";
+        }
+        if (slot == LIKE_COUNT) {
+            return "COALESCE(SUM(like_count), 0)";
+        }
+        if (slot == PRODUCT_ORDER_AMOUNT) {
+            return "COALESCE(SUM(product_order_amount), 0)";
+        }
+        return "COALESCE(SUM(product_order_quantity), 0)";
+    }
+
+    private record MinuteBucket(String partnerId, LocalDateTime minute) {
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.aggregation.PartnerMetricsAccumulator;
+import com.example.batch.archive.PlayerUserLogSegment;
+import com.example.batch.archive.PlayerUserLogSegmentWriter;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogRow;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 콜드 스토리지: __time < cutoff 인 player_userlog 행을 archive.directory 아래 세그먼트 파일로 옮기고 테이블에서 지운다
+// 세그먼트 하나 = id 순서로 최대 archive.segment-rows 행 (PlayerUserLogSegment 형식). 원본 삭제는 세그먼트의 id 목록으로
+// archive.delete-chunk-size 행씩 문장을 나누되 세그먼트마다 트랜잭션 하나로 지운다 (세그먼트에 들어간 행만 지우므로 늦게 커밋된 행을 잘못 지우지 않는다)
+// 순서: .pending 으로 쓰기(force) -> 목록에 추가 -> 원본 삭제 -> .seg 로 이름 변경. 중간에 죽으면 시작할 때 .pending 의 삭제를 마저 한다
+// .pending 이 남아 있으면 보관하지 않고, 세그먼트 파일은 덮어쓰지 않는다 (같은 행이 두 세그먼트에 들어가거나 보관된 행을 잃지 않도록)
+// 세그먼트 목록 변경(추가 + 원본 삭제) 은 쓰기 잠금, 테이블과 세그먼트를 함께 읽는 집계는 readConsistently 의 읽기 잠금 안에서 한다
+// (같은 행을 테이블과 세그먼트에서 두 번 세거나, 세그먼트 추가 전에 지워진 행을 빠뜨리지 않도록)
+// 잠금은 이 JVM 안에서만 유효하다: 보관(archive) 과 집계는 같은 인스턴스에서 돌리고, 다른 인스턴스(/batch 등) 에서 보관하지 않는다
+// 세그먼트 목록도 시작할 때 한 번 읽으므로 다른 인스턴스가 만든 세그먼트는 재시작 전까지 보이지 않는다
+@Slf4j
+@Service
+public class PlayerUserLogArchiveService {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String PENDING_SUFFIX = ".seg.pending";
+    private static final String SELECT_SQL = """
+            SELECT id, __time, partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                   playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code
+            FROM player_userlog
+            WHERE __time < ? AND id > ?
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int segmentRows;
+    private final int deleteChunkSize;
+    private final List<PlayerUserLogSegment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public PlayerUserLogArchiveService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${archive.directory:${java.io.tmpdir}/batch-archive}") String directory,
+                                       @Value("${archive.segment-rows:500000}") int segmentRows,
+                                       @Value("${archive.delete-chunk-size:5000}") int deleteChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 스텝 트랜잭션 안에서 불려도 세그먼트마다 따로 커밋한다
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directory = Path.of(directory);
+        this.segmentRows = segmentRows;
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ArchiveResult {
+        private final int segmentCount;
+        private final long rowCount;
+        private final long fileBytes;
+    }
+
+    @PostConstruct
+    void loadSegments() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> pending = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(SEGMENT_SUFFIX)) {
+                        segments.add(PlayerUserLogSegment.open(file));
+                    } else if (name.endsWith(PENDING_SUFFIX)) {
+                        pending.add(file);
+                    } else if (name.endsWith(".tmp")) {
+                        Files.delete(file); // 쓰다 만 세그먼트 (원본은 아직 지우지 않았음)
+                    }
+                }
+            }
+            for (Path file : pending) {
+                log.warn("보관 중단된 세그먼트 복구: {}", file);
+                commit(PlayerUserLogSegment.open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("보관 디렉터리를 읽을 수 없습니다: " + directory, e);
+        }
+        segments.sort(Comparator.comparingLong(PlayerUserLogSegment::getMinId));
+        log.info("콜드 스토리지 세그먼트: {} 개, {} 행 ({})", segments.size(),
+                segments.stream().mapToLong(PlayerUserLogSegment::getRowCount).sum(), directory.toAbsolutePath());
+    }
+
+    // __time < cutoff 인 행을 모두 세그먼트로 옮긴다. 매번 id 처음부터 훑으므로 지난번 이후 늦게 들어온 옛 행도 옮긴다
+    // 한 번에 하나만 돈다 (동시에 돌면 둘이 같은 행을 읽어 두 세그먼트에 넣는다)
+    public synchronized ArchiveResult archive(LocalDateTime cutoff) {
+        List<Path> pending = pendingFiles();
+        if (!pending.isEmpty()) {
+            throw new IllegalStateException("확정되지 않은 세그먼트가 있어 보관할 수 없습니다 (재시작할 때 복구합니다): " + pending);
+        }
+        LocalDateTime archiveCutoff = cutoff.truncatedTo(ChronoUnit.MICROS);
+        log.info("콜드 스토리지 보관 시작: __time < {}, 세그먼트당 최대 {} 행", archiveCutoff, segmentRows);
+        int segmentCount = 0;
+        long rowCount = 0;
+        long fileBytes = 0;
+        long lastId = 0;
+        while (true) {
+            PlayerUserLogSegmentWriter writer = new PlayerUserLogSegmentWriter();
+            long afterId = lastId;
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setObject(1, archiveCutoff);
+                ps.setLong(2, afterId);
+                ps.setFetchSize(1000);
+                ps.setMaxRows(segmentRows);
+                return ps;
+            }, (RowCallbackHandler) rs -> writer.add(toEntity(rs)));
+            if (writer.size() == 0) {
+                break;
+            }
+            lastId = writer.lastId();
+
+            Path file = directory.resolve("player_userlog-%020d%s".formatted(writer.lastId(), PENDING_SUFFIX));
+            PlayerUserLogSegment segment = commit(writer.write(file, archiveCutoff));
+            segmentCount++;
+            rowCount += segment.getRowCount();
+            fileBytes += segment.getFileBytes();
+            log.info("세그먼트 보관: {} ({} 행, id {} ~ {}, {} bytes)", segment.getPath().getFileName(),
+                    segment.getRowCount(), segment.getMinId(), segment.getMaxId(), segment.getFileBytes());
+            if (writer.size() < segmentRows) {
+                break;
+            }
+        }
+        log.info("콜드 스토리지 보관 완료: 세그먼트 {} 개, {} 행, {} bytes", segmentCount, rowCount, fileBytes);
+        return new ArchiveResult(segmentCount, rowCount, fileBytes);
+    }
+
+    // 테이블 + 세그먼트를 함께 읽는 동안 세그먼트 목록이 바뀌지 않게 한다 (보관 작업은 끝날 때까지 기다린다)
+    // 같은 JVM 의 보관 작업만 막는다 (DB 잠금이 아님). 읽기 잠금은 재진입할 수 있다
+    public <T> T readConsistently(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // [start, end) 에 보관된 행이 있을 수 있는지 (세그먼트 헤더의 __time 최소·최대). start/end 가 null 이면 false (빈 기간)
+    public boolean isArchived(LocalDateTime start, LocalDateTime end) {
+        for (PlayerUserLogSegment segment : segments) {
+            if (segment.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 가장 늦은 세그먼트 cutoff: 이보다 이른 시간에는 보관된 행이 있을 수 있다 (세그먼트가 없으면 null)
+    public LocalDateTime archivedBefore() {
+        LocalDateTime latest = null;
+        for (PlayerUserLogSegment segment : segments) {
+            if (latest == null || segment.getCutoff().isAfter(latest)) {
+                latest = segment.getCutoff();
+            }
+        }
+        return latest;
+    }
+
+    // [start, end) 에 보관된 행이 있는 partner_id (세그먼트 헤더만 읽는다)
+    public Set<String> archivedPartnerIds(LocalDateTime start, LocalDateTime end) {
+        Set<String> partnerIds = new TreeSet<>();
+        for (PlayerUserLogSegment segment : segments) {
+            if (segment.overlaps(start, end)) {
+                partnerIds.addAll(segment.partnerIdsIn(start, end));
+            }
+        }
+        return partnerIds;
+    }
+
+    // [start, end) 의 보관된 행을 경량 행으로 넘긴다 (PlayerUserLogSegment.forEachRow). 반환값은 넘긴 행 수
+    // memberOrdinals 는 보통 MemberDictionaryService::ordinalsOf (DB 행과 같은 회원 코드)
+    public long forEachArchivedRow(LocalDateTime start, LocalDateTime end, CodeDictionary partnerIds, CodeDictionary codes,
+                                   Function<List<String>, int[]> memberOrdinals, Consumer<PlayerUserLogRow> consumer) {
+        long rows = 0;
+        int read = 0;
+        for (PlayerUserLogSegment segment : segments) {
+            if (segment.overlaps(start, end)) {
+                rows += segment.forEachRow(start, end, partnerIds, codes, memberOrdinals, consumer);
+                read++;
+            }
+        }
+        if (read > 0) {
+            log.info("콜드 스토리지 읽기: 세그먼트 {}/{} 개, {} 행", read, segments.size(), rows);
+        }
+        return rows;
+    }
+
+    // [start, end) 의 보관된 행을 그룹별 정확 UV 누산기(회원 ordinal 비트맵) 로 접는다. partner_id 가 NULL 인 행은 건너뛴다
+    // groupKey 는 (partner_id, __time) -> 그룹 키, null 을 돌려주면 그 행은 건너뛴다 (파트너 필터)
+    // SQL 로 테이블을 집계하는 경로가 보관된 행을 카운터에 더하고 회원 비트맵/스케치에 합칠 때 쓴다
+    public <K> Map<K, PartnerMetricsAccumulator> foldArchivedRows(LocalDateTime start, LocalDateTime end,
+                                                                 BiFunction<String, LocalDateTime, K> groupKey,
+                                                                 Function<List<String>, int[]> memberOrdinals) {
+        Map<K, PartnerMetricsAccumulator> groups = new HashMap<>();
+        CodeDictionary partnerIds = new CodeDictionary();
+        forEachArchivedRow(start, end, partnerIds, new CodeDictionary(), memberOrdinals,
+                row -> fold(groups, groupKey, partnerIds, row));
+        return groups;
+    }
+
+    // id 구간 (afterId, toId] 의 보관된 행을 foldArchivedRows 와 같이 접는다 (__time 과 무관, 증분 집계용)
+    // 세그먼트 헤더의 id 최소·최대로 고르고, 고른 세그먼트는 기간 전체를 풀어 행 id 로 거른다
+    public <K> Map<K, PartnerMetricsAccumulator> foldArchivedRowsByIdRange(long afterId, long toId,
+                                                                          BiFunction<String, LocalDateTime, K> groupKey,
+                                                                          Function<List<String>, int[]> memberOrdinals) {
+        Map<K, PartnerMetricsAccumulator> groups = new HashMap<>();
+        CodeDictionary partnerIds = new CodeDictionary();
+        CodeDictionary codes = new CodeDictionary();
+        long[] rows = new long[1];
+        int read = 0;
+        for (PlayerUserLogSegment segment : segments) {
+            if (segment.getMaxId() > afterId && segment.getMinId() <= toId) {
+                segment.forEachRow(segment.getMinTime(), segment.getCutoff(), partnerIds, codes, memberOrdinals, row -> {
+                    if (row.getId() > afterId && row.getId() <= toId) {
+                        fold(groups, groupKey, partnerIds, row);
+                        rows[0]++;
+                    }
+                });
+                read++;
+            }
+        }
+        if (read > 0) {
+            log.info("콜드 스토리지 읽기(id {} ~ {}]: 세그먼트 {}/{} 개, {} 행", afterId, toId, read, segments.size(), rows[0]);
+        }
+        return groups;
+    }
+
+    // 보관된 행의 가장 큰 id (세그먼트가 없으면 0)
+    public long archivedMaxId() {
+        long maxId = 0;
+        for (PlayerUserLogSegment segment : segments) {
+            maxId = Math.max(maxId, segment.getMaxId());
+        }
+        return maxId;
+    }
+
+    private static <K> void fold(Map<K, PartnerMetricsAccumulator> groups, BiFunction<String, LocalDateTime, K> groupKey,
+                                 CodeDictionary partnerIds, PlayerUserLogRow row) {
+        if (row.getPartnerCode() == CodeDictionary.NULL_ID) {
+            return;
+        }
+        String partnerId = partnerIds.decode(row.getPartnerCode());
+        K key = groupKey.apply(partnerId, new Timestamp(row.getTimeMillis()).toLocalDateTime());
+        if (key == null) {
+            return;
+        }
+        groups.computeIfAbsent(key, k -> PartnerMetricsAccumulator.exact(partnerId)).add(row.getActionOrdinal(),
+                row.getMemberCode(),
+                row.getPlaytime(),
+                row.getLikeCount(),
+                row.getProductOrderAmount(),
+                row.getProductOrderQuantity());
+    }
+
+    public List<PlayerUserLogSegment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    // pending 세그먼트를 목록에 올리고, 그 세그먼트의 원본 행을 한 트랜잭션으로 지운 뒤 .seg 로 확정한다
+    // 삭제가 롤백되면 목록에서 빼고 .pending 파일도 지운다 (원본이 그대로 있으므로 보관 전과 같은 상태)
+    // 삭제는 커밋됐는데 이름 변경만 실패하면 목록에 남긴다. .pending 이 남아 보관을 막고, 재시작할 때 확정한다
+    private PlayerUserLogSegment commit(PlayerUserLogSegment pending) {
+        lock.writeLock().lock();
+        try {
+            segments.add(pending);
+            long deleted;
+            try {
+                deleted = deleteRows(pending);
+            } catch (RuntimeException e) {
+                discardIfRolledBack(pending, e);
+                throw e;
+            }
+            String name = pending.getPath().getFileName().toString();
+            Path file = pending.getPath().resolveSibling(name.substring(0, name.length() - PENDING_SUFFIX.length()) + SEGMENT_SUFFIX);
+            if (Files.exists(file)) {
+                throw new FileAlreadyExistsException(file.toString());
+            }
+            Files.move(pending.getPath(), file, StandardCopyOption.ATOMIC_MOVE);
+            PlayerUserLogSegment segment = PlayerUserLogSegment.open(file);
+            segments.set(segments.indexOf(pending), segment);
+            log.debug("세그먼트 원본 삭제: {} 행 ({})", deleted, file.getFileName());
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트를 확정할 수 없습니다: " + pending.getPath(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 삭제 트랜잭션은 전부 지우거나 하나도 지우지 않으므로 세그먼트 첫 행이 테이블에 남아 있으면 롤백된 것이다
+    // 롤백됐는지조차 알 수 없으면 목록에서만 빼고 .pending 은 남긴다 (재시작할 때 삭제를 마저 하고 확정한다)
+    private void discardIfRolledBack(PlayerUserLogSegment pending, RuntimeException failure) {
+        Long remaining;
+        try {
+            remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog WHERE id = ? AND __time < ?",
+                    Long.class, pending.getMinId(), pending.getCutoff());
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            segments.remove(pending);
+            log.error("세그먼트 원본 삭제 결과를 확인할 수 없어 목록에서 제외 (재시작할 때 복구): {}", pending.getPath().getFileName());
+            return;
+        }
+        if (remaining == null || remaining == 0) {
+            log.error("세그먼트 원본 삭제는 커밋됨, 목록에 유지 (재시작할 때 확정): {}", pending.getPath().getFileName());
+            return;
+        }
+        segments.remove(pending);
+        try {
+            Files.delete(pending.getPath());
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        log.error("세그먼트 원본 삭제 롤백, 세그먼트 폐기: {}", pending.getPath().getFileName());
+    }
+
+    // 문장은 청크마다, 트랜잭션은 세그먼트 하나. 이미 지워진 행(복구 시)은 건너뛴다
+    private long deleteRows(PlayerUserLogSegment segment) {
+        long[] ids = segment.readIds();
+        Long deleted = transactionTemplate.execute(status -> {
+            long rows = 0;
+            for (int from = 0; from < ids.length; from += deleteChunkSize) {
+                rows += deleteChunk(ids, from, Math.min(ids.length, from + deleteChunkSize), segment.getCutoff());
+            }
+            return rows;
+        });
+        return deleted != null ? deleted : 0L;
+    }
+
+    private int deleteChunk(long[] ids, int from, int to, LocalDateTime cutoff) {
+        String placeholders = String.join(", ", Collections.nCopies(to - from, "?"));
+        Object[] args = new Object[to - from + 1];
+        for (int i = from; i < to; i++) {
+            args[i - from] = ids[i];
+        }
+        args[to - from] = cutoff;
+        return jdbcTemplate.update("DELETE FROM player_userlog WHERE id IN (" + placeholders + ") AND __time < ?", args);
+    }
+
+    private List<Path> pendingFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + PENDING_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("보관 디렉터리를 읽을 수 없습니다: " + directory, e);
+        }
+        return files;
+    }
+
+    private static PlayerUserLog toEntity(ResultSet rs) throws SQLException {
+        return PlayerUserLog.builder()
+                .id(rs.getLong(1))
+                .time(rs.getObject(2, LocalDateTime.class))
+                .partnerId(rs.getString(3))
+                .broadcastStateCode(rs.getString(4))
+                .broadcastId(rs.getString(5))
+                .memberId(rs.getString(6))
+                .action(rs.getString(7))
+                .playtime(rs.getObject(8, Integer.class))
+                .likeCount(rs.getObject(9, Integer.class))
+                .productOrderAmount(rs.getObject(10, Integer.class))
+                .productOrderQuantity(rs.getObject(11, Integer.class))
+                .broadcastTypeCode(rs.getString(12))
+                .build();
+    }
+}
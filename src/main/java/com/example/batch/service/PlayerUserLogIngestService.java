@@ -0,0 +1,75 @@
+package com.example.batch.service;
+
+import com.example.batch.entity.PlayerUserLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+// player_userlog 적재 경로
+// ingest.pre-aggregation.enabled 이면 같은 트랜잭션에서 partner_minute_counter 도 갱신해 원본과 사전 집계가 어긋나지 않는다
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerUserLogIngestService {
+
+    private static final String INSERT_SQL = "INSERT INTO player_userlog " +
+            "(__time, partner_id, broadcast_state_code, broadcast_id, member_id, action, " +
+            "playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartnerMinuteCounterService partnerMinuteCounterService;
+
+    @Transactional
+    public void insert(List<PlayerUserLog> dataList) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PlayerUserLog log = dataList.get(i);
+                ps.setObject(1, log.getTime());
+                ps.setString(2, log.getPartnerId());
+                ps.setString(3, log.getBroadcastStateCode());
+                ps.setString(4, log.getBroadcastId());
+                ps.setString(5, log.getMemberId());
+                ps.setString(6, log.getAction());
+                if (log.getPlaytime() != null) ps.setInt(7, log.getPlaytime()); else ps.setNull(7, Types.INTEGER);
+                if (log.getLikeCount() != null) ps.setInt(8, log.getLikeCount()); else ps.setNull(8, Types.INTEGER);
+                if (log.getProductOrderAmount() != null) ps.setInt(9, log.getProductOrderAmount()); else ps.setNull(9, Types.INTEGER);
+                if (log.getProductOrderQuantity() != null) ps.setInt(10, log.getProductOrderQuantity()); else ps.setNull(10, Types.INTEGER);
+                ps.setString(11, log.getBroadcastTypeCode());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return dataList.size();
+            }
+        });
+        if (partnerMinuteCounterService.isEnabled()) {
+            partnerMinuteCounterService.add(dataList);
+        }
+    }
+
+    @Transactional
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM player_userlog");
+        if (partnerMinuteCounterService.isEnabled()) {
+            partnerMinuteCounterService.deleteAll();
+        }
+    }
+
+    // insert 를 거치지 않은 적재(JPA saveAll, INSERT ... SELECT, LOAD DATA) 뒤에 사전 집계를 원본 기준으로 다시 맞춘다
+    @Transactional
+    public void rebuildPreAggregation() {
+        if (partnerMinuteCounterService.isEnabled()) {
+            partnerMinuteCounterService.rebuild();
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.example.batch.service;
 
 import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.jdbc.DatabaseDialect;
+import com.example.batch.reader.PlayerUserLogFileFormat;
 import com.example.batch.repository.PlayerUserLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -23,11 +37,16 @@ public class TestDataGeneratorService {
     
     private final PlayerUserLogRepository playerUserLogRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final PlayerUserLogIngestService playerUserLogIngestService;
     private static final String[] PARTNER_IDS = {"partner_001", "partner_002", "partner_003", "partner_004", "partner_005"};
-    private static final String[] BROADCAST_STATE_CODES = {"cancel", "standby", "accepted", "ready", "onair", "warning", "error", "converting"};
+    static final String[] BROADCAST_STATE_CODES = {"cancel", "standby", "accepted", "ready", "onair", "warning", "error", "converting"};
     private static final String[] ACTIONS = {"pageView", "chat", "productClick", "productOrder", "productOrderCancel", 
                                            "bannerClick", "couponClick", "joinReward", "rewardComplete", 
                                            "purchaseVerifying", "joinQuiz", "shareClick"};
+    private static final int PAGE_VIEW = 0;     // ACTIONS 인덱스
+    private static final int PRODUCT_ORDER = 3; // ACTIONS 인덱스
+    private static final int PERIOD_SECONDS = 30 * 24 * 60 * 60;
+    private static final long BULK_CHUNK_ROWS = 1_000_000; // 병렬 대량 적재 작업 단위 (INSERT ... SELECT / LOAD DATA 한 번)
     
     @Transactional
     public void generateJpaTestData(int totalCount) {
@@ -62,6 +81,7 @@ public class TestDataGeneratorService {
             }
         }
         
+        playerUserLogIngestService.rebuildPreAggregation();
         long actualCount = playerUserLogRepository.countAllData();
         log.info("테스트 데이터 생성 완료: {} 건", actualCount);
     }
@@ -69,7 +89,7 @@ public class TestDataGeneratorService {
     public void generateJdbcTestData(int totalCount) {
         log.info("테스트 데이터 생성 시작: {} 건", totalCount);
 
-        jdbcTemplate.update("DELETE FROM player_userlog");
+        playerUserLogIngestService.deleteAll();
         log.info("기존 데이터 삭제 완료");
 
         int batchSize = 10000;
@@ -87,7 +107,7 @@ public class TestDataGeneratorService {
                 batchData.add(createRandomLog(random, startTime));
             }
 
-            batchInsert(batchData);
+            playerUserLogIngestService.insert(batchData);
 
             if (batch % 10 == 0) {
                 log.info("진행률: {}/{} 배치 완료 ({}%)",
@@ -101,36 +121,238 @@ public class TestDataGeneratorService {
     }
 
 
-    private void batchInsert(List<PlayerUserLog> dataList) {
-        String sql = "INSERT INTO player_userlog " +
-                "(__time, partner_id, broadcast_state_code, broadcast_id, member_id, action, " +
-                "playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                PlayerUserLog log = dataList.get(i);
-                ps.setObject(1, log.getTime());
-                ps.setString(2, log.getPartnerId());
-                ps.setString(3, log.getBroadcastStateCode());
-                ps.setString(4, log.getBroadcastId());
-                ps.setString(5, log.getMemberId());
-                ps.setString(6, log.getAction());
-                if (log.getPlaytime() != null) ps.setInt(7, log.getPlaytime()); else ps.setNull(7, java.sql.Types.INTEGER);
-                if (log.getLikeCount() != null) ps.setInt(8, log.getLikeCount()); else ps.setNull(8, java.sql.Types.INTEGER);
-                if (log.getProductOrderAmount() != null) ps.setInt(9, log.getProductOrderAmount()); else ps.setNull(9, java.sql.Types.INTEGER);
-                if (log.getProductOrderQuantity() != null) ps.setInt(10, log.getProductOrderQuantity()); else ps.setNull(10, java.sql.Types.INTEGER);
-                ps.setString(11, log.getBroadcastTypeCode());
+    // 워크로드 프로파일 모드: 파트너/방송/회원 쏠림, 재방문, 시간대 곡선, 액션 비율을 profile 로 지정하고 seed 로 재현
+    // profile.startDate 를 고정하면 언제 만들어도 같은 seed 는 같은 데이터를 만든다 (없으면 생성일 자정 기준이라 같은 날에만 같다)
+    public void generateProfiledTestData(int totalCount, WorkloadProfile profile) {
+        log.info("프로파일 테스트 데이터 생성 시작: {} 건, seed={}, partners={}(s={}), members={}(s={})", totalCount,
+                profile.getSeed(), profile.getPartnerCount(), profile.getPartnerSkew(),
+                profile.getMemberPoolSize(), profile.getMemberSkew());
+
+        playerUserLogIngestService.deleteAll();
+
+        int batchSize = 10000;
+        int totalBatches = (int) Math.ceil((double) totalCount / batchSize);
+        WorkloadSampler sampler = new WorkloadSampler(profile, profile.startTime());
+        long started = System.currentTimeMillis();
+
+        for (int batch = 0; batch < totalBatches; batch++) {
+            int currentBatchSize = Math.min(batchSize, totalCount - (batch * batchSize));
+            List<PlayerUserLog> batchData = new ArrayList<>(currentBatchSize);
+            for (int i = 0; i < currentBatchSize; i++) {
+                batchData.add(sampler.next());
             }
+            playerUserLogIngestService.insert(batchData);
 
-            @Override
-            public int getBatchSize() {
-                return dataList.size();
+            if (batch % 10 == 0) {
+                log.info("진행률: {}/{} 배치 완료 ({}%)",
+                        batch + 1, totalBatches,
+                        Math.round((double) (batch + 1) / totalBatches * 100));
             }
-        });
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("프로파일 테스트 데이터 생성 완료: {} 건, {} rows/s", totalCount, (long) totalCount * 1000 / elapsed);
     }
 
+    // 원본 로그 파일 모드: generateProfiledTestData 와 같은 분포의 행을 DB 대신 파일로 쓴다 (playerUserLogIngestJob 입력)
+    // 형식은 확장자로 판단 (.csv / .ndjson, .jsonl). 반환값은 파일 크기(bytes)
+    public long generateLogFile(Path file, int totalCount, WorkloadProfile profile) {
+        PlayerUserLogFileFormat format = PlayerUserLogFileFormat.of(file);
+        WorkloadSampler sampler = new WorkloadSampler(profile, profile.startTime());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            format.writeHeader(writer);
+            for (int i = 0; i < totalCount; i++) {
+                format.write(writer, sampler.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 파일 생성 실패: " + file, e);
+        }
+        try {
+            long size = Files.size(file);
+            log.info("로그 파일 생성 완료: {} ({}), {} 건, {} bytes", file, format, totalCount, size);
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 파일 크기를 알 수 없습니다: " + file, e);
+        }
+    }
+
+    // 대량 적재 모드: 작업 단위(BULK_CHUNK_ROWS)를 threads 개 스레드에서 DB 의 가장 빠른 적재 경로로 넣는다
+    // H2: INSERT ... SELECT FROM SYSTEM_RANGE (행을 DB 안에서 생성, JDBC 왕복 없음)
+    // MySQL: 스레드별 SplittableRandom 으로 TSV 임시 파일을 쓰고 LOAD DATA LOCAL INFILE (bulkload 프로파일에서만 허용)
+    // 분포는 generateJdbcTestData 와 같다 (30일 내 균등 시간, pageView 만 재생시간/좋아요, productOrder 만 주문액/수량)
+    public long generateBulkTestData(long totalCount, int threads) {
+        log.info("대량 테스트 데이터 생성 시작: {} 건, {} 스레드", totalCount, threads);
+        playerUserLogIngestService.deleteAll();
+
+        DatabaseDialect dialect = DatabaseDialect.of(jdbcTemplate);
+        LocalDateTime startTime = LocalDateTime.now().minusDays(30);
+        SplittableRandom seedRandom = new SplittableRandom();
+        AtomicLong inserted = new AtomicLong();
+        long started = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = 1; from <= totalCount; from += BULK_CHUNK_ROWS) {
+                long rows = Math.min(BULK_CHUNK_ROWS, totalCount - from + 1);
+                long rangeStart = from;
+                SplittableRandom random = seedRandom.split();
+                futures.add(executor.submit(() -> {
+                    if (dialect == DatabaseDialect.H2) {
+                        insertFromSystemRange(rangeStart, rows, startTime);
+                    } else {
+                        loadDataInfile(rows, random, startTime);
+                    }
+                    long done = inserted.addAndGet(rows);
+                    long elapsed = Math.max(1, System.currentTimeMillis() - started);
+                    log.info("진행률: {}/{} 건 ({}%), {} rows/s", done, totalCount,
+                            Math.round((double) done / totalCount * 100), done * 1000 / elapsed);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대량 테스트 데이터 생성 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("대량 테스트 데이터 생성 실패", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // INSERT ... SELECT / LOAD DATA 는 적재 경로를 거치지 않으므로 사전 집계를 원본에서 다시 만든다
+        playerUserLogIngestService.rebuildPreAggregation();
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog", Long.class);
+        log.info("대량 테스트 데이터 생성 완료: {} 건, {} ms, {} rows/s", count, elapsed, count * 1000 / elapsed);
+        return count;
+    }
+
+    private void insertFromSystemRange(long from, long rows, LocalDateTime startTime) {
+        // 액션을 먼저 뽑아 두고 재생시간/주문 컬럼을 액션에 맞춰 채운다
+        String sql = """
+                INSERT INTO player_userlog (__time, partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                    playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code)
+                SELECT DATEADD(SECOND, CAST(FLOOR(RAND() * %d) AS INT), CAST(? AS TIMESTAMP)),
+                    %s[CAST(FLOOR(RAND() * %d) AS INT) + 1],
+                    %s[CAST(FLOOR(RAND() * %d) AS INT) + 1],
+                    'broadcast_' || LPAD(CAST(CAST(FLOOR(RAND() * 1000000) AS INT) AS VARCHAR), 6, '0'),
+                    'member_' || LPAD(CAST(CAST(FLOOR(RAND() * 100000000) AS INT) AS VARCHAR), 8, '0'),
+                    %s[r.a + 1],
+                    CASE WHEN r.a = %d THEN CAST(FLOOR(RAND() * 3600) AS INT) END,
+                    CASE WHEN r.a = %d THEN CAST(FLOOR(RAND() * 10) AS INT) END,
+                    CASE WHEN r.a = %d THEN CAST(FLOOR(RAND() * 100000) AS INT) + 1000 END,
+                    CASE WHEN r.a = %d THEN CAST(FLOOR(RAND() * 5) AS INT) + 1 END,
+                    'live'
+                FROM (SELECT X, CAST(FLOOR(RAND() * %d) AS INT) AS a FROM SYSTEM_RANGE(?, ?)) r
+            """.formatted(PERIOD_SECONDS,
+                sqlArray(PARTNER_IDS), PARTNER_IDS.length,
+                sqlArray(BROADCAST_STATE_CODES), BROADCAST_STATE_CODES.length,
+                sqlArray(ACTIONS), PAGE_VIEW, PAGE_VIEW, PRODUCT_ORDER, PRODUCT_ORDER, ACTIONS.length);
+        jdbcTemplate.update(sql, Timestamp.valueOf(startTime), from, from + rows - 1);
+    }
+
+    private void loadDataInfile(long rows, SplittableRandom random, LocalDateTime startTime) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("player_userlog-", ".tsv");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeTsv(writer, rows, random, startTime.atZone(ZoneId.systemDefault()).toEpochSecond());
+            }
+            jdbcTemplate.execute("LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace('\\', '/') + "' " +
+                    "INTO TABLE player_userlog FIELDS TERMINATED BY '\\t' LINES TERMINATED BY '\\n' " +
+                    "(@time, partner_id, broadcast_state_code, broadcast_id, member_id, action, " +
+                    "playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code) " +
+                    "SET __time = FROM_UNIXTIME(@time)");
+        } catch (IOException e) {
+            throw new UncheckedIOException("TSV 임시 파일 생성 실패", e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("TSV 임시 파일 삭제 실패: {}", file, e);
+                }
+            }
+        }
+    }
+
+    // LOAD DATA 용 TSV: epoch 초, 코드 문자열은 상수 배열을 그대로, 숫자 id 는 char 버퍼에 직접 0 채움 (행마다 String 생성 없음)
+    // NULL 은 \N
+    static void writeTsv(Writer writer, long rows, SplittableRandom random, long startEpochSecond) throws IOException {
+        char[] line = new char[256];
+        for (long i = 0; i < rows; i++) {
+            int action = random.nextInt(ACTIONS.length);
+            int pos = appendLong(line, 0, startEpochSecond + random.nextInt(PERIOD_SECONDS));
+            line[pos++] = '\t';
+            pos = append(line, pos, PARTNER_IDS[random.nextInt(PARTNER_IDS.length)]);
+            line[pos++] = '\t';
+            pos = append(line, pos, BROADCAST_STATE_CODES[random.nextInt(BROADCAST_STATE_CODES.length)]);
+            line[pos++] = '\t';
+            pos = append(line, pos, "broadcast_");
+            pos = appendPadded(line, pos, random.nextInt(1000000), 6);
+            line[pos++] = '\t';
+            pos = append(line, pos, "member_");
+            pos = appendPadded(line, pos, random.nextInt(100000000), 8);
+            line[pos++] = '\t';
+            pos = append(line, pos, ACTIONS[action]);
+            line[pos++] = '\t';
+            pos = appendNullable(line, pos, action == PAGE_VIEW, action == PAGE_VIEW ? random.nextInt(3600) : 0);
+            line[pos++] = '\t';
+            pos = appendNullable(line, pos, action == PAGE_VIEW, action == PAGE_VIEW ? random.nextInt(10) : 0);
+            line[pos++] = '\t';
+            pos = appendNullable(line, pos, action == PRODUCT_ORDER, action == PRODUCT_ORDER ? random.nextInt(100000) + 1000 : 0);
+            line[pos++] = '\t';
+            pos = appendNullable(line, pos, action == PRODUCT_ORDER, action == PRODUCT_ORDER ? random.nextInt(5) + 1 : 0);
+            line[pos++] = '\t';
+            pos = append(line, pos, "live");
+            line[pos++] = '\n';
+            writer.write(line, 0, pos);
+        }
+    }
+
+    private static int append(char[] line, int pos, String value) {
+        value.getChars(0, value.length(), line, pos);
+        return pos + value.length();
+    }
+
+    private static int appendNullable(char[] line, int pos, boolean present, int value) {
+        if (!present) {
+            line[pos] = '\\';
+            line[pos + 1] = 'N';
+            return pos + 2;
+        }
+        return appendLong(line, pos, value);
+    }
+
+    private static int appendPadded(char[] line, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            line[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static int appendLong(char[] line, int pos, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            line[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static String sqlArray(String[] values) {
+        StringBuilder result = new StringBuilder("ARRAY[");
+        for (int i = 0; i < values.length; i++) {
+            result.append(i == 0 ? "'" : ", '").append(values[i]).append('\'');
+        }
+        return result.append(']').toString();
+    }
 
     private PlayerUserLog createRandomLog(Random random, LocalDateTime startTime) {
         String action = ACTIONS[random.nextInt(ACTIONS.length)];
@@ -0,0 +1,82 @@
+package com.example.batch.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 테스트 데이터 워크로드 프로파일 (TestDataGeneratorService.generateProfiledTestData)
+// 파트너/방송/회원은 Zipf(s) 분포 (s = 0 이면 균등), 회원은 memberPoolSize 명 안에서 재방문,
+// 시간은 periodDays 일 x 시간대 가중치(hourlyWeights), 액션은 PlayerAction 순서의 가중치(actionWeights)
+// 같은 seed, 같은 startDate 면 같은 로그 순서/값을 만든다 (startDate 가 없으면 생성일 자정 기준 periodDays 일 전부터)
+@Getter
+@Builder(toBuilder = true)
+public class WorkloadProfile {
+
+    // 0 시부터 23 시까지: 새벽 저점, 점심 소폭 상승, 20~23 시 저녁 피크
+    private static final double[] DIURNAL_HOURLY_WEIGHTS = {
+            3, 2, 1.5, 1, 1, 1, 1.5, 2.5, 3.5, 4, 4.5, 5,
+            6, 5.5, 5, 5, 5.5, 6, 7, 8.5, 10, 10, 9, 6
+    };
+    // pageView 55%, chat 20%, productClick 8%, productOrder 3% ... (합 1)
+    private static final double[] COMMERCE_ACTION_WEIGHTS = {
+            0.55, 0.20, 0.08, 0.03, 0.005, 0.04, 0.03, 0.02, 0.015, 0.01, 0.01, 0.01
+    };
+
+    @Builder.Default
+    private final long seed = 42L;
+    @Builder.Default
+    private final int periodDays = 30;
+    @Builder.Default
+    private final LocalDate startDate = null; // null 이면 생성일 기준 (날짜가 바뀌면 다른 데이터)
+    @Builder.Default
+    private final int partnerCount = 5;
+    @Builder.Default
+    private final double partnerSkew = 0;
+    @Builder.Default
+    private final int broadcastCount = 1_000_000;
+    @Builder.Default
+    private final double broadcastSkew = 0;
+    @Builder.Default
+    private final int memberPoolSize = 100_000_000;
+    @Builder.Default
+    private final double memberSkew = 0;
+    @Builder.Default
+    private final double[] hourlyWeights = null; // null 이면 24 시간 균등
+    @Builder.Default
+    private final double[] actionWeights = null; // null 이면 액션 균등
+
+    // 생성 범위 [startTime, startTime + periodDays)
+    public LocalDateTime startTime() {
+        return (startDate != null ? startDate : LocalDate.now().minusDays(periodDays)).atStartOfDay();
+    }
+
+    // 기존 createRandomLog 와 같은 분포: 파트너 5 개, 거의 매 행 다른 회원, 균등 시간/액션
+    public static WorkloadProfile uniform(long seed) {
+        return WorkloadProfile.builder().seed(seed).build();
+    }
+
+    // 실서비스에 가까운 분포: 파트너 1000 개 Zipf(1.1), 방송 10만 개 Zipf(1.0), 회원 100만 명 Zipf(0.8) 재방문,
+    // 저녁 피크 시간대, 커머스 액션 비율
+    public static WorkloadProfile realistic(long seed) {
+        return WorkloadProfile.builder()
+                .seed(seed)
+                .partnerCount(1000)
+                .partnerSkew(1.1)
+                .broadcastCount(100_000)
+                .broadcastSkew(1.0)
+                .memberPoolSize(1_000_000)
+                .memberSkew(0.8)
+                .hourlyWeights(DIURNAL_HOURLY_WEIGHTS)
+                .actionWeights(COMMERCE_ACTION_WEIGHTS)
+                .build();
+    }
+
+    // 파티션 straggler 재현용: realistic 에서 파트너 쏠림만 더 강하게 (상위 1 개 파트너가 절반 이상)
+    public static WorkloadProfile hotPartner(long seed) {
+        return realistic(seed).toBuilder()
+                .partnerSkew(2.0)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.batch.service;
+
+import com.example.batch.aggregation.PlayerAction;
+import com.example.batch.entity.PlayerUserLog;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// WorkloadProfile 에 따라 PlayerUserLog 를 하나씩 뽑는다 (SplittableRandom(seed) 하나만 사용하므로 순서까지 재현)
+// 쏠림이 있는 차원은 누적분포(double[n]) 를 미리 만들어 이진 탐색, 균등 차원은 nextInt 로 바로 뽑는다
+// 스레드 안전하지 않음
+public class WorkloadSampler {
+    private static final int SECONDS_PER_HOUR = 60 * 60;
+
+    private final SplittableRandom random;
+    private final LocalDateTime startTime;
+    private final int periodDays;
+    private final String[] partnerIds;
+    private final double[] partnerCdf;
+    private final int broadcastCount;
+    private final double[] broadcastCdf;
+    private final int memberPoolSize;
+    private final double[] memberCdf;
+    private final double[] hourCdf;
+    private final double[] actionCdf;
+
+    public WorkloadSampler(WorkloadProfile profile, LocalDateTime startTime) {
+        this.random = new SplittableRandom(profile.getSeed());
+        this.startTime = startTime;
+        this.periodDays = profile.getPeriodDays();
+        this.partnerIds = new String[profile.getPartnerCount()];
+        for (int i = 0; i < partnerIds.length; i++) {
+            partnerIds[i] = "partner_" + padded(i + 1, 3);
+        }
+        this.partnerCdf = zipfCdf(profile.getPartnerCount(), profile.getPartnerSkew());
+        this.broadcastCount = profile.getBroadcastCount();
+        this.broadcastCdf = zipfCdf(profile.getBroadcastCount(), profile.getBroadcastSkew());
+        this.memberPoolSize = profile.getMemberPoolSize();
+        this.memberCdf = zipfCdf(profile.getMemberPoolSize(), profile.getMemberSkew());
+        this.hourCdf = weightCdf(profile.getHourlyWeights(), 24);
+        this.actionCdf = weightCdf(profile.getActionWeights(), PlayerAction.count());
+    }
+
+    public PlayerUserLog next() {
+        PlayerAction action = PlayerAction.fromOrdinal(sample(actionCdf, PlayerAction.count()));
+        long offsetSeconds = (long) random.nextInt(periodDays) * 24 * SECONDS_PER_HOUR
+                + (long) sample(hourCdf, 24) * SECONDS_PER_HOUR
+                + random.nextInt(SECONDS_PER_HOUR);
+        boolean pageView = action == PlayerAction.PAGE_VIEW;
+        boolean productOrder = action == PlayerAction.PRODUCT_ORDER;
+
+        return PlayerUserLog.builder()
+                .time(startTime.plusSeconds(offsetSeconds))
+                .partnerId(partnerIds[sample(partnerCdf, partnerIds.length)])
+                .broadcastStateCode(TestDataGeneratorService.BROADCAST_STATE_CODES[
+                        random.nextInt(TestDataGeneratorService.BROADCAST_STATE_CODES.length)])
+                .broadcastId("broadcast_" + padded(sample(broadcastCdf, broadcastCount), 6))
+                .memberId("member_" + padded(sample(memberCdf, memberPoolSize), 8))
+                .action(action.getCode())
+                .playtime(pageView ? random.nextInt(3600) : null)
+                .likeCount(pageView ? random.nextInt(10) : null)
+                .productOrderAmount(productOrder ? random.nextInt(100000) + 1000 : null)
+                .productOrderQuantity(productOrder ? random.nextInt(5) + 1 : null)
+                .broadcastTypeCode("live")
+                .build();
+    }
+
+    // cdf 가 null 이면 [0, n) 균등
+    private int sample(double[] cdf, int n) {
+        if (cdf == null) {
+            return random.nextInt(n);
+        }
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, n - 1);
+    }
+
+    // 순위 k (0 부터) 의 확률 ∝ 1 / (k + 1)^s
+    static double[] zipfCdf(int n, double s) {
+        if (s <= 0) {
+            return null;
+        }
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, s);
+        }
+        return weightCdf(weights, n);
+    }
+
+    private static double[] weightCdf(double[] weights, int n) {
+        if (weights == null) {
+            return null;
+        }
+        if (weights.length != n) {
+            throw new IllegalArgumentException("가중치 개수가 맞지 않습니다: " + weights.length + " != " + n);
+        }
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] cdf = new double[n];
+        double cumulative = 0;
+        for (int i = 0; i < n; i++) {
+            cumulative += weights[i];
+            cdf[i] = cumulative / total;
+        }
+        return cdf;
+    }
+
+    private static String padded(int value, int width) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        char[] chars = new char[Math.max(width, digits)];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.batch.writer;
+
+import com.example.batch.entity.PartnerAggregation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// partner_aggregation INSERT 를 JDBC batch 로 묶어 쓰는 writer
+// PartnerAggregation 은 IDENTITY 키라 Hibernate 가 insert 를 batch 하지 못하고 행마다 왕복한다
+// MySQL 은 rewriteBatchedStatements=true 이면 드라이버가 multi-row INSERT ... VALUES (...),(...) 로 바꿔 보낸다
+// 생성된 id 는 엔티티에 채워지지 않으므로 insert 전용 (이미 id 가 있는 행은 JPA 로 갱신)
+// 빈으로 등록하지 않는다: 집계 저장은 PartnerAggregationUpsertWriter 가 하고, 이 writer 는 JpaItemWriter 와의 처리량 비교에만 쓴다
+@Slf4j
+public class PartnerAggregationJdbcBatchWriter implements ItemWriter<PartnerAggregation> {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO partner_aggregation (
+                partner_id, total_uv, total_pv, total_playtime, total_chat_count, total_like_count,
+                total_product_click_count, total_product_order_count, total_product_order_amount,
+                total_product_order_quantity, total_product_order_cancel_count, total_banner_click_count,
+                total_coupon_click_count, total_reward_new_count, total_reward_complete_count,
+                total_purchase_verifying_count, total_quiz_new_count, total_share_click_count,
+                aggregation_date, aggregation_type, aggregation_key, uv_sketch, uv_bitmap, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PartnerAggregationJdbcBatchWriter(JdbcTemplate jdbcTemplate, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(Chunk<? extends PartnerAggregation> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, chunk.getItems(), batchSize,
+                (ps, aggregation) -> PartnerAggregationParameters.setValues(ps, aggregation, createdAt));
+        log.debug("partner_aggregation batch insert: {} 건 (batchSize={})", chunk.size(), batchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
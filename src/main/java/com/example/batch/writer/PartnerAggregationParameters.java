@@ -0,0 +1,46 @@
+package com.example.batch.writer;
+
+import com.example.batch.entity.PartnerAggregation;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+// partner_aggregation INSERT/upsert 파라미터 바인딩 (컬럼 순서는 PartnerAggregationUpsertWriter.COLUMNS)
+final class PartnerAggregationParameters {
+
+    private PartnerAggregationParameters() {
+    }
+
+    static void setValues(PreparedStatement ps, PartnerAggregation aggregation, Timestamp createdAt) throws SQLException {
+        ps.setString(1, aggregation.getPartnerId());
+        setLong(ps, 2, aggregation.getTotalUv());
+        setLong(ps, 3, aggregation.getTotalPv());
+        setLong(ps, 4, aggregation.getTotalPlaytime());
+        setLong(ps, 5, aggregation.getTotalChatCount());
+        setLong(ps, 6, aggregation.getTotalLikeCount());
+        setLong(ps, 7, aggregation.getTotalProductClickCount());
+        setLong(ps, 8, aggregation.getTotalProductOrderCount());
+        setLong(ps, 9, aggregation.getTotalProductOrderAmount());
+        setLong(ps, 10, aggregation.getTotalProductOrderQuantity());
+        setLong(ps, 11, aggregation.getTotalProductOrderCancelCount());
+        setLong(ps, 12, aggregation.getTotalBannerClickCount());
+        setLong(ps, 13, aggregation.getTotalCouponClickCount());
+        setLong(ps, 14, aggregation.getTotalRewardNewCount());
+        setLong(ps, 15, aggregation.getTotalRewardCompleteCount());
+        setLong(ps, 16, aggregation.getTotalPurchaseVerifyingCount());
+        setLong(ps, 17, aggregation.getTotalQuizNewCount());
+        setLong(ps, 18, aggregation.getTotalShareClickCount());
+        ps.setObject(19, aggregation.getAggregationDate());
+        ps.setString(20, aggregation.getAggregationType());
+        ps.setString(21, aggregation.getAggregationKey());
+        if (aggregation.getUvSketch() != null) ps.setBytes(22, aggregation.getUvSketch()); else ps.setNull(22, Types.BLOB);
+        if (aggregation.getUvBitmap() != null) ps.setBytes(23, aggregation.getUvBitmap()); else ps.setNull(23, Types.BLOB);
+        ps.setTimestamp(24, createdAt);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) ps.setLong(index, value); else ps.setNull(index, Types.BIGINT);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.batch.writer;
+
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.jdbc.DatabaseDialect;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// (partner_id, aggregation_type, aggregation_key) 유니크 키 기준 upsert 를 JDBC batch 로 실행
+// 재실행/재시도 시 삭제 후 insert 없이 한 번에 덮어쓰므로 데이터가 비는 구간이 없다
+// aggregation_type/key 가 NULL 인 행(기간 집계)은 키가 매칭되지 않으므로 항상 insert 된다
+// H2: MERGE INTO ... USING, MySQL: INSERT ... ON DUPLICATE KEY UPDATE (created_at 은 최초 insert 값 유지)
+@Slf4j
+@Component
+public class PartnerAggregationUpsertWriter implements ItemWriter<PartnerAggregation> {
+
+    private static final String[] COLUMNS = {
+            "partner_id", "total_uv", "total_pv", "total_playtime", "total_chat_count", "total_like_count",
+            "total_product_click_count", "total_product_order_count", "total_product_order_amount",
+            "total_product_order_quantity", "total_product_order_cancel_count", "total_banner_click_count",
+            "total_coupon_click_count", "total_reward_new_count", "total_reward_complete_count",
+            "total_purchase_verifying_count", "total_quiz_new_count", "total_share_click_count",
+            "aggregation_date", "aggregation_type", "aggregation_key", "uv_sketch", "uv_bitmap", "created_at"};
+
+    // COLUMNS 와 같은 순서 (H2 는 바이트 배열 파라미터를 BLOB 으로 캐스팅해야 문자열로 바뀌지 않는다)
+    private static final String[] H2_TYPES = {
+            "VARCHAR", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT",
+            "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT", "BIGINT",
+            "TIMESTAMP", "VARCHAR", "VARCHAR", "BLOB", "BLOB", "TIMESTAMP"};
+
+    private static final String[] KEY_COLUMNS = {"partner_id", "aggregation_type", "aggregation_key"};
+
+    // 키와 created_at 을 제외한 갱신 대상 컬럼
+    private static final String[] UPDATE_COLUMNS = {
+            "total_uv", "total_pv", "total_playtime", "total_chat_count", "total_like_count",
+            "total_product_click_count", "total_product_order_count", "total_product_order_amount",
+            "total_product_order_quantity", "total_product_order_cancel_count", "total_banner_click_count",
+            "total_coupon_click_count", "total_reward_new_count", "total_reward_complete_count",
+            "total_purchase_verifying_count", "total_quiz_new_count", "total_share_click_count",
+            "aggregation_date", "uv_sketch", "uv_bitmap"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private volatile String upsertSql;
+
+    @Autowired
+    public PartnerAggregationUpsertWriter(JdbcTemplate jdbcTemplate,
+                                          @Value("${aggregation.write.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(Chunk<? extends PartnerAggregation> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(getUpsertSql(), chunk.getItems(), batchSize,
+                (ps, aggregation) -> PartnerAggregationParameters.setValues(ps, aggregation, createdAt));
+        log.debug("partner_aggregation batch upsert: {} 건 (batchSize={})", chunk.size(), batchSize);
+    }
+
+    private String getUpsertSql() {
+        if (upsertSql == null) {
+            upsertSql = buildUpsertSql(DatabaseDialect.of(jdbcTemplate));
+        }
+        return upsertSql;
+    }
+
+    static String buildUpsertSql(DatabaseDialect dialect) {
+        return dialect.upsertSql("partner_aggregation", COLUMNS, H2_TYPES, KEY_COLUMNS, UPDATE_COLUMNS, false);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.batch;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationApproximateUvTest {
+
+    private static final double RELATIVE_ERROR = 0.01;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (10만건)
+        testDataGeneratorService.generateJdbcTestData(100_000);
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("근사 UV 가 파트너/일별 정확한 COUNT(DISTINCT) 와 오차 범위 안에서 일치")
+    void 근사_UV_오차_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        int precision = HyperLogLog.precisionFor(RELATIVE_ERROR);
+
+        List<PartnerAggregation> aggregations = partnerAggregationService.aggregateApproximateByPeriod(
+                startDate, endDate, AggregationType.DAILY, precision);
+        assertFalse(aggregations.isEmpty(), "집계 결과가 존재해야 합니다.");
+
+        for (PartnerAggregation agg : aggregations) {
+            LocalDateTime bucketStart = agg.getAggregationDate();
+            Long exactUv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                    Long.class, agg.getPartnerId(), bucketStart, bucketStart.plusDays(1));
+            Long exactPv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM player_userlog WHERE partner_id = ? AND action = 'pageView' AND __time >= ? AND __time < ?",
+                    Long.class, agg.getPartnerId(), bucketStart, bucketStart.plusDays(1));
+
+            assertEquals(exactPv, agg.getTotalPv(), "카운터는 정확해야 합니다.");
+            assertNotNull(agg.getUvSketch(), "스케치가 함께 저장되어야 합니다.");
+            assertTrue(Math.abs(agg.getTotalUv() - exactUv) <= 3 * RELATIVE_ERROR * exactUv,
+                    agg.getPartnerId() + " " + agg.getAggregationKey() + ": approx=" + agg.getTotalUv() + ", exact=" + exactUv);
+        }
+    }
+
+    @Test
+    @DisplayName("저장된 일별 스케치 병합으로 원본 로그 없이 기간 UV 계산")
+    void 버킷_합집합_UV_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        List<PartnerAggregation> aggregations = partnerAggregationService.aggregateApproximateByPeriod(
+                startDate, endDate, AggregationType.DAILY, HyperLogLog.precisionFor(RELATIVE_ERROR));
+        partnerAggregationService.saveBatchData(aggregations);
+
+        String partnerId = aggregations.get(0).getPartnerId();
+        List<String> keys = aggregations.stream()
+                .filter(agg -> agg.getPartnerId().equals(partnerId))
+                .map(PartnerAggregation::getAggregationKey)
+                .collect(Collectors.toList());
+
+        long approxUv = partnerAggregationService.estimateUv(partnerId, AggregationType.DAILY, keys);
+        Long exactUv = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                Long.class, partnerId, startDate, endDate);
+
+        log.info("기간 UV: partnerId={}, 일수={}, approx={}, exact={}", partnerId, keys.size(), approxUv, exactUv);
+        assertTrue(Math.abs(approxUv - exactUv) <= 3 * RELATIVE_ERROR * exactUv,
+                "approx=" + approxUv + ", exact=" + exactUv);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.batch;
+
+import com.example.batch.aggregation.UvBitmaps;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.MemberDictionaryService;
+import com.example.batch.service.PartnerAggregationRollupService;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.TestDataGeneratorService;
+import com.example.batch.service.WorkloadProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationBitmapUvTest {
+
+    // 회원 5천 명이 7일 동안 재방문하므로 버킷 간 회원이 많이 겹친다 (합산하면 UV 가 과대 계산됨)
+    private static final WorkloadProfile PROFILE = WorkloadProfile.builder()
+            .seed(21L)
+            .periodDays(7)
+            .memberPoolSize(5_000)
+            .memberSkew(0.8)
+            .build();
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationRollupService partnerAggregationRollupService;
+
+    @Autowired
+    private MemberDictionaryService memberDictionaryService;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateProfiledTestData(50_000, PROFILE);
+        partnerAggregationRepository.deleteAll();
+        startDate = LocalDateTime.now().minusDays(8).truncatedTo(ChronoUnit.DAYS);
+        endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    @DisplayName("비트맵 UV 가 파트너/일별 COUNT(DISTINCT) 와 정확히 일치")
+    void 비트맵_UV_정확도_테스트() {
+        List<PartnerAggregation> aggregations = partnerAggregationService.aggregateBitmapByPeriod(
+                startDate, endDate, AggregationType.DAILY);
+        assertFalse(aggregations.isEmpty(), "집계 결과가 존재해야 합니다.");
+
+        for (PartnerAggregation agg : aggregations) {
+            Long exactUv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                    Long.class, agg.getPartnerId(), agg.getAggregationDate(), agg.getAggregationDate().plusDays(1));
+            assertEquals(exactUv, agg.getTotalUv(), agg.getPartnerId() + " " + agg.getAggregationKey());
+            assertNotNull(agg.getUvBitmap(), "비트맵이 함께 저장되어야 합니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("저장된 버킷 비트맵의 OR 로 여러 일/여러 파트너 합집합 UV 를 원본 로그 없이 정확히 계산")
+    void 비트맵_합집합_UV_테스트() {
+        List<PartnerAggregation> aggregations = partnerAggregationService.aggregateBitmapByPeriod(
+                startDate, endDate, AggregationType.DAILY);
+        partnerAggregationService.saveBatchData(aggregations);
+
+        Set<String> partnerIds = aggregations.stream().map(PartnerAggregation::getPartnerId).collect(Collectors.toSet());
+        Set<String> keys = aggregations.stream().map(PartnerAggregation::getAggregationKey).collect(Collectors.toSet());
+        long summed = aggregations.stream().mapToLong(PartnerAggregation::getTotalUv).sum();
+
+        long unionUv = partnerAggregationService.exactUv(partnerIds, AggregationType.DAILY, keys);
+        Long exactUv = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id IS NOT NULL AND __time >= ? AND __time < ?",
+                Long.class, startDate, endDate);
+        log.info("전체 기간/파트너 UV: 비트맵 OR {}, COUNT(DISTINCT) {}, 버킷 UV 단순 합 {}", unionUv, exactUv, summed);
+        assertEquals(exactUv, unionUv);
+        assertTrue(summed > unionUv, "버킷 UV 를 더하면 중복 회원이 과대 계산되어야 합니다.");
+
+        // 파트너 하나의 여러 일
+        String partnerId = partnerIds.iterator().next();
+        Long partnerUv = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                Long.class, partnerId, startDate, endDate);
+        assertEquals(partnerUv, partnerAggregationService.exactUv(Set.of(partnerId), AggregationType.DAILY, keys));
+    }
+
+    @Test
+    @DisplayName("HOURLY 비트맵을 DAILY 로 롤업하면 직접 집계한 DAILY UV 와 같다")
+    void 비트맵_롤업_테스트() {
+        List<PartnerAggregation> hourly = partnerAggregationService.aggregateBitmapByPeriod(
+                startDate, endDate, AggregationType.HOURLY);
+        Map<String, PartnerAggregation> rolledUp = partnerAggregationRollupService.rollup(hourly, AggregationType.DAILY).stream()
+                .collect(Collectors.toMap(agg -> agg.getPartnerId() + "|" + agg.getAggregationKey(), Function.identity()));
+        List<PartnerAggregation> daily = partnerAggregationService.aggregateBitmapByPeriod(
+                startDate, endDate, AggregationType.DAILY);
+
+        assertEquals(daily.size(), rolledUp.size());
+        for (PartnerAggregation agg : daily) {
+            PartnerAggregation rolled = rolledUp.get(agg.getPartnerId() + "|" + agg.getAggregationKey());
+            assertNotNull(rolled, agg.getPartnerId() + " " + agg.getAggregationKey());
+            assertEquals(agg.getTotalUv(), rolled.getTotalUv());
+            assertEquals(agg.getTotalPv(), rolled.getTotalPv());
+            assertEquals(0, RoaringBitmap.xorCardinality(
+                    UvBitmaps.fromBytes(agg.getUvBitmap()), UvBitmaps.fromBytes(rolled.getUvBitmap())), "회원 비트맵이 같아야 합니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("회원 사전은 같은 회원에 항상 같은 ordinal 을 준다")
+    void 회원_사전_테스트() {
+        partnerAggregationService.aggregateBitmapByPeriod(startDate, endDate, AggregationType.DAILY);
+
+        Long members = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id IS NOT NULL", Long.class);
+        Long dictionary = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_dictionary", Long.class);
+        assertEquals(members, dictionary, "로그의 회원마다 사전 행이 하나씩 있어야 합니다.");
+
+        String memberId = jdbcTemplate.queryForObject("SELECT MIN(member_id) FROM player_userlog", String.class);
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT member_ordinal FROM member_dictionary WHERE member_id = ?", Integer.class, memberId);
+        assertEquals(stored, memberDictionaryService.ordinalOf(memberId));
+        assertEquals(stored, memberDictionaryService.ordinalOf(memberId));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.batch;
+
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationStreamingService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 예산 1MB (long 13만 개) 라서 30만 건이면 회원 코드가 여러 run 으로 디스크에 내려간다
+@SpringBootTest(properties = "aggregation.distinct.memory-budget=1MB")
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationExternalDistinctTest {
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationStreamingService partnerAggregationStreamingService;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (30만건)
+        testDataGeneratorService.generateJdbcTestData(300_000);
+    }
+
+    @Test
+    @DisplayName("외부 distinct (스필 + 병합) 로 센 스트리밍 UV 가 SQL 엔진 COUNT(DISTINCT) 와 일치")
+    void 외부_distinct_UV_비교_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateByDateRange(startDate, endDate);
+        Map<String, PartnerAggregation> actual = partnerAggregationStreamingService.aggregateByDateRange(startDate, endDate).stream()
+                .collect(Collectors.toMap(PartnerAggregation::getPartnerId, Function.identity()));
+
+        assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+        assertEquals(expected.size(), actual.size(), "파트너 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation streamed = actual.get(agg.getPartnerId());
+            assertNotNull(streamed, agg.getPartnerId());
+            assertEquals(agg.getTotalUv(), streamed.getTotalUv(), agg.getPartnerId());
+            assertEquals(agg.getTotalPv(), streamed.getTotalPv(), agg.getPartnerId());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.batch;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.AggregationWatermarkRepository;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationIncrementalService;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationIncrementalTest {
+
+    private static final int PRECISION = HyperLogLog.precisionFor(0.01);
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationIncrementalService partnerAggregationIncrementalService;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private AggregationWatermarkRepository aggregationWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (10만건)
+        testDataGeneratorService.generateJdbcTestData(100_000);
+        partnerAggregationRepository.deleteAll();
+        aggregationWatermarkRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("두 번의 증분 집계 결과가 전체 재집계와 일치하고 두 번째 실행은 신규 로그만 읽음")
+    void 증분_집계_테스트() {
+        List<PartnerAggregation> first = partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, PRECISION);
+        assertFalse(first.isEmpty(), "첫 실행은 전체 로그를 집계해야 합니다.");
+        long firstWatermark = partnerAggregationIncrementalService.getWatermark(AggregationType.DAILY);
+
+        // 신규 로그 2만건 추가 (기존 로그 복제, 새 id)
+        jdbcTemplate.update("""
+                INSERT INTO player_userlog (__time, partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                    playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code)
+                SELECT __time, partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                    playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code
+                FROM player_userlog ORDER BY id LIMIT 20000
+            """);
+        Long newRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE id > ?", Long.class, firstWatermark);
+        assertEquals(20_000L, newRows);
+
+        long incrementalStart = System.currentTimeMillis();
+        partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, PRECISION);
+        long incrementalElapsed = System.currentTimeMillis() - incrementalStart;
+
+        // 변경 없음: 워터마크 그대로, 반영 행 없음
+        assertTrue(partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, PRECISION).isEmpty());
+
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        long fullStart = System.currentTimeMillis();
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateApproximateByPeriod(
+                startDate, endDate, AggregationType.DAILY, PRECISION);
+        long fullElapsed = System.currentTimeMillis() - fullStart;
+        log.info("증분 집계(2만건): {} ms, 전체 재집계(12만건): {} ms", incrementalElapsed, fullElapsed);
+
+        Map<String, PartnerAggregation> actual = partnerAggregationRepository.findAll().stream()
+                .collect(Collectors.toMap(agg -> agg.getPartnerId() + "|" + agg.getAggregationKey(), Function.identity()));
+        assertEquals(expected.size(), actual.size(), "파트너 x 일 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation merged = actual.get(agg.getPartnerId() + "|" + agg.getAggregationKey());
+            assertNotNull(merged, agg.getPartnerId() + " " + agg.getAggregationKey());
+            // 스케치 병합은 합집합 스케치와 같으므로 UV 도 정확히 일치
+            assertEquals(agg.getTotalUv(), merged.getTotalUv());
+            assertEquals(agg.getTotalPv(), merged.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), merged.getTotalPlaytime());
+            assertEquals(agg.getTotalLikeCount(), merged.getTotalLikeCount());
+            assertEquals(agg.getTotalProductOrderAmount(), merged.getTotalProductOrderAmount());
+            assertEquals(agg.getTotalProductOrderQuantity(), merged.getTotalProductOrderQuantity());
+            assertEquals(agg.getTotalShareClickCount(), merged.getTotalShareClickCount());
+        }
+    }
+
+    @Test
+    @DisplayName("워터마크가 없는 첫 증분 집계는 같은 키의 기존 집계 행을 두 번 세지 않음")
+    void 첫_증분_집계_기존_행_덮어쓰기_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        // 워터마크 없이 먼저 저장된 전체 집계 행 (SINGLE APPROXIMATE 실행 결과)
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateApproximateByPeriod(
+                startDate, endDate, AggregationType.DAILY, PRECISION);
+        partnerAggregationService.saveBatchData(expected);
+
+        partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, PRECISION);
+
+        Map<String, PartnerAggregation> actual = partnerAggregationRepository.findAll().stream()
+                .collect(Collectors.toMap(agg -> agg.getPartnerId() + "|" + agg.getAggregationKey(), Function.identity()));
+        assertEquals(expected.size(), actual.size(), "파트너 x 일 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation saved = actual.get(agg.getPartnerId() + "|" + agg.getAggregationKey());
+            assertNotNull(saved, agg.getPartnerId() + " " + agg.getAggregationKey());
+            assertEquals(agg.getTotalUv(), saved.getTotalUv());
+            assertEquals(agg.getTotalPv(), saved.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), saved.getTotalPlaytime());
+            assertEquals(agg.getTotalProductOrderAmount(), saved.getTotalProductOrderAmount());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.batch;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationRollupService;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationRollupTest {
+
+    private static final int PRECISION = HyperLogLog.precisionFor(0.01);
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationRollupService partnerAggregationRollupService;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (2만건)
+        testDataGeneratorService.generateJdbcTestData(20_000);
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("MINUTELY 롤업으로 만든 HOURLY/DAILY 가 원본 로그 직접 집계와 일치")
+    void 롤업_직접집계_비교_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        long rollupStart = System.currentTimeMillis();
+        List<PartnerAggregation> rolledUp = partnerAggregationRollupService.aggregateWithRollup(startDate, endDate, PRECISION);
+        long rollupElapsed = System.currentTimeMillis() - rollupStart;
+        assertEquals(rolledUp.size(), partnerAggregationRepository.countAllData(), "세 단위 모두 저장되어야 합니다.");
+
+        // 재실행은 기간 안의 행을 다시 만들어 행 수가 늘지 않고, 이번에 만들지 않은 버킷(로그가 지워진 파트너 등)은 남지 않는다
+        PartnerAggregation orphan = rolledUp.stream()
+                .filter(agg -> agg.getAggregationType().equals(AggregationType.DAILY.name()))
+                .findFirst().orElseThrow();
+        partnerAggregationService.saveBatchData(List.of(PartnerAggregation.builder()
+                .partnerId("partner_orphan")
+                .totalUv(1L).totalPv(1L).totalPlaytime(0L).totalChatCount(0L).totalLikeCount(0L)
+                .totalProductClickCount(0L).totalProductOrderCount(0L).totalProductOrderAmount(0L)
+                .totalProductOrderQuantity(0L).totalProductOrderCancelCount(0L).totalBannerClickCount(0L)
+                .totalCouponClickCount(0L).totalRewardNewCount(0L).totalRewardCompleteCount(0L)
+                .totalPurchaseVerifyingCount(0L).totalQuizNewCount(0L).totalShareClickCount(0L)
+                .aggregationDate(orphan.getAggregationDate())
+                .aggregationType(orphan.getAggregationType())
+                .aggregationKey(orphan.getAggregationKey())
+                .build()));
+        assertEquals(rolledUp.size() + 1, partnerAggregationRepository.countAllData());
+        partnerAggregationRollupService.aggregateWithRollup(startDate, endDate, PRECISION);
+        assertEquals(rolledUp.size(), partnerAggregationRepository.countAllData(), "재실행 후에도 행 수가 같아야 합니다.");
+
+        for (AggregationType aggregationType : List.of(AggregationType.HOURLY, AggregationType.DAILY)) {
+            long directStart = System.currentTimeMillis();
+            List<PartnerAggregation> expected = partnerAggregationService.aggregateApproximateByPeriod(
+                    startDate, endDate, aggregationType, PRECISION);
+            log.info("{} 직접 집계: {} ms (롤업 전체: {} ms)", aggregationType, System.currentTimeMillis() - directStart, rollupElapsed);
+
+            Map<String, PartnerAggregation> actual = rolledUp.stream()
+                    .filter(agg -> agg.getAggregationType().equals(aggregationType.name()))
+                    .collect(Collectors.toMap(agg -> agg.getPartnerId() + "|" + agg.getAggregationKey(), Function.identity()));
+            assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+            assertEquals(expected.size(), actual.size(), aggregationType + " 버킷 수가 일치해야 합니다.");
+            for (PartnerAggregation agg : expected) {
+                PartnerAggregation rolled = actual.get(agg.getPartnerId() + "|" + agg.getAggregationKey());
+                assertNotNull(rolled, agg.getPartnerId() + " " + agg.getAggregationKey());
+                assertEquals(agg.getAggregationDate(), rolled.getAggregationDate());
+                assertEquals(agg.getTotalUv(), rolled.getTotalUv());
+                assertArrayEquals(agg.getUvSketch(), rolled.getUvSketch());
+                assertEquals(agg.getTotalPv(), rolled.getTotalPv());
+                assertEquals(agg.getTotalPlaytime(), rolled.getTotalPlaytime());
+                assertEquals(agg.getTotalChatCount(), rolled.getTotalChatCount());
+                assertEquals(agg.getTotalProductOrderAmount(), rolled.getTotalProductOrderAmount());
+                assertEquals(agg.getTotalShareClickCount(), rolled.getTotalShareClickCount());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("자정 경계가 아닌 기간은 일부 시간만 담긴 DAILY 버킷을 만들지 않도록 거부")
+    void 롤업_경계_검증_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> partnerAggregationRollupService.aggregateWithRollup(startDate.plusHours(9), endDate, PRECISION));
+        assertThrows(IllegalArgumentException.class,
+                () -> partnerAggregationRollupService.aggregateWithRollup(startDate, endDate.minusMinutes(30), PRECISION));
+        assertEquals(0, partnerAggregationRepository.countAllData());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.batch;
+
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationStreamingService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationStreamingTest {
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationStreamingService partnerAggregationStreamingService;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (50만건)
+        testDataGeneratorService.generateJdbcTestData(500_000);
+    }
+
+    @Test
+    @DisplayName("스트리밍 엔진과 SQL 엔진의 집계 결과가 모든 항목에서 일치")
+    void 스트리밍_SQL_결과_비교_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        long sqlStart = System.currentTimeMillis();
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateByDateRange(startDate, endDate);
+        long sqlElapsed = System.currentTimeMillis() - sqlStart;
+
+        long streamingStart = System.currentTimeMillis();
+        List<PartnerAggregation> streamed = partnerAggregationStreamingService.aggregateByDateRange(startDate, endDate);
+        long streamingElapsed = System.currentTimeMillis() - streamingStart;
+
+        log.info("SQL 엔진: {} ms, 스트리밍 엔진: {} ms", sqlElapsed, streamingElapsed);
+
+        Map<String, PartnerAggregation> actual = streamed.stream()
+                .collect(Collectors.toMap(PartnerAggregation::getPartnerId, Function.identity()));
+
+        assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+        assertEquals(expected.size(), actual.size(), "파트너 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation s = actual.get(agg.getPartnerId());
+            assertNotNull(s, agg.getPartnerId());
+            assertEquals(agg.getTotalUv(), s.getTotalUv());
+            assertEquals(agg.getTotalPv(), s.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), s.getTotalPlaytime());
+            assertEquals(agg.getTotalChatCount(), s.getTotalChatCount());
+            assertEquals(agg.getTotalLikeCount(), s.getTotalLikeCount());
+            assertEquals(agg.getTotalProductClickCount(), s.getTotalProductClickCount());
+            assertEquals(agg.getTotalProductOrderCount(), s.getTotalProductOrderCount());
+            assertEquals(agg.getTotalProductOrderAmount(), s.getTotalProductOrderAmount());
+            assertEquals(agg.getTotalProductOrderQuantity(), s.getTotalProductOrderQuantity());
+            assertEquals(agg.getTotalProductOrderCancelCount(), s.getTotalProductOrderCancelCount());
+            assertEquals(agg.getTotalBannerClickCount(), s.getTotalBannerClickCount());
+            assertEquals(agg.getTotalCouponClickCount(), s.getTotalCouponClickCount());
+            assertEquals(agg.getTotalRewardNewCount(), s.getTotalRewardNewCount());
+            assertEquals(agg.getTotalRewardCompleteCount(), s.getTotalRewardCompleteCount());
+            assertEquals(agg.getTotalPurchaseVerifyingCount(), s.getTotalPurchaseVerifyingCount());
+            assertEquals(agg.getTotalQuizNewCount(), s.getTotalQuizNewCount());
+            assertEquals(agg.getTotalShareClickCount(), s.getTotalShareClickCount());
+            assertEquals(agg.getAggregationDate(), s.getAggregationDate());
+        }
+    }
+}
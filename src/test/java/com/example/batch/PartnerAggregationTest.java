@@ -1,7 +1,9 @@
 package com.example.batch;
 
 import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
 import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
 import com.example.batch.service.TestDataGeneratorService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +17,11 @@ import org.springframework.batch.test.JobLauncherTestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +41,12 @@ class PartnerAggregationTest {
     @Autowired
     private PartnerAggregationService partnerAggregationService;
 
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         // 테스트 데이터 생성 (1만건)
@@ -162,4 +172,34 @@ class PartnerAggregationTest {
 
         log.info("데이터 정합성 검증 완료: {} 개 파트너", aggregations.size());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("파트너/버킷 집계(원본 로그 경로) 는 __time 으로 버킷을 나누고 aggregation_date 는 버킷 시작")
+    void 파트너_기간_집계_버킷_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        String partnerId = partnerAggregationService.findPartnerIdsByDateRange(startDate, endDate).get(0);
+
+        partnerAggregationService.aggregateByPartnerAndPeriod(partnerId, startDate, endDate, AggregationType.DAILY);
+
+        List<PartnerAggregation> buckets = partnerAggregationRepository.findAll().stream()
+                .filter(agg -> partnerId.equals(agg.getPartnerId()) && AggregationType.DAILY.name().equals(agg.getAggregationType()))
+                .toList();
+        Long days = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT CAST(__time AS DATE)) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                Long.class, partnerId, startDate, endDate);
+        assertEquals(days, (long) buckets.size(), "__time 의 일 수만큼 버킷이 있어야 합니다.");
+        for (PartnerAggregation bucket : buckets) {
+            LocalDateTime dayStart = bucket.getAggregationDate();
+            assertEquals(AggregationType.DAILY.keyOf(dayStart), bucket.getAggregationKey());
+            Long pv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM player_userlog WHERE partner_id = ? AND action = 'pageView' AND __time >= ? AND __time < ?",
+                    Long.class, partnerId, dayStart, dayStart.plusDays(1));
+            Long uv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                    Long.class, partnerId, dayStart, dayStart.plusDays(1));
+            assertEquals(pv, bucket.getTotalPv(), bucket.getAggregationKey());
+            assertEquals(uv, bucket.getTotalUv(), bucket.getAggregationKey());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.batch;
+
+import com.example.batch.aggregation.HyperLogLog;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.PartnerMinuteCounterService;
+import com.example.batch.service.PlayerUserLogIngestService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "ingest.pre-aggregation.enabled=true")
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerMinuteCounterTest {
+
+    private static final int PRECISION = HyperLogLog.precisionFor(0.01);
+    private static final String SNAPSHOT_SQL = """
+            SELECT partner_id, minute_bucket, total_pv, total_playtime, total_chat_count, total_like_count,
+                   total_product_order_count, total_product_order_amount, total_product_order_quantity, total_share_click_count
+            FROM partner_minute_counter ORDER BY partner_id, minute_bucket
+            """;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerMinuteCounterService partnerMinuteCounterService;
+
+    @Autowired
+    private PlayerUserLogIngestService playerUserLogIngestService;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (2만건, 1만건씩 적재하면서 분 버킷 카운터도 갱신)
+        testDataGeneratorService.generateJdbcTestData(20_000);
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("적재 시 갱신한 분 버킷 카운터가 원본 로그로 다시 만든 카운터와 같다")
+    void 적재_시점_카운터_재구성_비교_테스트() {
+        List<Map<String, Object>> incremental = jdbcTemplate.queryForList(SNAPSHOT_SQL);
+        Long rows = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total_pv), 0) FROM partner_minute_counter", Long.class);
+        Long pageViews = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE action = 'pageView' AND partner_id IS NOT NULL", Long.class);
+        assertEquals(pageViews, rows, "pageView 합계가 원본 로그와 같아야 합니다.");
+
+        playerUserLogIngestService.rebuildPreAggregation();
+        List<Map<String, Object>> rebuilt = jdbcTemplate.queryForList(SNAPSHOT_SQL);
+
+        log.info("분 버킷 {} 개", incremental.size());
+        assertFalse(incremental.isEmpty(), "카운터가 존재해야 합니다.");
+        assertEquals(rebuilt, incremental);
+    }
+
+    @Test
+    @DisplayName("분 버킷 카운터로 만든 MINUTELY/HOURLY/DAILY 카운터가 원본 로그 직접 집계와 일치")
+    void 사전집계_직접집계_비교_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        List<String> partnerIds = partnerAggregationService.findPartnerIdsByDateRange(startDate, endDate);
+        assertFalse(partnerIds.isEmpty(), "파트너가 존재해야 합니다.");
+
+        for (AggregationType aggregationType : AggregationType.values()) {
+            long directStart = System.currentTimeMillis();
+            Map<String, PartnerAggregation> expected = partnerAggregationService
+                    .aggregateApproximateByPeriod(startDate, endDate, aggregationType, PRECISION).stream()
+                    .collect(Collectors.toMap(agg -> agg.getPartnerId() + "|" + agg.getAggregationKey(), Function.identity()));
+            long counterStart = System.currentTimeMillis();
+            int counterBuckets = 0;
+            for (String partnerId : partnerIds) {
+                for (PartnerAggregation agg : partnerMinuteCounterService.aggregate(partnerId, startDate, endDate, aggregationType)) {
+                    PartnerAggregation direct = expected.get(agg.getPartnerId() + "|" + agg.getAggregationKey());
+                    assertNotNull(direct, agg.getPartnerId() + " " + agg.getAggregationKey());
+                    assertEquals(direct.getAggregationDate(), agg.getAggregationDate());
+                    assertEquals(direct.getTotalPv(), agg.getTotalPv());
+                    assertEquals(direct.getTotalPlaytime(), agg.getTotalPlaytime());
+                    assertEquals(direct.getTotalChatCount(), agg.getTotalChatCount());
+                    assertEquals(direct.getTotalLikeCount(), agg.getTotalLikeCount());
+                    assertEquals(direct.getTotalProductOrderAmount(), agg.getTotalProductOrderAmount());
+                    assertEquals(direct.getTotalProductOrderQuantity(), agg.getTotalProductOrderQuantity());
+                    assertEquals(direct.getTotalShareClickCount(), agg.getTotalShareClickCount());
+                    assertNull(agg.getTotalUv());
+                    counterBuckets++;
+                }
+            }
+            log.info("{} 직접 집계: {} ms, 분 버킷 카운터: {} ms", aggregationType,
+                    counterStart - directStart, System.currentTimeMillis() - counterStart);
+            assertEquals(expected.size(), counterBuckets, aggregationType + " 버킷 수가 일치해야 합니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("사전 집계가 켜져 있으면 aggregateByPartnerAndPeriod 는 카운터 테이블에서 읽고 UV 는 원본 로그로 채운다")
+    void 파트너_기간_집계_사전집계_경로_테스트() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        String partnerId = partnerAggregationService.findPartnerIdsByDateRange(startDate, endDate).get(0);
+
+        partnerAggregationService.aggregateByPartnerAndPeriod(partnerId, startDate, endDate, AggregationType.DAILY);
+
+        List<PartnerAggregation> expected = partnerMinuteCounterService.aggregate(partnerId, startDate, endDate, AggregationType.DAILY);
+        assertEquals(expected.size(), partnerAggregationRepository.countAllData());
+        assertEquals(expected.stream().mapToLong(PartnerAggregation::getTotalPv).sum(),
+                partnerAggregationRepository.findAll().stream().mapToLong(PartnerAggregation::getTotalPv).sum());
+        for (PartnerAggregation saved : partnerAggregationRepository.findAll()) {
+            LocalDateTime dayStart = saved.getAggregationDate();
+            Long uv = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT member_id) FROM player_userlog WHERE partner_id = ? AND __time >= ? AND __time < ?",
+                    Long.class, partnerId, dayStart, dayStart.plusDays(1));
+            assertEquals(uv, saved.getTotalUv(), saved.getAggregationKey());
+        }
+    }
+}
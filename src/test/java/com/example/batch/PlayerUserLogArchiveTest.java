@@ -0,0 +1,214 @@
+package com.example.batch;
+
+import com.example.batch.archive.PlayerUserLogSegment;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.AggregationWatermarkRepository;
+import com.example.batch.service.PartnerAggregationIncrementalService;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.PartnerAggregationService.AggregationType;
+import com.example.batch.service.PartnerAggregationStreamingService;
+import com.example.batch.service.PartnerMinuteCounterService;
+import com.example.batch.service.PlayerUserLogArchiveService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 세그먼트를 작게(2만 행) 잡아 10만 건 중 절반가량이 여러 세그먼트로 나뉘어 보관되게 한다
+// 세그먼트 목록은 컨텍스트(보관 디렉터리) 에 남으므로 한 테스트 안에서 보관 전후를 모두 확인한다
+// 사전 집계도 켜서 보관 뒤 카운터 재구성이 보관된 버킷을 지우지 않는지 함께 본다
+@SpringBootTest(properties = {"archive.segment-rows=20000", "archive.delete-chunk-size=1000", "ingest.pre-aggregation.enabled=true"})
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PlayerUserLogArchiveTest {
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationStreamingService partnerAggregationStreamingService;
+
+    @Autowired
+    private PlayerUserLogArchiveService playerUserLogArchiveService;
+
+    @Autowired
+    private PartnerMinuteCounterService partnerMinuteCounterService;
+
+    @Autowired
+    private PartnerAggregationIncrementalService partnerAggregationIncrementalService;
+
+    @Autowired
+    private AggregationWatermarkRepository aggregationWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (10만건, 최근 30일)
+        testDataGeneratorService.generateJdbcTestData(100_000);
+    }
+
+    @Test
+    @DisplayName("보관 후에도 SQL/STREAMING/비트맵/근사 집계 결과가 보관 전과 같고 원본 테이블에는 cutoff 이후 행만 남음")
+    void 콜드_스토리지_보관_집계_테스트() throws IOException {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(15).truncatedTo(ChronoUnit.SECONDS);
+
+        long total = count("SELECT COUNT(*) FROM player_userlog");
+        long expectedArchived = count("SELECT COUNT(*) FROM player_userlog WHERE __time < ?", cutoff);
+        List<PartnerAggregation> expectedAll = partnerAggregationService.aggregateByDateRange(startDate, endDate);
+        List<PartnerAggregation> expectedOld = partnerAggregationService.aggregateByDateRange(startDate, cutoff);
+        List<String> somePartners = expectedAll.stream().map(PartnerAggregation::getPartnerId).limit(3).toList();
+        List<PartnerAggregation> expectedSome = partnerAggregationService.aggregateByPartnerIdsAndDateRange(somePartners, startDate, endDate);
+        List<PartnerAggregation> expectedBitmap = partnerAggregationService.aggregateBitmapByPeriod(startDate, endDate, AggregationType.DAILY);
+        List<PartnerAggregation> expectedApproximate = partnerAggregationService.aggregateApproximateByPeriod(startDate, endDate, AggregationType.DAILY, 14);
+        List<PartnerAggregation> expectedByPartner = partnerAggregationService.aggregateByPartnerId(startDate);
+
+        PlayerUserLogArchiveService.ArchiveResult result = playerUserLogArchiveService.archive(cutoff);
+        log.info("보관: 세그먼트 {} 개, {} 행, {} bytes", result.getSegmentCount(), result.getRowCount(), result.getFileBytes());
+
+        assertEquals(expectedArchived, result.getRowCount(), "cutoff 이전 행이 모두 보관되어야 합니다.");
+        assertTrue(result.getSegmentCount() > 1, "segment-rows 보다 많으면 세그먼트가 나뉘어야 합니다.");
+        assertEquals(0L, count("SELECT COUNT(*) FROM player_userlog WHERE __time < ?", cutoff),
+                "보관한 행은 원본 테이블에서 지워져야 합니다.");
+        long segmentRows = playerUserLogArchiveService.getSegments().stream().mapToLong(PlayerUserLogSegment::getRowCount).sum();
+        assertEquals(total, segmentRows + count("SELECT COUNT(*) FROM player_userlog"), "보관 + 남은 행 = 전체 행");
+        assertTrue(playerUserLogArchiveService.isArchived(startDate, endDate));
+        assertFalse(playerUserLogArchiveService.isArchived(cutoff, endDate));
+        // 날짜 없이 실행해도 (기본 /batch) 세그먼트가 있을 때 실패하지 않고 SQL 처럼 빈 결과
+        assertFalse(playerUserLogArchiveService.isArchived(null, null));
+        assertTrue(partnerAggregationService.aggregateByDateRange(null, null).isEmpty());
+        assertTrue(partnerAggregationStreamingService.aggregateByDateRange(null, null).isEmpty());
+
+        assertSameAggregations(expectedAll, partnerAggregationService.aggregateByDateRange(startDate, endDate));
+        assertSameAggregations(expectedAll, partnerAggregationStreamingService.aggregateByDateRange(startDate, endDate));
+        assertSameAggregations(expectedOld, partnerAggregationService.aggregateByDateRange(startDate, cutoff));
+        assertSameAggregations(expectedOld, partnerAggregationStreamingService.aggregateByDateRange(startDate, cutoff));
+        assertSameAggregations(expectedSome, partnerAggregationService.aggregateByPartnerIdsAndDateRange(somePartners, startDate, endDate));
+        assertSameAggregations(expectedByPartner, partnerAggregationService.aggregateByPartnerId(startDate));
+        assertSameAggregations(expectedBitmap, partnerAggregationService.aggregateBitmapByPeriod(startDate, endDate, AggregationType.DAILY),
+                PlayerUserLogArchiveTest::bucketKey);
+        assertSameAggregations(expectedApproximate, partnerAggregationService.aggregateApproximateByPeriod(startDate, endDate, AggregationType.DAILY, 14),
+                PlayerUserLogArchiveTest::bucketKey);
+        assertEquals(new TreeSet<>(partnerAggregationService.findPartnerIdsByDateRange(startDate, endDate)),
+                expectedAll.stream().map(PartnerAggregation::getPartnerId).collect(Collectors.toCollection(TreeSet::new)),
+                "파티션 계획도 보관된 파트너를 포함해야 합니다.");
+
+        // 카운터 재구성은 cutoff 이후만 다시 만들므로 보관된 버킷의 카운터가 그대로 남는다
+        String counterSql = "SELECT partner_id, minute_bucket, total_pv, total_playtime, total_product_order_amount " +
+                "FROM partner_minute_counter ORDER BY partner_id, minute_bucket";
+        List<Map<String, Object>> countersBefore = jdbcTemplate.queryForList(counterSql);
+        assertEquals(playerUserLogArchiveService.archivedBefore(), cutoff);
+        partnerMinuteCounterService.rebuild();
+        assertEquals(countersBefore, jdbcTemplate.queryForList(counterSql));
+
+        // 이미 보관한 기간을 다시 보관하면 옮길 행이 없다
+        PlayerUserLogArchiveService.ArchiveResult again = playerUserLogArchiveService.archive(cutoff);
+        assertEquals(0, again.getSegmentCount());
+        assertEquals(result.getSegmentCount(), playerUserLogArchiveService.getSegments().size());
+
+        // 확정되지 않은 세그먼트(.pending) 가 남아 있으면 보관하지 않는다
+        Path pending = playerUserLogArchiveService.getSegments().get(0).getPath().resolveSibling("player_userlog-test.seg.pending");
+        try {
+            Files.createFile(pending);
+            assertThrows(IllegalStateException.class, () -> playerUserLogArchiveService.archive(cutoff));
+        } finally {
+            Files.deleteIfExists(pending);
+        }
+
+        // 증분 집계: 첫 실행은 보관된 행까지 전체를 집계한다
+        aggregationWatermarkRepository.deleteAll();
+        assertSameAggregations(expectedApproximate,
+                partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, 14), PlayerUserLogArchiveTest::bucketKey);
+
+        // 워터마크 이후에 들어온 옛 행이 증분 집계 전에 보관돼도 다음 증분 집계에 들어간다
+        jdbcTemplate.update("""
+                INSERT INTO player_userlog (__time, partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                    playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code)
+                SELECT CAST(? AS TIMESTAMP), partner_id, broadcast_state_code, broadcast_id, member_id, action,
+                    playtime, like_count, product_order_amount, product_order_quantity, broadcast_type_code
+                FROM player_userlog ORDER BY id LIMIT 1000
+            """, cutoff.minusDays(1));
+        assertEquals(1000, playerUserLogArchiveService.archive(cutoff).getRowCount());
+        List<PartnerAggregation> merged = partnerAggregationIncrementalService.aggregateIncrementally(AggregationType.DAILY, 14);
+        assertFalse(merged.isEmpty(), "보관된 늦은 행도 증분 집계되어야 합니다.");
+        Map<String, PartnerAggregation> expectedLate = partnerAggregationService
+                .aggregateApproximateByPeriod(startDate, endDate, AggregationType.DAILY, 14).stream()
+                .collect(Collectors.toMap(PlayerUserLogArchiveTest::bucketKey, Function.identity()));
+        for (PartnerAggregation agg : merged) {
+            PartnerAggregation expected = expectedLate.get(bucketKey(agg));
+            assertNotNull(expected, bucketKey(agg));
+            assertEquals(expected.getTotalUv(), agg.getTotalUv());
+            assertEquals(expected.getTotalPv(), agg.getTotalPv());
+            assertEquals(expected.getTotalPlaytime(), agg.getTotalPlaytime());
+        }
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private static String bucketKey(PartnerAggregation aggregation) {
+        return aggregation.getPartnerId() + "|" + aggregation.getAggregationKey();
+    }
+
+    private static void assertSameAggregations(List<PartnerAggregation> expected, List<PartnerAggregation> actualList) {
+        assertSameAggregations(expected, actualList, PartnerAggregation::getPartnerId);
+    }
+
+    private static void assertSameAggregations(List<PartnerAggregation> expected, List<PartnerAggregation> actualList,
+                                               Function<PartnerAggregation, String> key) {
+        Map<String, PartnerAggregation> actual = actualList.stream()
+                .collect(Collectors.toMap(key, Function.identity()));
+
+        assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+        assertEquals(expected.size(), actual.size(), "파트너(버킷) 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation a = actual.get(key.apply(agg));
+            assertNotNull(a, key.apply(agg));
+            assertEquals(agg.getTotalUv(), a.getTotalUv());
+            assertEquals(agg.getTotalPv(), a.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), a.getTotalPlaytime());
+            assertEquals(agg.getTotalChatCount(), a.getTotalChatCount());
+            assertEquals(agg.getTotalLikeCount(), a.getTotalLikeCount());
+            assertEquals(agg.getTotalProductClickCount(), a.getTotalProductClickCount());
+            assertEquals(agg.getTotalProductOrderCount(), a.getTotalProductOrderCount());
+            assertEquals(agg.getTotalProductOrderAmount(), a.getTotalProductOrderAmount());
+            assertEquals(agg.getTotalProductOrderQuantity(), a.getTotalProductOrderQuantity());
+            assertEquals(agg.getTotalProductOrderCancelCount(), a.getTotalProductOrderCancelCount());
+            assertEquals(agg.getTotalBannerClickCount(), a.getTotalBannerClickCount());
+            assertEquals(agg.getTotalCouponClickCount(), a.getTotalCouponClickCount());
+            assertEquals(agg.getTotalRewardNewCount(), a.getTotalRewardNewCount());
+            assertEquals(agg.getTotalRewardCompleteCount(), a.getTotalRewardCompleteCount());
+            assertEquals(agg.getTotalPurchaseVerifyingCount(), a.getTotalPurchaseVerifyingCount());
+            assertEquals(agg.getTotalQuizNewCount(), a.getTotalQuizNewCount());
+            assertEquals(agg.getTotalShareClickCount(), a.getTotalShareClickCount());
+            assertEquals(agg.getAggregationDate(), a.getAggregationDate());
+        }
+    }
+}
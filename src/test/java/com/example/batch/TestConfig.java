@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.init.DataSourceInitializer;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -101,10 +102,17 @@ public class TestConfig {
         dataSourceInitializer.setDataSource(dataSource);
         ResourceDatabasePopulator databasePopulator = new ResourceDatabasePopulator();
         databasePopulator.addScript(new ClassPathResource("org/springframework/batch/core/schema-h2.sql"));
+        databasePopulator.setContinueOnError(true); // spring.batch.jdbc.initialize-schema 로 이미 생성된 경우 무시
         dataSourceInitializer.setDatabasePopulator(databasePopulator);
         return dataSourceInitializer;
     }
 
+    // 집계/테스트 데이터 SQL 은 엔티티 테이블이 있는 domainDataSource 에서 실행
+    @Bean
+    public JdbcTemplate jdbcTemplate(@Qualifier("domainDataSource") DataSource domainDataSource) {
+        return new JdbcTemplate(domainDataSource);
+    }
+
     // Spring Batch 5.0+ 방식으로 JobRepository 설정
     @Bean
     public JobRepository jobRepository(DataSource dataSource, PlatformTransactionManager transactionManager) throws Exception {
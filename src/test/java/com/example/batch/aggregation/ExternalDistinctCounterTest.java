@@ -0,0 +1,118 @@
+package com.example.batch.aggregation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class ExternalDistinctCounterTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    @DisplayName("예산을 넘겨 run 으로 내려도 그룹별 distinct 수가 HashSet 과 같다")
+    void 스필_distinct_정확도_테스트() throws IOException {
+        Map<Integer, Set<Integer>> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(23L);
+        try (ExternalDistinctCounter counter = new ExternalDistinctCounter(64 * 1024, spillDirectory)) {
+            for (int i = 0; i < 1_000_000; i++) {
+                int group = random.nextInt(11) - 1; // -1 은 NULL 파트너
+                int member = random.nextInt(200_000);
+                counter.add(group, member);
+                expected.computeIfAbsent(group, k -> new HashSet<>()).add(member);
+            }
+
+            Map<Integer, Long> counts = counter.counts();
+            assertTrue(counter.getSpilledRuns() > 1, "예산 64KB 면 run 이 여러 개여야 합니다.");
+            assertEquals(expected.size(), counts.size());
+            expected.forEach((group, members) -> assertEquals((long) members.size(), counts.get(group), "group " + group));
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count(), "close() 후 run 파일이 남지 않아야 합니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("run 이 fan-in 을 넘으면 여러 단계로 병합해도 distinct 수가 같다")
+    void 다단계_병합_테스트() throws IOException {
+        Map<Integer, Set<Integer>> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7L);
+        try (ExternalDistinctCounter counter = new ExternalDistinctCounter(16 * 1024, spillDirectory, 2)) {
+            for (int i = 0; i < 300_000; i++) {
+                int group = random.nextInt(5);
+                int member = random.nextInt(100_000);
+                counter.add(group, member);
+                expected.computeIfAbsent(group, k -> new HashSet<>()).add(member);
+            }
+            int spilledRuns = counter.getSpilledRuns();
+
+            Map<Integer, Long> counts = counter.counts();
+            assertTrue(spilledRuns > 4, "예산 16KB 면 run 이 fan-in(2) 보다 훨씬 많아야 합니다.");
+            assertTrue(counter.getMergePasses() > 1, "run 을 미리 병합해야 합니다.");
+            assertTrue(counter.getSpilledRuns() <= 2, "최종 병합 전 run 은 fan-in 이하여야 합니다.");
+            assertEquals(expected.size(), counts.size());
+            expected.forEach((group, members) -> assertEquals((long) members.size(), counts.get(group), "group " + group));
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                assertEquals(counter.getSpilledRuns(), files.count(), "병합한 run 파일은 바로 지워야 합니다.");
+            }
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count(), "close() 후 run 파일이 남지 않아야 합니다.");
+        }
+    }
+
+    // ./gradlew lowMemoryTest (-Xmx256m) 로 실행: 5천만 건의 (파트너, 회원) 쌍을 힙 예산 32MB 로 센다
+    // 기준값은 파트너별 RoaringBitmap (회원 200만 명이면 파트너당 bitmap 컨테이너 31 개, 250KB 안팎)
+    // 파트너 x 회원 distinct 쌍은 수천만 개라 버퍼(long 400만 개)에 다 들어가지 않는다
+    @Test
+    @Tag("low-memory")
+    @DisplayName("-Xmx256m 에서 5천만 건 파트너별 정확 UV")
+    void 저메모리_5천만건_distinct_테스트() {
+        int rows = 50_000_000;
+        int partners = 50;
+        int members = 2_000_000;
+        RoaringBitmap[] expected = new RoaringBitmap[partners];
+        for (int i = 0; i < partners; i++) {
+            expected[i] = new RoaringBitmap();
+        }
+
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(50L);
+        try (ExternalDistinctCounter counter = new ExternalDistinctCounter(32L * 1024 * 1024, spillDirectory)) {
+            for (int i = 0; i < rows; i++) {
+                int partner = random.nextInt(partners);
+                // 앞쪽 회원이 자주 나오도록 치우친 분포 (재방문)
+                double u = random.nextDouble();
+                int member = (int) (u * u * members);
+                counter.add(partner, member);
+                expected[partner].add(member);
+            }
+            Map<Integer, Long> counts = counter.counts();
+
+            log.info("5천만 건 distinct: {} ms, run {} 개, 스필 {} 건, maxMemory {} MB",
+                    System.currentTimeMillis() - start, counter.getSpilledRuns(), counter.getSpilledValues(),
+                    Runtime.getRuntime().maxMemory() / (1024 * 1024));
+            assertTrue(counter.getSpilledRuns() > 0, "힙 예산을 넘겨 run 을 내려야 합니다.");
+            assertEquals(partners, counts.size());
+            for (int partner = 0; partner < partners; partner++) {
+                assertEquals(expected[partner].getLongCardinality(), counts.get(partner), "partner " + partner);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.batch.aggregation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("설정한 상대 오차 범위 안에서 distinct count 를 추정")
+    void estimate_오차_범위_테스트() {
+        for (double relativeError : new double[]{0.05, 0.02, 0.01}) {
+            int precision = HyperLogLog.precisionFor(relativeError);
+            assertTrue(HyperLogLog.standardError(precision) <= relativeError);
+
+            for (int cardinality : new int[]{100, 10_000, 1_000_000}) {
+                HyperLogLog hll = new HyperLogLog(precision);
+                for (int i = 0; i < cardinality; i++) {
+                    String memberId = "member_" + String.format("%08d", i);
+                    hll.add(memberId);
+                    hll.add(memberId); // 중복은 무시되어야 함
+                }
+                double error = Math.abs(hll.estimate() - cardinality) / (double) cardinality;
+                // 표준 오차의 3배 (99.7%) 이내
+                assertTrue(error <= 3 * relativeError,
+                        "precision=" + precision + ", cardinality=" + cardinality + ", error=" + error);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("스케치 병합 결과는 합집합 스케치와 동일")
+    void merge_합집합_테스트() {
+        HyperLogLog first = new HyperLogLog(14);
+        HyperLogLog second = new HyperLogLog(14);
+        HyperLogLog union = new HyperLogLog(14);
+        for (int i = 0; i < 200_000; i++) {
+            String memberId = "member_" + i;
+            if (i < 120_000) first.add(memberId);
+            if (i >= 80_000) second.add(memberId);
+            union.add(memberId);
+        }
+
+        assertArrayEquals(union.toBytes(), first.merge(second).toBytes());
+    }
+
+    @Test
+    @DisplayName("직렬화 후 복원한 스케치는 같은 추정치를 반환")
+    void 직렬화_테스트() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 50_000; i++) {
+            hll.add("member_" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(hll.toBytes());
+
+        assertEquals(hll.getPrecision(), restored.getPrecision());
+        assertEquals(hll.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> hll.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    @DisplayName("sparse 스케치는 dense 와 같은 추정치/직렬화 결과를 내고 작게 저장된다")
+    void sparse_dense_동일성_테스트() {
+        HyperLogLog small = new HyperLogLog(14);
+        HyperLogLog large = new HyperLogLog(14);
+        for (int i = 0; i < 30; i++) {
+            small.add("member_" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            large.add("member_" + i);
+        }
+
+        byte[] smallBytes = small.toBytes();
+        assertTrue(smallBytes.length < 200, "회원이 적은 스케치는 sparse 로 저장: " + smallBytes.length);
+        assertTrue(small.memoryBytes() < 256, "회원이 적은 스케치는 힙에서도 sparse: " + small.memoryBytes());
+        assertEquals(1 << 14, large.memoryBytes(), "회원이 많으면 dense 로 전환");
+        assertTrue(HyperLogLog.fromBytes(smallBytes).memoryBytes() < 256, "sparse 로 저장한 스케치는 sparse 로 복원");
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(smallBytes).estimate());
+
+        // sparse + dense 병합 == dense + sparse 병합 == 합집합
+        HyperLogLog union = new HyperLogLog(14);
+        for (int i = 0; i < 100_000; i++) {
+            union.add("member_" + i);
+        }
+        byte[] sparseFirst = HyperLogLog.fromBytes(smallBytes).merge(HyperLogLog.fromBytes(large.toBytes())).toBytes();
+        byte[] denseFirst = HyperLogLog.fromBytes(large.toBytes()).merge(HyperLogLog.fromBytes(smallBytes)).toBytes();
+        assertArrayEquals(union.toBytes(), sparseFirst);
+        assertArrayEquals(union.toBytes(), denseFirst);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.batch.aggregation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringIntDictionaryTest {
+
+    @Test
+    @DisplayName("open addressing 사전은 HashMap 과 같은 코드를 부여하고 항목당 메모리가 작다")
+    void 사전_HashMap_비교_테스트() {
+        StringIntDictionary dictionary = new StringIntDictionary();
+        Map<String, Integer> expected = new HashMap<>();
+        int entries = 1_000_000;
+        for (int i = 0; i < entries; i++) {
+            String memberId = String.format("member_%08d", i);
+            expected.putIfAbsent(memberId, expected.size());
+            assertEquals(expected.get(memberId), dictionary.encode(memberId));
+        }
+        // 비 ASCII, 빈 문자열, 중복
+        for (String value : new String[]{"회원_한글", "émoji_😀", "", "member_00000001"}) {
+            expected.putIfAbsent(value, expected.size());
+            assertEquals(expected.get(value), dictionary.encode(value));
+        }
+
+        assertEquals(expected.size(), dictionary.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), dictionary.find(entry.getKey()));
+            assertEquals(entry.getKey(), dictionary.decode(entry.getValue()));
+        }
+        assertEquals(StringIntDictionary.NULL_ID, dictionary.find("member_99999999"));
+        assertEquals(StringIntDictionary.NULL_ID, dictionary.encode(null));
+        assertNull(dictionary.decode(StringIntDictionary.NULL_ID));
+
+        // member_%08d (15 bytes) 기준, HashMap<String, Integer> 는 항목당 100 bytes 안팎
+        long bytesPerEntry = dictionary.memoryBytes() / dictionary.size();
+        assertTrue(bytesPerEntry < 48, "항목당 메모리: " + bytesPerEntry);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.batch.archive;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.reader.PlayerUserLogFileFormat;
+import com.example.batch.reader.PlayerUserLogRows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerUserLogSegmentTest {
+
+    private static final String[] PARTNER_IDS = {"partner_a", "partner_b", "partner_c", null};
+    private static final String[] ACTIONS = {"pageView", "chat", "productClick", "productOrder", "unknownAction", null};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("세그먼트에 쓴 행을 NULL 컬럼과 NULL 파트너까지 그대로 복원하고 CSV 보다 작게 저장")
+    void 세그먼트_왕복_테스트() throws IOException {
+        List<PlayerUserLog> logs = createLogs(50_000, 0);
+        PlayerUserLogSegmentWriter writer = new PlayerUserLogSegmentWriter();
+        logs.forEach(writer::add);
+        PlayerUserLogSegment segment = writer.write(directory.resolve("test.seg"), START.plusDays(10));
+
+        assertEquals(logs.size(), segment.getRowCount());
+        assertEquals(logs.get(0).getId(), segment.getMinId());
+        assertEquals(logs.get(logs.size() - 1).getId(), segment.getMaxId());
+        assertEquals(START.plusDays(10), segment.getCutoff());
+        assertEquals(logs, segment.readAll());
+        assertArrayEquals(logs.stream().mapToLong(PlayerUserLog::getId).toArray(), segment.readIds());
+        assertFalse(Files.exists(directory.resolve("test.seg.tmp")), "임시 파일이 남지 않아야 합니다.");
+
+        StringWriter csv = new StringWriter();
+        for (PlayerUserLog log : logs) {
+            PlayerUserLogFileFormat.CSV.write(csv, log);
+        }
+        long csvBytes = csv.toString().getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(segment.getFileBytes() * 4 < csvBytes,
+                "세그먼트 " + segment.getFileBytes() + " bytes, CSV " + csvBytes + " bytes");
+    }
+
+    @Test
+    @DisplayName("forEachRow 는 기간 안의 행만 호출자 사전 코드로 넘기고 기간 밖 파트너는 색인으로 건너뜀")
+    void 세그먼트_기간_읽기_테스트() {
+        // partner_late 는 마지막 하루에만 있어 [START, START+5d) 에서는 색인으로 걸러진다
+        List<PlayerUserLog> logs = createLogs(20_000, 0);
+        LocalDateTime late = START.plusDays(9).plusHours(1);
+        long lastId = logs.get(logs.size() - 1).getId();
+        for (int i = 1; i <= 100; i++) {
+            logs.add(log(lastId + i, late.plusSeconds(i), "partner_late", "member_late", "pageView"));
+        }
+        PlayerUserLogSegmentWriter writer = new PlayerUserLogSegmentWriter();
+        logs.forEach(writer::add);
+        PlayerUserLogSegment segment = writer.write(directory.resolve("window.seg"), START.plusDays(10));
+
+        LocalDateTime start = START.plusDays(2);
+        LocalDateTime end = START.plusDays(5);
+        assertTrue(segment.overlaps(start, end));
+        assertFalse(segment.overlaps(START.plusDays(11), START.plusDays(12)));
+        // 기간이 없으면 (날짜 없는 /batch 실행) SQL 과 같이 빈 기간
+        assertFalse(segment.overlaps(null, null));
+        assertTrue(segment.partnerIdsIn(start, null).isEmpty());
+
+        CodeDictionary partnerIds = new CodeDictionary();
+        CodeDictionary codes = new CodeDictionary();
+        CodeDictionary memberIds = new CodeDictionary();
+        List<PlayerUserLog> actual = new ArrayList<>();
+        long emitted = segment.forEachRow(start, end, partnerIds, codes,
+                values -> values.stream().mapToInt(memberIds::encode).toArray(),
+                row -> actual.add(PlayerUserLogRows.toEntity(row, partnerIds, codes, memberIds::decode)));
+
+        List<PlayerUserLog> expected = logs.stream()
+                .filter(log -> !log.getTime().isBefore(start) && log.getTime().isBefore(end))
+                .map(PlayerUserLogSegmentTest::asRead)
+                .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), emitted);
+        assertEquals(expected, actual);
+        for (int code = 0; code < partnerIds.size(); code++) {
+            assertNotEquals("partner_late", partnerIds.decode(code), "기간 밖 파트너는 사전에 올리지 않아야 합니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("id 가 오름차순이 아니거나 __time 이 없는 행은 보관할 수 없고, 이미 있는 세그먼트 파일은 덮어쓰지 않음")
+    void 세그먼트_입력_검증_테스트() {
+        PlayerUserLogSegmentWriter writer = new PlayerUserLogSegmentWriter();
+        writer.add(log(10L, START, "partner_a", "member_1", "chat"));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.add(log(10L, START, "partner_a", "member_1", "chat")));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(log(11L, null, "partner_a", "member_1", "chat")));
+        assertThrows(IllegalStateException.class,
+                () -> new PlayerUserLogSegmentWriter().write(directory.resolve("empty.seg"), START));
+
+        PlayerUserLogSegment written = writer.write(directory.resolve("once.seg"), START.plusDays(1));
+        assertThrows(UncheckedIOException.class, () -> writer.write(written.getPath(), START.plusDays(1)));
+        assertEquals(1, PlayerUserLogSegment.open(written.getPath()).getRowCount());
+    }
+
+    private static List<PlayerUserLog> createLogs(int count, long seed) {
+        Random random = new Random(seed);
+        List<PlayerUserLog> logs = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += 1 + random.nextInt(3);
+            String action = ACTIONS[random.nextInt(ACTIONS.length)];
+            PlayerUserLog log = log(id, START.plusSeconds(random.nextInt(9 * 24 * 60 * 60)),
+                    PARTNER_IDS[random.nextInt(PARTNER_IDS.length)],
+                    random.nextInt(20) == 0 ? null : "member_" + random.nextInt(2_000),
+                    action);
+            log.setPlaytime("pageView".equals(action) ? random.nextInt(3600) : null);
+            log.setLikeCount("pageView".equals(action) ? random.nextInt(10) - 2 : null);
+            log.setProductOrderAmount("productOrder".equals(action) ? random.nextInt(1_000_000) : null);
+            log.setProductOrderQuantity("productOrder".equals(action) ? random.nextInt(10) : null);
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    // 경량 행은 알 수 없는 action 을 -1 로 읽고 broadcast_id 는 싣지 않으므로 엔티티로 되돌리면 NULL
+    private static PlayerUserLog asRead(PlayerUserLog log) {
+        PlayerUserLog copy = log(log.getId(), log.getTime(), log.getPartnerId(), log.getMemberId(),
+                "unknownAction".equals(log.getAction()) ? null : log.getAction());
+        copy.setBroadcastId(null);
+        copy.setPlaytime(log.getPlaytime());
+        copy.setLikeCount(log.getLikeCount());
+        copy.setProductOrderAmount(log.getProductOrderAmount());
+        copy.setProductOrderQuantity(log.getProductOrderQuantity());
+        return copy;
+    }
+
+    private static PlayerUserLog log(Long id, LocalDateTime time, String partnerId, String memberId, String action) {
+        return PlayerUserLog.builder()
+                .id(id)
+                .time(time)
+                .partnerId(partnerId)
+                .broadcastStateCode(id % 7 == 0 ? null : "LIVE")
+                .broadcastId("broadcast_" + (id % 50))
+                .memberId(memberId)
+                .action(action)
+                .broadcastTypeCode(id % 2 == 0 ? "NORMAL" : "SHORTS")
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.batch.config;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+public class PartnerAggregationPartitionTest {
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job partnerAggregationJob;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (20만건)
+        int testCount = 200_000;
+        log.info("테스트 데이터 생성 시작: {} 건", testCount);
+
+        long startTime = System.currentTimeMillis();
+        testDataGeneratorService.generateJdbcTestData(testCount);
+        long endTime = System.currentTimeMillis();
+
+        log.info("테스트 데이터 생성 완료: {} 초", (endTime - startTime) / 1000.0);
+
+        partnerAggregationRepository.deleteAll();
+        jobLauncherTestUtils.setJob(partnerAggregationJob);
+    }
+
+    @Test
+    @DisplayName("partner_id 파티셔닝 집계 결과/소요시간 비교")
+    void partnerAggregationJob_파티셔닝_테스트() throws Exception {
+        LocalDateTime startDateTime = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDateTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        // 단일 쿼리 (기존 방식)
+        long singleStart = System.currentTimeMillis();
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateByDateRange(startDateTime, endDateTime);
+        long singleElapsed = System.currentTimeMillis() - singleStart;
+
+        // 파티셔닝 잡
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("aggregationMode", PartnerAggregationBatchConfig.AggregationMode.PARTITIONED.name())
+                .addLong("gridSize", 5L)
+                .addLocalDateTime("startDateTime", startDateTime)
+                .addLocalDateTime("endDateTime", endDateTime)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+
+        long partitionedStart = System.currentTimeMillis();
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+        long partitionedElapsed = System.currentTimeMillis() - partitionedStart;
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        log.info("단일 쿼리: {} ms, 파티셔닝({} 코어): {} ms, speedup: {}",
+                singleElapsed, Runtime.getRuntime().availableProcessors(), partitionedElapsed,
+                String.format("%.2f", (double) singleElapsed / partitionedElapsed));
+
+        Map<String, PartnerAggregation> actual = partnerAggregationService.getAggregationsByDate(startDateTime).stream()
+                .collect(Collectors.toMap(PartnerAggregation::getPartnerId, Function.identity()));
+
+        assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+        assertEquals(expected.size(), actual.size(), "파트너 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation partitioned = actual.get(agg.getPartnerId());
+            assertNotNull(partitioned, agg.getPartnerId());
+            assertEquals(agg.getTotalUv(), partitioned.getTotalUv());
+            assertEquals(agg.getTotalPv(), partitioned.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), partitioned.getTotalPlaytime());
+            assertEquals(agg.getTotalChatCount(), partitioned.getTotalChatCount());
+            assertEquals(agg.getTotalLikeCount(), partitioned.getTotalLikeCount());
+            assertEquals(agg.getTotalProductClickCount(), partitioned.getTotalProductClickCount());
+            assertEquals(agg.getTotalProductOrderCount(), partitioned.getTotalProductOrderCount());
+            assertEquals(agg.getTotalProductOrderAmount(), partitioned.getTotalProductOrderAmount());
+            assertEquals(agg.getTotalProductOrderQuantity(), partitioned.getTotalProductOrderQuantity());
+            assertEquals(agg.getTotalProductOrderCancelCount(), partitioned.getTotalProductOrderCancelCount());
+            assertEquals(agg.getTotalBannerClickCount(), partitioned.getTotalBannerClickCount());
+            assertEquals(agg.getTotalCouponClickCount(), partitioned.getTotalCouponClickCount());
+            assertEquals(agg.getTotalRewardNewCount(), partitioned.getTotalRewardNewCount());
+            assertEquals(agg.getTotalRewardCompleteCount(), partitioned.getTotalRewardCompleteCount());
+            assertEquals(agg.getTotalPurchaseVerifyingCount(), partitioned.getTotalPurchaseVerifyingCount());
+            assertEquals(agg.getTotalQuizNewCount(), partitioned.getTotalQuizNewCount());
+            assertEquals(agg.getTotalShareClickCount(), partitioned.getTotalShareClickCount());
+            assertEquals(agg.getAggregationDate(), partitioned.getAggregationDate());
+        }
+    }
+
+    @Test
+    @DisplayName("워커 수는 커넥션 풀 크기 - 1 을 넘지 않음")
+    void 워커_수_커넥션_풀_제한_테스트() {
+        assertEquals(Math.min(Runtime.getRuntime().availableProcessors(), 9),
+                PartnerAggregationBatchConfig.partitionPoolSize(0, 10));
+        assertEquals(1, PartnerAggregationBatchConfig.partitionPoolSize(0, 1));
+        assertEquals(4, PartnerAggregationBatchConfig.partitionPoolSize(4, 10));
+        assertThrows(IllegalStateException.class, () -> PartnerAggregationBatchConfig.partitionPoolSize(10, 10));
+    }
+}
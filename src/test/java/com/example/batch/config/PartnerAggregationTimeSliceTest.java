@@ -0,0 +1,107 @@
+package com.example.batch.config;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.repository.PartnerAggregationSliceRepository;
+import com.example.batch.service.PartnerAggregationService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+public class PartnerAggregationTimeSliceTest {
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+    @Autowired
+    private PartnerAggregationSliceRepository partnerAggregationSliceRepository;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job partnerAggregationJob;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 데이터 생성 (10만건)
+        int testCount = 100_000;
+        log.info("테스트 데이터 생성 시작: {} 건", testCount);
+        testDataGeneratorService.generateJdbcTestData(testCount);
+
+        partnerAggregationRepository.deleteAll();
+        jobLauncherTestUtils.setJob(partnerAggregationJob);
+    }
+
+    @Test
+    @DisplayName("시간 슬라이스 부분 집계 병합 결과가 단일 쿼리 집계와 일치")
+    void partnerAggregationJob_시간슬라이스_테스트() throws Exception {
+        LocalDateTime startDateTime = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDateTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateByDateRange(startDateTime, endDateTime);
+
+        // 하루 단위 슬라이스 (32 개 파티션)
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("aggregationMode", PartnerAggregationBatchConfig.AggregationMode.TIME_SLICED.name())
+                .addLong("sliceMinutes", 24 * 60L)
+                .addLocalDateTime("startDateTime", startDateTime)
+                .addLocalDateTime("endDateTime", endDateTime)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+
+        long startTime = System.currentTimeMillis();
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+        log.info("시간 슬라이스 집계 소요시간: {} ms", System.currentTimeMillis() - startTime);
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+
+        Map<String, PartnerAggregation> actual = partnerAggregationService.getAggregationsByDate(startDateTime).stream()
+                .collect(Collectors.toMap(PartnerAggregation::getPartnerId, Function.identity()));
+
+        assertFalse(expected.isEmpty(), "집계 결과가 존재해야 합니다.");
+        assertEquals(expected.size(), actual.size(), "파트너 수가 일치해야 합니다.");
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation merged = actual.get(agg.getPartnerId());
+            assertEquals(agg.getTotalUv(), merged.getTotalUv(), "UV 는 슬라이스 병합 후에도 정확해야 합니다.");
+            assertEquals(agg.getTotalPv(), merged.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), merged.getTotalPlaytime());
+            assertEquals(agg.getTotalLikeCount(), merged.getTotalLikeCount());
+            assertEquals(agg.getTotalProductOrderAmount(), merged.getTotalProductOrderAmount());
+            assertEquals(agg.getTotalProductOrderQuantity(), merged.getTotalProductOrderQuantity());
+            assertEquals(agg.getTotalShareClickCount(), merged.getTotalShareClickCount());
+        }
+
+        // 중간 결과는 병합 후 삭제
+        assertEquals(0, partnerAggregationSliceRepository.count());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.batch.config;
+
+import com.example.batch.TestConfig;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+public class PlayerUserLogAsyncPipelineTest {
+
+    private static final int ROW_COUNT = 50_000;
+    private static final int ITEM_COUNT = 400;
+    private static final long LATENCY_MILLIS = 5;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job playerUserLogJob;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+        jobLauncherTestUtils.setJob(playerUserLogJob);
+    }
+
+    @Test
+    @DisplayName("ASYNC 모드 잡은 모든 행을 읽고 쓴다")
+    void 비동기_파이프라인_잡_테스트() throws Exception {
+        long totalCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog", Long.class);
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("processingMode", PlayerUserLogBatchConfig.ProcessingMode.ASYNC.name())
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertEquals("playerUserLogAsyncStep", stepExecution.getStepName());
+        assertEquals(totalCount, stepExecution.getReadCount());
+        assertEquals(totalCount, stepExecution.getWriteCount());
+    }
+
+    @Test
+    @DisplayName("지연 프로세서 처리량은 풀 크기에 거의 비례하고 쓰기 순서는 입력 순서를 유지")
+    void 지연_프로세서_처리량_테스트() throws Exception {
+        long baseline = 0;
+        for (int poolSize : List.of(1, 4, 16)) {
+            List<Integer> written = new ArrayList<>();
+            long elapsed = runPipeline(poolSize, item -> {
+                Thread.sleep(LATENCY_MILLIS); // 보강 조회 대기 시간 흉내
+                return item;
+            }, written);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, written, "입력 순서대로 써야 합니다.");
+
+            if (poolSize == 1) {
+                baseline = elapsed;
+            }
+            double speedup = (double) baseline / elapsed;
+            log.info("poolSize={}: {} 건, {} ms, speedup {}", poolSize, ITEM_COUNT, elapsed, String.format("%.2f", speedup));
+            // sleep 기반이라 코어 수와 무관하게 풀 크기만큼 겹친다 (스케줄링 오차 감안 절반 이상)
+            assertTrue(speedup >= poolSize / 2.0, "poolSize=" + poolSize + " speedup=" + speedup);
+        }
+    }
+
+    @Test
+    @DisplayName("처리 중 예외는 쓰기 단계에서 그대로 던져져 청크가 롤백된다")
+    void 처리_예외_전파_테스트() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> runPipeline(4, item -> {
+            if (item == 123) {
+                throw new IllegalStateException("보강 조회 실패: " + item);
+            }
+            return item;
+        }, written));
+
+        assertEquals("보강 조회 실패: 123", exception.getMessage());
+        assertTrue(written.isEmpty(), "실패한 청크는 아무것도 쓰지 않아야 합니다.");
+    }
+
+    // 청크 한 개를 AsyncItemProcessor 로 제출하고 AsyncItemWriter 로 기다려 쓰는 데 걸린 시간 (ms)
+    private long runPipeline(int poolSize, ItemProcessor<Integer, Integer> delegate, List<Integer> written) throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.initialize();
+        try {
+            AsyncItemProcessor<Integer, Integer> processor = new AsyncItemProcessor<>();
+            processor.setDelegate(delegate);
+            processor.setTaskExecutor(executor);
+            AsyncItemWriter<Integer> writer = new AsyncItemWriter<>();
+            writer.setDelegate(chunk -> written.addAll(chunk.getItems()));
+
+            long start = System.currentTimeMillis();
+            Chunk<Future<Integer>> futures = new Chunk<>();
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                futures.add(processor.process(i));
+            }
+            writer.write(futures);
+            return Math.max(1, System.currentTimeMillis() - start);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.batch.config;
+
+import com.example.batch.TestConfig;
+import com.example.batch.partition.FileRangePartitioner;
+import com.example.batch.reader.PlayerUserLogFileFormat;
+import com.example.batch.service.PlayerUserLogIngestService;
+import com.example.batch.service.TestDataGeneratorService;
+import com.example.batch.service.WorkloadProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PlayerUserLogIngestJobTest {
+
+    private static final int ROW_COUNT = 200_000;
+    private static final String FINGERPRINT_SQL = """
+            SELECT COUNT(*) AS cnt, COUNT(DISTINCT member_id) AS members, COUNT(DISTINCT broadcast_id) AS broadcasts,
+                   COUNT(DISTINCT partner_id) AS partners, SUM(playtime) AS playtime, SUM(like_count) AS likes,
+                   SUM(product_order_amount) AS amount, SUM(product_order_quantity) AS quantity,
+                   COUNT(product_order_amount) AS orders, MIN(__time) AS min_time, MAX(__time) AS max_time
+            FROM player_userlog
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private PlayerUserLogIngestService playerUserLogIngestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job playerUserLogIngestJob;
+
+    @BeforeEach
+    void setUp() {
+        jobLauncherTestUtils.setJob(playerUserLogIngestJob);
+    }
+
+    @Test
+    @DisplayName("CSV: 매핑 리더 4 파티션 적재 결과는 FlatFileItemReader 적재 결과와 같다")
+    void CSV_매핑_리더_적재_테스트() throws Exception {
+        Path file = tempDir.resolve("player_userlog.csv");
+        testDataGeneratorService.generateLogFile(file, ROW_COUNT, WorkloadProfile.realistic(42));
+        매핑_리더와_기준_리더_비교(file);
+    }
+
+    @Test
+    @DisplayName("NDJSON: 매핑 리더 4 파티션 적재 결과는 FlatFileItemReader 적재 결과와 같다")
+    void NDJSON_매핑_리더_적재_테스트() throws Exception {
+        Path file = tempDir.resolve("player_userlog.ndjson");
+        testDataGeneratorService.generateLogFile(file, ROW_COUNT, WorkloadProfile.realistic(42));
+        매핑_리더와_기준_리더_비교(file);
+    }
+
+    @Test
+    @DisplayName("파일 구간 파티션은 줄 시작에서 나뉘고 헤더 다음부터 파일 끝까지 빈틈없이 덮는다")
+    void 파일_구간_파티션_테스트() throws Exception {
+        Path file = tempDir.resolve("player_userlog.csv");
+        testDataGeneratorService.generateLogFile(file, 10_000, WorkloadProfile.uniform(7));
+        byte[] bytes = Files.readAllBytes(file);
+        long headerEnd = PlayerUserLogFileFormat.HEADER.length() + 1;
+
+        for (int gridSize : List.of(1, 3, 8, 64)) {
+            Map<String, ExecutionContext> partitions = new FileRangePartitioner(file, true).partition(gridSize);
+            assertEquals(gridSize, partitions.size());
+
+            long expectedStart = headerEnd;
+            for (int i = 0; i < partitions.size(); i++) {
+                ExecutionContext context = partitions.get("partition" + i);
+                long start = context.getLong(FileRangePartitioner.START_OFFSET_KEY);
+                long end = context.getLong(FileRangePartitioner.END_OFFSET_KEY);
+                assertEquals(expectedStart, start);
+                assertEquals('\n', bytes[(int) start - 1], "파티션 시작은 줄 시작이어야 한다");
+                assertTrue(end > start);
+                expectedStart = end;
+            }
+            assertEquals(bytes.length, expectedStart);
+        }
+    }
+
+    private void 매핑_리더와_기준_리더_비교(Path file) throws Exception {
+        playerUserLogIngestService.deleteAll();
+        JobExecution flatFile = launch(file, PlayerUserLogIngestJobConfig.ReaderType.FLAT_FILE, 1);
+        Map<String, Object> expected = jdbcTemplate.queryForMap(FINGERPRINT_SQL);
+
+        playerUserLogIngestService.deleteAll();
+        JobExecution mapped = launch(file, PlayerUserLogIngestJobConfig.ReaderType.MAPPED, 4);
+        Map<String, Object> actual = jdbcTemplate.queryForMap(FINGERPRINT_SQL);
+
+        assertEquals(ROW_COUNT, ((Number) expected.get("CNT")).longValue());
+        assertEquals(expected, actual);
+        assertEquals(4, mapped.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith("playerUserLogIngestWorkerStep"))
+                .count());
+        for (JobExecution execution : List.of(flatFile, mapped)) {
+            assertEquals(ROW_COUNT, execution.getExecutionContext().getLong(PlayerUserLogIngestJobConfig.INGEST_ROWS_KEY));
+            assertEquals(Files.size(file), execution.getExecutionContext().getLong(PlayerUserLogIngestJobConfig.INGEST_BYTES_KEY));
+        }
+        log.info("{}: FLAT_FILE {} MB/s, {} rows/s / MAPPED(4) {} MB/s, {} rows/s", file.getFileName(),
+                String.format("%.1f", flatFile.getExecutionContext().getDouble(PlayerUserLogIngestJobConfig.INGEST_MB_PER_SECOND_KEY)),
+                String.format("%.0f", flatFile.getExecutionContext().getDouble(PlayerUserLogIngestJobConfig.INGEST_ROWS_PER_SECOND_KEY)),
+                String.format("%.1f", mapped.getExecutionContext().getDouble(PlayerUserLogIngestJobConfig.INGEST_MB_PER_SECOND_KEY)),
+                String.format("%.0f", mapped.getExecutionContext().getDouble(PlayerUserLogIngestJobConfig.INGEST_ROWS_PER_SECOND_KEY)));
+    }
+
+    private JobExecution launch(Path file, PlayerUserLogIngestJobConfig.ReaderType readerType, long threads) throws Exception {
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addString("inputFile", file.toString())
+                .addString("readerType", readerType.name())
+                .addLong("threads", threads)
+                .toJobParameters());
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        return jobExecution;
+    }
+}
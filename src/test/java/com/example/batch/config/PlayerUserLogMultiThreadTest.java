@@ -0,0 +1,150 @@
+package com.example.batch.config;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.partition.IdRangePartitioner;
+import com.example.batch.reader.PlayerUserLogJdbcItemReader;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+public class PlayerUserLogMultiThreadTest {
+
+    private static final int ROW_COUNT = 200_000;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job playerUserLogJob;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+        jobLauncherTestUtils.setJob(playerUserLogJob);
+    }
+
+    @Test
+    @DisplayName("id 구간 파티션은 겹치지 않고 전체 id 범위를 덮는다")
+    void id_구간_파티션_테스트() {
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM player_userlog", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM player_userlog", Long.class);
+
+        for (int gridSize : List.of(1, 3, 8)) {
+            Map<String, ExecutionContext> partitions = new IdRangePartitioner(jdbcTemplate, "player_userlog").partition(gridSize);
+            assertEquals(gridSize, partitions.size());
+
+            long expectedStart = minId;
+            for (int i = 0; i < gridSize; i++) {
+                ExecutionContext context = partitions.get("partition" + i);
+                assertEquals(expectedStart, context.getLong(IdRangePartitioner.MIN_ID_KEY));
+                expectedStart = context.getLong(IdRangePartitioner.MAX_ID_KEY) + 1;
+            }
+            assertEquals(maxId + 1, expectedStart);
+        }
+    }
+
+    @Test
+    @DisplayName("파티션 리더는 커밋 이후 실패해도 재시작 시 커밋된 행을 다시 읽지 않는다")
+    void 파티션_리더_재시작_테스트() throws Exception {
+        ExecutionContext partition = new IdRangePartitioner(jdbcTemplate, "player_userlog").partition(4).get("partition1");
+        long minId = partition.getLong(IdRangePartitioner.MIN_ID_KEY);
+        long maxId = partition.getLong(IdRangePartitioner.MAX_ID_KEY);
+
+        // 2 청크 커밋 후 세 번째 청크 도중 실패 (마지막 커밋 시점의 update 만 저장됨)
+        Set<Long> committedIds = new HashSet<>();
+        ExecutionContext savedContext = new ExecutionContext();
+        JdbcCursorItemReader<PlayerUserLog> reader = playerUserLogJdbcItemReader.createReader(minId, maxId);
+        reader.open(new ExecutionContext());
+        for (int i = 0; i < 2500; i++) {
+            PlayerUserLog item = reader.read();
+            if (i < 2000) {
+                committedIds.add(item.getId());
+            }
+            if (i == 1999) {
+                reader.update(savedContext);
+            }
+        }
+        reader.close();
+
+        JdbcCursorItemReader<PlayerUserLog> restarted = playerUserLogJdbcItemReader.createReader(minId, maxId);
+        restarted.open(savedContext);
+        long restartedCount = 0;
+        PlayerUserLog item;
+        while ((item = restarted.read()) != null) {
+            assertFalse(committedIds.contains(item.getId()), "커밋된 행을 다시 읽으면 안 됩니다: " + item.getId());
+            assertTrue(item.getId() >= minId && item.getId() <= maxId);
+            restartedCount++;
+        }
+        restarted.close();
+
+        Long rangeCount = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE id BETWEEN ? AND ?", Long.class, minId, maxId);
+        assertEquals(rangeCount, committedIds.size() + restartedCount);
+    }
+
+    @Test
+    @DisplayName("threads 1/2/4/8 처리량 비교: 모든 행을 정확히 한 번 읽고 쓴다")
+    void 스레드_수별_처리량_테스트() throws Exception {
+        long totalCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog", Long.class);
+
+        for (long threads : List.of(1L, 2L, 4L, 8L)) {
+            JobParameters jobParameters = new JobParametersBuilder()
+                    .addLong("threads", threads)
+                    .addLong("time", System.currentTimeMillis())
+                    .toJobParameters();
+
+            long start = System.currentTimeMillis();
+            JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+
+            String chunkStepName = threads > 1 ? "playerUserLogWorkerStep" : "playerUserLogStep";
+            List<StepExecution> chunkSteps = jobExecution.getStepExecutions().stream()
+                    .filter(stepExecution -> stepExecution.getStepName().startsWith(chunkStepName))
+                    .toList();
+            long readCount = chunkSteps.stream().mapToLong(StepExecution::getReadCount).sum();
+            long writeCount = chunkSteps.stream().mapToLong(StepExecution::getWriteCount).sum();
+
+            assertEquals(threads > 1 ? threads : 1, chunkSteps.size());
+            assertEquals(totalCount, readCount, "threads=" + threads);
+            assertEquals(totalCount, writeCount, "threads=" + threads);
+            log.info("threads={}: {} 건, {} ms, {} rows/s ({} 코어)", threads, readCount, elapsed,
+                    readCount * 1000 / elapsed, Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.batch.controller;
+
+import com.example.batch.TestConfig;
+import com.example.batch.config.PartnerAggregationBatchConfig;
+import com.example.batch.dto.JobExecutionProgressDto;
+import com.example.batch.repository.PartnerAggregationRepository;
+import com.example.batch.service.AsyncJobLaunchService;
+import com.example.batch.service.JobExecutionProgressService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class BatchControllerTest {
+
+    private static final int ROW_COUNT = 100_000;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private BatchController batchController;
+    @Autowired
+    private JobExecutionProgressService jobExecutionProgressService;
+    @Autowired
+    private AsyncJobLaunchService asyncJobLaunchService;
+    @Autowired
+    private Job playerUserLogJob;
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("/batch 는 실행 id 를 바로 반환하고 진행 상황 조회로 완료를 확인")
+    void 비동기_실행_테스트() throws Exception {
+        LocalDateTime startDateTime = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDateTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        long launchStart = System.currentTimeMillis();
+        // SINGLE 모드 tasklet 은 첫 실행에 강제 예외를 던지므로 파티션 모드로 실행
+        Long executionId = batchController.batch(startDateTime, endDateTime, "test", 0L,
+                PartnerAggregationBatchConfig.AggregationMode.PARTITIONED.name(), 3L, null, null, null, null);
+        long launchElapsed = System.currentTimeMillis() - launchStart;
+        assertNotNull(executionId);
+
+        JobExecutionProgressDto progress = awaitCompletion(executionId);
+        log.info("실행 요청 반환: {} ms, 잡 실행: {} ms", launchElapsed, progress.getElapsedMillis());
+        assertEquals("partnerAggregationJob", progress.getJobName());
+        assertEquals(BatchStatus.COMPLETED.name(), progress.getStatus());
+        assertTrue(progress.getWriteCount() > 0, "집계 결과를 저장해야 합니다.");
+        assertEquals(partnerAggregationRepository.count(), progress.getWriteCount(), "매니저 스텝을 중복 집계하면 안 됩니다.");
+        assertNotNull(progress.getEndTime());
+    }
+
+    @Test
+    @DisplayName("파티션 잡 진행 상황은 매니저 스텝을 중복 집계하지 않는다")
+    void 파티션_진행상황_테스트() throws Exception {
+        long totalCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog", Long.class);
+        Long executionId = asyncJobLaunchService.launch(playerUserLogJob, new JobParametersBuilder()
+                .addLong("threads", 4L)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+
+        JobExecutionProgressDto progress = awaitCompletion(executionId);
+        assertEquals(BatchStatus.COMPLETED.name(), progress.getStatus());
+        assertEquals(totalCount, progress.getReadCount());
+        assertEquals(totalCount, progress.getWriteCount());
+        assertEquals(5, progress.getSteps().size(), "매니저 1 + 워커 4");
+        assertTrue(progress.getThroughput() > 0);
+        log.info("threads=4: {} 건, {} ms, {} rows/s", progress.getReadCount(), progress.getElapsedMillis(),
+                String.format("%.0f", progress.getThroughput()));
+    }
+
+    @Test
+    @DisplayName("없는 실행 id 는 404")
+    void 없는_실행_조회_테스트() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> batchController.progress(Long.MAX_VALUE));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    private JobExecutionProgressDto awaitCompletion(Long executionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (System.currentTimeMillis() < deadline) {
+            JobExecutionProgressDto progress = jobExecutionProgressService.getProgress(executionId).orElseThrow();
+            if (!BatchStatus.valueOf(progress.getStatus()).isRunning()) {
+                return progress;
+            }
+            Thread.sleep(100);
+        }
+        fail("잡이 제한 시간 안에 끝나지 않았습니다: " + executionId);
+        return null;
+    }
+}
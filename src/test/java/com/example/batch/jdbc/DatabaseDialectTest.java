@@ -0,0 +1,48 @@
+package com.example.batch.jdbc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseDialectTest {
+
+    private static final String[] COLUMNS = {"k", "v"};
+    private static final String[] H2_TYPES = {"VARCHAR", "BIGINT"};
+    private static final String[] KEYS = {"k"};
+    private static final String[] UPDATES = {"v"};
+
+    @Test
+    @DisplayName("DB 제품명 -> 방언 (MariaDB 는 MySQL 구문)")
+    void 제품명_테스트() {
+        assertEquals(DatabaseDialect.H2, DatabaseDialect.of("H2"));
+        assertEquals(DatabaseDialect.MYSQL, DatabaseDialect.of("MySQL"));
+        assertEquals(DatabaseDialect.MYSQL, DatabaseDialect.of("MariaDB"));
+        assertThrows(IllegalStateException.class, () -> DatabaseDialect.of("Oracle"));
+    }
+
+    @Test
+    @DisplayName("upsert 는 덮어쓰기/가산, H2 는 파라미터를 컬럼 타입으로 캐스팅")
+    void upsert_구문_테스트() {
+        String h2 = DatabaseDialect.H2.upsertSql("t1", COLUMNS, H2_TYPES, KEYS, UPDATES, false);
+        assertTrue(h2.contains("USING (VALUES (CAST(? AS VARCHAR), CAST(? AS BIGINT))) s (k, v)"));
+        assertTrue(h2.contains("ON t.k = s.k"));
+        assertTrue(h2.contains("UPDATE SET v = s.v"));
+        assertTrue(DatabaseDialect.H2.upsertSql("t1", COLUMNS, H2_TYPES, KEYS, UPDATES, true).contains("UPDATE SET v = t.v + s.v"));
+
+        String mySql = DatabaseDialect.MYSQL.upsertSql("t1", COLUMNS, H2_TYPES, KEYS, UPDATES, false);
+        assertTrue(mySql.contains("VALUES (?, ?)"));
+        assertTrue(mySql.contains("ON DUPLICATE KEY UPDATE v = VALUES(v)"));
+        assertTrue(DatabaseDialect.MYSQL.upsertSql("t1", COLUMNS, H2_TYPES, KEYS, UPDATES, true)
+                .contains("ON DUPLICATE KEY UPDATE v = v + VALUES(v)"));
+    }
+
+    @Test
+    @DisplayName("이미 있는 키는 건너뛰는 insert")
+    void insert_ignore_구문_테스트() {
+        assertEquals("MERGE INTO t1 (k) KEY (k) VALUES (?)", DatabaseDialect.H2.insertIgnoreSql("t1", KEYS, KEYS));
+        assertEquals("INSERT IGNORE INTO t1 (k) VALUES (?)", DatabaseDialect.MYSQL.insertIgnoreSql("t1", KEYS, KEYS));
+        assertEquals("INSERT INTO t1 (k) SELECT 1", DatabaseDialect.H2.insertIgnoreSelectSql("t1", KEYS, "SELECT 1"));
+        assertEquals("INSERT IGNORE INTO t1 (k) SELECT 1", DatabaseDialect.MYSQL.insertIgnoreSelectSql("t1", KEYS, "SELECT 1"));
+    }
+}
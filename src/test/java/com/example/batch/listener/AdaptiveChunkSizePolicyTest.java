@@ -0,0 +1,116 @@
+package com.example.batch.listener;
+
+import com.example.batch.TestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SpringBatchTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class AdaptiveChunkSizePolicyTest {
+
+    // 느린 writer: 건당 1ms, 목표 100ms -> 이상적인 청크 크기는 약 100 건
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(100);
+    private static final int IDEAL_SIZE = 100;
+    private static final int ITEM_COUNT = 3_000;
+
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Test
+    @DisplayName("작은 청크에서 시작하면 목표 시간에 맞는 크기까지 커진다")
+    void 청크_크기_증가_수렴_테스트() throws Exception {
+        assertConverges(10);
+    }
+
+    @Test
+    @DisplayName("큰 청크에서 시작하면 목표 시간에 맞는 크기까지 작아진다")
+    void 청크_크기_감소_수렴_테스트() throws Exception {
+        assertConverges(400);
+    }
+
+    @Test
+    @DisplayName("한 번에 2 배 이상 바뀌지 않고 [min, max] 를 벗어나지 않는다")
+    void 청크_크기_경계_테스트() {
+        AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(new SimpleMeterRegistry(), 10, 500, 100, TARGET_LATENCY);
+        long millis = 1_000_000L;
+
+        // 100 건 1ms -> 이상값 10,000 이지만 2 배(200)까지만 보고 그 중간값
+        assertEquals(150, policy.nextSize(100, 100, millis));
+        // 100 건 10초 -> 이상값 1 이지만 절반(50)까지만 보고 그 중간값
+        assertEquals(75, policy.nextSize(100, 100, 10_000 * millis));
+        assertEquals(500, policy.nextSize(400, 400, millis));
+        assertEquals(10, policy.nextSize(12, 12, 10_000 * millis));
+        // 목표 시간에 맞으면 유지
+        assertEquals(100, policy.nextSize(100, 100, 100 * millis));
+    }
+
+    private void assertConverges(int initialSize) throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(meterRegistry, 1, 1_000, initialSize, TARGET_LATENCY);
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+
+        Job job = new JobBuilder("adaptiveChunkJob", jobRepository)
+                .start(new StepBuilder("adaptiveChunkStep", jobRepository)
+                        .<Integer, Integer>chunk(policy, transactionManager)
+                        .listener(policy)
+                        .reader(new ListItemReader<>(IntStream.range(0, ITEM_COUNT).boxed().toList()))
+                        .writer(chunk -> {
+                            chunkSizes.add(chunk.size());
+                            Thread.sleep(chunk.size());
+                        })
+                        .build())
+                .build();
+        jobLauncherTestUtils.setJob(job);
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        log.info("청크 크기 변화: {}", chunkSizes);
+
+        assertEquals(initialSize, chunkSizes.get(0));
+        // 마지막(잔여) 청크를 뺀 끝의 청크들이 이상적인 크기 근처에 머문다
+        List<Integer> settled = chunkSizes.subList(chunkSizes.size() - 6, chunkSizes.size() - 1);
+        for (int size : settled) {
+            assertTrue(size > IDEAL_SIZE * 0.6 && size < IDEAL_SIZE * 1.4,
+                    "청크 크기가 " + IDEAL_SIZE + " 근처로 수렴해야 합니다: " + chunkSizes);
+        }
+
+        double gauge = meterRegistry.get("batch.chunk.size")
+                .tags("job", "adaptiveChunkJob", "step", "adaptiveChunkStep").gauge().value();
+        assertEquals(jobExecution.getStepExecutions().iterator().next().getExecutionContext()
+                .getInt(AdaptiveChunkSizePolicy.CHUNK_SIZE_KEY), gauge);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.batch.listener;
+
+import com.example.batch.TestConfig;
+import com.example.batch.service.TestDataGeneratorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SpringBatchTest
+@AutoConfigureObservability
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class BatchMetricsListenerTest {
+
+    private static final int ROW_COUNT = 50_000;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private Job playerUserLogJob;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+        jobLauncherTestUtils.setJob(playerUserLogJob);
+    }
+
+    @Test
+    @DisplayName("파티션 실행의 read/write 카운터는 전체 건수와 같고 워커 스텝명으로 묶인다")
+    void 잡_스텝_청크_지표_테스트() throws Exception {
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addLong("threads", 4L)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+
+        // 매니저 스텝 합산분은 더하지 않으므로 정확히 전체 건수
+        assertEquals(ROW_COUNT, meterRegistry.find("batch.items.read").tag("job", "playerUserLogJob").counters()
+                .stream().mapToDouble(counter -> counter.count()).sum());
+        assertEquals(ROW_COUNT, meterRegistry.get("batch.items.written")
+                .tags("job", "playerUserLogJob", "step", "playerUserLogWorkerStep").counter().count());
+        assertEquals(ROW_COUNT, meterRegistry.get("batch.items.processed")
+                .tags("step", "playerUserLogWorkerStep").counter().count());
+
+        Timer chunkTimer = meterRegistry.get("batch.chunk")
+                .tags("step", "playerUserLogWorkerStep", "status", "SUCCESS").timer();
+        assertTrue(chunkTimer.count() > 0, "청크 커밋 시간이 기록되어야 합니다.");
+        assertTrue(meterRegistry.get("batch.job.throughput").tag("job", "playerUserLogJob").gauge().value() > 0);
+        log.info("청크 {} 개, 평균 {} ms, 최대 {} ms", chunkTimer.count(),
+                chunkTimer.mean(TimeUnit.MILLISECONDS), chunkTimer.max(TimeUnit.MILLISECONDS));
+
+        String scrape = prometheusMeterRegistry.scrape();
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("batch_items_written_total{")
+                && line.contains("step=\"playerUserLogWorkerStep\"")), "워커 스텝 write 카운터가 노출되어야 합니다.");
+        assertTrue(scrape.contains("batch_chunk_seconds_bucket"), "청크 시간 히스토그램이 노출되어야 합니다.");
+        assertTrue(scrape.contains("spring_batch_item_read_seconds"), "리더 fetch 시간이 노출되어야 합니다.");
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"), "커넥션 풀 대기 시간이 노출되어야 합니다.");
+    }
+}
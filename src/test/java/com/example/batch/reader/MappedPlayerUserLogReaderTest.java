@@ -0,0 +1,163 @@
+package com.example.batch.reader;
+
+import com.example.batch.config.PlayerUserLogIngestJobConfig;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.service.WorkloadProfile;
+import com.example.batch.service.WorkloadSampler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemReader;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPlayerUserLogReaderTest {
+
+    private static final int ROW_COUNT = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("작은 매핑 창에서도 창 경계에 걸친 줄을 다시 매핑해 FlatFileItemReader 와 같은 행을 읽는다")
+    void 매핑_창_경계_테스트() throws Exception {
+        for (String name : List.of("player_userlog.csv", "player_userlog.ndjson")) {
+            Path file = writeLogFile(name);
+            List<PlayerUserLog> expected = readFlatFile(file);
+            assertEquals(ROW_COUNT, expected.size());
+
+            // 한 줄(300 bytes 안팎)보다 조금 큰 창: 대부분의 창 끝에서 다시 매핑이 일어난다
+            for (int windowBytes : new int[]{1024, 4096, MappedPlayerUserLogReader.DEFAULT_WINDOW_BYTES}) {
+                MappedPlayerUserLogReader reader = new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.of(file),
+                        headerLength(file), -1, windowBytes);
+                reader.open(new ExecutionContext());
+                assertEquals(expected, readAll(reader), name + ", window=" + windowBytes);
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("재시작하면 마지막 update 위치부터 읽어 커밋된 행은 다시 읽지 않고 커밋되지 않은 행은 다시 읽는다")
+    void 재시작_테스트() throws Exception {
+        Path file = writeLogFile("player_userlog.ndjson");
+        List<PlayerUserLog> expected = readFlatFile(file);
+
+        ExecutionContext executionContext = new ExecutionContext();
+        MappedPlayerUserLogReader reader = new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.NDJSON, 0, -1, 1024);
+        reader.open(executionContext);
+        List<PlayerUserLog> actual = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            actual.add(reader.read());
+        }
+        reader.update(executionContext);
+        reader.read(); // 커밋 전에 실패한 읽기
+        reader.close();
+
+        MappedPlayerUserLogReader restarted = new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.NDJSON, 0, -1, 1024);
+        restarted.open(executionContext);
+        actual.addAll(readAll(restarted));
+        restarted.close();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("CRLF, 빈 줄, 따옴표, JSON 이스케이프, 키 순서, 없는 키를 처리한다")
+    void 줄_형식_테스트() throws Exception {
+        Path csv = directory.resolve("edge.csv");
+        Files.writeString(csv, PlayerUserLogFileFormat.HEADER + "\r\n"
+                + "2024-01-02 03:04:05,\"partner_001\",onair,broadcast_1,member_1,pageView,120,3,,,live\r\n"
+                + "\r\n"
+                + "2024-01-02T03:04:06.500,,,,,productOrder,,,15000,2,", StandardCharsets.UTF_8);
+        List<PlayerUserLog> rows = readAll(csv);
+        assertEquals(2, rows.size());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), rows.get(0).getTime());
+        assertEquals("partner_001", rows.get(0).getPartnerId());
+        assertEquals(120, rows.get(0).getPlaytime());
+        assertNull(rows.get(0).getProductOrderAmount());
+        assertEquals("live", rows.get(0).getBroadcastTypeCode());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 6, 500_000_000), rows.get(1).getTime());
+        assertNull(rows.get(1).getPartnerId());
+        assertEquals(15000, rows.get(1).getProductOrderAmount());
+        assertNull(rows.get(1).getBroadcastTypeCode());
+
+        Path ndjson = directory.resolve("edge.ndjson");
+        Files.writeString(ndjson, "{\"member_id\":\"m\\\"1\\u00e9\",\"__time\":\"2024-01-02T03:04:05\",\"playtime\":-7,\"partner_id\":null}\n"
+                + "  \n"
+                + "{ \"action\" : \"chat\" , \"like_count\" : 0 }\n", StandardCharsets.UTF_8);
+        rows = readAll(ndjson);
+        assertEquals(2, rows.size());
+        assertEquals("m\"1é", rows.get(0).getMemberId());
+        assertEquals(-7, rows.get(0).getPlaytime());
+        assertNull(rows.get(0).getPartnerId());
+        assertNull(rows.get(0).getAction());
+        assertEquals("chat", rows.get(1).getAction());
+        assertEquals(0, rows.get(1).getLikeCount());
+        assertNull(rows.get(1).getTime());
+    }
+
+    private Path writeLogFile(String name) throws Exception {
+        Path file = directory.resolve(name);
+        PlayerUserLogFileFormat format = PlayerUserLogFileFormat.of(file);
+        WorkloadSampler sampler = new WorkloadSampler(WorkloadProfile.realistic(42), LocalDateTime.of(2024, 1, 1, 0, 0));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            format.writeHeader(writer);
+            for (int i = 0; i < ROW_COUNT; i++) {
+                format.write(writer, sampler.next());
+            }
+        }
+        return file;
+    }
+
+    private List<PlayerUserLog> readAll(Path file) throws Exception {
+        MappedPlayerUserLogReader reader = new MappedPlayerUserLogReader(file, PlayerUserLogFileFormat.of(file),
+                headerLength(file), -1);
+        reader.open(new ExecutionContext());
+        List<PlayerUserLog> rows = readAll(reader);
+        reader.close();
+        return rows;
+    }
+
+    private static List<PlayerUserLog> readAll(MappedPlayerUserLogReader reader) {
+        List<PlayerUserLog> rows = new ArrayList<>();
+        for (PlayerUserLog item; (item = reader.read()) != null; ) {
+            rows.add(item);
+        }
+        return rows;
+    }
+
+    private static List<PlayerUserLog> readFlatFile(Path file) throws Exception {
+        FlatFileItemReader<PlayerUserLog> reader = PlayerUserLogIngestJobConfig.flatFileItemReader(file);
+        reader.open(new ExecutionContext());
+        List<PlayerUserLog> rows = new ArrayList<>();
+        for (PlayerUserLog item; (item = reader.read()) != null; ) {
+            rows.add(item);
+        }
+        reader.close();
+        return rows;
+    }
+
+    // CSV 헤더 줄 다음 위치 (FileRangePartitioner 가 첫 파티션 시작으로 주는 값)
+    private static long headerLength(Path file) throws Exception {
+        if (!PlayerUserLogFileFormat.of(file).hasHeader()) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return bytes.length;
+    }
+}
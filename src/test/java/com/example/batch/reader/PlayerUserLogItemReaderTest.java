@@ -0,0 +1,121 @@
+package com.example.batch.reader;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.repository.PlayerUserLogRepository;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PlayerUserLogItemReaderTest {
+
+    // 10M+ 는 -Dbenchmark.rows=10000000 (테스트 힙 4g 이상) 로 실행
+    private static final int ROW_COUNT = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int PAGE_SIZE = 1000;
+    private static final int SAMPLE_PAGES = 20;
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PlayerUserLogRepository playerUserLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+    }
+
+    @Test
+    @DisplayName("keyset 리더는 중간에 재시작해도 모든 행을 정확히 한 번 읽는다")
+    void keyset_재시작_테스트() throws Exception {
+        PlayerUserLogItemReader playerUserLogItemReader = new PlayerUserLogItemReader(playerUserLogRepository, PAGE_SIZE);
+        ExecutionContext executionContext = new ExecutionContext();
+        playerUserLogItemReader.open(executionContext);
+
+        // 2.5 청크 읽고 2 청크만 커밋된 상황 (마지막 커밋 시점의 update 만 저장됨)
+        long readCount = 0;
+        long idSum = 0;
+        for (int i = 0; i < 2 * PAGE_SIZE; i++) {
+            PlayerUserLog item = playerUserLogItemReader.read();
+            readCount++;
+            idSum += item.getId();
+        }
+        playerUserLogItemReader.update(executionContext);
+        for (int i = 0; i < PAGE_SIZE / 2; i++) {
+            playerUserLogItemReader.read(); // 커밋 전 실패로 버려지는 항목
+        }
+
+        // 재시작
+        ExecutionContext restartContext = new ExecutionContext(executionContext);
+        playerUserLogItemReader.open(restartContext);
+        PlayerUserLog item;
+        while ((item = playerUserLogItemReader.read()) != null) {
+            readCount++;
+            idSum += item.getId();
+        }
+
+        assertEquals(ROW_COUNT, readCount, "모든 행을 한 번씩 읽어야 합니다.");
+        assertEquals(jdbcTemplate.queryForObject("SELECT SUM(id) FROM player_userlog", Long.class), idSum);
+    }
+
+    @Test
+    @DisplayName("keyset 페이지 지연은 테이블 위치와 무관 (OFFSET 페이징과 비교)")
+    void keyset_offset_페이지_지연_비교() {
+        long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM player_userlog", Long.class);
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM player_userlog", Long.class);
+        int lastPage = ROW_COUNT / PAGE_SIZE - 1;
+
+        // 워밍업
+        measureKeyset(minId - 1);
+        measureOffset(0);
+
+        double keysetHead = measureKeyset(minId - 1);
+        double keysetTail = measureKeyset(maxId - PAGE_SIZE - 1);
+        double offsetHead = measureOffset(0);
+        double offsetTail = measureOffset(lastPage);
+
+        log.info("{} 건, 페이지당 평균 지연(ms) - keyset: 앞 {} / 끝 {}, OFFSET: 앞 {} / 끝 {}",
+                ROW_COUNT, String.format("%.2f", keysetHead), String.format("%.2f", keysetTail),
+                String.format("%.2f", offsetHead), String.format("%.2f", offsetTail));
+
+        // 지연 측정은 환경 영향이 커서 넉넉하게: keyset 은 끝 페이지도 앞 페이지와 같은 수준이어야 한다
+        assertTrue(keysetTail < keysetHead * 3, "keyset 페이지 지연은 위치와 무관해야 합니다.");
+    }
+
+    private double measureKeyset(long lastId) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLE_PAGES; i++) {
+            List<PlayerUserLog> page = playerUserLogRepository.findNextPage(lastId, PAGE_SIZE);
+            assertFalse(page.isEmpty());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SAMPLE_PAGES;
+    }
+
+    private double measureOffset(int pageNumber) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLE_PAGES; i++) {
+            assertTrue(playerUserLogRepository.findAll(PageRequest.of(pageNumber, PAGE_SIZE)).hasContent());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SAMPLE_PAGES;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.batch.reader;
+
+import com.example.batch.TestConfig;
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.entity.PlayerUserLog;
+import com.example.batch.service.MemberDictionaryService;
+import com.example.batch.service.TestDataGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PlayerUserLogRowAllocationTest {
+
+    // 10M 은 -Dbenchmark.rows=10000000 (테스트 힙 4g 이상), GC 로그는 -Xlog:gc 또는 -XX:StartFlightRecording 으로 함께 확인
+    private static final int ROW_COUNT = Integer.getInteger("benchmark.rows", 200_000);
+
+    private final LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.DAYS);
+    private final LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PlayerUserLogJdbcItemReader playerUserLogJdbcItemReader;
+
+    @Autowired
+    private MemberDictionaryService memberDictionaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        testDataGeneratorService.generateJdbcTestData(ROW_COUNT);
+        memberDictionaryService.registerMembers(startDate, endDate);
+    }
+
+    @Test
+    @DisplayName("경량 행은 엔티티와 같은 값을 담는다")
+    void 경량_행_값_비교_테스트() throws Exception {
+        // 경량 행 리더는 정렬하지 않으므로 id 로 맞춰 비교한다
+        CodeDictionary partnerIds = new CodeDictionary();
+        CodeDictionary codes = new CodeDictionary();
+        Map<Integer, String> memberIds = new HashMap<>();
+        jdbcTemplate.query("SELECT member_ordinal, member_id FROM member_dictionary",
+                (RowCallbackHandler) rs -> memberIds.put(rs.getInt(1), rs.getString(2)));
+        JdbcCursorItemReader<PlayerUserLog> entityReader = playerUserLogJdbcItemReader.createReader(startDate, endDate);
+        JdbcCursorItemReader<PlayerUserLogRow> rowReader = playerUserLogJdbcItemReader.createRowReader(
+                startDate, endDate, partnerIds, codes, null);
+        entityReader.open(new ExecutionContext());
+        rowReader.open(new ExecutionContext());
+        try {
+            Map<Long, PlayerUserLog> decoded = new HashMap<>(ROW_COUNT * 2);
+            PlayerUserLogRow row;
+            while ((row = rowReader.read()) != null) {
+                decoded.put(row.getId(), PlayerUserLogRows.toEntity(row, partnerIds, codes, memberIds::get));
+            }
+            PlayerUserLog entity;
+            long count = 0;
+            while ((entity = entityReader.read()) != null) {
+                entity.setCreatedAt(null); // 경량 행은 broadcast_id, created_at 을 읽지 않는다
+                entity.setBroadcastId(null);
+                entity.setTime(entity.getTime().truncatedTo(ChronoUnit.MILLIS)); // epoch millis 정밀도
+                assertEquals(entity, decoded.get(entity.getId()));
+                count++;
+            }
+            assertEquals(ROW_COUNT, count);
+            assertEquals(ROW_COUNT, decoded.size());
+            log.info("사전 크기: partner_id {} 개, 상태/유형 코드 {} 개, member_id {} 개",
+                    partnerIds.size(), codes.size(), memberIds.size());
+        } finally {
+            entityReader.close();
+            rowReader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("행당 할당 바이트/GC 횟수: 엔티티 리더 vs 경량 행 리더")
+    void 행당_할당량_비교_테스트() throws Exception {
+        // JIT 워밍업 후 두 번째 실행을 측정
+        readAll(() -> playerUserLogJdbcItemReader.createReader(startDate, endDate));
+        readAll(() -> playerUserLogJdbcItemReader.createRowReader(startDate, endDate, new CodeDictionary(), new CodeDictionary(), null));
+
+        Measurement entity = readAll(() -> playerUserLogJdbcItemReader.createReader(startDate, endDate));
+        Measurement row = readAll(() -> playerUserLogJdbcItemReader.createRowReader(
+                startDate, endDate, new CodeDictionary(), new CodeDictionary(), null));
+
+        log.info("엔티티 리더: {} 건, 행당 {} bytes, GC {} 회 / {} ms, {} ms",
+                entity.rows, entity.bytesPerRow(), entity.gcCount, entity.gcMillis, entity.elapsedMillis);
+        log.info("경량 행 리더: {} 건, 행당 {} bytes, GC {} 회 / {} ms, {} ms",
+                row.rows, row.bytesPerRow(), row.gcCount, row.gcMillis, row.elapsedMillis);
+
+        assertEquals(entity.rows, row.rows);
+        assertTrue(row.bytesPerRow() < entity.bytesPerRow(),
+                "경량 행 리더의 행당 할당량이 더 작아야 합니다: " + row.bytesPerRow() + " >= " + entity.bytesPerRow());
+    }
+
+    private <T> Measurement readAll(Supplier<JdbcCursorItemReader<T>> readerFactory) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.currentTimeMillis();
+
+        JdbcCursorItemReader<T> reader = readerFactory.get();
+        reader.open(new ExecutionContext());
+        long rows = 0;
+        try {
+            while (reader.read() != null) {
+                rows++;
+            }
+        } finally {
+            reader.close();
+        }
+
+        return new Measurement(rows,
+                threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore,
+                gcCount() - gcCountBefore,
+                gcMillis() - gcMillisBefore,
+                System.currentTimeMillis() - start);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private record Measurement(long rows, long allocatedBytes, long gcCount, long gcMillis, long elapsedMillis) {
+        long bytesPerRow() {
+            return rows == 0 ? 0 : allocatedBytes / rows;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.batch.reader;
+
+import com.example.batch.aggregation.CodeDictionary;
+import com.example.batch.aggregation.PlayerAction;
+import com.example.batch.entity.PlayerUserLog;
+
+import java.sql.Timestamp;
+import java.util.function.IntFunction;
+
+// 테스트 검증용: 경량 행을 엔티티로 복원
+public final class PlayerUserLogRows {
+
+    private PlayerUserLogRows() {
+    }
+
+    // partnerIds, codes 는 이 행을 만든 리더의 사전, memberIds 는 ordinal -> member_id
+    public static PlayerUserLog toEntity(PlayerUserLogRow row, CodeDictionary partnerIds, CodeDictionary codes,
+                                         IntFunction<String> memberIds) {
+        return PlayerUserLog.builder()
+                .id(row.getId())
+                .time(new Timestamp(row.getTimeMillis()).toLocalDateTime())
+                .partnerId(partnerIds.decode(row.getPartnerCode()))
+                .broadcastStateCode(codes.decode(row.getBroadcastStateCode()))
+                .memberId(row.getMemberCode() >= 0 ? memberIds.apply(row.getMemberCode()) : null)
+                .action(row.getActionOrdinal() >= 0 ? PlayerAction.fromOrdinal(row.getActionOrdinal()).getCode() : null)
+                .playtime(row.isNull(PlayerUserLogRow.PLAYTIME_NULL) ? null : row.getPlaytime())
+                .likeCount(row.isNull(PlayerUserLogRow.LIKE_COUNT_NULL) ? null : row.getLikeCount())
+                .productOrderAmount(row.isNull(PlayerUserLogRow.PRODUCT_ORDER_AMOUNT_NULL) ? null : row.getProductOrderAmount())
+                .productOrderQuantity(row.isNull(PlayerUserLogRow.PRODUCT_ORDER_QUANTITY_NULL) ? null : row.getProductOrderQuantity())
+                .broadcastTypeCode(codes.decode(row.getBroadcastTypeCode()))
+                .build();
+    }
+}
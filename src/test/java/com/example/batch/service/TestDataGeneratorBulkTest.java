@@ -0,0 +1,100 @@
+package com.example.batch.service;
+
+import com.example.batch.TestConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class TestDataGeneratorBulkTest {
+
+    // 1억 건 적재는 -Dbenchmark.rows=100000000 (H2 in-memory 는 힙 크기에 맞춰 조정)
+    private static final long ROW_COUNT = Long.getLong("benchmark.rows", 500_000L);
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("대량 적재 모드는 요청 건수를 기존 생성기와 같은 분포로 넣는다")
+    void 대량_적재_테스트() {
+        long jdbcRows = Math.min(ROW_COUNT, 200_000L);
+        long jdbcStart = System.currentTimeMillis();
+        testDataGeneratorService.generateJdbcTestData((int) jdbcRows);
+        long jdbcElapsed = Math.max(1, System.currentTimeMillis() - jdbcStart);
+
+        long bulkStart = System.currentTimeMillis();
+        long count = testDataGeneratorService.generateBulkTestData(ROW_COUNT, Runtime.getRuntime().availableProcessors());
+        long bulkElapsed = Math.max(1, System.currentTimeMillis() - bulkStart);
+        log.info("JDBC batch: {} rows/s, 대량 적재: {} rows/s ({} 코어)", jdbcRows * 1000 / jdbcElapsed,
+                ROW_COUNT * 1000 / bulkElapsed, Runtime.getRuntime().availableProcessors());
+
+        assertEquals(ROW_COUNT, count);
+        assertEquals(12L, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT action) FROM player_userlog", Long.class));
+        assertEquals(5L, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT partner_id) FROM player_userlog", Long.class));
+        assertEquals(8L, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT broadcast_state_code) FROM player_userlog", Long.class));
+        // 재생시간/좋아요는 pageView 만, 주문액/수량은 productOrder 만
+        assertEquals(0L, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM player_userlog
+                WHERE (action = 'pageView') <> (playtime IS NOT NULL AND like_count IS NOT NULL)
+                   OR (action = 'productOrder') <> (product_order_amount IS NOT NULL AND product_order_quantity IS NOT NULL)
+                """, Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM player_userlog
+                WHERE __time < DATEADD(DAY, -31, CURRENT_TIMESTAMP) OR __time > CURRENT_TIMESTAMP
+                   OR LENGTH(broadcast_id) <> 16 OR LENGTH(member_id) <> 15 OR broadcast_type_code <> 'live'
+                """, Long.class));
+    }
+
+    @Test
+    @DisplayName("LOAD DATA 용 TSV 행 형식")
+    void TSV_형식_테스트() throws Exception {
+        long startEpochSecond = 1_700_000_000L;
+        StringWriter writer = new StringWriter();
+        TestDataGeneratorService.writeTsv(writer, 10_000, new SplittableRandom(42), startEpochSecond);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(10_000, lines.length);
+        Set<String> actions = new HashSet<>();
+        for (String line : lines) {
+            String[] fields = line.split("\t", -1);
+            assertEquals(11, fields.length, line);
+            long time = Long.parseLong(fields[0]);
+            assertTrue(time >= startEpochSecond && time < startEpochSecond + 30L * 24 * 60 * 60, line);
+            assertTrue(fields[1].matches("partner_00[1-5]"), line);
+            assertTrue(fields[3].matches("broadcast_\\d{6}"), line);
+            assertTrue(fields[4].matches("member_\\d{8}"), line);
+            actions.add(fields[5]);
+            boolean pageView = fields[5].equals("pageView");
+            boolean productOrder = fields[5].equals("productOrder");
+            assertEquals(pageView, !fields[6].equals("\\N"), line);
+            assertEquals(pageView, !fields[7].equals("\\N"), line);
+            assertEquals(productOrder, !fields[8].equals("\\N"), line);
+            assertEquals(productOrder, !fields[9].equals("\\N"), line);
+            if (productOrder) {
+                int amount = Integer.parseInt(fields[8]);
+                assertTrue(amount >= 1000 && amount < 101_000, line);
+            }
+            assertEquals("live", fields[10]);
+        }
+        assertEquals(12, actions.size());
+    }
+}
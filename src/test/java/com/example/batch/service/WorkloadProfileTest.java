@@ -0,0 +1,131 @@
+package com.example.batch.service;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PartnerAggregation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class WorkloadProfileTest {
+
+    private static final int ROW_COUNT = 200_000;
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private TestDataGeneratorService testDataGeneratorService;
+
+    @Autowired
+    private PartnerAggregationService partnerAggregationService;
+
+    @Autowired
+    private PartnerAggregationStreamingService partnerAggregationStreamingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("같은 seed, 같은 시작일은 같은 데이터, 다른 seed 는 다른 데이터")
+    void seed_재현_테스트() {
+        // 시작일을 고정하므로 실행 날짜(자정 경계)와 무관
+        WorkloadProfile profile = WorkloadProfile.realistic(7).toBuilder().startDate(START_DATE).build();
+        testDataGeneratorService.generateProfiledTestData(ROW_COUNT, profile);
+        List<Map<String, Object>> first = signature();
+        testDataGeneratorService.generateProfiledTestData(ROW_COUNT, profile);
+        List<Map<String, Object>> second = signature();
+        testDataGeneratorService.generateProfiledTestData(ROW_COUNT, profile.toBuilder().seed(8).build());
+        List<Map<String, Object>> other = signature();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_userlog WHERE __time < ? OR __time >= ?",
+                Long.class, profile.startTime(), profile.startTime().plusDays(profile.getPeriodDays())));
+    }
+
+    @Test
+    @DisplayName("realistic 프로파일: 파트너 쏠림, 회원 재방문, 저녁 피크, 액션 비율")
+    void 분포_테스트() {
+        WorkloadProfile profile = WorkloadProfile.realistic(42);
+        testDataGeneratorService.generateProfiledTestData(ROW_COUNT, profile);
+
+        // Zipf(1.1) 1000 개 파트너에서 1 위 파트너 기대 비율
+        double expectedTopShare = WorkloadSampler.zipfCdf(profile.getPartnerCount(), profile.getPartnerSkew())[0];
+        long topPartnerRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE partner_id = 'partner_001'", Long.class);
+        assertEquals(expectedTopShare, (double) topPartnerRows / ROW_COUNT, 0.01);
+
+        long distinctMembers = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT member_id) FROM player_userlog", Long.class);
+        assertTrue(distinctMembers < ROW_COUNT * 0.6, "재방문 회원이 있어야 합니다: " + distinctMembers);
+
+        long peakHourRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE HOUR(__time) = 20", Long.class);
+        long troughHourRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE HOUR(__time) = 3", Long.class);
+        assertTrue(peakHourRows > troughHourRows * 5, peakHourRows + " vs " + troughHourRows);
+
+        long pageViews = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM player_userlog WHERE action = 'pageView'", Long.class);
+        assertEquals(0.55, (double) pageViews / ROW_COUNT, 0.01);
+
+        log.info("1 위 파트너 {}%, 회원 {} 명 (행당 {} 회), 20시/3시 = {}/{}",
+                Math.round(topPartnerRows * 100.0 / ROW_COUNT), distinctMembers,
+                String.format("%.2f", (double) ROW_COUNT / distinctMembers), peakHourRows, troughHourRows);
+    }
+
+    @Test
+    @DisplayName("hotPartner 프로파일에서 SQL / 스트리밍 엔진 결과 일치 및 소요시간")
+    void 엔진_벤치마크_테스트() {
+        testDataGeneratorService.generateProfiledTestData(ROW_COUNT, WorkloadProfile.hotPartner(42));
+        LocalDateTime startDate = LocalDateTime.now().minusDays(31).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        long sqlStart = System.currentTimeMillis();
+        List<PartnerAggregation> expected = partnerAggregationService.aggregateByDateRange(startDate, endDate);
+        long sqlElapsed = System.currentTimeMillis() - sqlStart;
+        long streamingStart = System.currentTimeMillis();
+        Map<String, PartnerAggregation> streamed = partnerAggregationStreamingService.aggregateByDateRange(startDate, endDate)
+                .stream().collect(Collectors.toMap(PartnerAggregation::getPartnerId, Function.identity()));
+        long streamingElapsed = System.currentTimeMillis() - streamingStart;
+        log.info("hotPartner: 파트너 {} 개, SQL 엔진 {} ms, 스트리밍 엔진 {} ms", expected.size(), sqlElapsed, streamingElapsed);
+
+        assertEquals(expected.size(), streamed.size());
+        for (PartnerAggregation agg : expected) {
+            PartnerAggregation s = streamed.get(agg.getPartnerId());
+            assertNotNull(s, agg.getPartnerId());
+            assertEquals(agg.getTotalUv(), s.getTotalUv());
+            assertEquals(agg.getTotalPv(), s.getTotalPv());
+            assertEquals(agg.getTotalPlaytime(), s.getTotalPlaytime());
+            assertEquals(agg.getTotalProductOrderAmount(), s.getTotalProductOrderAmount());
+        }
+    }
+
+    private List<Map<String, Object>> signature() {
+        return jdbcTemplate.queryForList("""
+                SELECT partner_id, action, COUNT(*) AS cnt, COUNT(DISTINCT member_id) AS uv,
+                    SUM(COALESCE(playtime, 0)) AS playtime, SUM(COALESCE(product_order_amount, 0)) AS amount,
+                    MIN(__time) AS min_time, MAX(__time) AS max_time
+                FROM player_userlog
+                GROUP BY partner_id, action
+                ORDER BY partner_id, action
+                """);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.batch.writer;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.repository.PartnerAggregationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class PartnerAggregationJdbcBatchWriterTest {
+
+    private static final int ROW_COUNT = 50_000;
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("JDBC batch writer 와 JpaItemWriter 의 저장 결과/처리량 비교")
+    void writer_처리량_비교_테스트() throws Exception {
+        JpaItemWriter<PartnerAggregation> jpaItemWriter = new JpaItemWriter<>();
+        jpaItemWriter.setEntityManagerFactory(entityManagerFactory);
+        jpaItemWriter.afterPropertiesSet();
+
+        long jpaElapsed = write(jpaItemWriter, createRows("JPA"));
+        long jpaCount = countByKeyPrefix("JPA");
+
+        long jdbcElapsed = write(new PartnerAggregationJdbcBatchWriter(jdbcTemplate, CHUNK_SIZE), createRows("JDBC"));
+        long jdbcCount = countByKeyPrefix("JDBC");
+
+        log.info("{} 건 저장 - JpaItemWriter: {} ms ({} rows/s), JDBC batch: {} ms ({} rows/s)",
+                ROW_COUNT, jpaElapsed, ROW_COUNT * 1000L / Math.max(1, jpaElapsed),
+                jdbcElapsed, ROW_COUNT * 1000L / Math.max(1, jdbcElapsed));
+
+        assertEquals(ROW_COUNT, jpaCount);
+        assertEquals(ROW_COUNT, jdbcCount);
+
+        PartnerAggregation saved = partnerAggregationRepository.findAll().stream()
+                .filter(agg -> "JDBC-7".equals(agg.getAggregationKey()))
+                .findFirst()
+                .orElseThrow();
+        assertNotNull(saved.getId());
+        assertNotNull(saved.getCreatedAt());
+        assertEquals(7L, saved.getTotalPv());
+        assertArrayEquals(new byte[]{1, 2, 3}, saved.getUvSketch());
+    }
+
+    @Test
+    @DisplayName("batchSize 는 양수여야 한다")
+    void batchSize_검증_테스트() {
+        assertThrows(IllegalArgumentException.class, () -> new PartnerAggregationJdbcBatchWriter(jdbcTemplate, 0));
+    }
+
+    // 청크 단위 트랜잭션으로 쓰기 (스텝과 같은 방식)
+    private long write(ItemWriter<PartnerAggregation> writer, List<PartnerAggregation> rows) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < rows.size(); i += CHUNK_SIZE) {
+            Chunk<PartnerAggregation> chunk = new Chunk<>(rows.subList(i, Math.min(i + CHUNK_SIZE, rows.size())));
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    writer.write(chunk);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private long countByKeyPrefix(String prefix) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM partner_aggregation WHERE aggregation_key LIKE ?", Long.class, prefix + "-%");
+    }
+
+    private List<PartnerAggregation> createRows(String prefix) {
+        LocalDateTime aggregationDate = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<PartnerAggregation> rows = new ArrayList<>(ROW_COUNT);
+        for (long i = 0; i < ROW_COUNT; i++) {
+            rows.add(PartnerAggregation.builder()
+                    .partnerId("partner_" + (i % 100))
+                    .totalUv(i).totalPv(i).totalPlaytime(i).totalChatCount(i).totalLikeCount(i)
+                    .totalProductClickCount(i).totalProductOrderCount(i).totalProductOrderAmount(i)
+                    .totalProductOrderQuantity(i).totalProductOrderCancelCount(i).totalBannerClickCount(i)
+                    .totalCouponClickCount(i).totalRewardNewCount(i).totalRewardCompleteCount(i)
+                    .totalPurchaseVerifyingCount(i).totalQuizNewCount(i).totalShareClickCount(i)
+                    .aggregationDate(aggregationDate)
+                    .aggregationType("MINUTELY")
+                    .aggregationKey(prefix + "-" + i)
+                    .uvSketch(new byte[]{1, 2, 3})
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.batch.writer;
+
+import com.example.batch.TestConfig;
+import com.example.batch.entity.PartnerAggregation;
+import com.example.batch.jdbc.DatabaseDialect;
+import com.example.batch.repository.PartnerAggregationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestConfig.class)
+@ActiveProfiles("test")
+class PartnerAggregationUpsertWriterTest {
+
+    @Autowired
+    private PartnerAggregationUpsertWriter partnerAggregationUpsertWriter;
+
+    @Autowired
+    private PartnerAggregationRepository partnerAggregationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        partnerAggregationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("같은 (partner, type, key) 는 갱신, 새 키는 insert, created_at 은 유지")
+    void upsert_테스트() {
+        write(createRows(100, 1L));
+        LocalDateTime firstCreatedAt = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM partner_aggregation WHERE aggregation_key = 'key-7'", LocalDateTime.class);
+
+        // 기존 100 개 갱신 + 신규 50 개
+        write(createRows(150, 2L));
+
+        assertEquals(150L, partnerAggregationRepository.countAllData());
+        assertEquals(2L * 7, jdbcTemplate.queryForObject(
+                "SELECT total_pv FROM partner_aggregation WHERE aggregation_key = 'key-7'", Long.class));
+        assertArrayEquals(new byte[]{1, 2, 14}, jdbcTemplate.queryForObject(
+                "SELECT uv_sketch FROM partner_aggregation WHERE aggregation_key = 'key-7'", byte[].class));
+        assertEquals(firstCreatedAt, jdbcTemplate.queryForObject(
+                "SELECT created_at FROM partner_aggregation WHERE aggregation_key = 'key-7'", LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("aggregation_type/key 가 없는 기간 집계 행은 매번 insert")
+    void 키_없는_행_insert_테스트() {
+        PartnerAggregation row = createRows(1, 1L).get(0);
+        row.setAggregationType(null);
+        row.setAggregationKey(null);
+
+        write(List.of(row));
+        write(List.of(row));
+
+        assertEquals(2L, partnerAggregationRepository.countAllData());
+    }
+
+    @Test
+    @DisplayName("DB 별 upsert 구문")
+    void upsert_구문_테스트() {
+        assertTrue(PartnerAggregationUpsertWriter.buildUpsertSql(DatabaseDialect.H2).contains("MERGE INTO partner_aggregation"));
+        assertTrue(PartnerAggregationUpsertWriter.buildUpsertSql(DatabaseDialect.MYSQL).contains("ON DUPLICATE KEY UPDATE"));
+        assertFalse(PartnerAggregationUpsertWriter.buildUpsertSql(DatabaseDialect.MYSQL).contains("created_at = VALUES"));
+    }
+
+    private void write(List<PartnerAggregation> rows) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> partnerAggregationUpsertWriter.write(new Chunk<>(rows)));
+    }
+
+    private List<PartnerAggregation> createRows(int count, long multiplier) {
+        LocalDateTime aggregationDate = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<PartnerAggregation> rows = new ArrayList<>(count);
+        for (long i = 0; i < count; i++) {
+            long value = i * multiplier;
+            rows.add(PartnerAggregation.builder()
+                    .partnerId("partner_" + (i % 10))
+                    .totalUv(value).totalPv(value).totalPlaytime(value).totalChatCount(value).totalLikeCount(value)
+                    .totalProductClickCount(value).totalProductOrderCount(value).totalProductOrderAmount(value)
+                    .totalProductOrderQuantity(value).totalProductOrderCancelCount(value).totalBannerClickCount(value)
+                    .totalCouponClickCount(value).totalRewardNewCount(value).totalRewardCompleteCount(value)
+                    .totalPurchaseVerifyingCount(value).totalQuizNewCount(value).totalShareClickCount(value)
+                    .aggregationDate(aggregationDate)
+                    .aggregationType("DAILY")
+                    .aggregationKey("key-" + i)
+                    .uvSketch(new byte[]{1, 2, (byte) value})
+                    .build());
+        }
+        return rows;
+    }
+}